@@ -255,6 +255,13 @@ namespace powerAuth
          Constants.h and MINIMAL_PASSWORD_LENGTH constant for details)
          */
         cc7::ByteArray userPassword;
+        /**
+         If true, then `userPassword` contains a knowledge factor unlock key, previously
+         derived with `Session::deriveKnowledgeUnlockKey()` method. In this case, the expensive
+         PBKDF2 derivation is skipped during the keys unlock. Such keys cannot be used
+         to lock the signature keys, for example, when the activation is completed.
+         */
+        bool userPasswordIsDerivedKey = false;
     };
     
     
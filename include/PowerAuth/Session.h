@@ -354,6 +354,20 @@ namespace powerAuth
          */
         ErrorCode changeUserPassword(const cc7::ByteRange & old_password, const cc7::ByteRange & new_password);
         
+        /**
+         Derives a knowledge factor unlock key from the provided |password|. The derived key is stored
+         to |out_key| and can be later used as SignatureUnlockKeys.userPassword, together with
+         SignatureUnlockKeys.userPasswordIsDerivedKey flag set to true. This allows the application
+         to perform the expensive PBKDF2 derivation only once, for multiple signature calculations.
+         
+         Be aware that the derived key is valid only until the password is changed.
+         
+         Returns EC_Ok,         if operation succeeded
+                 EC_WrongParam, if the password is too short
+                 EC_WrongState, if the session has no valid activation
+         */
+        ErrorCode deriveKnowledgeUnlockKey(const cc7::ByteRange & password, cc7::ByteArray & out_key) const;
+        
         /**
          Adds a key for biometry factor. You have to provide encrypted vault key |c_vault_key| and
          |keys| structure where the valid possessionUnlockKey is set. The |keys| structure also must
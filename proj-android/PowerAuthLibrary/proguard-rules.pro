@@ -25,6 +25,14 @@
 -keep class io.getlime.security.powerauth.sdk.impl.PowerAuthPrivateTokenData {
     <fields>;
 }
+-keep class io.getlime.security.powerauth.sdk.impl.ActivationStatusCache$Entry {
+    <init>(...);
+    <fields>;
+}
+-keep class io.getlime.security.powerauth.networking.client.HttpResponseCache$PersistedEntry {
+    <init>(...);
+    <fields>;
+}
 -keepclassmembers class io.getlime.core.rest.model.** {
     <fields>;
 }
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.core;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class SessionStateSnapshotTest {
+
+    private static final String CONFIGURATION = "ARDDj6EB6iAUtNmNxKM/BsbaEEs5bP+yVmyjfhQDoox3LDwBAUEEQQ7CWNKAi0EgCfOvd/srfqz4oqhTMLwsT4r7sPLRfqICRw9cCMs/Uoo/F2rIz+KKEcBxbnH9bMk8Ju3K1wmjbA==";
+
+    private Session session;
+
+    @Before
+    public void setUp() {
+        session = new Session(new SessionSetup(CONFIGURATION, null), new CoreTimeTestService());
+    }
+
+    @After
+    public void tearDown() {
+        session.destroy();
+    }
+
+    @Test
+    public void testInitialSnapshot() {
+        assertEmptyState(session.getStateSnapshot());
+        assertFalse(session.hasValidActivation());
+        assertFalse(session.hasPendingActivation());
+        assertNull(session.getActivationIdentifier());
+        assertNull(session.getActivationFingerprint());
+        assertFalse(session.hasBiometryFactor());
+        assertFalse(session.hasPendingProtocolUpgrade());
+    }
+
+    @Test
+    public void testActivationStepsRepublishSnapshot() {
+        Session.StateSnapshot snapshot = session.getStateSnapshot();
+        final ActivationStep1Result step1Result = session.startActivation(new ActivationStep1Param(null, null));
+        assertEquals(ErrorCode.OK, step1Result.errorCode);
+        snapshot = assertRepublished(snapshot);
+        assertTrue(snapshot.hasPendingActivation);
+        assertFalse(snapshot.hasValidActivation);
+        assertTrue(session.hasPendingActivation());
+
+        // Invalid server response. The session must publish whatever state the failed step left behind.
+        final ActivationStep2Result step2Result = session.validateActivationResponse(new ActivationStep2Param("ACTIVATION-ID", "AAAA", "AAAA", null));
+        assertNotEquals(ErrorCode.OK, step2Result.errorCode);
+        snapshot = assertRepublished(snapshot);
+        assertFalse(snapshot.hasValidActivation);
+
+        final int completeResult = session.completeActivation(new SignatureUnlockKeys(new byte[16], null, new Password("1234")));
+        assertNotEquals(ErrorCode.OK, completeResult);
+        snapshot = assertRepublished(snapshot);
+        assertFalse(snapshot.hasValidActivation);
+
+        session.resetSession(false);
+        snapshot = assertRepublished(snapshot);
+        assertEmptyState(snapshot);
+        assertFalse(session.hasPendingActivation());
+    }
+
+    @Test
+    public void testDeserializeStateRepublishesSnapshot() {
+        final byte[] emptyState = session.serializedState();
+        assertEquals(ErrorCode.OK, session.startActivation(new ActivationStep1Param(null, null)).errorCode);
+        Session.StateSnapshot snapshot = session.getStateSnapshot();
+        assertTrue(snapshot.hasPendingActivation);
+
+        session.deserializeState(emptyState);
+        snapshot = assertRepublished(snapshot);
+        assertEmptyState(snapshot);
+
+        // Invalid data resets the session to its initial state.
+        assertEquals(ErrorCode.OK, session.startActivation(new ActivationStep1Param(null, null)).errorCode);
+        snapshot = assertRepublished(snapshot);
+        assertNotEquals(ErrorCode.OK, session.deserializeState(new byte[] { 1, 2, 3, 4 }));
+        snapshot = assertRepublished(snapshot);
+        assertEmptyState(snapshot);
+    }
+
+    @Test
+    public void testBiometryAndUpgradeStepsRepublishSnapshot() {
+        // All operations fail without an activation, but the snapshot must be republished anyway.
+        Session.StateSnapshot snapshot = session.getStateSnapshot();
+        assertNotEquals(ErrorCode.OK, session.addBiometryFactor("AAAA", new SignatureUnlockKeys(new byte[16], new byte[16], null)));
+        snapshot = assertRepublished(snapshot);
+        assertNotEquals(ErrorCode.OK, session.removeBiometryFactor());
+        snapshot = assertRepublished(snapshot);
+        assertNotEquals(ErrorCode.OK, session.startProtocolUpgrade());
+        snapshot = assertRepublished(snapshot);
+        assertNotEquals(ErrorCode.OK, session.applyProtocolUpgradeData(ProtocolUpgradeData.version3("AAAAAAAAAAAAAAAAAAAAAA==")));
+        snapshot = assertRepublished(snapshot);
+        assertNotEquals(ErrorCode.OK, session.finishProtocolUpgrade());
+        snapshot = assertRepublished(snapshot);
+        assertEmptyState(snapshot);
+    }
+
+    @Test
+    public void testDestroyResetsSnapshot() {
+        assertEquals(ErrorCode.OK, session.startActivation(new ActivationStep1Param(null, null)).errorCode);
+        assertTrue(session.hasPendingActivation());
+        session.destroy();
+        assertEmptyState(session.getStateSnapshot());
+        assertFalse(session.hasPendingActivation());
+    }
+
+    @Test
+    public void testReadersDontWaitForMutation() throws Exception {
+        assertEquals(ErrorCode.OK, session.startActivation(new ActivationStep1Param(null, null)).errorCode);
+        final CountDownLatch readerLatch = new CountDownLatch(1);
+        final AtomicBoolean readerResult = new AtomicBoolean();
+        // Keep the session's monitor locked, like a long running state mutation does.
+        synchronized (session) {
+            new Thread(() -> {
+                readerResult.set(session.hasPendingActivation() && !session.hasValidActivation() && session.getActivationIdentifier() == null);
+                readerLatch.countDown();
+            }).start();
+            assertTrue(readerLatch.await(5, TimeUnit.SECONDS));
+        }
+        assertTrue(readerResult.get());
+    }
+
+    @Test
+    public void testConsistentSnapshotUnderConcurrentMutation() throws Exception {
+        final int readersCount = 4;
+        final int mutationsCount = 200;
+        final AtomicBoolean finished = new AtomicBoolean();
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < readersCount; i++) {
+            final Thread reader = new Thread(() -> {
+                while (!finished.get() && failure.get() == null) {
+                    final Session.StateSnapshot snapshot = session.getStateSnapshot();
+                    final String error = validateSnapshot(snapshot);
+                    if (error != null) {
+                        failure.compareAndSet(null, error);
+                    }
+                    // Public getters must never observe a state that was not published.
+                    if (session.hasValidActivation() || session.hasBiometryFactor() || session.hasPendingProtocolUpgrade()) {
+                        failure.compareAndSet(null, "Getter returned unpublished state");
+                    }
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        final byte[] emptyState = session.serializedState();
+        for (int i = 0; i < mutationsCount && failure.get() == null; i++) {
+            assertEquals(ErrorCode.OK, session.startActivation(new ActivationStep1Param(null, null)).errorCode);
+            assertTrue(session.hasPendingActivation());
+            if ((i & 1) == 0) {
+                session.resetSession(false);
+            } else {
+                session.deserializeState(emptyState);
+            }
+            assertFalse(session.hasPendingActivation());
+        }
+        finished.set(true);
+        for (Thread reader : readers) {
+            reader.join(5_000);
+            assertFalse(reader.isAlive());
+        }
+        assertNull(failure.get(), failure.get());
+        assertEmptyState(session.getStateSnapshot());
+    }
+
+    // Helper methods
+
+    /**
+     * Assert that the snapshot was replaced by the last operation.
+     * @param previous Snapshot published before the operation.
+     * @return Snapshot published by the operation.
+     */
+    @NonNull
+    private Session.StateSnapshot assertRepublished(@NonNull Session.StateSnapshot previous) {
+        final Session.StateSnapshot current = session.getStateSnapshot();
+        assertNotSame(previous, current);
+        assertNull(validateSnapshot(current));
+        return current;
+    }
+
+    /**
+     * Assert that the snapshot represents the session without an activation.
+     * @param snapshot Snapshot to test.
+     */
+    private static void assertEmptyState(@NonNull Session.StateSnapshot snapshot) {
+        assertFalse(snapshot.hasValidActivation);
+        assertFalse(snapshot.hasPendingActivation);
+        assertNull(snapshot.activationIdentifier);
+        assertNull(snapshot.activationFingerprint);
+        assertFalse(snapshot.hasBiometryFactor);
+        assertFalse(snapshot.hasPendingProtocolUpgrade);
+    }
+
+    /**
+     * Validate whether the snapshot's fields belong to the same activation state.
+     * @param snapshot Snapshot to validate.
+     * @return Description of the inconsistency or {@code null} if snapshot is consistent.
+     */
+    private static String validateSnapshot(@NonNull Session.StateSnapshot snapshot) {
+        if (snapshot.hasValidActivation && snapshot.hasPendingActivation) {
+            return "Valid and pending activation at the same time";
+        }
+        final boolean hasActivation = snapshot.hasValidActivation || snapshot.hasPendingActivation;
+        if (snapshot.hasValidActivation && (snapshot.activationIdentifier == null || snapshot.activationFingerprint == null)) {
+            return "Valid activation without an identifier or fingerprint";
+        }
+        if (!hasActivation && (snapshot.activationIdentifier != null || snapshot.activationFingerprint != null)) {
+            return "Activation identifier or fingerprint without an activation";
+        }
+        if (!snapshot.hasValidActivation && (snapshot.hasBiometryFactor || snapshot.hasPendingProtocolUpgrade)) {
+            return "Activation factors without a valid activation";
+        }
+        return null;
+    }
+}
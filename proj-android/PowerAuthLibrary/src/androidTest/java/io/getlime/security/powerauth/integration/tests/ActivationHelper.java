@@ -236,6 +236,32 @@ public class ActivationHelper {
         });
     }
 
+    /**
+     * Fetch activation status with maximum age of the cached status.
+     * @param maxAge Maximum age of the cached status in milliseconds.
+     * @param staleWhileRevalidate Time after maximum age, when the stale status is still reported.
+     * @return Activation status.
+     * @throws Exception In case of failure.
+     */
+    public @NonNull ActivationStatus fetchActivationStatus(final long maxAge, final long staleWhileRevalidate) throws Exception {
+        return AsyncHelper.await(new AsyncHelper.Execution<ActivationStatus>() {
+            @Override
+            public void execute(@NonNull final AsyncHelper.ResultCatcher<ActivationStatus> resultCatcher) throws Exception {
+                powerAuthSDK.fetchActivationStatusWithCallback(testHelper.getContext(), maxAge, staleWhileRevalidate, new IActivationStatusListener() {
+                    @Override
+                    public void onActivationStatusSucceed(ActivationStatus status) {
+                        resultCatcher.completeWithResult(status);
+                    }
+
+                    @Override
+                    public void onActivationStatusFailed(@NonNull Throwable t) {
+                        resultCatcher.completeWithError(t);
+                    }
+                });
+            }
+        });
+    }
+
     /**
      * Prepare valid and invalid authentication objects.
      * @return Array of passwords used for authentication objects creation. First is valid, second is invalid password.
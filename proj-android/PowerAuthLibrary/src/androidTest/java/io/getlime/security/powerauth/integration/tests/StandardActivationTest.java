@@ -31,12 +31,19 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import io.getlime.security.powerauth.core.ActivationStatus;
+import io.getlime.security.powerauth.core.CoreTimeTestService;
+import io.getlime.security.powerauth.core.ErrorCode;
+import io.getlime.security.powerauth.core.Session;
 import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
 import io.getlime.security.powerauth.exception.PowerAuthErrorException;
 import io.getlime.security.powerauth.integration.support.AsyncHelper;
@@ -45,7 +52,10 @@ import io.getlime.security.powerauth.integration.support.model.Activation;
 import io.getlime.security.powerauth.integration.support.model.ActivationDetail;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 import io.getlime.security.powerauth.sdk.PowerAuthActivation;
+import io.getlime.security.powerauth.sdk.PowerAuthActivationStatusMonitor;
 import io.getlime.security.powerauth.sdk.PowerAuthSDK;
+import io.getlime.security.powerauth.sdk.PowerAuthVaultSession;
+import io.getlime.security.powerauth.sdk.PowerAuthWarmUpOptions;
 import io.getlime.security.powerauth.system.PowerAuthSystem;
 
 import static org.junit.Assert.*;
@@ -317,6 +327,95 @@ public class StandardActivationTest {
         assertNull(powerAuthSDK.getLastFetchedActivationStatus());
     }
 
+    @Test
+    public void testGetCachedActivationStatus() throws Exception {
+        activationHelper.createStandardActivation(true, null);
+        ActivationStatus status = activationHelper.fetchActivationStatus();
+        assertEquals(ActivationStatus.State_Active, status.state);
+
+        testHelper.getServerApi().activationBlock(activationHelper.getActivation());
+        // Fresh status is reported from the cache
+        status = activationHelper.fetchActivationStatus(60_000, 0);
+        assertEquals(ActivationStatus.State_Active, status.state);
+        // Expired status is fetched from the server
+        Thread.sleep(10);
+        status = activationHelper.fetchActivationStatus(0, 0);
+        assertEquals(ActivationStatus.State_Blocked, status.state);
+
+        testHelper.getServerApi().activationUnblock(activationHelper.getActivation());
+        // Stale status is reported and refreshed in the background
+        Thread.sleep(10);
+        status = activationHelper.fetchActivationStatus(0, 60_000);
+        assertEquals(ActivationStatus.State_Blocked, status.state);
+        status = activationHelper.fetchActivationStatus();
+        assertEquals(ActivationStatus.State_Active, status.state);
+        status = activationHelper.fetchActivationStatus(60_000, 0);
+        assertEquals(ActivationStatus.State_Active, status.state);
+
+        // Cached status is removed with the activation
+        powerAuthSDK.removeActivationLocal(testHelper.getContext());
+        activationHelper.createStandardActivation(true, null);
+        testHelper.getServerApi().activationBlock(activationHelper.getActivation());
+        status = activationHelper.fetchActivationStatus(60_000, 60_000);
+        assertEquals(ActivationStatus.State_Blocked, status.state);
+    }
+
+    @Test
+    public void testActivationStatusMonitor() throws Exception {
+        activationHelper.createStandardActivation(true, null);
+        final PowerAuthActivationStatusMonitor monitor = powerAuthSDK.getActivationStatusMonitor();
+        monitor.setPollingIntervals(200, 1000);
+        final ActivationStatus[] reportedStatus = new ActivationStatus[1];
+        final AtomicInteger changeCounter = new AtomicInteger(0);
+        final AsyncHelper.ResultCatcher<?>[] currentCatcher = new AsyncHelper.ResultCatcher<?>[1];
+        final IActivationStatusChangeListener listener = status -> {
+            reportedStatus[0] = status;
+            changeCounter.incrementAndGet();
+            synchronized (currentCatcher) {
+                if (currentCatcher[0] != null) {
+                    currentCatcher[0].completeWithSuccess();
+                    currentCatcher[0] = null;
+                }
+            }
+        };
+        monitor.addListener(listener);
+        try {
+            // First status is always reported
+            AsyncHelper.await(resultCatcher -> {
+                synchronized (currentCatcher) {
+                    currentCatcher[0] = resultCatcher;
+                }
+                monitor.start(testHelper.getContext());
+            });
+            assertTrue(monitor.isStarted());
+            assertEquals(ActivationStatus.State_Active, reportedStatus[0].state);
+            assertEquals(1, changeCounter.get());
+
+            // Unchanged status is not reported
+            Thread.sleep(1000);
+            assertEquals(1, changeCounter.get());
+
+            // Status change is reported
+            testHelper.getServerApi().activationBlock(activationHelper.getActivation());
+            AsyncHelper.await(resultCatcher -> {
+                synchronized (currentCatcher) {
+                    currentCatcher[0] = resultCatcher;
+                }
+                monitor.reportSignatureFailure();
+            });
+            assertEquals(ActivationStatus.State_Blocked, reportedStatus[0].state);
+            assertEquals(2, changeCounter.get());
+
+            // Monitor is stopped with the activation removal
+            powerAuthSDK.removeActivationLocal(testHelper.getContext());
+            assertFalse(monitor.isStarted());
+            assertNull(monitor.getLastStatus());
+        } finally {
+            monitor.removeListener(listener);
+            monitor.stop();
+        }
+    }
+
     @Test
     public void testGetActivationStatusConcurrent() throws Exception {
         activationHelper.createStandardActivation(true, null);
@@ -453,6 +552,158 @@ public class StandardActivationTest {
         assertEquals(info, powerAuthSDK.getLastFetchedUserInfo());
     }
 
+    @Test
+    public void testUserInfoConcurrent() throws Exception {
+        activationHelper.createStandardActivation(true, null);
+
+        final UserInfo[] info1 = new UserInfo[1];
+        final UserInfo[] info2 = new UserInfo[1];
+        final AtomicInteger counter = new AtomicInteger(0);
+
+        AsyncHelper.await((AsyncHelper.Execution<Boolean>) resultCatcher -> {
+            final ICancelable task1, task2, task3;
+            task1 = powerAuthSDK.fetchUserInfo(testHelper.getContext(), new IUserInfoListener() {
+                @Override
+                public void onUserInfoSucceed(@NonNull UserInfo userInfo) {
+                    info1[0] = userInfo;
+                    if (counter.addAndGet(1) == 2) {
+                        resultCatcher.completeWithResult(true);
+                    }
+                }
+
+                @Override
+                public void onUserInfoFailed(@NonNull Throwable t) {
+                    fail();
+                }
+            });
+            assertNotNull(task1);
+            task3 = powerAuthSDK.fetchUserInfo(testHelper.getContext(), new IUserInfoListener() {
+                @Override
+                public void onUserInfoSucceed(@NonNull UserInfo userInfo) {
+                    fail();
+                }
+
+                @Override
+                public void onUserInfoFailed(@NonNull Throwable t) {
+                    fail();
+                }
+            });
+            assertNotNull(task3);
+            task2 = powerAuthSDK.fetchUserInfo(testHelper.getContext(), new IUserInfoListener() {
+                @Override
+                public void onUserInfoSucceed(@NonNull UserInfo userInfo) {
+                    info2[0] = userInfo;
+                    if (counter.addAndGet(1) == 2) {
+                        resultCatcher.completeWithResult(true);
+                    }
+                }
+
+                @Override
+                public void onUserInfoFailed(@NonNull Throwable t) {
+                    fail();
+                }
+            });
+            assertNotNull(task2);
+            // Cancel of one caller must not affect the shared request.
+            task3.cancel();
+        });
+        assertEquals(activationHelper.getUserId(), info1[0].getSubject());
+        assertEquals(info1[0], info2[0]);
+    }
+
+    @Test
+    public void testUserInfoCached() throws Exception {
+        activationHelper.createStandardActivation(true, null);
+
+        final UserInfo info1 = AsyncHelper.await(resultCatcher -> {
+            powerAuthSDK.fetchUserInfo(testHelper.getContext(), 60_000, 0, new IUserInfoListener() {
+                @Override
+                public void onUserInfoSucceed(@NonNull UserInfo userInfo) {
+                    resultCatcher.completeWithResult(userInfo);
+                }
+
+                @Override
+                public void onUserInfoFailed(@NonNull Throwable t) {
+                    resultCatcher.completeWithError(t);
+                }
+            });
+        });
+        assertEquals(activationHelper.getUserId(), info1.getSubject());
+
+        // The second request is served from the cache.
+        final UserInfo info2 = AsyncHelper.await(resultCatcher -> {
+            powerAuthSDK.fetchUserInfo(testHelper.getContext(), 60_000, 0, new IUserInfoListener() {
+                @Override
+                public void onUserInfoSucceed(@NonNull UserInfo userInfo) {
+                    resultCatcher.completeWithResult(userInfo);
+                }
+
+                @Override
+                public void onUserInfoFailed(@NonNull Throwable t) {
+                    resultCatcher.completeWithError(t);
+                }
+            });
+        });
+        assertEquals(info1, info2);
+
+        // Remove activation and verify that the cache is cleared.
+        powerAuthSDK.removeActivationLocal(testHelper.getContext());
+        activationHelper.createStandardActivation(true, null);
+        final UserInfo info3 = AsyncHelper.await(resultCatcher -> {
+            powerAuthSDK.fetchUserInfo(testHelper.getContext(), 60_000, 0, new IUserInfoListener() {
+                @Override
+                public void onUserInfoSucceed(@NonNull UserInfo userInfo) {
+                    resultCatcher.completeWithResult(userInfo);
+                }
+
+                @Override
+                public void onUserInfoFailed(@NonNull Throwable t) {
+                    resultCatcher.completeWithError(t);
+                }
+            });
+        });
+        assertEquals(activationHelper.getUserId(), info3.getSubject());
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        activationHelper.createStandardActivation(true, null);
+        powerAuthSDK.getTimeSynchronizationService().resetTimeSynchronization();
+
+        AsyncHelper.await(resultCatcher -> {
+            powerAuthSDK.warmUp(testHelper.getContext(), new PowerAuthWarmUpOptions.Builder().build(), new IWarmUpListener() {
+                @Override
+                public void onWarmUpSucceeded() {
+                    resultCatcher.completeWithSuccess();
+                }
+
+                @Override
+                public void onWarmUpFailed(@NonNull Throwable t) {
+                    resultCatcher.completeWithError(t);
+                }
+            });
+        });
+        assertTrue(powerAuthSDK.getTimeSynchronizationService().isTimeSynchronized());
+
+        // Nothing to prepare except the connection.
+        AsyncHelper.await(resultCatcher -> {
+            final PowerAuthWarmUpOptions options = new PowerAuthWarmUpOptions.Builder()
+                    .fetchActivationStatus(false)
+                    .build();
+            powerAuthSDK.warmUp(testHelper.getContext(), options, new IWarmUpListener() {
+                @Override
+                public void onWarmUpSucceeded() {
+                    resultCatcher.completeWithSuccess();
+                }
+
+                @Override
+                public void onWarmUpFailed(@NonNull Throwable t) {
+                    resultCatcher.completeWithError(t);
+                }
+            });
+        });
+    }
+
     @Test
     public void testJwtSignature() throws Exception {
         activationHelper.createStandardActivation(true, null);
@@ -508,6 +759,68 @@ public class StandardActivationTest {
         assertTrue(result);
     }
 
+    @Test
+    public void testVaultSession() throws Exception {
+        activationHelper.createStandardActivation(true, null);
+
+        // Reference key, fetched with the regular vault unlock.
+        final byte[] referenceKey = AsyncHelper.await(resultCatcher -> {
+            powerAuthSDK.fetchEncryptionKey(testHelper.getContext(), activationHelper.getValidAuthentication(), 1000, new IFetchEncryptionKeyListener() {
+                @Override
+                public void onFetchEncryptionKeySucceed(@NonNull byte[] encryptedEncryptionKey) {
+                    resultCatcher.completeWithResult(encryptedEncryptionKey);
+                }
+
+                @Override
+                public void onFetchEncryptionKeyFailed(@NonNull Throwable t) {
+                    resultCatcher.completeWithError(t);
+                }
+            });
+        });
+
+        final PowerAuthVaultSession vaultSession = AsyncHelper.await(resultCatcher -> {
+            ICancelable task = powerAuthSDK.createVaultSession(testHelper.getContext(), activationHelper.getValidAuthentication(), 30_000, 3, new ICreateVaultSessionListener() {
+                @Override
+                public void onCreateVaultSessionSucceed(@NonNull PowerAuthVaultSession vaultSession) {
+                    resultCatcher.completeWithResult(vaultSession);
+                }
+
+                @Override
+                public void onCreateVaultSessionFailed(@NonNull Throwable t) {
+                    resultCatcher.completeWithError(t);
+                }
+            });
+            assertNotNull(task);
+        });
+        assertTrue(vaultSession.isValid());
+        assertEquals(3, vaultSession.getRemainingUses());
+
+        // Derive multiple keys
+        assertArrayEquals(referenceKey, vaultSession.deriveCryptographicKey(1000));
+        final byte[] otherKey = vaultSession.deriveCryptographicKey(1001);
+        assertFalse(Arrays.equals(referenceKey, otherKey));
+
+        // Sign JWT
+        final HashMap<String, Object> claims = new HashMap<>();
+        claims.put("sub", "1234567890");
+        final String jwt = vaultSession.signJwtWithDevicePrivateKey(claims);
+        final String[] jwtComponents = TextUtils.split(jwt, "\\.");
+        assertEquals(3, jwtComponents.length);
+        final String jwtSignedDataBase64 = Base64.encodeToString((jwtComponents[0] + "." + jwtComponents[1]).getBytes(StandardCharsets.US_ASCII), Base64.NO_WRAP);
+        final String jwtSignatureBase64 = Base64.encodeToString(Base64.decode(jwtComponents[2], Base64.NO_WRAP | Base64.URL_SAFE | Base64.NO_PADDING), Base64.NO_WRAP);
+        assertTrue(testHelper.getServerApi().verifyEcdsaSignature(activationHelper.getActivation().getActivationId(), jwtSignedDataBase64, jwtSignatureBase64, "JOSE"));
+
+        // All uses are consumed
+        assertFalse(vaultSession.isValid());
+        assertEquals(0, vaultSession.getRemainingUses());
+        try {
+            vaultSession.deriveCryptographicKey(1000);
+            fail();
+        } catch (PowerAuthErrorException e) {
+            assertEquals(PowerAuthErrorCodes.AUTHENTICATION_SESSION_EXPIRED, e.getPowerAuthErrorCode());
+        }
+    }
+
     @Test
     public void testEciesEncryptors() throws Exception {
         EciesEncryptor encryptor = AsyncHelper.await(resultCatcher -> {
@@ -586,4 +899,102 @@ public class StandardActivationTest {
         });
         assertTrue(result);
     }
+
+    @Test
+    public void testSessionStateSnapshot() throws Exception {
+        final ActivationDetail activationDetail = activationHelper.createStandardActivation(true, null);
+        final Session session = powerAuthSDK.getSession();
+        assertTrue(session.hasValidActivation());
+        assertFalse(session.hasPendingActivation());
+        assertEquals(activationDetail.getActivationId(), session.getActivationIdentifier());
+        assertNotNull(session.getActivationFingerprint());
+        assertFalse(session.hasPendingProtocolUpgrade());
+
+        // Each state mutation must republish the state visible from the getters.
+        final byte[] activatedState = session.serializedState();
+        final Session copy = new Session(session.getSessionSetup(), new CoreTimeTestService());
+        assertFalse(copy.hasValidActivation());
+        assertEquals(ErrorCode.OK, copy.deserializeState(activatedState));
+        assertTrue(copy.hasValidActivation());
+        assertEquals(session.getActivationIdentifier(), copy.getActivationIdentifier());
+        assertEquals(session.getActivationFingerprint(), copy.getActivationFingerprint());
+        assertEquals(session.hasBiometryFactor(), copy.hasBiometryFactor());
+
+        copy.removeBiometryFactor();
+        assertFalse(copy.hasBiometryFactor());
+        assertTrue(copy.hasValidActivation());
+
+        copy.resetSession(false);
+        assertFalse(copy.hasValidActivation());
+        assertNull(copy.getActivationIdentifier());
+        assertNull(copy.getActivationFingerprint());
+
+        assertEquals(ErrorCode.OK, copy.deserializeState(activatedState));
+        assertTrue(copy.hasValidActivation());
+        copy.destroy();
+        assertFalse(copy.hasValidActivation());
+        assertNull(copy.getActivationIdentifier());
+
+        // The original session is not affected.
+        assertEquals(activationDetail.getActivationId(), session.getActivationIdentifier());
+    }
+
+    @Test
+    public void testSessionStateSnapshotConcurrent() throws Exception {
+        activationHelper.createStandardActivation(true, null);
+        final Session session = powerAuthSDK.getSession();
+        final String activationId = session.getActivationIdentifier();
+        final String fingerprint = session.getActivationFingerprint();
+        assertNotNull(activationId);
+        assertNotNull(fingerprint);
+
+        final byte[] activatedState = session.serializedState();
+        final Session copy = new Session(session.getSessionSetup(), new CoreTimeTestService());
+        final AtomicBoolean finished = new AtomicBoolean();
+        final AtomicReference<String> failure = new AtomicReference<>();
+        final AtomicInteger activatedStatesSeen = new AtomicInteger();
+        final List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final Thread reader = new Thread(() -> {
+                while (!finished.get() && failure.get() == null) {
+                    // Readers must see either no activation, or the complete activation.
+                    final String readActivationId = copy.getActivationIdentifier();
+                    final String readFingerprint = copy.getActivationFingerprint();
+                    if (readActivationId != null && !readActivationId.equals(activationId)) {
+                        failure.compareAndSet(null, "Unexpected activation identifier " + readActivationId);
+                    }
+                    if (readFingerprint != null && !readFingerprint.equals(fingerprint)) {
+                        failure.compareAndSet(null, "Unexpected activation fingerprint " + readFingerprint);
+                    }
+                    if (copy.hasPendingActivation()) {
+                        failure.compareAndSet(null, "Unexpected pending activation");
+                    }
+                    if (readActivationId != null) {
+                        activatedStatesSeen.incrementAndGet();
+                    }
+                }
+            });
+            readers.add(reader);
+            reader.start();
+        }
+        for (int i = 0; i < 200 && failure.get() == null; i++) {
+            assertEquals(ErrorCode.OK, copy.deserializeState(activatedState));
+            assertEquals(activationId, copy.getActivationIdentifier());
+            copy.resetSession(false);
+            assertNull(copy.getActivationIdentifier());
+        }
+        assertEquals(ErrorCode.OK, copy.deserializeState(activatedState));
+        // Let the readers observe the final state.
+        Thread.sleep(100);
+        finished.set(true);
+        for (Thread reader : readers) {
+            reader.join(5_000);
+            assertFalse(reader.isAlive());
+        }
+        assertNull(failure.get(), failure.get());
+        assertTrue(activatedStatesSeen.get() > 0);
+        assertTrue(copy.hasValidActivation());
+        assertEquals(fingerprint, copy.getActivationFingerprint());
+        copy.destroy();
+    }
 }
@@ -31,11 +31,13 @@ import java.util.Map;
 import java.util.Objects;
 
 import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
 import io.getlime.security.powerauth.integration.support.PowerAuthTestHelper;
 import io.getlime.security.powerauth.integration.support.model.SignatureData;
 import io.getlime.security.powerauth.integration.support.model.SignatureInfo;
 import io.getlime.security.powerauth.integration.support.model.SignatureType;
 import io.getlime.security.powerauth.sdk.PowerAuthAuthentication;
+import io.getlime.security.powerauth.sdk.PowerAuthAuthenticationSession;
 import io.getlime.security.powerauth.sdk.PowerAuthAuthorizationHttpHeader;
 import io.getlime.security.powerauth.sdk.PowerAuthClientConfiguration;
 import io.getlime.security.powerauth.sdk.PowerAuthConfiguration;
@@ -215,4 +217,51 @@ public class SymmetricSignatureTest {
             assertEquals(expectedSignatureType, verifyResult.getSignatureType());
         }
     }
+
+    @Test
+    public void testAuthenticationSession() throws Exception {
+        final Context context = testHelper.getContext();
+
+        activationHelper.createStandardActivation(true, null);
+
+        final PowerAuthAuthenticationSession authSession = powerAuthSDK.createAuthenticationSession(context, activationHelper.getValidAuthentication(), 60_000, 3);
+        assertTrue(authSession.isValid());
+        assertEquals(3, authSession.getRemainingUses());
+
+        for (int iteration = 0; iteration < 3; iteration++) {
+            final byte[] dataToSign = ("SESSION signature test " + iteration).getBytes(Charset.defaultCharset());
+            final PowerAuthAuthorizationHttpHeader onlineSignature = powerAuthSDK.requestSignatureWithAuthentication(context, authSession.createAuthentication(), "POST", "/session/test", dataToSign);
+            assertEquals(PowerAuthErrorCodes.SUCCEED, onlineSignature.powerAuthErrorCode);
+
+            final Map<String, String> sigComponents = signatureHelper.parseAuthorizationHeader(onlineSignature);
+            final SignatureData signatureData = new SignatureData();
+            signatureData.setActivationId(sigComponents.get("pa_activation_id"));
+            signatureData.setData(signatureHelper.normalizeOnlineData(dataToSign, "POST", "/session/test", sigComponents.get("pa_nonce")));
+            signatureData.setSignature(sigComponents.get("pa_signature"));
+            signatureData.setSignatureType(SignatureType.valueOf(Objects.requireNonNull(sigComponents.get("pa_signature_type")).toUpperCase()));
+            signatureData.setSignatureVersion(sigComponents.get("pa_version"));
+            signatureData.setApplicationKey(sigComponents.get("pa_application_key"));
+
+            final SignatureInfo verifyResult = testHelper.getServerApi().verifyOnlineSignature(signatureData);
+            assertNotNull(verifyResult);
+            assertTrue(verifyResult.isSignatureValid());
+            assertEquals(SignatureType.POSSESSION_KNOWLEDGE, verifyResult.getSignatureType());
+        }
+
+        // All uses are consumed now
+        assertFalse(authSession.isValid());
+        final PowerAuthAuthorizationHttpHeader expiredSignature = powerAuthSDK.requestSignatureWithAuthentication(context, authSession.createAuthentication(), "POST", "/session/test", new byte[0]);
+        assertEquals(PowerAuthErrorCodes.AUTHENTICATION_SESSION_EXPIRED, expiredSignature.powerAuthErrorCode);
+
+        // Authentication bound to the session cannot create another session
+        final PowerAuthAuthenticationSession destroyedSession = powerAuthSDK.createAuthenticationSession(context, activationHelper.getValidAuthentication());
+        destroyedSession.destroy();
+        assertFalse(destroyedSession.isValid());
+        try {
+            powerAuthSDK.createAuthenticationSession(context, destroyedSession.createAuthentication());
+            fail();
+        } catch (PowerAuthErrorException e) {
+            assertEquals(PowerAuthErrorCodes.WRONG_PARAMETER, e.getPowerAuthErrorCode());
+        }
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpAdaptiveTimeoutsTest {
+
+    private static final String HOST = "api.example.com:443";
+
+    @Test
+    public void testDefaultTimeoutsWithoutSamples() throws Exception {
+        final HttpAdaptiveTimeouts timeouts = new HttpAdaptiveTimeouts(new HttpAdaptiveTimeoutPolicy(99.0, 3.0, 1_000, 20_000, 2_000, 20_000, 5, 100));
+        assertEquals(10_000, timeouts.getConnectionTimeout(HOST, 10_000));
+        assertEquals(15_000, timeouts.getReadTimeout(HOST, 1.0, 15_000));
+        for (int i = 0; i < 4; i++) {
+            timeouts.recordConnectLatency(HOST, 100);
+            timeouts.recordResponseLatency(HOST, 1.0, 500);
+        }
+        // Not enough samples yet
+        assertEquals(10_000, timeouts.getConnectionTimeout(HOST, 10_000));
+        assertEquals(15_000, timeouts.getReadTimeout(HOST, 1.0, 15_000));
+    }
+
+    @Test
+    public void testAdaptiveTimeouts() throws Exception {
+        final HttpAdaptiveTimeouts timeouts = new HttpAdaptiveTimeouts(new HttpAdaptiveTimeoutPolicy(99.0, 3.0, 1_000, 20_000, 2_000, 20_000, 5, 100));
+        for (int i = 0; i < 10; i++) {
+            timeouts.recordConnectLatency(HOST, 500);
+            timeouts.recordResponseLatency(HOST, 1.0, 1_000);
+        }
+        assertEquals(1_500, timeouts.getConnectionTimeout(HOST, 10_000));
+        assertEquals(3_000, timeouts.getReadTimeout(HOST, 1.0, 15_000));
+        // Endpoint multiplier
+        assertEquals(6_000, timeouts.getReadTimeout(HOST, 2.0, 15_000));
+        // Other host has no estimate
+        assertEquals(10_000, timeouts.getConnectionTimeout("other.example.com:443", 10_000));
+    }
+
+    @Test
+    public void testTimeoutBounds() throws Exception {
+        final HttpAdaptiveTimeouts timeouts = new HttpAdaptiveTimeouts(new HttpAdaptiveTimeoutPolicy(99.0, 3.0, 1_000, 5_000, 2_000, 8_000, 5, 100));
+        for (int i = 0; i < 10; i++) {
+            timeouts.recordConnectLatency(HOST, 5);
+            timeouts.recordResponseLatency(HOST, 1.0, 10);
+        }
+        assertEquals(1_000, timeouts.getConnectionTimeout(HOST, 10_000));
+        assertEquals(2_000, timeouts.getReadTimeout(HOST, 1.0, 15_000));
+        for (int i = 0; i < 10; i++) {
+            timeouts.recordConnectLatency(HOST, 30_000);
+            timeouts.recordResponseLatency(HOST, 1.0, 30_000);
+        }
+        assertEquals(5_000, timeouts.getConnectionTimeout(HOST, 10_000));
+        assertEquals(8_000, timeouts.getReadTimeout(HOST, 1.0, 15_000));
+    }
+
+    @Test
+    public void testSlowEndpointLatencyIsNormalized() throws Exception {
+        final HttpAdaptiveTimeouts timeouts = new HttpAdaptiveTimeouts(new HttpAdaptiveTimeoutPolicy(99.0, 3.0, 1_000, 20_000, 1_000, 20_000, 5, 100));
+        for (int i = 0; i < 10; i++) {
+            timeouts.recordResponseLatency(HOST, 4.0, 4_000);
+        }
+        assertEquals(3_000, timeouts.getReadTimeout(HOST, 1.0, 15_000));
+        assertEquals(12_000, timeouts.getReadTimeout(HOST, 4.0, 15_000));
+    }
+
+    @Test
+    public void testMovingWindow() throws Exception {
+        final HttpAdaptiveTimeouts timeouts = new HttpAdaptiveTimeouts(new HttpAdaptiveTimeoutPolicy(99.0, 2.0, 1, 60_000, 1, 60_000, 5, 10));
+        for (int i = 0; i < 10; i++) {
+            timeouts.recordResponseLatency(HOST, 1.0, 5_000);
+        }
+        // The first window is full, its estimate is used until the next window has enough samples.
+        assertEquals(10_000, timeouts.getReadTimeout(HOST, 1.0, 15_000));
+        for (int i = 0; i < 4; i++) {
+            timeouts.recordResponseLatency(HOST, 1.0, 100);
+        }
+        assertEquals(10_000, timeouts.getReadTimeout(HOST, 1.0, 15_000));
+        timeouts.recordResponseLatency(HOST, 1.0, 100);
+        assertEquals(200, timeouts.getReadTimeout(HOST, 1.0, 15_000));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.exceptions.FailedApiException;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpBaseUrlSelectorTest {
+
+    private static final String URL_EU = "https://eu.wultra.com";
+    private static final String URL_US = "https://us.wultra.com";
+    private static final String URL_ASIA = "https://asia.wultra.com";
+
+    @Test
+    public void testOrderWithoutLatency() throws Exception {
+        final HttpBaseUrlSelector selector = new HttpBaseUrlSelector(Arrays.asList(URL_EU, URL_US, URL_ASIA));
+        assertTrue(selector.hasAlternatives());
+        assertEquals(URL_EU, selector.getPreferredBaseUrl(null));
+        assertEquals(URL_US, selector.getPreferredBaseUrl(new HashSet<>(Collections.singletonList(URL_EU))));
+        assertNull(selector.getPreferredBaseUrl(new HashSet<>(Arrays.asList(URL_EU, URL_US, URL_ASIA))));
+        assertFalse(new HttpBaseUrlSelector(Collections.singletonList(URL_EU)).hasAlternatives());
+    }
+
+    @Test
+    public void testLatencyBasedSelection() throws Exception {
+        final HttpBaseUrlSelector selector = new HttpBaseUrlSelector(Arrays.asList(URL_EU, URL_US, URL_ASIA));
+        selector.recordLatency(URL_EU, 300);
+        selector.recordLatency(URL_US, 100);
+        assertEquals(URL_US, selector.getPreferredBaseUrl(null));
+        // URL with measured latency is preferred over URL without measurement.
+        assertEquals(URL_EU, selector.getPreferredBaseUrl(new HashSet<>(Collections.singletonList(URL_US))));
+        // Moving average, one slow response doesn't change the selection immediately.
+        selector.recordLatency(URL_US, 250);
+        assertEquals(URL_US, selector.getPreferredBaseUrl(null));
+        selector.recordLatency(URL_US, 1000);
+        assertEquals(URL_EU, selector.getPreferredBaseUrl(null));
+    }
+
+    @Test
+    public void testFailover() throws Exception {
+        final HttpBaseUrlSelector selector = new HttpBaseUrlSelector(Arrays.asList(URL_EU, URL_US));
+        selector.onConnectionFailure(URL_EU);
+        assertEquals(URL_US, selector.getPreferredBaseUrl(null));
+        selector.onConnectionFailure(URL_US);
+        // All URLs are unhealthy, so the URL that recovers first is used.
+        assertEquals(URL_EU, selector.getPreferredBaseUrl(null));
+        selector.onSuccess(URL_US);
+        assertEquals(URL_US, selector.getPreferredBaseUrl(null));
+    }
+
+    @Test
+    public void testStickyBaseUrl() throws Exception {
+        final HttpBaseUrlSelector selector = new HttpBaseUrlSelector(Arrays.asList(URL_EU, URL_US));
+        assertEquals(URL_EU, selector.getStickyBaseUrl());
+        // Faster URL doesn't change the sticky URL.
+        selector.recordLatency(URL_US, 10);
+        assertEquals(URL_US, selector.getPreferredBaseUrl(null));
+        assertEquals(URL_EU, selector.getStickyBaseUrl());
+        // Unhealthy sticky URL is replaced and the new one is kept.
+        selector.onConnectionFailure(URL_EU);
+        assertEquals(URL_US, selector.getStickyBaseUrl());
+        selector.onSuccess(URL_EU);
+        assertEquals(URL_US, selector.getStickyBaseUrl());
+    }
+
+    @Test
+    public void testConnectionFailure() throws Exception {
+        assertTrue(HttpBaseUrlSelector.isConnectionFailure(new PowerAuthErrorException(PowerAuthErrorCodes.NETWORK_ERROR, "refused", new ConnectException("refused"))));
+        assertTrue(HttpBaseUrlSelector.isConnectionFailure(new PowerAuthErrorException(PowerAuthErrorCodes.NETWORK_ERROR, "dns", new UnknownHostException("dns"))));
+        // The request might be already delivered to the server.
+        assertFalse(HttpBaseUrlSelector.isConnectionFailure(new PowerAuthErrorException(PowerAuthErrorCodes.NETWORK_ERROR, "timeout", new SocketTimeoutException("timeout"))));
+        assertFalse(HttpBaseUrlSelector.isConnectionFailure(new FailedApiException(503, null, null)));
+        assertFalse(HttpBaseUrlSelector.isConnectionFailure(new PowerAuthErrorException(PowerAuthErrorCodes.WRONG_PARAMETER, "wrong")));
+    }
+}
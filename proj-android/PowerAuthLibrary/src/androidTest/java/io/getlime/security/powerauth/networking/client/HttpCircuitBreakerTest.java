@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.endpoints.GetServerStatusEndpoint;
+import io.getlime.security.powerauth.networking.exceptions.FailedApiException;
+import io.getlime.security.powerauth.networking.interfaces.IHttpMetricsListener;
+import io.getlime.security.powerauth.networking.metrics.HttpRequestMetrics;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpCircuitBreakerTest {
+
+    private final ArrayList<HttpCircuitBreakerState> transitions = new ArrayList<>();
+
+    private final IHttpMetricsListener metricsListener = new IHttpMetricsListener() {
+        @Override
+        public void onHttpRequestCompleted(@NonNull HttpRequestMetrics metrics) {
+        }
+
+        @Override
+        public void onCircuitBreakerStateChanged(@NonNull Class<?> endpointClass, @NonNull String baseUrl, @NonNull HttpCircuitBreakerState previousState, @NonNull HttpCircuitBreakerState newState) {
+            transitions.add(newState);
+        }
+    };
+
+    @Test
+    public void testStateTransitions() throws Exception {
+        final HttpCircuitBreakerPolicy policy = new HttpCircuitBreakerPolicy(3, 200, 1);
+        final HttpCircuitBreaker breaker = new HttpCircuitBreaker(policy, GetServerStatusEndpoint.class, "https://localhost", "/pa/v3/status", metricsListener);
+        assertEquals(HttpCircuitBreakerState.CLOSED, breaker.getState());
+
+        // Success resets the consecutive failures
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.onSuccess();
+        breaker.onFailure();
+        breaker.onFailure();
+        assertEquals(HttpCircuitBreakerState.CLOSED, breaker.getState());
+        breaker.onFailure();
+        assertEquals(HttpCircuitBreakerState.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        // Failed probe opens the breaker again
+        Thread.sleep(300);
+        assertTrue(breaker.tryAcquire());
+        assertEquals(HttpCircuitBreakerState.HALF_OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        breaker.onFailure();
+        assertEquals(HttpCircuitBreakerState.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+
+        // Cancelled probe allows another probe
+        Thread.sleep(300);
+        assertTrue(breaker.tryAcquire());
+        breaker.onCancel();
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        assertEquals(HttpCircuitBreakerState.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+
+        assertEquals(5, transitions.size());
+        assertEquals(HttpCircuitBreakerState.OPEN, transitions.get(0));
+        assertEquals(HttpCircuitBreakerState.HALF_OPEN, transitions.get(1));
+        assertEquals(HttpCircuitBreakerState.OPEN, transitions.get(2));
+        assertEquals(HttpCircuitBreakerState.HALF_OPEN, transitions.get(3));
+        assertEquals(HttpCircuitBreakerState.CLOSED, transitions.get(4));
+    }
+
+    @Test
+    public void testServerFailures() throws Exception {
+        final HttpCircuitBreakerPolicy policy = HttpCircuitBreakerPolicy.DEFAULT;
+        assertTrue(policy.isServerFailure(new PowerAuthErrorException(PowerAuthErrorCodes.NETWORK_ERROR, "timeout", new SocketTimeoutException())));
+        assertTrue(policy.isServerFailure(new FailedApiException(500, null, null)));
+        assertTrue(policy.isServerFailure(new FailedApiException(503, null, null)));
+        assertFalse(policy.isServerFailure(new FailedApiException(400, null, null)));
+        assertFalse(policy.isServerFailure(new FailedApiException(401, null, null)));
+        assertFalse(policy.isServerFailure(new PowerAuthErrorException(PowerAuthErrorCodes.SIGNATURE_ERROR, "signature")));
+    }
+}
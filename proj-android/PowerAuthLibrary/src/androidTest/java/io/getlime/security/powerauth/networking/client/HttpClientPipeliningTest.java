@@ -0,0 +1,356 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.getlime.security.powerauth.core.EciesEncryptor;
+import io.getlime.security.powerauth.core.Session;
+import io.getlime.security.powerauth.ecies.EciesEncryptorId;
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.endpoints.ValidateSignatureEndpoint;
+import io.getlime.security.powerauth.networking.interfaces.ICancelable;
+import io.getlime.security.powerauth.networking.interfaces.INetworkResponseListener;
+import io.getlime.security.powerauth.networking.model.request.ValidateSignatureRequest;
+import io.getlime.security.powerauth.sdk.PowerAuthAuthentication;
+import io.getlime.security.powerauth.sdk.PowerAuthAuthorizationHttpHeader;
+import io.getlime.security.powerauth.sdk.PowerAuthClientConfiguration;
+import io.getlime.security.powerauth.sdk.impl.DefaultExecutorProvider;
+import io.getlime.security.powerauth.sdk.impl.IKeystoreService;
+import io.getlime.security.powerauth.sdk.impl.IPrivateCryptoHelper;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpClientPipeliningTest {
+
+    private static final int TIMEOUT = 20_000;
+    private static final int MAX_CONCURRENT_SIGNED_REQUESTS = 2;
+    private static final String SIGNATURE_HEADER = "X-PowerAuth-Authorization";
+
+    /**
+     * Server that records the received signatures and then either stalls or closes the connection.
+     */
+    private ServerSocket server;
+    private volatile boolean closeConnections;
+    private final ArrayList<Socket> acceptedSockets = new ArrayList<>();
+    private final List<String> receivedSignatures = new ArrayList<>();
+
+    private final List<String> calculatedSignatures = new ArrayList<>();
+    private final HashSet<Integer> failingSignatures = new HashSet<>();
+
+    private HttpClient httpClient;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new ServerSocket(0);
+        final Thread acceptThread = new Thread(() -> {
+            try {
+                while (!server.isClosed()) {
+                    final Socket socket = server.accept();
+                    synchronized (acceptedSockets) {
+                        acceptedSockets.add(socket);
+                    }
+                    new Thread(() -> processConnection(socket)).start();
+                }
+            } catch (IOException e) {
+                // Server is closed
+            }
+        });
+        acceptThread.start();
+        final PowerAuthClientConfiguration configuration = new PowerAuthClientConfiguration.Builder()
+                .allowUnsecuredConnection(true)
+                .timeouts(TIMEOUT, TIMEOUT)
+                .maxConcurrentSignedRequests(MAX_CONCURRENT_SIGNED_REQUESTS)
+                .build();
+        httpClient = new HttpClient(configuration, "http://127.0.0.1:" + server.getLocalPort(), new DefaultExecutorProvider(), Runnable::run);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.close();
+        synchronized (acceptedSockets) {
+            for (Socket socket : acceptedSockets) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void testRequestsAreSignedAndSentInOrder() throws Exception {
+        final RequestListener[] listeners = new RequestListener[4];
+        final ICancelable[] tasks = new ICancelable[listeners.length];
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = new RequestListener();
+            tasks[i] = post(listeners[i]);
+        }
+        // Only the allowed number of requests is signed and transmitted.
+        waitForReceivedSignatures(2);
+        Thread.sleep(300);
+        assertEquals(Arrays.asList("sig-0", "sig-1"), getCalculatedSignatures());
+        assertEquals(new HashSet<>(Arrays.asList("sig-0", "sig-1")), new HashSet<>(getReceivedSignatures()));
+
+        // The next request is signed and sent once the older request is finished.
+        tasks[0].cancel();
+        waitForReceivedSignatures(3);
+        assertEquals("sig-2", getReceivedSignatures().get(2));
+        tasks[1].cancel();
+        waitForReceivedSignatures(4);
+        assertEquals("sig-3", getReceivedSignatures().get(3));
+        assertEquals(Arrays.asList("sig-0", "sig-1", "sig-2", "sig-3"), getCalculatedSignatures());
+
+        tasks[2].cancel();
+        tasks[3].cancel();
+        for (RequestListener listener : listeners) {
+            assertTrue(listener.await());
+            assertTrue(listener.isCancelled);
+        }
+    }
+
+    @Test
+    public void testPermitIsReleasedOnCancelBeforeTransmission() throws Exception {
+        final RequestListener[] listeners = new RequestListener[5];
+        final ICancelable[] tasks = new ICancelable[listeners.length];
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = new RequestListener();
+            tasks[i] = post(listeners[i]);
+        }
+        waitForReceivedSignatures(2);
+        // The 3rd request is waiting for the permit in the serial executor, the 4th is still queued.
+        tasks[2].cancel();
+        tasks[3].cancel();
+        tasks[0].cancel();
+        // The 3rd request gets the permit, but it's never transmitted, so the permit must be released
+        // and the last request is sent.
+        waitForReceivedSignatures(3);
+        assertEquals("sig-3", getReceivedSignatures().get(2));
+        assertEquals(Arrays.asList("sig-0", "sig-1", "sig-2", "sig-3"), getCalculatedSignatures());
+
+        tasks[1].cancel();
+        tasks[4].cancel();
+        for (RequestListener listener : listeners) {
+            assertTrue(listener.await());
+            assertTrue(listener.isCancelled);
+        }
+    }
+
+    @Test
+    public void testPermitIsReleasedOnFailure() throws Exception {
+        closeConnections = true;
+        final RequestListener[] listeners = new RequestListener[MAX_CONCURRENT_SIGNED_REQUESTS * 3];
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = new RequestListener();
+            post(listeners[i]);
+        }
+        // If the permit is not released on failure, then the serial executor is blocked forever.
+        for (RequestListener listener : listeners) {
+            assertTrue(listener.await());
+            assertNotNull(listener.failure.get());
+        }
+        assertEquals(listeners.length, getCalculatedSignatures().size());
+        assertEquals(listeners.length, getReceivedSignatures().size());
+    }
+
+    @Test
+    public void testPermitIsReleasedOnSignatureFailure() throws Exception {
+        closeConnections = true;
+        synchronized (this) {
+            for (int i = 0; i < MAX_CONCURRENT_SIGNED_REQUESTS * 2; i++) {
+                failingSignatures.add(i);
+            }
+        }
+        final RequestListener[] listeners = new RequestListener[MAX_CONCURRENT_SIGNED_REQUESTS * 3];
+        for (int i = 0; i < listeners.length; i++) {
+            listeners[i] = new RequestListener();
+            post(listeners[i]);
+        }
+        for (int i = 0; i < listeners.length; i++) {
+            assertTrue(listeners[i].await());
+            final Throwable failure = listeners[i].failure.get();
+            assertNotNull(failure);
+            if (i < MAX_CONCURRENT_SIGNED_REQUESTS * 2) {
+                // Request failed before the transmission.
+                assertTrue(failure instanceof PowerAuthErrorException);
+                assertEquals(PowerAuthErrorCodes.SIGNATURE_ERROR, ((PowerAuthErrorException) failure).getPowerAuthErrorCode());
+            }
+        }
+        assertEquals(MAX_CONCURRENT_SIGNED_REQUESTS, getReceivedSignatures().size());
+    }
+
+    // Helper methods
+
+    /**
+     * Post signed request from the main thread.
+     * @param listener Response listener.
+     * @return Cancelable task.
+     */
+    @NonNull
+    private ICancelable post(@NonNull RequestListener listener) {
+        final ValidateSignatureRequest request = new ValidateSignatureRequest();
+        request.setReason("PIPELINING_TEST");
+        final AtomicReference<ICancelable> task = new AtomicReference<>();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            task.set(httpClient.post(request, new ValidateSignatureEndpoint(), cryptoHelper, PowerAuthAuthentication.possession(), null, listener));
+        });
+        return task.get();
+    }
+
+    /**
+     * Wait until the server receives the expected number of requests.
+     * @param count Expected number of received requests.
+     */
+    private void waitForReceivedSignatures(int count) throws InterruptedException {
+        for (int i = 0; i < 50 && getReceivedSignatures().size() < count; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(count, getReceivedSignatures().size());
+    }
+
+    @NonNull
+    private List<String> getReceivedSignatures() {
+        synchronized (receivedSignatures) {
+            return new ArrayList<>(receivedSignatures);
+        }
+    }
+
+    @NonNull
+    private List<String> getCalculatedSignatures() {
+        synchronized (this) {
+            return new ArrayList<>(calculatedSignatures);
+        }
+    }
+
+    /**
+     * Read the request headers, record the signature, and then close or stall the connection.
+     * @param socket Accepted socket.
+     */
+    private void processConnection(@NonNull Socket socket) {
+        try {
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                if (line.regionMatches(true, 0, SIGNATURE_HEADER + ":", 0, SIGNATURE_HEADER.length() + 1)) {
+                    synchronized (receivedSignatures) {
+                        receivedSignatures.add(line.substring(SIGNATURE_HEADER.length() + 1).trim());
+                    }
+                }
+            }
+            if (closeConnections) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            // Connection is closed
+        }
+    }
+
+    /**
+     * Crypto helper that produces signatures with an increasing counter.
+     */
+    private final IPrivateCryptoHelper cryptoHelper = new IPrivateCryptoHelper() {
+        @NonNull
+        @Override
+        public EciesEncryptor getEciesEncryptor(@NonNull EciesEncryptorId identifier) throws PowerAuthErrorException {
+            throw new PowerAuthErrorException(PowerAuthErrorCodes.ENCRYPTION_ERROR);
+        }
+
+        @NonNull
+        @Override
+        public PowerAuthAuthorizationHttpHeader getAuthorizationHeader(boolean availableInProtocolUpgrade, @NonNull byte[] body, @NonNull String method, @NonNull String uriIdentifier, @NonNull PowerAuthAuthentication authentication) {
+            synchronized (HttpClientPipeliningTest.this) {
+                final int counter = calculatedSignatures.size();
+                calculatedSignatures.add("sig-" + counter);
+                if (failingSignatures.contains(counter)) {
+                    return PowerAuthAuthorizationHttpHeader.createError(PowerAuthErrorCodes.SIGNATURE_ERROR);
+                }
+                return PowerAuthAuthorizationHttpHeader.createAuthorizationHeader("sig-" + counter);
+            }
+        }
+
+        @Nullable
+        @Override
+        public byte[] getDeviceRelatedKey() {
+            return null;
+        }
+
+        @NonNull
+        @Override
+        public IKeystoreService getKeystoreService() {
+            throw new UnsupportedOperationException();
+        }
+
+        @NonNull
+        @Override
+        public Session getCoreSession() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
+    /**
+     * Listener that records the result of the request.
+     */
+    private static class RequestListener implements INetworkResponseListener<Void> {
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        volatile boolean isCancelled;
+
+        boolean await() throws InterruptedException {
+            return latch.await(TIMEOUT / 2, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void onNetworkResponse(@NonNull Void response) {
+            latch.countDown();
+        }
+
+        @Override
+        public void onNetworkError(@NonNull Throwable throwable) {
+            failure.set(throwable);
+            latch.countDown();
+        }
+
+        @Override
+        public void onCancel() {
+            isCancelled = true;
+            latch.countDown();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.os.AsyncTask;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.getlime.security.powerauth.networking.endpoints.GetServerStatusEndpoint;
+import io.getlime.security.powerauth.networking.interfaces.IHttpMetricsListener;
+import io.getlime.security.powerauth.networking.interfaces.INetworkResponseListener;
+import io.getlime.security.powerauth.networking.metrics.HttpRequestMetrics;
+import io.getlime.security.powerauth.networking.model.response.ServerStatusResponse;
+import io.getlime.security.powerauth.sdk.PowerAuthClientConfiguration;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpClientTaskCancelTest {
+
+    private static final int READ_TIMEOUT = 20_000;
+
+    /**
+     * Server that accepts connections, but never responds.
+     */
+    private ServerSocket stalledServer;
+    private final ArrayList<Socket> acceptedSockets = new ArrayList<>();
+
+    private final AtomicReference<HttpRequestMetrics> reportedMetrics = new AtomicReference<>();
+    private final CountDownLatch metricsLatch = new CountDownLatch(1);
+    private final CountDownLatch cancelLatch = new CountDownLatch(1);
+
+    @Before
+    public void setUp() throws Exception {
+        stalledServer = new ServerSocket(0);
+        final Thread acceptThread = new Thread(() -> {
+            try {
+                while (!stalledServer.isClosed()) {
+                    final Socket socket = stalledServer.accept();
+                    synchronized (acceptedSockets) {
+                        acceptedSockets.add(socket);
+                    }
+                }
+            } catch (IOException e) {
+                // Server is closed
+            }
+        });
+        acceptThread.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        stalledServer.close();
+        synchronized (acceptedSockets) {
+            for (Socket socket : acceptedSockets) {
+                socket.close();
+            }
+        }
+    }
+
+    @Test
+    public void testCancelStalledRequest() throws Exception {
+        final HttpClientTask<Void, ServerStatusResponse> task = createTask();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> task.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR));
+
+        // Wait until the request is sent and the task is blocked on read.
+        Thread.sleep(500);
+        assertNull(reportedMetrics.get());
+
+        final long cancelTime = System.currentTimeMillis();
+        task.cancel();
+        assertTrue(metricsLatch.await(5, TimeUnit.SECONDS));
+        assertTrue(cancelLatch.await(5, TimeUnit.SECONDS));
+        // The worker thread must be released long before the read timeout.
+        assertTrue(System.currentTimeMillis() - cancelTime < READ_TIMEOUT / 4);
+
+        final HttpRequestMetrics metrics = reportedMetrics.get();
+        assertNotNull(metrics);
+        assertTrue(metrics.isCancelled);
+        assertFalse(metrics.isSuccess());
+    }
+
+    @Test
+    public void testCancelBeforeStart() throws Exception {
+        final HttpClientTask<Void, ServerStatusResponse> task = createTask();
+        task.cancel();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> task.executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR));
+
+        assertTrue(metricsLatch.await(5, TimeUnit.SECONDS));
+        assertTrue(cancelLatch.await(5, TimeUnit.SECONDS));
+        final HttpRequestMetrics metrics = reportedMetrics.get();
+        assertNotNull(metrics);
+        assertTrue(metrics.isCancelled);
+        assertEquals(0, metrics.statusCode);
+        assertEquals(0, metrics.totalTime);
+    }
+
+    @NonNull
+    private HttpClientTask<Void, ServerStatusResponse> createTask() {
+        final PowerAuthClientConfiguration configuration = new PowerAuthClientConfiguration.Builder()
+                .allowUnsecuredConnection(true)
+                .timeouts(READ_TIMEOUT, READ_TIMEOUT)
+                .metricsListener(new IHttpMetricsListener() {
+                    @Override
+                    public void onHttpRequestCompleted(@NonNull HttpRequestMetrics metrics) {
+                        reportedMetrics.set(metrics);
+                        metricsLatch.countDown();
+                    }
+                })
+                .build();
+        final HttpRequestHelper<Void, ServerStatusResponse> request = new HttpRequestHelper<>(null, new GetServerStatusEndpoint(), null);
+        final String baseUrl = "http://127.0.0.1:" + stalledServer.getLocalPort();
+        return new HttpClientTask<>(request, baseUrl, configuration, null, new INetworkResponseListener<ServerStatusResponse>() {
+            @Override
+            public void onNetworkResponse(@NonNull ServerStatusResponse response) {
+                fail();
+            }
+
+            @Override
+            public void onNetworkError(@NonNull Throwable throwable) {
+                fail();
+            }
+
+            @Override
+            public void onCancel() {
+                cancelLatch.countDown();
+            }
+        });
+    }
+}
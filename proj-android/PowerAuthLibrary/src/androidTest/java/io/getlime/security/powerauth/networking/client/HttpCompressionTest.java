@@ -0,0 +1,160 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.util.Base64;
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Locale;
+
+import io.getlime.security.powerauth.networking.model.request.ActivationStatusRequest;
+import io.getlime.security.powerauth.networking.model.request.EciesEncryptedRequest;
+import io.getlime.security.powerauth.networking.model.response.ActivationStatusResponse;
+import io.getlime.security.powerauth.networking.model.response.EciesEncryptedResponse;
+import io.getlime.security.powerauth.networking.model.response.ServerStatusResponse;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpCompressionTest {
+
+    private final SecureRandom random = new SecureRandom();
+    private final JsonSerialization serialization = new JsonSerialization();
+
+    @Test
+    public void testCompressDecompress() throws Exception {
+        final byte[] data = "{\"requestObject\":{\"activationId\":\"aaaaaaaa-bbbb-cccc-dddd-eeeeeeeeeeee\",\"challenge\":\"aaaaaaaaaaaaaaaa\"}}".getBytes(StandardCharsets.UTF_8);
+        final byte[] compressed = HttpCompression.compress(data);
+        assertArrayEquals(data, HttpCompression.decompress(compressed));
+        final byte[] empty = new byte[0];
+        assertArrayEquals(empty, HttpCompression.decompress(HttpCompression.compress(empty)));
+    }
+
+    @Test
+    public void testDecompressionLimit() throws Exception {
+        // Highly compressible data, similar to a gzip bomb.
+        final byte[] data = new byte[HttpCompression.MAX_DECOMPRESSED_SIZE + 1];
+        final byte[] compressed = HttpCompression.compress(data);
+        assertTrue(compressed.length < data.length / 100);
+        try {
+            HttpCompression.decompress(compressed);
+            fail();
+        } catch (IOException e) {
+            // Expected
+        }
+        // Data at the limit is accepted.
+        assertArrayEquals(new byte[1000], HttpCompression.decompress(HttpCompression.compress(new byte[1000]), 1000));
+        try {
+            HttpCompression.decompress(HttpCompression.compress(new byte[1001]), 1000);
+            fail();
+        } catch (IOException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void testContentEncoding() throws Exception {
+        assertTrue(HttpCompression.isGzipEncoded("gzip"));
+        assertTrue(HttpCompression.isGzipEncoded(" GZIP "));
+        assertFalse(HttpCompression.isGzipEncoded("br"));
+        assertFalse(HttpCompression.isGzipEncoded(null));
+    }
+
+    /**
+     * Benchmark of the bytes transferred by the existing endpoints, with and without the compression. The bodies
+     * contain random data of a typical size, so the encrypted payloads don't compress better than in reality.
+     */
+    @Test
+    public void testEndpointPayloadSizes() throws Exception {
+        // Server status
+        final ServerStatusResponse serverStatus = new ServerStatusResponse();
+        serverStatus.setServerTime(System.currentTimeMillis());
+        reportSize("GetServerStatus response", serialization.serializeObject(serverStatus));
+
+        // Activation status
+        final ActivationStatusRequest statusRequest = new ActivationStatusRequest();
+        statusRequest.setActivationId("f3b6e0c4-8c1d-4f3a-9d6e-2b7a1c5e9f10");
+        statusRequest.setChallenge(randomBase64(16));
+        reportSize("GetActivationStatus request", serialization.serializeRequestObject(statusRequest));
+        final ActivationStatusResponse statusResponse = new ActivationStatusResponse();
+        statusResponse.setActivationId(statusRequest.getActivationId());
+        statusResponse.setEncryptedStatusBlob(randomBase64(32));
+        statusResponse.setNonce(randomBase64(16));
+        final HashMap<String, Object> customObject = new HashMap<>();
+        customObject.put("userId", "1234567890");
+        customObject.put("deviceName", "Pixel 8 Pro");
+        statusResponse.setCustomObject(customObject);
+        reportSize("GetActivationStatus response", serialization.serializeObject(statusResponse));
+
+        // Encrypted payloads: create activation, user info and application specific payloads
+        final int[] payloadSizes = { 256, 1024, 4096, 16384 };
+        for (int payloadSize : payloadSizes) {
+            final byte[] requestBody = serialization.serializeRequestObject(createEncryptedRequest(payloadSize));
+            final byte[] compressedRequest = reportSize("Encrypted request " + payloadSize + " bytes", requestBody);
+            final byte[] responseBody = serialization.serializeObject(createEncryptedResponse(payloadSize));
+            final byte[] compressedResponse = reportSize("Encrypted response " + payloadSize + " bytes", responseBody);
+            if (payloadSize >= 1024) {
+                // Base64 encoded ciphertext must be always reduced.
+                assertTrue(compressedRequest.length < requestBody.length);
+                assertTrue(compressedResponse.length < responseBody.length);
+            }
+        }
+    }
+
+    private byte[] reportSize(String name, byte[] body) throws Exception {
+        final byte[] compressed = HttpCompression.compress(body);
+        assertArrayEquals(body, HttpCompression.decompress(compressed));
+        Log.i("HttpCompressionTest", String.format(Locale.US, "%s: %d bytes, gzip %d bytes (%d%%)", name, body.length, compressed.length, compressed.length * 100 / body.length));
+        return compressed;
+    }
+
+    private EciesEncryptedRequest createEncryptedRequest(int payloadSize) {
+        final EciesEncryptedRequest request = new EciesEncryptedRequest();
+        request.setTemporaryKeyId("0b6f5bd6-7a44-4d3e-8a5c-4c2f1e9d8a70");
+        request.setEphemeralPublicKey(randomBase64(33));
+        request.setEncryptedData(randomBase64(payloadSize + 16));
+        request.setMac(randomBase64(32));
+        request.setNonce(randomBase64(16));
+        request.setTimestamp(System.currentTimeMillis());
+        return request;
+    }
+
+    private EciesEncryptedResponse createEncryptedResponse(int payloadSize) {
+        final EciesEncryptedResponse response = new EciesEncryptedResponse();
+        response.setEncryptedData(randomBase64(payloadSize + 16));
+        response.setMac(randomBase64(32));
+        response.setNonce(randomBase64(16));
+        response.setTimestamp(System.currentTimeMillis());
+        return response;
+    }
+
+    private String randomBase64(int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return Base64.encodeToString(bytes, Base64.NO_WRAP);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.os.SystemClock;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.TimeoutException;
+
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpDeadlineTest {
+
+    @Test
+    public void testRemainingTime() throws Exception {
+        final HttpDeadline deadline = HttpDeadline.fromNow(10_000);
+        assertFalse(deadline.isExpired());
+        final long remainingTime = deadline.getRemainingTime();
+        assertTrue(remainingTime > 9_000 && remainingTime <= 10_000);
+
+        final HttpDeadline expired = new HttpDeadline(SystemClock.elapsedRealtime() - 1);
+        assertTrue(expired.isExpired());
+        assertEquals(0, expired.getRemainingTime());
+    }
+
+    @Test
+    public void testLimitTimeout() throws Exception {
+        final HttpDeadline deadline = HttpDeadline.fromNow(10_000);
+        // Shorter timeout is kept
+        assertEquals(2_000, deadline.limitTimeout(2_000));
+        // Longer or infinite timeout is limited to the remaining time
+        int timeout = deadline.limitTimeout(20_000);
+        assertTrue(timeout > 9_000 && timeout <= 10_000);
+        timeout = deadline.limitTimeout(0);
+        assertTrue(timeout > 9_000 && timeout <= 10_000);
+        // Expired deadline never produces the infinite timeout
+        final HttpDeadline expired = new HttpDeadline(SystemClock.elapsedRealtime() - 1);
+        assertEquals(1, expired.limitTimeout(0));
+        assertEquals(1, expired.limitTimeout(2_000));
+    }
+
+    @Test
+    public void testDeadlineExceededException() throws Exception {
+        final PowerAuthErrorException exception = HttpDeadline.fromNow(0).createDeadlineExceededException();
+        assertEquals(PowerAuthErrorCodes.NETWORK_ERROR, exception.getPowerAuthErrorCode());
+        assertTrue(exception.getCause() instanceof TimeoutException);
+        // Deadline exceeded is not a transient failure
+        assertFalse(HttpRetryPolicy.DEFAULT.isRetryableError(exception));
+        assertFalse(HttpCircuitBreakerPolicy.DEFAULT.isServerFailure(exception));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpHedgingControllerTest {
+
+    @Test
+    public void testHedgeDelay() throws Exception {
+        final HttpHedgingPolicy policy = new HttpHedgingPolicy(90.0, 20, 1_000, 10, 0.1, 2.0);
+        final HttpHedgingController controller = new HttpHedgingController(policy);
+        // Not enough samples
+        assertEquals(1_000, controller.onRequestStarted("/status"));
+        for (int i = 0; i < 10; i++) {
+            controller.recordLatency("/status", 80);
+        }
+        assertEquals(80, controller.onRequestStarted("/status"));
+        // Other endpoint has its own latency
+        assertEquals(1_000, controller.onRequestStarted("/other"));
+        // Minimum delay
+        for (int i = 0; i < 100; i++) {
+            controller.recordLatency("/fast", 1);
+        }
+        assertEquals(20, controller.onRequestStarted("/fast"));
+    }
+
+    @Test
+    public void testHedgeDelayFollowsLatencyShift() throws Exception {
+        final HttpHedgingPolicy policy = new HttpHedgingPolicy(90.0, 20, 1_000, 10, 0.1, 2.0);
+        final HttpHedgingController controller = new HttpHedgingController(policy);
+        for (int i = 0; i < 1_000; i++) {
+            controller.recordLatency("/status", 80);
+        }
+        assertEquals(80, controller.onRequestStarted("/status"));
+        // Network becomes slower, the percentile moves once the slow responses dominate the window.
+        for (int i = 0; i < HttpHedgingController.LATENCY_WINDOW_SIZE / 2; i++) {
+            controller.recordLatency("/status", 400);
+        }
+        assertEquals(400, controller.onRequestStarted("/status"));
+        // Network becomes fast again, the old slow responses are forgotten.
+        for (int i = 0; i < HttpHedgingController.LATENCY_WINDOW_SIZE; i++) {
+            controller.recordLatency("/status", 50);
+        }
+        assertEquals(50, controller.onRequestStarted("/status"));
+    }
+
+    @Test
+    public void testHedgeBudget() throws Exception {
+        final HttpHedgingPolicy policy = new HttpHedgingPolicy(95.0, 0, 100, 1, 0.5, 2.0);
+        final HttpHedgingController controller = new HttpHedgingController(policy);
+        assertFalse(controller.tryAcquireBudget("/status"));
+        controller.onRequestStarted("/status");
+        assertFalse(controller.tryAcquireBudget("/status"));
+        controller.onRequestStarted("/status");
+        assertTrue(controller.tryAcquireBudget("/status"));
+        assertFalse(controller.tryAcquireBudget("/status"));
+        // Budget is limited
+        for (int i = 0; i < 10; i++) {
+            controller.onRequestStarted("/status");
+        }
+        assertTrue(controller.tryAcquireBudget("/status"));
+        assertTrue(controller.tryAcquireBudget("/status"));
+        assertFalse(controller.tryAcquireBudget("/status"));
+        // Other endpoint has its own budget
+        assertFalse(controller.tryAcquireBudget("/other"));
+    }
+}
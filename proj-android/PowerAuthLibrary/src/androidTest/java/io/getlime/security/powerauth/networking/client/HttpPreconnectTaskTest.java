@@ -0,0 +1,65 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.getlime.security.powerauth.sdk.PowerAuthClientConfiguration;
+import io.getlime.security.powerauth.sdk.impl.ITaskCompletion;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpPreconnectTaskTest {
+
+    @Test
+    public void testRuntimeExceptionIsReported() throws Exception {
+        final IllegalStateException interceptorFailure = new IllegalStateException("Interceptor failure");
+        final PowerAuthClientConfiguration configuration = new PowerAuthClientConfiguration.Builder()
+                .requestInterceptor(connection -> {
+                    throw interceptorFailure;
+                })
+                .build();
+        final AtomicInteger completionCount = new AtomicInteger();
+        final AtomicReference<Throwable> reportedFailure = new AtomicReference<>();
+        final HttpPreconnectTask task = new HttpPreconnectTask("http://localhost:1/", configuration, Runnable::run, new ITaskCompletion<Integer>() {
+            @Override
+            public void onSuccess(@NonNull Integer statusCode) {
+                completionCount.incrementAndGet();
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable failure) {
+                completionCount.incrementAndGet();
+                reportedFailure.set(failure);
+            }
+        });
+        // The interceptor is called before the connection is established, so the task doesn't need a server.
+        task.run();
+        assertEquals(1, completionCount.get());
+        assertSame(interceptorFailure, reportedFailure.get());
+        assertEquals(-1, task.getResponseLatency());
+    }
+}
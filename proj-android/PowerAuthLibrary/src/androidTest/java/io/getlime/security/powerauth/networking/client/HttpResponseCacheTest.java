@@ -0,0 +1,128 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import io.getlime.security.powerauth.keychain.Keychain;
+import io.getlime.security.powerauth.keychain.KeychainFactory;
+import io.getlime.security.powerauth.keychain.KeychainProtection;
+import io.getlime.security.powerauth.networking.endpoints.GetUserInfoEndpoint;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpResponseCacheTest {
+
+    private static final String KEYCHAIN_NAME = "test.responseCache";
+    private static final String CACHE_KEY = "testKey";
+
+    private Keychain keychain;
+
+    @Before
+    public void setUp() throws Exception {
+        final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        keychain = KeychainFactory.getKeychain(context, KEYCHAIN_NAME, KeychainProtection.NONE);
+        keychain.removeAll();
+    }
+
+    @After
+    public void tearDown() {
+        keychain.removeAll();
+    }
+
+    @Test
+    public void testEachCallerGetsCopy() throws Exception {
+        final EndpointCachePolicy policy = new EndpointCachePolicy(60_000, 0, false, false);
+        final GetUserInfoEndpoint endpoint = new GetUserInfoEndpoint(policy);
+        final HttpResponseCache cache = new HttpResponseCache(keychain, "test");
+        final Map<String, Object> response = new HashMap<>();
+        response.put("name", "John");
+        cache.put(CACHE_KEY, endpoint, policy, null, response, System.currentTimeMillis(), cache.getActivationScopeGeneration());
+        // Modification of the original response doesn't affect the cache.
+        response.put("name", "Modified");
+
+        final HttpResponseCache.Entry entry1 = cache.get(CACHE_KEY, endpoint);
+        final HttpResponseCache.Entry entry2 = cache.get(CACHE_KEY, endpoint);
+        assertNotNull(entry1);
+        assertNotNull(entry2);
+        assertNotSame(entry1.response, entry2.response);
+        @SuppressWarnings("unchecked")
+        final Map<String, Object> response1 = (Map<String, Object>) entry1.response;
+        assertEquals("John", response1.get("name"));
+        // Modification of the returned response doesn't affect other callers.
+        response1.put("name", "Modified");
+        final HttpResponseCache.Entry entry3 = cache.get(CACHE_KEY, endpoint);
+        assertNotNull(entry3);
+        assertEquals("John", ((Map<?, ?>) entry3.response).get("name"));
+    }
+
+    @Test
+    public void testPersistedResponse() throws Exception {
+        final EndpointCachePolicy policy = new EndpointCachePolicy(60_000, 0, true, true);
+        final GetUserInfoEndpoint endpoint = new GetUserInfoEndpoint(policy);
+        final Map<String, Object> response = new HashMap<>();
+        response.put("name", "John");
+        HttpResponseCache cache = new HttpResponseCache(keychain, "test");
+        cache.put(CACHE_KEY, endpoint, policy, "activation", response, System.currentTimeMillis(), cache.getActivationScopeGeneration());
+
+        // New instance loads the response from the keychain.
+        cache = new HttpResponseCache(keychain, "test");
+        HttpResponseCache.Entry entry = cache.get(CACHE_KEY, endpoint);
+        assertNotNull(entry);
+        assertEquals("John", ((Map<?, ?>) entry.response).get("name"));
+
+        // Activation scoped entry is removed also from the keychain.
+        cache.removeActivationScopedEntries();
+        assertNull(cache.get(CACHE_KEY, endpoint));
+        cache = new HttpResponseCache(keychain, "test");
+        assertNull(cache.get(CACHE_KEY, endpoint));
+    }
+
+    @Test
+    public void testResponseForRemovedActivationIsNotStored() throws Exception {
+        final EndpointCachePolicy policy = new EndpointCachePolicy(60_000, 0, true, true);
+        final GetUserInfoEndpoint endpoint = new GetUserInfoEndpoint(policy);
+        final Map<String, Object> response = new HashMap<>();
+        response.put("name", "John");
+        HttpResponseCache cache = new HttpResponseCache(keychain, "test");
+        // The generation is captured when the request starts, then the activation is removed.
+        final int generation = cache.getActivationScopeGeneration();
+        cache.removeActivationScopedEntries();
+        cache.put(CACHE_KEY, endpoint, policy, "activation", response, System.currentTimeMillis(), generation);
+        assertNull(cache.get(CACHE_KEY, endpoint));
+        cache = new HttpResponseCache(keychain, "test");
+        assertNull(cache.get(CACHE_KEY, endpoint));
+
+        // The response not bound to the activation is still stored.
+        final EndpointCachePolicy applicationPolicy = new EndpointCachePolicy(60_000, 0, false, true);
+        cache.put(CACHE_KEY, new GetUserInfoEndpoint(applicationPolicy), applicationPolicy, "activation", response, System.currentTimeMillis(), generation);
+        assertNotNull(cache.get(CACHE_KEY, endpoint));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.net.SocketTimeoutException;
+
+import javax.net.ssl.SSLHandshakeException;
+
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.exceptions.FailedApiException;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpRetryPolicyTest {
+
+    @Test
+    public void testBackoffDelay() throws Exception {
+        final HttpRetryPolicy policy = new HttpRetryPolicy(5, 100, 1000, 2.0, 10_000);
+        for (int i = 0; i < 100; i++) {
+            long delay = policy.getBackoffDelay(0);
+            assertTrue(delay >= 50 && delay <= 100);
+            delay = policy.getBackoffDelay(2);
+            assertTrue(delay >= 200 && delay <= 400);
+            delay = policy.getBackoffDelay(10);
+            assertTrue(delay >= 500 && delay <= 1000);
+        }
+        assertEquals(0, HttpRetryPolicy.NONE.getBackoffDelay(0));
+        assertEquals(0, HttpRetryPolicy.NONE.maxRetries);
+    }
+
+    @Test
+    public void testRetryableErrors() throws Exception {
+        final HttpRetryPolicy policy = HttpRetryPolicy.DEFAULT;
+        assertTrue(policy.isRetryableError(new PowerAuthErrorException(PowerAuthErrorCodes.NETWORK_ERROR, "timeout", new SocketTimeoutException())));
+        assertTrue(policy.isRetryableError(new FailedApiException(503, null, null)));
+        assertTrue(policy.isRetryableError(new FailedApiException(504, null, null)));
+        assertFalse(policy.isRetryableError(new PowerAuthErrorException(PowerAuthErrorCodes.NETWORK_ERROR, "TLS", new SSLHandshakeException("TLS"))));
+        assertFalse(policy.isRetryableError(new PowerAuthErrorException(PowerAuthErrorCodes.WRONG_PARAMETER, "wrong")));
+        assertFalse(policy.isRetryableError(new FailedApiException(400, null, null)));
+        assertFalse(policy.isRetryableError(new FailedApiException(500, null, null)));
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.getlime.security.powerauth.integration.support.AsyncHelper;
+import io.getlime.security.powerauth.networking.exceptions.FailedApiException;
+import io.getlime.security.powerauth.networking.interfaces.ICancelable;
+import io.getlime.security.powerauth.networking.interfaces.INetworkResponseListener;
+import io.getlime.security.powerauth.sdk.impl.DummyCancelable;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpRetryTaskTest {
+
+    private final HttpRetryPolicy retryPolicy = new HttpRetryPolicy(2, 10, 10, 1.0, 10_000);
+    private final Handler handler = new Handler(Looper.getMainLooper());
+
+    @Test
+    public void testAttemptFailingImmediately() throws Exception {
+        final AtomicInteger attemptCount = new AtomicInteger();
+        final String result = AsyncHelper.await(resultCatcher -> {
+            final HttpRetryTask<String> task = new HttpRetryTask<>("test", retryPolicy, null, handler, new ResultListener(resultCatcher), (retryCount, listener) -> {
+                // The attempt reports its result before the factory returns.
+                assertEquals(attemptCount.getAndIncrement(), retryCount);
+                if (retryCount < 2) {
+                    listener.onNetworkError(new FailedApiException(503, null, null));
+                } else {
+                    listener.onNetworkResponse("OK");
+                }
+                return new DummyCancelable();
+            });
+            task.start();
+        });
+        assertEquals("OK", result);
+        assertEquals(3, attemptCount.get());
+    }
+
+    @Test
+    public void testCancelRunningAttempt() throws Exception {
+        final TestAttempt attempt = new TestAttempt();
+        final HttpRetryTask<String>[] task = new HttpRetryTask[1];
+        final String result = AsyncHelper.await(resultCatcher -> {
+            task[0] = new HttpRetryTask<>("test", retryPolicy, null, handler, new ResultListener(resultCatcher), (retryCount, listener) -> attempt);
+            task[0].start();
+            task[0].cancel();
+        });
+        assertEquals("CANCEL", result);
+        assertTrue(task[0].isCancelled());
+        assertTrue(attempt.isCancelled());
+    }
+
+    @Test
+    public void testCancelBeforeRetry() throws Exception {
+        final AtomicInteger attemptCount = new AtomicInteger();
+        final String result = AsyncHelper.await(resultCatcher -> {
+            final HttpRetryTask<String>[] task = new HttpRetryTask[1];
+            task[0] = new HttpRetryTask<>("test", retryPolicy, null, handler, new ResultListener(resultCatcher), (retryCount, listener) -> {
+                attemptCount.incrementAndGet();
+                // Cancel the task before the attempt fails, so there must be no retry.
+                task[0].cancel();
+                listener.onNetworkError(new FailedApiException(503, null, null));
+                return new DummyCancelable();
+            });
+            task[0].start();
+        });
+        assertEquals("CANCEL", result);
+        assertEquals(1, attemptCount.get());
+    }
+
+    // Helper classes
+
+    private static class TestAttempt implements ICancelable {
+        private volatile boolean isCancelled;
+
+        @Override
+        public void cancel() {
+            isCancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return isCancelled;
+        }
+    }
+
+    private static class ResultListener implements INetworkResponseListener<String> {
+
+        private final AsyncHelper.ResultCatcher<String> resultCatcher;
+
+        ResultListener(@NonNull AsyncHelper.ResultCatcher<String> resultCatcher) {
+            this.resultCatcher = resultCatcher;
+        }
+
+        @Override
+        public void onNetworkResponse(@NonNull String response) {
+            resultCatcher.completeWithResult(response);
+        }
+
+        @Override
+        public void onNetworkError(@NonNull Throwable throwable) {
+            resultCatcher.completeWithError(throwable);
+        }
+
+        @Override
+        public void onCancel() {
+            resultCatcher.completeWithResult("CANCEL");
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import javax.net.ssl.HandshakeCompletedListener;
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class TimingSSLSocketFactoryTest {
+
+    @After
+    public void tearDown() {
+        TimingSSLSocketFactory.resetThreadMeasurements();
+    }
+
+    @Test
+    public void testSessionResumedById() throws Exception {
+        final FakeSocketFactory delegate = new FakeSocketFactory();
+        final TimingSSLSocketFactory factory = new TimingSSLSocketFactory(delegate);
+
+        // The first handshake is always the full handshake.
+        delegate.session = createSession(new byte[] { 1, 2, 3 }, "TLS_AES_128_GCM_SHA256");
+        assertEquals(Boolean.FALSE, handshake(factory, "server.com", 443));
+
+        // The same session ID is negotiated again, so the session was resumed.
+        delegate.session = createSession(new byte[] { 1, 2, 3 }, "TLS_AES_128_GCM_SHA256");
+        assertEquals(Boolean.TRUE, handshake(factory, "server.com", 443));
+
+        // A new session is negotiated.
+        delegate.session = createSession(new byte[] { 4, 5, 6 }, "TLS_AES_128_GCM_SHA256");
+        assertEquals(Boolean.FALSE, handshake(factory, "server.com", 443));
+        delegate.session = createSession(new byte[] { 4, 5, 6 }, "TLS_AES_128_GCM_SHA256");
+        assertEquals(Boolean.TRUE, handshake(factory, "server.com", 443));
+
+        // Sessions are tracked for each server.
+        assertEquals(Boolean.FALSE, handshake(factory, "server.com", 8443));
+        assertEquals(Boolean.FALSE, handshake(factory, "other-server.com", 443));
+        assertEquals(Boolean.TRUE, handshake(factory, "server.com", 443));
+    }
+
+    @Test
+    public void testSessionResumedByIdentity() throws Exception {
+        final FakeSocketFactory delegate = new FakeSocketFactory();
+        final TimingSSLSocketFactory factory = new TimingSSLSocketFactory(delegate);
+
+        // Session without ID can be compared by identity only.
+        delegate.session = createSession(new byte[0], "TLS_AES_128_GCM_SHA256");
+        assertEquals(Boolean.FALSE, handshake(factory, "server.com", 443));
+        assertEquals(Boolean.TRUE, handshake(factory, "server.com", 443));
+        delegate.session = createSession(new byte[0], "TLS_AES_128_GCM_SHA256");
+        assertEquals(Boolean.FALSE, handshake(factory, "server.com", 443));
+    }
+
+    @Test
+    public void testFailedHandshake() throws Exception {
+        final FakeSocketFactory delegate = new FakeSocketFactory();
+        final TimingSSLSocketFactory factory = new TimingSSLSocketFactory(delegate);
+
+        assertNull(TimingSSLSocketFactory.getSessionResumed());
+        delegate.session = createSession(new byte[] { 1, 2, 3 }, "SSL_NULL_WITH_NULL_NULL");
+        assertNull(handshake(factory, "server.com", 443));
+        // The failed handshake is not remembered.
+        delegate.session = createSession(new byte[] { 1, 2, 3 }, "TLS_AES_128_GCM_SHA256");
+        assertEquals(Boolean.FALSE, handshake(factory, "server.com", 443));
+    }
+
+    // Helper methods
+
+    /**
+     * Create a TLS socket and determine whether its handshake resumed a previous session.
+     * @param factory Factory to test.
+     * @param host Server's host.
+     * @param port Server's port.
+     * @return Result from {@link TimingSSLSocketFactory#getSessionResumed()}.
+     */
+    private static Boolean handshake(@NonNull TimingSSLSocketFactory factory, @NonNull String host, int port) throws Exception {
+        TimingSSLSocketFactory.resetThreadMeasurements();
+        factory.createSocket(new Socket(), host, port, true);
+        assertNotNull(TimingSSLSocketFactory.getLayeredSocketTime());
+        return TimingSSLSocketFactory.getSessionResumed();
+    }
+
+    /**
+     * Create a session with given ID and cipher suite.
+     * @param id Session ID.
+     * @param cipherSuite Negotiated cipher suite.
+     * @return Fake session.
+     */
+    @NonNull
+    private static SSLSession createSession(@NonNull byte[] id, @NonNull String cipherSuite) {
+        return (SSLSession) Proxy.newProxyInstance(SSLSession.class.getClassLoader(), new Class[] { SSLSession.class }, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getId":
+                    return id.clone();
+                case "isValid":
+                    return true;
+                case "getCipherSuite":
+                    return cipherSuite;
+                case "getCreationTime":
+                    // Must not be used for the resumption detection.
+                    throw new UnsupportedOperationException();
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return null;
+            }
+        });
+    }
+
+    /**
+     * Socket factory that creates sockets with already negotiated session.
+     */
+    private static class FakeSocketFactory extends SSLSocketFactory {
+
+        SSLSession session;
+
+        @Override
+        public Socket createSocket(Socket s, String host, int port, boolean autoClose) {
+            return new FakeSocket(session);
+        }
+
+        @Override
+        public String[] getDefaultCipherSuites() {
+            return new String[0];
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return new String[0];
+        }
+
+        @Override
+        public Socket createSocket(String host, int port) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Socket createSocket(String host, int port, InetAddress localHost, int localPort) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Socket createSocket(InetAddress host, int port) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * TLS socket with already completed handshake.
+     */
+    private static class FakeSocket extends SSLSocket {
+
+        private final SSLSession session;
+
+        FakeSocket(SSLSession session) {
+            this.session = session;
+        }
+
+        @Override
+        public SSLSession getSession() {
+            return session;
+        }
+
+        @Override
+        public String[] getSupportedCipherSuites() {
+            return new String[0];
+        }
+
+        @Override
+        public String[] getEnabledCipherSuites() {
+            return new String[0];
+        }
+
+        @Override
+        public void setEnabledCipherSuites(String[] suites) {
+        }
+
+        @Override
+        public String[] getSupportedProtocols() {
+            return new String[0];
+        }
+
+        @Override
+        public String[] getEnabledProtocols() {
+            return new String[0];
+        }
+
+        @Override
+        public void setEnabledProtocols(String[] protocols) {
+        }
+
+        @Override
+        public void addHandshakeCompletedListener(HandshakeCompletedListener listener) {
+        }
+
+        @Override
+        public void removeHandshakeCompletedListener(HandshakeCompletedListener listener) {
+        }
+
+        @Override
+        public void startHandshake() {
+        }
+
+        @Override
+        public void setUseClientMode(boolean mode) {
+        }
+
+        @Override
+        public boolean getUseClientMode() {
+            return true;
+        }
+
+        @Override
+        public void setNeedClientAuth(boolean need) {
+        }
+
+        @Override
+        public boolean getNeedClientAuth() {
+            return false;
+        }
+
+        @Override
+        public void setWantClientAuth(boolean want) {
+        }
+
+        @Override
+        public boolean getWantClientAuth() {
+            return false;
+        }
+
+        @Override
+        public void setEnableSessionCreation(boolean flag) {
+        }
+
+        @Override
+        public boolean getEnableSessionCreation() {
+            return true;
+        }
+    }
+}
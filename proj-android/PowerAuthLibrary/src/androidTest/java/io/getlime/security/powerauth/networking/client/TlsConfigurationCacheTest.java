@@ -0,0 +1,111 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.Nullable;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+import io.getlime.security.powerauth.networking.ssl.HttpClientValidationStrategy;
+import io.getlime.security.powerauth.sdk.PowerAuthClientConfiguration;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class TlsConfigurationCacheTest {
+
+    @Test
+    public void testReuseForSameConfiguration() throws Exception {
+        final TestValidationStrategy strategy = new TestValidationStrategy();
+        final PowerAuthClientConfiguration configuration = new PowerAuthClientConfiguration.Builder()
+                .clientValidationStrategy(strategy)
+                .build();
+        final TlsConfigurationCache first = TlsConfigurationCache.forConfiguration(configuration);
+        final TlsConfigurationCache second = TlsConfigurationCache.forConfiguration(configuration);
+        assertSame(first, second);
+        assertSame(first.timingSocketFactory, second.timingSocketFactory);
+        assertSame(strategy.socketFactory, first.socketFactory);
+        assertSame(strategy.hostnameVerifier, first.hostnameVerifier);
+        // The strategy is resolved only once.
+        assertEquals(1, strategy.socketFactoryCalls);
+        assertEquals(1, strategy.hostnameVerifierCalls);
+    }
+
+    @Test
+    public void testSeparateCacheForEachConfiguration() throws Exception {
+        final TestValidationStrategy strategy1 = new TestValidationStrategy();
+        final TestValidationStrategy strategy2 = new TestValidationStrategy();
+        final PowerAuthClientConfiguration configuration1 = new PowerAuthClientConfiguration.Builder()
+                .clientValidationStrategy(strategy1)
+                .build();
+        final PowerAuthClientConfiguration configuration2 = new PowerAuthClientConfiguration.Builder()
+                .clientValidationStrategy(strategy2)
+                .build();
+        final TlsConfigurationCache cache1 = TlsConfigurationCache.forConfiguration(configuration1);
+        final TlsConfigurationCache cache2 = TlsConfigurationCache.forConfiguration(configuration2);
+        // A new configuration doesn't reuse the socket factory resolved for another configuration.
+        assertNotSame(cache1, cache2);
+        assertNotSame(cache1.timingSocketFactory, cache2.timingSocketFactory);
+        assertSame(strategy1.socketFactory, cache1.socketFactory);
+        assertSame(strategy2.socketFactory, cache2.socketFactory);
+        assertEquals(1, strategy1.socketFactoryCalls);
+        assertEquals(1, strategy2.socketFactoryCalls);
+        assertSame(cache1, TlsConfigurationCache.forConfiguration(configuration1));
+        assertSame(cache2, TlsConfigurationCache.forConfiguration(configuration2));
+    }
+
+    @Test
+    public void testDefaultConfiguration() throws Exception {
+        final PowerAuthClientConfiguration configuration = new PowerAuthClientConfiguration.Builder().build();
+        final TlsConfigurationCache cache = TlsConfigurationCache.forConfiguration(configuration);
+        assertNull(cache.socketFactory);
+        assertNull(cache.hostnameVerifier);
+        assertTrue(cache.timingSocketFactory instanceof TimingSSLSocketFactory);
+        assertSame(cache, TlsConfigurationCache.forConfiguration(configuration));
+    }
+
+    // Helper classes
+
+    private static class TestValidationStrategy implements HttpClientValidationStrategy {
+
+        final SSLSocketFactory socketFactory = (SSLSocketFactory) SSLSocketFactory.getDefault();
+        final HostnameVerifier hostnameVerifier = HttpsURLConnection.getDefaultHostnameVerifier();
+        int socketFactoryCalls;
+        int hostnameVerifierCalls;
+
+        @Nullable
+        @Override
+        public SSLSocketFactory getSSLSocketFactory() {
+            socketFactoryCalls++;
+            return socketFactory;
+        }
+
+        @Nullable
+        @Override
+        public HostnameVerifier getHostnameVerifier() {
+            hostnameVerifierCalls++;
+            return hostnameVerifier;
+        }
+    }
+}
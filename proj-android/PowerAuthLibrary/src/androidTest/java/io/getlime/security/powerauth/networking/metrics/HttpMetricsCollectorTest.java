@@ -0,0 +1,93 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.metrics;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import io.getlime.security.powerauth.networking.client.HttpCircuitBreakerState;
+import io.getlime.security.powerauth.networking.endpoints.GetUserInfoEndpoint;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class HttpMetricsCollectorTest {
+
+    @Test
+    public void testHistogram() throws Exception {
+        final HttpMetricsHistogram histogram = new HttpMetricsHistogram();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        HttpMetricsHistogram.Snapshot snapshot = histogram.getSnapshot(false);
+        assertEquals(100, snapshot.count);
+        assertEquals(5050, snapshot.sum);
+        assertEquals(100, snapshot.max);
+        assertEquals(50.5, snapshot.getAverage(), 0.001);
+        assertEquals(50, snapshot.getPercentile(50.0));
+        assertEquals(100, snapshot.getPercentile(95.0));
+        // Snapshot with reset
+        snapshot = histogram.getSnapshot(true);
+        assertEquals(100, snapshot.count);
+        snapshot = histogram.getSnapshot(false);
+        assertEquals(0, snapshot.count);
+        assertEquals(0, snapshot.getPercentile(50.0));
+    }
+
+    @Test
+    public void testCollector() throws Exception {
+        final int[] forwarded = { 0 };
+        final HttpMetricsCollector collector = new HttpMetricsCollector(metrics -> forwarded[0]++);
+        assertNull(collector.getEndpointMetrics(GetUserInfoEndpoint.class));
+        collector.onHttpRequestCompleted(createMetrics(200, null, false));
+        collector.onHttpRequestCompleted(createMetrics(400, new Exception(), false));
+        collector.onHttpRequestCompleted(createMetrics(0, null, true));
+        assertEquals(3, forwarded[0]);
+
+        final HttpMetricsCollector.EndpointMetrics metrics = collector.getEndpointMetrics(GetUserInfoEndpoint.class);
+        assertNotNull(metrics);
+        assertEquals(3, metrics.requestCount.get());
+        assertEquals(1, metrics.failureCount.get());
+        assertEquals(1, metrics.cancelCount.get());
+        assertEquals(300, metrics.requestBytes.get());
+        assertEquals(600, metrics.responseBytes.get());
+        assertEquals(2, metrics.timeToFirstByte.getSnapshot(false).count);
+        assertEquals(2, metrics.tlsHandshakeCount.get());
+        assertEquals(1, metrics.tlsResumedHandshakeCount.get());
+        assertEquals(1, collector.getAllEndpointMetrics().size());
+    }
+
+    @Test
+    public void testCircuitBreakerMetrics() throws Exception {
+        final HttpMetricsCollector collector = new HttpMetricsCollector();
+        collector.onCircuitBreakerStateChanged(GetUserInfoEndpoint.class, "https://localhost", HttpCircuitBreakerState.CLOSED, HttpCircuitBreakerState.OPEN);
+        collector.onCircuitBreakerStateChanged(GetUserInfoEndpoint.class, "https://localhost", HttpCircuitBreakerState.OPEN, HttpCircuitBreakerState.HALF_OPEN);
+        collector.onCircuitBreakerStateChanged(GetUserInfoEndpoint.class, "https://localhost", HttpCircuitBreakerState.HALF_OPEN, HttpCircuitBreakerState.CLOSED);
+        final HttpMetricsCollector.EndpointMetrics metrics = collector.getEndpointMetrics(GetUserInfoEndpoint.class);
+        assertNotNull(metrics);
+        assertEquals(1, metrics.circuitBreakerOpenCount.get());
+        assertEquals(1, metrics.circuitBreakerCloseCount.get());
+        assertEquals(0, metrics.requestCount.get());
+    }
+
+    private static HttpRequestMetrics createMetrics(int statusCode, Throwable error, boolean cancelled) {
+        return new HttpRequestMetrics(GetUserInfoEndpoint.class, "POST", "/pa/v3/user/info", 0,
+                1, 10, 20, statusCode != 0, statusCode == 200, 30, 100, 100, 200, statusCode, true, false, 0, cancelled, error);
+    }
+}
@@ -24,7 +24,12 @@ import org.junit.runner.RunWith;
 
 import java.net.HttpURLConnection;
 
+import io.getlime.security.powerauth.networking.client.HttpAdaptiveTimeoutPolicy;
+import io.getlime.security.powerauth.networking.client.HttpCircuitBreakerPolicy;
+import io.getlime.security.powerauth.networking.client.HttpHedgingPolicy;
+import io.getlime.security.powerauth.networking.client.HttpRetryPolicy;
 import io.getlime.security.powerauth.networking.interceptors.HttpRequestInterceptor;
+import io.getlime.security.powerauth.networking.metrics.HttpMetricsCollector;
 import io.getlime.security.powerauth.networking.ssl.HttpClientSslNoValidationStrategy;
 
 import static org.junit.Assert.*;
@@ -41,6 +46,24 @@ public class PowerAuthClientConfigurationBuilderTest {
         assertEquals(PowerAuthClientConfiguration.DEFAULT_READ_TIMEOUT, configuration.getReadTimeout());
         assertNull(configuration.getClientValidationStrategy());
         assertNull(configuration.getRequestInterceptors());
+        assertEquals(PowerAuthClientConfiguration.DEFAULT_MAX_CONCURRENT_SIGNED_REQUESTS, configuration.getMaxConcurrentSignedRequests());
+        assertNull(configuration.getMetricsListener());
+        assertSame(HttpRetryPolicy.NONE, configuration.getRetryPolicy());
+        assertNull(configuration.getHedgingPolicy());
+        assertNull(configuration.getCircuitBreakerPolicy());
+        assertEquals(0, configuration.getRequestDeadline());
+        assertNull(configuration.getAdaptiveTimeoutPolicy());
+        assertEquals(0, configuration.getRequestCompressionThreshold());
+        assertEquals(0, configuration.getDeferredRequestWindow());
+    }
+
+    @Test
+    public void testRetryPolicyDisabled() throws Exception {
+        PowerAuthClientConfiguration configuration = new PowerAuthClientConfiguration.Builder()
+                .retryPolicy(HttpRetryPolicy.DEFAULT)
+                .retryPolicy(null)
+                .build();
+        assertSame(HttpRetryPolicy.NONE, configuration.getRetryPolicy());
     }
 
     @Test
@@ -61,6 +84,15 @@ public class PowerAuthClientConfigurationBuilderTest {
                     }
                 })
                 .clientValidationStrategy(new HttpClientSslNoValidationStrategy())
+                .maxConcurrentSignedRequests(3)
+                .metricsListener(new HttpMetricsCollector())
+                .retryPolicy(HttpRetryPolicy.DEFAULT)
+                .hedgingPolicy(HttpHedgingPolicy.DEFAULT)
+                .circuitBreakerPolicy(HttpCircuitBreakerPolicy.DEFAULT)
+                .requestDeadline(5000)
+                .adaptiveTimeoutPolicy(HttpAdaptiveTimeoutPolicy.DEFAULT)
+                .requestCompressionThreshold(1024)
+                .deferredRequestWindow(30_000)
                 .build();
         assertTrue(configuration.isUnsecuredConnectionAllowed());
         assertEquals(200, configuration.getConnectionTimeout());
@@ -68,5 +100,38 @@ public class PowerAuthClientConfigurationBuilderTest {
         assertNotNull(configuration.getClientValidationStrategy());
         assertNotNull(configuration.getRequestInterceptors());
         assertEquals(2, configuration.getRequestInterceptors().size());
+        assertEquals(3, configuration.getMaxConcurrentSignedRequests());
+        assertNotNull(configuration.getMetricsListener());
+        assertSame(HttpRetryPolicy.DEFAULT, configuration.getRetryPolicy());
+        assertSame(HttpHedgingPolicy.DEFAULT, configuration.getHedgingPolicy());
+        assertSame(HttpCircuitBreakerPolicy.DEFAULT, configuration.getCircuitBreakerPolicy());
+        assertEquals(5000, configuration.getRequestDeadline());
+        assertSame(HttpAdaptiveTimeoutPolicy.DEFAULT, configuration.getAdaptiveTimeoutPolicy());
+        assertEquals(1024, configuration.getRequestCompressionThreshold());
+        assertEquals(30_000, configuration.getDeferredRequestWindow());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMaxConcurrentSignedRequests() throws Exception {
+        new PowerAuthClientConfiguration.Builder()
+                .maxConcurrentSignedRequests(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRequestDeadline() throws Exception {
+        new PowerAuthClientConfiguration.Builder()
+                .requestDeadline(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRequestCompressionThreshold() throws Exception {
+        new PowerAuthClientConfiguration.Builder()
+                .requestCompressionThreshold(-1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDeferredRequestWindow() throws Exception {
+        new PowerAuthClientConfiguration.Builder()
+                .deferredRequestWindow(-1);
     }
 }
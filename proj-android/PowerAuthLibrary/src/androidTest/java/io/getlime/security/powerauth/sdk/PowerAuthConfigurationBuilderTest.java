@@ -22,6 +22,8 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 
 import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Objects;
 
 import static org.junit.Assert.*;
@@ -105,4 +107,25 @@ public class PowerAuthConfigurationBuilderTest {
                 .build();
         assertFalse(configuration.validateConfiguration());
     }
+
+    @Test
+    public void testAlternativeEndpointUrls() throws Exception {
+        PowerAuthConfiguration configuration = new PowerAuthConfiguration.Builder(
+                null,
+                "https://eu.wultra.com/",
+                "ARDDj6EB6iAUtNmNxKM/BsbaEEs5bP+yVmyjfhQDoox3LDwBAUEEQQ7CWNKAi0EgCfOvd/srfqz4oqhTMLwsT4r7sPLRfqICRw9cCMs/Uoo/F2rIz+KKEcBxbnH9bMk8Ju3K1wmjbA==")
+                .build();
+        assertTrue(configuration.getAlternativeEndpointUrls().isEmpty());
+        assertEquals(Collections.singletonList("https://eu.wultra.com"), configuration.getBaseEndpointUrls());
+
+        configuration = new PowerAuthConfiguration.Builder(
+                null,
+                "https://eu.wultra.com/",
+                "ARDDj6EB6iAUtNmNxKM/BsbaEEs5bP+yVmyjfhQDoox3LDwBAUEEQQ7CWNKAi0EgCfOvd/srfqz4oqhTMLwsT4r7sPLRfqICRw9cCMs/Uoo/F2rIz+KKEcBxbnH9bMk8Ju3K1wmjbA==")
+                .alternativeEndpointUrls("https://us.wultra.com/", "https://eu.wultra.com", "https://asia.wultra.com", "https://us.wultra.com")
+                .build();
+        assertEquals("https://eu.wultra.com", configuration.getBaseEndpointUrl());
+        assertEquals(Arrays.asList("https://us.wultra.com", "https://asia.wultra.com"), configuration.getAlternativeEndpointUrls());
+        assertEquals(Arrays.asList("https://eu.wultra.com", "https://us.wultra.com", "https://asia.wultra.com"), configuration.getBaseEndpointUrls());
+    }
 }
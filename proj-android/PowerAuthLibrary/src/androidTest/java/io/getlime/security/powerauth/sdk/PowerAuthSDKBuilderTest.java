@@ -17,8 +17,10 @@
 package io.getlime.security.powerauth.sdk;
 
 import android.content.Context;
+import android.os.Looper;
 import android.text.TextUtils;
 
+import androidx.annotation.NonNull;
 import androidx.test.platform.app.InstrumentationRegistry;
 import androidx.test.ext.junit.runners.AndroidJUnit4;
 
@@ -28,8 +30,14 @@ import org.junit.runner.RunWith;
 
 import java.lang.reflect.Field;
 import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.keychain.impl.LazyKeychain;
 import io.getlime.security.powerauth.networking.client.HttpClient;
+import io.getlime.security.powerauth.networking.response.IBuildPowerAuthSDKListener;
 import io.getlime.security.powerauth.system.PowerAuthSystem;
 
 import static org.junit.Assert.*;
@@ -177,6 +185,64 @@ public class PowerAuthSDKBuilderTest {
         assertEquals(srcKeychainConfiguration, keychainConfiguration);
     }
 
+    @Test
+    public void testBuildAsync() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<PowerAuthSDK> result = new AtomicReference<>();
+        new PowerAuthSDK.Builder(powerAuthConfiguration)
+                .buildAsync(androidContext, new IBuildPowerAuthSDKListener() {
+                    @Override
+                    public void onBuildSucceeded(@NonNull PowerAuthSDK powerAuthSDK) {
+                        assertEquals(Looper.getMainLooper(), Looper.myLooper());
+                        result.set(powerAuthSDK);
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onBuildFailed(@NonNull Throwable t) {
+                        latch.countDown();
+                    }
+                });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        final PowerAuthSDK powerAuthSDK = result.get();
+        assertNotNull(powerAuthSDK);
+        assertNotNull(powerAuthSDK.getConfiguration());
+        // Biometry keychain is created on the first use.
+        Field biometryKeychainField = powerAuthSDK.getClass().getDeclaredField("mBiometryKeychain");
+        biometryKeychainField.setAccessible(true);
+        LazyKeychain biometryKeychain = (LazyKeychain) biometryKeychainField.get(powerAuthSDK);
+        assertNotNull(biometryKeychain);
+        assertEquals(PowerAuthKeychainConfiguration.KEYCHAIN_ID_BIOMETRY, biometryKeychain.getIdentifier());
+        assertFalse(biometryKeychain.isCreated());
+        assertFalse(biometryKeychain.contains("lazy-keychain-test"));
+        assertTrue(biometryKeychain.isCreated());
+    }
+
+    @Test
+    public void testBuildAsyncFailure() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final AtomicReference<Throwable> result = new AtomicReference<>();
+        final PowerAuthConfiguration invalidConfiguration = new PowerAuthConfiguration.Builder(
+                "com.wultra.android.powerauth.test",
+                "http://wultra.com",
+                "").build();
+        new PowerAuthSDK.Builder(invalidConfiguration)
+                .buildAsync(androidContext, new IBuildPowerAuthSDKListener() {
+                    @Override
+                    public void onBuildSucceeded(@NonNull PowerAuthSDK powerAuthSDK) {
+                        latch.countDown();
+                    }
+
+                    @Override
+                    public void onBuildFailed(@NonNull Throwable t) {
+                        result.set(t);
+                        latch.countDown();
+                    }
+                });
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        assertTrue(result.get() instanceof PowerAuthErrorException);
+    }
+
     // Helper methods
 
     static boolean compareConfigurations(PowerAuthClientConfiguration a, PowerAuthClientConfiguration b, boolean ignoreUserAgent) {
@@ -58,6 +58,35 @@ public class DefaultPossessionFactorEncryptionKeyProviderTests {
         assertArrayEquals(oldPossessionKek, possessionKek);
     }
 
+    @Test
+    public void testCachedPossessionFactorEncryptionKeyProvider() {
+        final IPossessionFactorEncryptionKeyProvider defaultProvider = new DefaultPossessionFactorEncryptionKeyProvider();
+        assertTrue(defaultProvider.isPossessionFactorEncryptionKeyCacheable());
+        final IPossessionFactorEncryptionKeyProvider provider = CachedPossessionFactorEncryptionKeyProvider.wrapIfCacheable(defaultProvider);
+        assertTrue(provider instanceof CachedPossessionFactorEncryptionKeyProvider);
+        assertSame(provider, CachedPossessionFactorEncryptionKeyProvider.wrapIfCacheable(provider));
+
+        final byte[] expectedKek = defaultProvider.getPossessionFactorEncryptionKey(context);
+        final byte[] possessionKek1 = provider.getPossessionFactorEncryptionKey(context);
+        final byte[] possessionKek2 = provider.getPossessionFactorEncryptionKey(context);
+        assertArrayEquals(expectedKek, possessionKek1);
+        assertArrayEquals(expectedKek, possessionKek2);
+        assertNotSame(possessionKek1, possessionKek2);
+
+        // Modification of returned key must not affect the cached key
+        possessionKek1[0] ^= 0xFF;
+        assertArrayEquals(expectedKek, provider.getPossessionFactorEncryptionKey(context));
+
+        // Key is calculated again after clear
+        ((CachedPossessionFactorEncryptionKeyProvider) provider).clear();
+        assertArrayEquals(expectedKek, provider.getPossessionFactorEncryptionKey(context));
+
+        // Non-cacheable provider is not wrapped
+        final IPossessionFactorEncryptionKeyProvider nonCacheableProvider = ctx -> expectedKek;
+        assertFalse(nonCacheableProvider.isPossessionFactorEncryptionKeyCacheable());
+        assertSame(nonCacheableProvider, CachedPossessionFactorEncryptionKeyProvider.wrapIfCacheable(nonCacheableProvider));
+    }
+
     /**
      * Original implementation for DefaultFetchKeysStrategy.getPossessionUnlockKey().
      * @return String representation of possession KEK.
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.sdk.impl;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.getlime.security.powerauth.networking.interfaces.ICancelable;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class DeferredTaskSchedulerTests {
+
+    HandlerThread handlerThread;
+    Handler handler;
+
+    @Before
+    public void setUp() {
+        handlerThread = new HandlerThread("DeferredTaskSchedulerTests");
+        handlerThread.start();
+        handler = new Handler(handlerThread.getLooper());
+    }
+
+    @After
+    public void tearDown() {
+        handlerThread.quit();
+    }
+
+    @Test
+    public void testDisabledBatching() throws Exception {
+        final DeferredTaskScheduler scheduler = new DeferredTaskScheduler(handler, 0);
+        final AtomicInteger counter = new AtomicInteger();
+        scheduler.schedule(counter::incrementAndGet);
+        assertEquals(1, counter.get());
+        assertEquals(0, scheduler.getPendingTaskCount());
+    }
+
+    @Test
+    public void testBatchWindow() throws Exception {
+        final DeferredTaskScheduler scheduler = new DeferredTaskScheduler(handler, 500);
+        final CountDownLatch latch = new CountDownLatch(2);
+        final long startTime = System.currentTimeMillis();
+        scheduler.schedule(latch::countDown);
+        scheduler.schedule(latch::countDown);
+        assertEquals(2, scheduler.getPendingTaskCount());
+        assertEquals(2, latch.getCount());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(System.currentTimeMillis() - startTime >= 500);
+        assertEquals(0, scheduler.getPendingTaskCount());
+    }
+
+    @Test
+    public void testFlushOnNetworkActivity() throws Exception {
+        final DeferredTaskScheduler scheduler = new DeferredTaskScheduler(handler, 60_000, 1_000);
+        final CountDownLatch latch = new CountDownLatch(1);
+        scheduler.schedule(latch::countDown);
+        assertEquals(1, scheduler.getPendingTaskCount());
+
+        // Interactive request flushes the batch
+        scheduler.onNetworkActivity();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, scheduler.getPendingTaskCount());
+
+        // Radio is still active, so the task is executed immediately
+        final AtomicInteger counter = new AtomicInteger();
+        scheduler.schedule(counter::incrementAndGet);
+        assertEquals(1, counter.get());
+        assertEquals(0, scheduler.getPendingTaskCount());
+
+        // Radio is idle again, so the task is deferred
+        Thread.sleep(1_100);
+        final ICancelable task = scheduler.schedule(counter::incrementAndGet);
+        assertEquals(1, counter.get());
+        assertEquals(1, scheduler.getPendingTaskCount());
+        assertFalse(task.isCancelled());
+        task.cancel();
+    }
+
+    @Test
+    public void testCancelDeferredTask() throws Exception {
+        final DeferredTaskScheduler scheduler = new DeferredTaskScheduler(handler, 200);
+        final AtomicInteger counter = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final ICancelable task = scheduler.schedule(counter::incrementAndGet);
+        scheduler.schedule(latch::countDown);
+        assertEquals(2, scheduler.getPendingTaskCount());
+
+        task.cancel();
+        assertTrue(task.isCancelled());
+        assertEquals(1, scheduler.getPendingTaskCount());
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(0, counter.get());
+    }
+}
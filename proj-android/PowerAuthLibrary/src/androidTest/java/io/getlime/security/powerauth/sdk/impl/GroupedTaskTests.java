@@ -31,6 +31,7 @@ import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
 import io.getlime.security.powerauth.exception.PowerAuthErrorException;
 import io.getlime.security.powerauth.integration.support.AsyncHelper;
 import io.getlime.security.powerauth.integration.support.Logger;
+import io.getlime.security.powerauth.networking.client.HttpDeadline;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 
 import static org.junit.Assert.*;
@@ -422,6 +423,74 @@ public class GroupedTaskTests {
         assertEquals(1, groupedTask.monitorOnTaskCompletionCount);
     }
 
+    @Test
+    public void testChildDeadline() throws Exception {
+        final TestGroupedTask groupedTask = new TestGroupedTask();
+        final Throwable[] deadlineFailure = {null};
+        final Boolean[] lateResult = {null};
+        AsyncHelper.await((AsyncHelper.Execution<Void>) resultCatcher -> {
+            ICancelable childTask1 = groupedTask.createChildTask(new ITaskCompletion<Boolean>() {
+                @Override
+                public void onSuccess(@NonNull Boolean aBoolean) {
+                    fail();
+                }
+
+                @Override
+                public void onFailure(@NonNull Throwable failure) {
+                    deadlineFailure[0] = failure;
+                    // Complete the grouped task once the first child is gone.
+                    backgroundExecutor.execute(() -> groupedTask.complete(true));
+                }
+            }, HttpDeadline.fromNow(100));
+            assertNotNull(childTask1);
+            ICancelable childTask2 = groupedTask.createChildTask(new ITaskCompletion<Boolean>() {
+                @Override
+                public void onSuccess(@NonNull Boolean aBoolean) {
+                    lateResult[0] = aBoolean;
+                    resultCatcher.completeWithSuccess();
+                }
+
+                @Override
+                public void onFailure(@NonNull Throwable failure) {
+                    fail();
+                }
+            });
+            assertNotNull(childTask2);
+        });
+
+        assertTrue(deadlineFailure[0] instanceof PowerAuthErrorException);
+        assertEquals(PowerAuthErrorCodes.NETWORK_ERROR, ((PowerAuthErrorException) deadlineFailure[0]).getPowerAuthErrorCode());
+        assertEquals(Boolean.TRUE, lateResult[0]);
+        assertFalse(groupedTask.testOperation.isCancelled());
+        assertEquals(1, groupedTask.monitorOnTaskStartCount);
+        assertEquals(1, groupedTask.monitorOnTaskCompletionCount);
+    }
+
+    @Test
+    public void testChildDeadlineCancelsLastChild() throws Exception {
+        final TestGroupedTask groupedTask = new TestGroupedTask();
+        AsyncHelper.await((AsyncHelper.Execution<Void>) resultCatcher -> {
+            ICancelable childTask = groupedTask.createChildTask(new ITaskCompletion<Boolean>() {
+                @Override
+                public void onSuccess(@NonNull Boolean aBoolean) {
+                    fail();
+                }
+
+                @Override
+                public void onFailure(@NonNull Throwable failure) {
+                    assertTrue(failure instanceof PowerAuthErrorException);
+                    assertEquals(PowerAuthErrorCodes.NETWORK_ERROR, ((PowerAuthErrorException) failure).getPowerAuthErrorCode());
+                    mainThreadExecutor.execute(resultCatcher::completeWithSuccess);
+                }
+            }, HttpDeadline.fromNow(100));
+            assertNotNull(childTask);
+        });
+
+        assertTrue(groupedTask.testOperation.isCancelled());
+        assertEquals(1, groupedTask.monitorOnTaskStartCount);
+        assertEquals(1, groupedTask.monitorOnTaskCompletionCount);
+    }
+
 
     // Helper classes
 
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.system;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import io.getlime.security.powerauth.core.Password;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class PowerAuthCleanerTest {
+
+    @Test
+    public void testExplicitClean() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Object object = new Object();
+        final PowerAuthCleaner.Cleanable cleanable = PowerAuthCleaner.register(object, counter::incrementAndGet);
+        assertEquals(0, counter.get());
+        cleanable.clean();
+        assertEquals(1, counter.get());
+        cleanable.clean();
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void testNativeObjectDestructor() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Object object = new Object();
+        PowerAuthCleaner.Cleanable cleanable = PowerAuthCleaner.registerNativeObject(object, 0, handle -> counter.incrementAndGet());
+        cleanable.clean();
+        assertEquals(0, counter.get());
+        cleanable = PowerAuthCleaner.registerNativeObject(object, 1234, handle -> {
+            assertEquals(1234, handle);
+            counter.incrementAndGet();
+        });
+        cleanable.clean();
+        cleanable.clean();
+        assertEquals(1, counter.get());
+    }
+
+    @Test
+    public void testEmptyNativeObjectIsNotLeaked() throws Exception {
+        collectGarbage(null);
+        final long leakedCount = PowerAuthCleaner.getLeakedObjectsCount();
+        final int registeredCount = PowerAuthCleaner.getRegisteredObjectsCount();
+        final AtomicInteger counter = new AtomicInteger();
+        final WeakReference<Object> objectRef = registerUnreachableNativeObject(counter);
+        // The object without the native handle is not registered at all.
+        assertEquals(registeredCount, PowerAuthCleaner.getRegisteredObjectsCount());
+        collectGarbage(objectRef);
+        assertNull(objectRef.get());
+        assertEquals(0, counter.get());
+        assertEquals(0, PowerAuthCleaner.getLeakedObjectsCount() - leakedCount);
+    }
+
+    @Test
+    public void testCleanupOfUnreachableObject() throws Exception {
+        final long leakedCount = PowerAuthCleaner.getLeakedObjectsCount();
+        final AtomicInteger counter = new AtomicInteger();
+        registerUnreachableObject(counter);
+        // Garbage collection is not deterministic, so try several times.
+        for (int i = 0; i < 50 && counter.get() == 0; i++) {
+            Runtime.getRuntime().gc();
+            Thread.sleep(100);
+        }
+        assertEquals(1, counter.get());
+        assertTrue(PowerAuthCleaner.getLeakedObjectsCount() > leakedCount);
+    }
+
+    @Test
+    public void testDestroyedPasswordIsNotLeaked() throws Exception {
+        // Let the reaper process objects leaked by the previous tests.
+        collectGarbage(null);
+        final long leakedCount = PowerAuthCleaner.getLeakedObjectsCount();
+        final WeakReference<Password> passwordRef = createAndDestroyPassword();
+        collectGarbage(passwordRef);
+        assertNull(passwordRef.get());
+        assertEquals(0, PowerAuthCleaner.getLeakedObjectsCount() - leakedCount);
+    }
+
+    /**
+     * Create password, destroy it and return weak reference to the password.
+     * @return Weak reference to destroyed password.
+     */
+    private static WeakReference<Password> createAndDestroyPassword() {
+        final Password password = new Password("1234");
+        password.destroy();
+        password.destroy();
+        assertEquals(0, password.length());
+        return new WeakReference<>(password);
+    }
+
+    /**
+     * Run garbage collection until the referenced object is collected and give the reaper thread
+     * a time to process the collected objects.
+     * @param reference Optional reference to an object expected to be collected.
+     */
+    private static void collectGarbage(WeakReference<?> reference) throws InterruptedException {
+        // Garbage collection is not deterministic, so try several times.
+        for (int i = 0; i < 50 && (i < 5 || (reference != null && reference.get() != null)); i++) {
+            Runtime.getRuntime().gc();
+            Thread.sleep(100);
+        }
+    }
+
+    /**
+     * Register native object with no handle, that becomes unreachable immediately after this function returns.
+     * @param counter Counter incremented from the destructor.
+     * @return Weak reference to the registered object.
+     */
+    private static WeakReference<Object> registerUnreachableNativeObject(AtomicInteger counter) {
+        final Object object = new byte[1024];
+        PowerAuthCleaner.registerNativeObject(object, 0, handle -> counter.incrementAndGet());
+        return new WeakReference<>(object);
+    }
+
+    /**
+     * Register object that becomes unreachable immediately after this function returns.
+     * @param counter Counter incremented from the cleanup action.
+     */
+    private static void registerUnreachableObject(AtomicInteger counter) {
+        PowerAuthCleaner.register(new byte[1024], counter::incrementAndGet);
+    }
+}
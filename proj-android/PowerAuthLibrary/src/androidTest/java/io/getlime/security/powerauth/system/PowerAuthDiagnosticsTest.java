@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.system;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class PowerAuthDiagnosticsTest {
+
+    @After
+    public void tearDown() {
+        PowerAuthDiagnostics.setEnabled(false);
+        PowerAuthDiagnostics.reset();
+    }
+
+    @Test
+    public void testDisabledDiagnostics() throws Exception {
+        PowerAuthDiagnostics.reset();
+        assertFalse(PowerAuthDiagnostics.isEnabled());
+        final long startTime = PowerAuthDiagnostics.start();
+        PowerAuthDiagnostics.stop(PowerAuthDiagnostics.Operation.SIGNATURE, startTime);
+        final Map<PowerAuthDiagnostics.Operation, PowerAuthDiagnostics.OperationSnapshot> snapshot = PowerAuthDiagnostics.getSnapshot();
+        assertEquals(PowerAuthDiagnostics.Operation.values().length, snapshot.size());
+        assertEquals(0, snapshot.get(PowerAuthDiagnostics.Operation.SIGNATURE).count);
+        assertEquals(0, snapshot.get(PowerAuthDiagnostics.Operation.SIGNATURE).getPercentile(50.0));
+    }
+
+    @Test
+    public void testEnabledDiagnostics() throws Exception {
+        PowerAuthDiagnostics.reset();
+        PowerAuthDiagnostics.setEnabled(true);
+        for (int i = 0; i < 1000; i++) {
+            final long startTime = PowerAuthDiagnostics.start();
+            Thread.sleep(0, 1000);
+            PowerAuthDiagnostics.stop(PowerAuthDiagnostics.Operation.ECIES_ENCRYPT, startTime);
+        }
+        PowerAuthDiagnostics.OperationSnapshot snapshot = PowerAuthDiagnostics.getSnapshot().get(PowerAuthDiagnostics.Operation.ECIES_ENCRYPT);
+        assertNotNull(snapshot);
+        assertEquals(1000, snapshot.count);
+        assertTrue(snapshot.totalTime > 0);
+        assertTrue(snapshot.maxTime >= snapshot.getPercentile(99.0));
+        assertTrue(snapshot.getPercentile(99.0) >= snapshot.getPercentile(50.0));
+        assertTrue(snapshot.getAverageTime() > 0);
+        // Other operations are not affected
+        assertEquals(0, PowerAuthDiagnostics.getSnapshot().get(PowerAuthDiagnostics.Operation.ECIES_DECRYPT).count);
+        // Reset
+        PowerAuthDiagnostics.reset();
+        snapshot = PowerAuthDiagnostics.getSnapshot().get(PowerAuthDiagnostics.Operation.ECIES_ENCRYPT);
+        assertNotNull(snapshot);
+        assertEquals(0, snapshot.count);
+    }
+
+    @Test
+    public void testConcurrentSnapshot() throws Exception {
+        PowerAuthDiagnostics.reset();
+        PowerAuthDiagnostics.setEnabled(true);
+        final int threadsCount = 4;
+        final int iterations = 10_000;
+        final Thread[] threads = new Thread[threadsCount];
+        for (int t = 0; t < threadsCount; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < iterations; i++) {
+                    PowerAuthDiagnostics.stop(PowerAuthDiagnostics.Operation.SIGNATURE, PowerAuthDiagnostics.start());
+                }
+            });
+            threads[t].start();
+        }
+        boolean running = true;
+        while (running) {
+            final PowerAuthDiagnostics.OperationSnapshot snapshot = PowerAuthDiagnostics.getSnapshot().get(PowerAuthDiagnostics.Operation.SIGNATURE);
+            assertNotNull(snapshot);
+            // The snapshot must be consistent with the counters.
+            assertTrue(snapshot.maxTime >= snapshot.getPercentile(100.0));
+            assertTrue(snapshot.totalTime >= snapshot.maxTime);
+            assertTrue(snapshot.count == 0 || snapshot.getAverageTime() <= snapshot.maxTime);
+            running = false;
+            for (Thread thread : threads) {
+                running |= thread.isAlive();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(threadsCount * iterations, PowerAuthDiagnostics.getSnapshot().get(PowerAuthDiagnostics.Operation.SIGNATURE).count);
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.system;
+
+import androidx.annotation.NonNull;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class PowerAuthLogTest {
+
+    private final List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+    @Before
+    public void setUp() {
+        PowerAuthLog.logListener = new PowerAuthLogListener() {
+            @Override
+            public void powerAuthDebugLog(@NonNull String message) {
+                messages.add("D:" + message);
+            }
+
+            @Override
+            public void powerAuthWarningLog(@NonNull String message) {
+                messages.add("W:" + message);
+            }
+
+            @Override
+            public void powerAuthErrorLog(@NonNull String message) {
+                messages.add("E:" + message);
+            }
+        };
+    }
+
+    @After
+    public void tearDown() {
+        PowerAuthLog.flush();
+        PowerAuthLog.logListener = null;
+        PowerAuthLog.setAsynchronous(true);
+        PowerAuthLog.resetCategoryConfigurations();
+        PowerAuthLog.setEnabled(false);
+    }
+
+    @Test
+    public void testRingBuffer() throws Exception {
+        final PowerAuthLogRingBuffer<Integer> buffer = new PowerAuthLogRingBuffer<>(3);
+        assertNull(buffer.poll());
+        // Capacity is rounded up to 4
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(5));
+        assertEquals(Integer.valueOf(1), buffer.poll());
+        assertEquals(Integer.valueOf(2), buffer.poll());
+        assertEquals(Integer.valueOf(3), buffer.poll());
+        assertEquals(Integer.valueOf(5), buffer.poll());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    public void testAsynchronousLog() throws Exception {
+        PowerAuthLog.setEnabled(true);
+        PowerAuthLog.setAsynchronous(true);
+        PowerAuthLog.d("Test: Debug %d", 1);
+        PowerAuthLog.w("Test: Warning %s", "2");
+        PowerAuthLog.e("Test: Error 100%%");
+        PowerAuthLog.flush();
+        assertTrue(messages.contains("D:Test: Debug 1"));
+        assertTrue(messages.contains("W:Test: Warning 2"));
+        assertTrue(messages.contains("E:Test: Error 100%"));
+    }
+
+    @Test
+    public void testSynchronousWarningsAndErrors() throws Exception {
+        PowerAuthLog.setEnabled(true);
+        PowerAuthLog.setAsynchronous(true);
+        final StringBuilder argument = new StringBuilder("before");
+        PowerAuthLog.w("Test: Warning %s", argument);
+        PowerAuthLog.e("Test: Error %s", argument);
+        argument.setLength(0);
+        argument.append("after");
+        // No flush, the messages must be already delivered with arguments formatted at the time of the call.
+        assertTrue(messages.contains("W:Test: Warning before"));
+        assertTrue(messages.contains("E:Test: Error before"));
+    }
+
+    @Test
+    public void testCategoryConfiguration() throws Exception {
+        PowerAuthLog.setEnabled(true);
+        PowerAuthLog.setAsynchronous(false);
+        PowerAuthLog.setCategoryConfiguration("Noisy", PowerAuthLog.LEVEL_ERROR, 1.0);
+        PowerAuthLog.setCategoryConfiguration("Muted", PowerAuthLog.LEVEL_DEBUG, 0.0);
+        PowerAuthLog.d("Noisy: debug");
+        PowerAuthLog.w("Noisy: warning");
+        PowerAuthLog.e("Noisy: error");
+        PowerAuthLog.e("Muted: error");
+        PowerAuthLog.d("Other: debug");
+        assertEquals(2, messages.size());
+        assertEquals("E:Noisy: error", messages.get(0));
+        assertEquals("D:Other: debug", messages.get(1));
+    }
+}
@@ -40,6 +40,7 @@ import javax.crypto.spec.IvParameterSpec;
 
 import io.getlime.security.powerauth.biometry.BiometricKeyData;
 import io.getlime.security.powerauth.biometry.IBiometricKeyEncryptor;
+import io.getlime.security.powerauth.system.PowerAuthDiagnostics;
 import io.getlime.security.powerauth.system.PowerAuthLog;
 
 /**
@@ -94,6 +95,7 @@ public class BiometricKeyEncryptorAes implements IBiometricKeyEncryptor {
     @Nullable
     @Override
     public Cipher initializeCipher(boolean encryptMode) {
+        final long startTime = PowerAuthDiagnostics.start();
         try {
             if (cipherIsInitialized) {
                 throw new IllegalStateException("Cipher is already initialized");
@@ -113,6 +115,7 @@ public class BiometricKeyEncryptorAes implements IBiometricKeyEncryptor {
             this.cipher = null;
         } finally {
             this.cipherIsInitialized = true;
+            PowerAuthDiagnostics.stop(PowerAuthDiagnostics.Operation.BIOMETRIC_CIPHER_INIT, startTime);
         }
         return cipher;
     }
@@ -46,6 +46,7 @@ import javax.crypto.spec.PSource;
 
 import io.getlime.security.powerauth.biometry.BiometricKeyData;
 import io.getlime.security.powerauth.biometry.IBiometricKeyEncryptor;
+import io.getlime.security.powerauth.system.PowerAuthDiagnostics;
 import io.getlime.security.powerauth.system.PowerAuthLog;
 
 /**
@@ -113,6 +114,7 @@ public class BiometricKeyEncryptorRsa implements IBiometricKeyEncryptor {
     @Nullable
     @Override
     public Cipher initializeCipher(boolean encryptMode) {
+        final long startTime = PowerAuthDiagnostics.start();
         try {
             if (cipherIsInitialized) {
                 throw new IllegalStateException("Cipher is already initialized");
@@ -146,6 +148,7 @@ public class BiometricKeyEncryptorRsa implements IBiometricKeyEncryptor {
             this.cipher = null;
         } finally {
             cipherIsInitialized = true;
+            PowerAuthDiagnostics.stop(PowerAuthDiagnostics.Operation.BIOMETRIC_CIPHER_INIT, startTime);
         }
         return cipher;
     }
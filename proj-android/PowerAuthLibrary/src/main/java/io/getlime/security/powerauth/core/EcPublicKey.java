@@ -18,6 +18,7 @@ package io.getlime.security.powerauth.core;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.system.PowerAuthCleaner;
 
 /**
  * The `EcPublicKey` represents public key for elliptic curve based cryptography routines.
@@ -35,6 +36,7 @@ public class EcPublicKey {
      */
     public EcPublicKey(@NonNull byte[] publicKeyData) {
         this.handle = init(publicKeyData);
+        this.cleanable = PowerAuthCleaner.registerNativeObject(this, this.handle, EcPublicKey::destroy);
     }
 
     /**
@@ -43,6 +45,7 @@ public class EcPublicKey {
      */
     private EcPublicKey(long handle) {
         this.handle = handle;
+        this.cleanable = PowerAuthCleaner.registerNativeObject(this, this.handle, EcPublicKey::destroy);
     }
 
     /**
@@ -50,6 +53,11 @@ public class EcPublicKey {
      */
     private long handle;
 
+    /**
+     * Cleanable object that destroys the underlying C++ object when this object is no longer reachable.
+     */
+    private final @NonNull PowerAuthCleaner.Cleanable cleanable;
+
     /**
      * Destroys underlying native C++ object. You can call this method
      * if you want to be sure that internal object is properly destroyed.
@@ -57,24 +65,18 @@ public class EcPublicKey {
      */
     public synchronized void destroy() {
         if (this.handle != 0) {
-            destroy(this.handle);
+            cleanable.clean();
             this.handle = 0;
         }
     }
 
-    /**
-     Make sure that the underlying C++ object is always destroyed.
-     */
-    protected void finalize() {
-        destroy();
-    }
 
     /**
      * Internal JNI destroy.
      *
      * @param handle A handle representing underlying native C++ object
      */
-    private native void destroy(long handle);
+    private static native void destroy(long handle);
 
     /**
      * Internal JNI initialization.
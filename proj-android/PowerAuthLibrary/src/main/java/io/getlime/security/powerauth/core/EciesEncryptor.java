@@ -18,7 +18,11 @@ package io.getlime.security.powerauth.core;
 
 import android.util.Pair;
 
+import androidx.annotation.NonNull;
+
 import io.getlime.security.powerauth.ecies.EciesMetadata;
+import io.getlime.security.powerauth.system.PowerAuthCleaner;
+import io.getlime.security.powerauth.system.PowerAuthDiagnostics;
 import io.getlime.security.powerauth.system.PowerAuthLog;
 
 /**
@@ -40,6 +44,11 @@ public class EciesEncryptor {
      */
     private long handle;
 
+    /**
+     * Cleanable object that destroys the underlying C++ object when this object is no longer reachable.
+     */
+    private final @NonNull PowerAuthCleaner.Cleanable cleanable;
+
     /**
      * Service providing time synchronized with the server.
      */
@@ -54,6 +63,7 @@ public class EciesEncryptor {
      */
     public EciesEncryptor(String publicKey, byte[] sharedInfo1, byte[] sharedInfo2, ICoreTimeService timeService) {
         this.handle = init(publicKey, sharedInfo1, sharedInfo2);
+        this.cleanable = PowerAuthCleaner.registerNativeObject(this, this.handle, EciesEncryptor::destroy);
         this.timeService = timeService;
     }
 
@@ -95,6 +105,7 @@ public class EciesEncryptor {
      */
     private EciesEncryptor(long handle, ICoreTimeService timeService) {
         this.handle = handle;
+        this.cleanable = PowerAuthCleaner.registerNativeObject(this, this.handle, EciesEncryptor::destroy);
         this.timeService = timeService;
     }
 
@@ -105,24 +116,18 @@ public class EciesEncryptor {
      */
     public synchronized void destroy() {
         if (this.handle != 0) {
-            destroy(this.handle);
+            cleanable.clean();
             this.handle = 0;
         }
     }
 
-    /**
-     Make sure that the underlying C++ object is always destroyed.
-     */
-    protected void finalize() {
-        destroy();
-    }
 
     /**
      * Internal JNI destroy.
      *
      * @param handle A handle representing underlying native C++ object
      */
-    private native void destroy(long handle);
+    private static native void destroy(long handle);
 
     /**
      * Internal JNI initialization.
@@ -199,7 +204,10 @@ public class EciesEncryptor {
             PowerAuthLog.w("Time service is not synchronized. Encrypted data may be rejected on the server.");
         }
         timeSynchronizationTask = timeService.startTimeSynchronizationTask();
-        return encryptRequestImpl(requestData, timeService.getCurrentTime());
+        final long startTime = PowerAuthDiagnostics.start();
+        final EciesCryptogram cryptogram = encryptRequestImpl(requestData, timeService.getCurrentTime());
+        PowerAuthDiagnostics.stop(PowerAuthDiagnostics.Operation.ECIES_ENCRYPT, startTime);
+        return cryptogram;
     }
 
     private native EciesCryptogram encryptRequestImpl(byte[] requestData, long timestamp);
@@ -244,7 +252,9 @@ public class EciesEncryptor {
      * @return decrypted bytes or null in case of error
      */
     public byte[] decryptResponse(EciesCryptogram cryptogram) {
+        final long startTime = PowerAuthDiagnostics.start();
         final byte[] result = decryptResponseImpl(cryptogram);
+        PowerAuthDiagnostics.stop(PowerAuthDiagnostics.Operation.ECIES_DECRYPT, startTime);
         if (result != null) {
             if (timeSynchronizationTask != null) {
                 timeService.completeTimeSynchronizationTask(timeSynchronizationTask, cryptogram.timestamp);
@@ -19,6 +19,7 @@ package io.getlime.security.powerauth.core;
 import java.util.Arrays;
 
 import androidx.annotation.NonNull;
+import io.getlime.security.powerauth.system.PowerAuthCleaner;
 
 /**
  * The {@code Password} is an object representing an arbitrary passphrase. The underlying implementation
@@ -81,6 +82,11 @@ public class Password {
      * Pointer to native underlying object
      */
     private long handle;
+
+    /**
+     * Cleanable object that destroys the underlying C++ object when this object is no longer reachable.
+     */
+    private final @NonNull PowerAuthCleaner.Cleanable cleanable;
     
     /**
      * Constructs a new instance of <b>immutable</b> Password object, initialized with UTF8 data
@@ -118,6 +124,7 @@ public class Password {
      */
     private Password(long handle) {
         this.handle = handle;
+        this.cleanable = PowerAuthCleaner.registerNativeObject(this, this.handle, Password::destroy);
     }
     
     /**
@@ -139,7 +146,7 @@ public class Password {
      */
     public synchronized void destroy() {
         if (this.handle != 0) {
-            destroy(this.handle);
+            cleanable.clean();
             this.handle = 0;
         }
     }
@@ -154,17 +161,10 @@ public class Password {
         return new Password(initPassword(null, null, this));
     }
     
-    /**
-     * Make sure that the underlying C++ object is always destroyed.
-     */
-    protected void finalize() {
-        destroy();
-    }
-    
     /**
      * Internal JNI destroy. You have to provide handle created during the initialization.
      */
-    private native void destroy(long handle);
+    private static native void destroy(long handle);
 
     //
     // Methods for immutable operations
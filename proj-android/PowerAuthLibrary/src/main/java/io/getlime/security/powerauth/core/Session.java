@@ -18,6 +18,7 @@ package io.getlime.security.powerauth.core;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.system.PowerAuthCleaner;
 
 import java.util.ArrayList;
 import java.util.Map;
@@ -38,6 +39,16 @@ public class Session {
      */
     private long handle;
 
+    /**
+     * Cleanable object that destroys the underlying C++ object when this object is no longer reachable.
+     */
+    private final @NonNull PowerAuthCleaner.Cleanable cleanable;
+
+    /**
+     * Snapshot of the activation state, republished after each state-mutating operation.
+     */
+    private volatile @NonNull StateSnapshot stateSnapshot = StateSnapshot.EMPTY;
+
     private final @NonNull SessionSetup setup;
     private final @NonNull ICoreTimeService timeService;
 
@@ -51,6 +62,8 @@ public class Session {
         this.setup = setup;
         this.timeService = timeService;
         this.handle = init(setup);
+        this.cleanable = PowerAuthCleaner.registerNativeObject(this, this.handle, Session::destroy);
+        publishStateSnapshot();
     }
     
     /**
@@ -65,7 +78,7 @@ public class Session {
      *
      * @param handle pointer to underlying C++ object
      */
-    private native void destroy(long handle);
+    private static native void destroy(long handle);
     
     /**
      * Destroys underlying native C++ object. You can call this method
@@ -74,17 +87,12 @@ public class Session {
      */
     public synchronized void destroy() {
         if (this.handle != 0) {
-            destroy(this.handle);
+            cleanable.clean();
             this.handle = 0;
+            this.stateSnapshot = StateSnapshot.EMPTY;
         }
     }
     
-    /**
-     * Make sure that the underlying C++ object is always destroyed.
-     */
-    protected void finalize() {
-        destroy();
-    }
     
     /**
      * @return {@link SessionSetup} object with parameters provided in Session's constructor
@@ -107,7 +115,17 @@ public class Session {
      * @param fullReset If {@code true}, then also resets data not relevant to the activation state. For example, ECIES public
      *                  key for application scope.
      */
-    public native void resetSession(boolean fullReset);
+    public void resetSession(boolean fullReset) {
+        synchronized (this) {
+            resetSessionImpl(fullReset);
+            publishStateSnapshot();
+        }
+    }
+
+    /**
+     * Internal JNI implementation of {@link #resetSession}.
+     */
+    private native void resetSessionImpl(boolean fullReset);
     
     /**
      * Returns true if dynamic library was compiled with a debug features. It is highly recommended
@@ -133,6 +151,72 @@ public class Session {
      */
     public native ProtocolVersion getProtocolVersion();
 
+    //
+    // State snapshot
+    //
+
+    /**
+     * The {@code StateSnapshot} class contains an immutable copy of the activation state, so the frequently
+     * used getters, such as {@link #hasValidActivation()}, doesn't need to cross the JNI boundary.
+     */
+    static final class StateSnapshot {
+
+        static final StateSnapshot EMPTY = new StateSnapshot(false, false, null, null, false, false);
+
+        final boolean hasValidActivation;
+        final boolean hasPendingActivation;
+        final String activationIdentifier;
+        final String activationFingerprint;
+        final boolean hasBiometryFactor;
+        final boolean hasPendingProtocolUpgrade;
+
+        StateSnapshot(
+                boolean hasValidActivation,
+                boolean hasPendingActivation,
+                String activationIdentifier,
+                String activationFingerprint,
+                boolean hasBiometryFactor,
+                boolean hasPendingProtocolUpgrade) {
+            this.hasValidActivation = hasValidActivation;
+            this.hasPendingActivation = hasPendingActivation;
+            this.activationIdentifier = activationIdentifier;
+            this.activationFingerprint = activationFingerprint;
+            this.hasBiometryFactor = hasBiometryFactor;
+            this.hasPendingProtocolUpgrade = hasPendingProtocolUpgrade;
+        }
+    }
+
+    /**
+     * Read the activation state from the underlying C++ object and publish a new state snapshot.
+     * The method must be called after each operation that changes the activation state.
+     */
+    private void publishStateSnapshot() {
+        stateSnapshot = new StateSnapshot(
+                hasValidActivationImpl(),
+                hasPendingActivationImpl(),
+                getActivationIdentifierImpl(),
+                getActivationFingerprintImpl(),
+                hasBiometryFactorImpl(),
+                hasPendingProtocolUpgradeImpl());
+    }
+
+    /**
+     * @return Currently published snapshot of the activation state. The method is available for the tests only.
+     */
+    @NonNull
+    StateSnapshot getStateSnapshot() {
+        return stateSnapshot;
+    }
+
+    // Internal JNI getters, used to create the state snapshot.
+
+    private native boolean hasValidActivationImpl();
+    private native boolean hasPendingActivationImpl();
+    private native String getActivationIdentifierImpl();
+    private native String getActivationFingerprintImpl();
+    private native boolean hasBiometryFactorImpl();
+    private native boolean hasPendingProtocolUpgradeImpl();
+
     //
     // Serialization
     //
@@ -156,7 +240,18 @@ public class Session {
      * @return integer value, which can be compared to the constants from an {@link ErrorCode} class.
      */
     @ErrorCode
-    public native int deserializeState(byte[] state);
+    public int deserializeState(byte[] state) {
+        synchronized (this) {
+            final int result = deserializeStateImpl(state);
+            publishStateSnapshot();
+            return result;
+        }
+    }
+
+    /**
+     * Internal JNI implementation of {@link #deserializeState}.
+     */
+    private native int deserializeStateImpl(byte[] state);
 
     //
     // Activation
@@ -172,25 +267,33 @@ public class Session {
      * @return true if activation is in progress. You should not save the state of
      *         Session in this case.
      */
-    public native boolean hasPendingActivation();
+    public boolean hasPendingActivation() {
+        return stateSnapshot.hasPendingActivation;
+    }
 
     /**
      * @return true if Session has a valid activation and you can perform
      *         request signing and other post-activation tasks.
      */
-    public native boolean hasValidActivation();
+    public boolean hasValidActivation() {
+        return stateSnapshot.hasValidActivation;
+    }
 
     /**
      * @return activation identifier if the Session has valid activation. If there's
      *         no activation then returns null.
      */
-    public native String getActivationIdentifier();
+    public String getActivationIdentifier() {
+        return stateSnapshot.activationIdentifier;
+    }
 
     /**
      * @return If the session has valid activation, then returns decimalized fingerprint, calculated
      *         from device's public key. Otherwise returns null.
      */
-    public native String getActivationFingerprint();
+    public String getActivationFingerprint() {
+        return stateSnapshot.activationFingerprint;
+    }
     
     /**
      * Starts a new activation process. The Session must be in its initial state. Once the
@@ -206,7 +309,18 @@ public class Session {
      * @param param {@link ActivationStep1Param} parameters required for activation start.
      * @return {@link ActivationStep1Result} object with operation result
      */
-    public native ActivationStep1Result startActivation(ActivationStep1Param param);
+    public ActivationStep1Result startActivation(ActivationStep1Param param) {
+        synchronized (this) {
+            final ActivationStep1Result result = startActivationImpl(param);
+            publishStateSnapshot();
+            return result;
+        }
+    }
+
+    /**
+     * Internal JNI implementation of {@link #startActivation}.
+     */
+    private native ActivationStep1Result startActivationImpl(ActivationStep1Param param);
 
     /**
      * Validates activation response from the server. The Session expects that activation process
@@ -232,7 +346,18 @@ public class Session {
      * @param param {@link ActivationStep2Param}response from the server
      * @return {@link ActivationStep2Result} object with operation result
      */
-    public native ActivationStep2Result validateActivationResponse(ActivationStep2Param param);
+    public ActivationStep2Result validateActivationResponse(ActivationStep2Param param) {
+        synchronized (this) {
+            final ActivationStep2Result result = validateActivationResponseImpl(param);
+            publishStateSnapshot();
+            return result;
+        }
+    }
+
+    /**
+     * Internal JNI implementation of {@link #validateActivationResponse}.
+     */
+    private native ActivationStep2Result validateActivationResponseImpl(ActivationStep2Param param);
 
     /**
      * Completes previously started activation process and protects sensitive local information with
@@ -250,7 +375,18 @@ public class Session {
      *         is returned then the operation succeeded.
      */
     @ErrorCode
-    public native int completeActivation(SignatureUnlockKeys lockKeys);
+    public int completeActivation(SignatureUnlockKeys lockKeys) {
+        synchronized (this) {
+            final int result = completeActivationImpl(lockKeys);
+            publishStateSnapshot();
+            return result;
+        }
+    }
+
+    /**
+     * Internal JNI implementation of {@link #completeActivation}.
+     */
+    private native int completeActivationImpl(SignatureUnlockKeys lockKeys);
 
 
     //
@@ -399,6 +535,21 @@ public class Session {
     @ErrorCode
     public native int changeUserPassword(Password oldPassword, Password newPassword);
 
+    /**
+     * Derives a knowledge factor unlock key from the provided password. The returned object can be
+     * later used in {@link SignatureUnlockKeys} constructed with {@code userPasswordIsDerivedKey} set
+     * to {@code true}. In this case, the expensive PBKDF2 derivation is performed only once, for multiple
+     * signature calculations.
+     * <p>
+     * The derived key is kept in the native memory, wrapped in immutable {@link Password} object.
+     * You should destroy such object once it's no longer needed. Be aware that the derived key is valid
+     * only until the password is changed.
+     *
+     * @param password password to derive the knowledge factor unlock key from.
+     * @return {@link Password} object with derived key or {@code null} in case of failure.
+     */
+    public native Password deriveKnowledgeUnlockKey(Password password);
+
     /**
      * Adds key for biometry factor. You have to provide encrypted vault key |cVaultKey| and |unlockKeys|
      * object with a new biometryUnlockKey and a valid possessionUnlockKey. The possession key
@@ -418,14 +569,27 @@ public class Session {
      *         is returned then the operation succeeded.
      */
     @ErrorCode
-    public native int addBiometryFactor(String cVaultKey, SignatureUnlockKeys unlockKeys);
+    public int addBiometryFactor(String cVaultKey, SignatureUnlockKeys unlockKeys) {
+        synchronized (this) {
+            final int result = addBiometryFactorImpl(cVaultKey, unlockKeys);
+            publishStateSnapshot();
+            return result;
+        }
+    }
+
+    /**
+     * Internal JNI implementation of {@link #addBiometryFactor}.
+     */
+    private native int addBiometryFactorImpl(String cVaultKey, SignatureUnlockKeys unlockKeys);
 
     /**
      * Checks if there is a biometry factor present in a current session.
      *
      * @return true if there is a biometry factor related key present, false otherwise.
      */
-    public native boolean hasBiometryFactor();
+    public boolean hasBiometryFactor() {
+        return stateSnapshot.hasBiometryFactor;
+    }
 
     /**
      * Removes existing biometry key from persisting data. You have to save state of the Session after
@@ -435,7 +599,18 @@ public class Session {
      *         is returned then the operation succeeded.
      */
     @ErrorCode
-    public native int removeBiometryFactor();
+    public int removeBiometryFactor() {
+        synchronized (this) {
+            final int result = removeBiometryFactorImpl();
+            publishStateSnapshot();
+            return result;
+        }
+    }
+
+    /**
+     * Internal JNI implementation of {@link #removeBiometryFactor}.
+     */
+    private native int removeBiometryFactorImpl();
 
     //
     // Vault operations
@@ -483,6 +658,47 @@ public class Session {
      */
     public native byte[] signDataWithDevicePrivateKey(String cVaultKey, SignatureUnlockKeys unlockKeys, byte[] data, @SignatureFormat int signatureFormat);
 
+    /**
+     * Variant of {@link #deriveCryptographicKeyFromVaultKey(String, SignatureUnlockKeys, long)} that accepts
+     * the encrypted vault key as bytes in ASCII representation, so the caller can wipe out the key once it's
+     * no longer needed. The native copy of the key is wiped out before the function returns.
+     *
+     * @param cVaultKey encrypted vault key in ASCII representation
+     * @param unlockKeys unlock keys object with required possession factor
+     * @param keyIndex parameter to key derivation function
+     *
+     * @return byte array with a derived cryptographic key or null in case of failure.
+     */
+    public byte[] deriveCryptographicKeyFromVaultKey(byte[] cVaultKey, SignatureUnlockKeys unlockKeys, long keyIndex) {
+        return deriveCryptographicKeyFromVaultKeyBytesImpl(cVaultKey, unlockKeys, keyIndex);
+    }
+
+    /**
+     * Internal JNI implementation of {@link #deriveCryptographicKeyFromVaultKey(byte[], SignatureUnlockKeys, long)}.
+     */
+    private native byte[] deriveCryptographicKeyFromVaultKeyBytesImpl(byte[] cVaultKey, SignatureUnlockKeys unlockKeys, long keyIndex);
+
+    /**
+     * Variant of {@link #signDataWithDevicePrivateKey(String, SignatureUnlockKeys, byte[], int)} that accepts
+     * the encrypted vault key as bytes in ASCII representation, so the caller can wipe out the key once it's
+     * no longer needed. The native copy of the key is wiped out before the function returns.
+     *
+     * @param cVaultKey encrypted vault key in ASCII representation
+     * @param unlockKeys unlock keys object with required possession factor
+     * @param data data to be signed
+     * @param signatureFormat Format of produced signature.
+     *
+     * @return array of bytes with calculated signature or null in case of failure.
+     */
+    public byte[] signDataWithDevicePrivateKey(byte[] cVaultKey, SignatureUnlockKeys unlockKeys, byte[] data, @SignatureFormat int signatureFormat) {
+        return signDataWithDevicePrivateKeyBytesImpl(cVaultKey, unlockKeys, data, signatureFormat);
+    }
+
+    /**
+     * Internal JNI implementation of {@link #signDataWithDevicePrivateKey(byte[], SignatureUnlockKeys, byte[], int)}.
+     */
+    private native byte[] signDataWithDevicePrivateKeyBytesImpl(byte[] cVaultKey, SignatureUnlockKeys unlockKeys, byte[] data, @SignatureFormat int signatureFormat);
+
     //
     // External encryption key
     //
@@ -667,7 +883,9 @@ public class Session {
      * @return true if session has pending upgrade to a newer protocol version. Note that some
      *         operations may not be available in this situation.
      */
-    public native boolean hasPendingProtocolUpgrade();
+    public boolean hasPendingProtocolUpgrade() {
+        return stateSnapshot.hasPendingProtocolUpgrade;
+    }
 
     /**
      * @return {@link ProtocolVersion} enumeration with version to which the session is currently
@@ -681,7 +899,18 @@ public class Session {
      * @return {@link ErrorCode#OK} if upgrade has been started, or other error constants if not.
      */
     @ErrorCode
-    public native int startProtocolUpgrade();
+    public int startProtocolUpgrade() {
+        synchronized (this) {
+            final int result = startProtocolUpgradeImpl();
+            publishStateSnapshot();
+            return result;
+        }
+    }
+
+    /**
+     * Internal JNI implementation of {@link #startProtocolUpgrade}.
+     */
+    private native int startProtocolUpgradeImpl();
 
     /**
      * Applies protocol upgrade data to the session. You need to construct upgrade data object
@@ -696,7 +925,18 @@ public class Session {
      * @return {@link ErrorCode#OK} if data has been applied, or other error constants if not.
      */
     @ErrorCode
-    public native int applyProtocolUpgradeData(ProtocolUpgradeData protocolUpgradeData);
+    public int applyProtocolUpgradeData(ProtocolUpgradeData protocolUpgradeData) {
+        synchronized (this) {
+            final int result = applyProtocolUpgradeDataImpl(protocolUpgradeData);
+            publishStateSnapshot();
+            return result;
+        }
+    }
+
+    /**
+     * Internal JNI implementation of {@link #applyProtocolUpgradeData}.
+     */
+    private native int applyProtocolUpgradeDataImpl(ProtocolUpgradeData protocolUpgradeData);
 
     /**
      * Completes the upgrade procedure. You should serialize the session's state after this operation.
@@ -704,7 +944,18 @@ public class Session {
      * @return {@link ErrorCode#OK} if upgrade has been finished, or other error constants if not.
      */
     @ErrorCode
-    public native int finishProtocolUpgrade();
+    public int finishProtocolUpgrade() {
+        synchronized (this) {
+            final int result = finishProtocolUpgradeImpl();
+            publishStateSnapshot();
+            return result;
+        }
+    }
+
+    /**
+     * Internal JNI implementation of {@link #finishProtocolUpgrade}.
+     */
+    private native int finishProtocolUpgradeImpl();
 
     /**
      * Return textual representation for given protocol version. For example, for {@link ProtocolVersion#V3}
@@ -46,6 +46,12 @@ public class SignatureUnlockKeys {
      * The Session validates only the minimum lenght of the passphrase.
      */
     public final Password userPassword;
+    /**
+     * If true, then {@link #userPassword} contains a knowledge factor unlock key, previously
+     * derived with {@link Session#deriveKnowledgeUnlockKey(Password)}. Such keys can be used
+     * only to unlock the signature keys.
+     */
+    public final boolean userPasswordIsDerivedKey;
 
     /**
      * @param possessionUnlockKey key for lock or unlock the signature key for possession factor
@@ -53,8 +59,19 @@ public class SignatureUnlockKeys {
      * @param userPassword password for lock or unlock the signature key for knowledge factor
      */
     public SignatureUnlockKeys(byte[] possessionUnlockKey, byte[] biometryUnlockKey, Password userPassword) {
+        this(possessionUnlockKey, biometryUnlockKey, userPassword, false);
+    }
+
+    /**
+     * @param possessionUnlockKey key for lock or unlock the signature key for possession factor
+     * @param biometryUnlockKey key for lock or unlock the signature key for biometry factor
+     * @param userPassword password or already derived key for unlock the signature key for knowledge factor
+     * @param userPasswordIsDerivedKey if true, then userPassword contains an already derived knowledge factor key
+     */
+    public SignatureUnlockKeys(byte[] possessionUnlockKey, byte[] biometryUnlockKey, Password userPassword, boolean userPasswordIsDerivedKey) {
         this.possessionUnlockKey = possessionUnlockKey;
         this.biometryUnlockKey = biometryUnlockKey;
         this.userPassword = userPassword;
+        this.userPasswordIsDerivedKey = userPasswordIsDerivedKey;
     }
 }
\ No newline at end of file
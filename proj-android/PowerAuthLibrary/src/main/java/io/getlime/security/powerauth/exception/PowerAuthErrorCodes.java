@@ -34,7 +34,7 @@ import static java.lang.annotation.RetentionPolicy.SOURCE;
         PROTOCOL_UPGRADE, PENDING_PROTOCOL_UPGRADE,
         BIOMETRY_NOT_SUPPORTED, BIOMETRY_NOT_AVAILABLE, BIOMETRY_NOT_RECOGNIZED,
         INSUFFICIENT_KEYCHAIN_PROTECTION, BIOMETRY_LOCKOUT, TIME_SYNCHRONIZATION,
-        BIOMETRY_NOT_ENROLLED})
+        BIOMETRY_NOT_ENROLLED, AUTHENTICATION_SESSION_EXPIRED, CIRCUIT_BREAKER_OPEN})
 public @interface PowerAuthErrorCodes {
 
     /**
@@ -168,4 +168,17 @@ public @interface PowerAuthErrorCodes {
      * The biometric authentication failed because there's no biometry enrolled on the device.
      */
     int BIOMETRY_NOT_ENROLLED = 24;
+
+    /**
+     * The authentication or vault session is no longer valid. The session has expired, reached its maximum
+     * number of uses, or has been invalidated due to a password change, activation removal or application
+     * transition to the background. You should ask user for the credentials again.
+     */
+    int AUTHENTICATION_SESSION_EXPIRED = 25;
+
+    /**
+     * The request was not sent to the server, because the endpoint recently failed repeatedly and the circuit
+     * breaker is open. You can try the operation again later.
+     */
+    int CIRCUIT_BREAKER_OPEN = 26;
 }
@@ -33,6 +33,7 @@ import javax.crypto.SecretKey;
 import javax.crypto.ShortBufferException;
 import javax.crypto.spec.GCMParameterSpec;
 
+import io.getlime.security.powerauth.system.PowerAuthDiagnostics;
 import io.getlime.security.powerauth.system.PowerAuthLog;
 
 /**
@@ -63,6 +64,7 @@ public class AesGcmImpl {
      */
     @Nullable
     public static byte[] encrypt(@NonNull byte[] plaintext, @NonNull SecretKey key, @NonNull String identifier) {
+        final long startTime = PowerAuthDiagnostics.start();
         try {
             if (plaintext.length > Integer.MAX_VALUE - IV_SIZE_IN_BYTES - TAG_SIZE_IN_BYTES) {
                 PowerAuthLog.e("AesGcmImpl: " + identifier + ": Plaintext is too long.");
@@ -82,6 +84,8 @@ public class AesGcmImpl {
                 IllegalBlockSizeException | ShortBufferException | ProviderException e) {
             PowerAuthLog.e("AesGcmImpl: " + identifier + ": Failed to encrypt keychain value. Exception: " + e.getMessage());
             return null;
+        } finally {
+            PowerAuthDiagnostics.stop(PowerAuthDiagnostics.Operation.KEYSTORE_ENCRYPT, startTime);
         }
     }
 
@@ -95,6 +99,7 @@ public class AesGcmImpl {
      */
     @Nullable
     public static byte[] decrypt(@NonNull byte[] ciphertext, @NonNull SecretKey key, @NonNull String identifier) {
+        final long startTime = PowerAuthDiagnostics.start();
         try {
             if (ciphertext.length < IV_SIZE_IN_BYTES + TAG_SIZE_IN_BYTES) {
                 PowerAuthLog.e("AesGcmImpl: " + identifier + ": Ciphertext is too short.");
@@ -111,6 +116,8 @@ public class AesGcmImpl {
                 InvalidKeyException | BadPaddingException | IllegalBlockSizeException | ProviderException e) {
             PowerAuthLog.e("AesGcmImpl: " + identifier + ": Failed to decrypt keychain value. Exception: " + e.getMessage());
             return null;
+        } finally {
+            PowerAuthDiagnostics.stop(PowerAuthDiagnostics.Operation.KEYSTORE_DECRYPT, startTime);
         }
     }
 }
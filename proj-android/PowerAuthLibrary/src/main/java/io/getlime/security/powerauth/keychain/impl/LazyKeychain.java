@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.keychain.impl;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Set;
+
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.keychain.Keychain;
+import io.getlime.security.powerauth.keychain.KeychainFactory;
+import io.getlime.security.powerauth.keychain.KeychainProtection;
+
+/**
+ * The {@code LazyKeychain} class implements {@link Keychain} that creates the underlying keychain
+ * with {@link KeychainFactory} on the first access. The creation of keychain may require an expensive
+ * Android KeyStore probing, or the data migration, so it's better to create keychains that are not
+ * needed at the application's startup later.
+ * <p>
+ * The class should be used only for keychains with the same minimum protection as a keychain that
+ * has already been created successfully, so the lazy creation cannot fail on insufficient protection.
+ */
+public class LazyKeychain implements Keychain {
+
+    private final @NonNull Context context;
+    private final @NonNull String identifier;
+    private final @KeychainProtection int minimumKeychainProtection;
+    private volatile Keychain keychain;
+
+    /**
+     * Construct the lazy keychain.
+     *
+     * @param context Android context object.
+     * @param identifier String with keychain identifier.
+     * @param minimumKeychainProtection Minimum required keychain protection.
+     */
+    public LazyKeychain(@NonNull Context context, @NonNull String identifier, @KeychainProtection int minimumKeychainProtection) {
+        this.context = context.getApplicationContext();
+        this.identifier = identifier;
+        this.minimumKeychainProtection = minimumKeychainProtection;
+    }
+
+    /**
+     * @return {@code true} if the underlying keychain is already created.
+     */
+    public boolean isCreated() {
+        return keychain != null;
+    }
+
+    /**
+     * Get the underlying keychain. The keychain is created on the first call.
+     *
+     * @return Underlying keychain.
+     * @throws IllegalStateException In case that keychain cannot be created.
+     */
+    @NonNull
+    public Keychain getKeychain() {
+        Keychain result = keychain;
+        if (result == null) {
+            synchronized (this) {
+                result = keychain;
+                if (result == null) {
+                    try {
+                        result = KeychainFactory.getKeychain(context, identifier, minimumKeychainProtection);
+                    } catch (PowerAuthErrorException e) {
+                        throw new IllegalStateException("Failed to create keychain " + identifier, e);
+                    }
+                    keychain = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    @NonNull
+    @Override
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    @Override
+    public boolean isEncrypted() {
+        return getKeychain().isEncrypted();
+    }
+
+    @Override
+    public boolean isStrongBoxBacked() {
+        return getKeychain().isStrongBoxBacked();
+    }
+
+    @Override
+    public boolean isReservedKey(@NonNull String key) {
+        return getKeychain().isReservedKey(key);
+    }
+
+    @Override
+    public boolean contains(@NonNull String key) {
+        return getKeychain().contains(key);
+    }
+
+    @Override
+    public void remove(@NonNull String key) {
+        getKeychain().remove(key);
+    }
+
+    @Override
+    public void removeAll() {
+        getKeychain().removeAll();
+    }
+
+    @Nullable
+    @Override
+    public byte[] getData(@NonNull String key) {
+        return getKeychain().getData(key);
+    }
+
+    @Override
+    public void putData(@Nullable byte[] data, @NonNull String key) {
+        getKeychain().putData(data, key);
+    }
+
+    @Nullable
+    @Override
+    public String getString(@NonNull String key) {
+        return getKeychain().getString(key);
+    }
+
+    @NonNull
+    @Override
+    public String getString(@NonNull String key, @NonNull String defaultValue) {
+        return getKeychain().getString(key, defaultValue);
+    }
+
+    @Override
+    public void putString(@Nullable String string, @NonNull String key) {
+        getKeychain().putString(string, key);
+    }
+
+    @Nullable
+    @Override
+    public Set<String> getStringSet(@NonNull String key) {
+        return getKeychain().getStringSet(key);
+    }
+
+    @Override
+    public void putStringSet(@Nullable Set<String> stringSet, @NonNull String key) {
+        getKeychain().putStringSet(stringSet, key);
+    }
+
+    @Override
+    public boolean getBoolean(@NonNull String key, boolean defaultValue) {
+        return getKeychain().getBoolean(key, defaultValue);
+    }
+
+    @Override
+    public void putBoolean(boolean value, @NonNull String key) {
+        getKeychain().putBoolean(value, key);
+    }
+
+    @Override
+    public long getLong(@NonNull String key, long defaultValue) {
+        return getKeychain().getLong(key, defaultValue);
+    }
+
+    @Override
+    public void putLong(long value, @NonNull String key) {
+        getKeychain().putLong(value, key);
+    }
+
+    @Override
+    public float getFloat(@NonNull String key, float defaultValue) {
+        return getKeychain().getFloat(key, defaultValue);
+    }
+
+    @Override
+    public void putFloat(float value, @NonNull String key) {
+        getKeychain().putFloat(value, key);
+    }
+}
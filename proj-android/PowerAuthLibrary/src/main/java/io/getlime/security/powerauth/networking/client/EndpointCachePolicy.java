@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.client;
+
+/**
+ * The {@code EndpointCachePolicy} class defines how {@link HttpClient} caches successful responses
+ * received from an endpoint. The policy is provided by
+ * {@link io.getlime.security.powerauth.networking.interfaces.IEndpointDefinition#getCachePolicy()}.
+ */
+public class EndpointCachePolicy {
+
+    /**
+     * Time in milliseconds during which the cached response is returned without contacting the server.
+     */
+    public final long timeToLive;
+    /**
+     * Additional time in milliseconds after {@link #timeToLive} expires, during which the cached response
+     * is still returned, but a new request is issued in the background to refresh the cache.
+     */
+    public final long staleWhileRevalidate;
+    /**
+     * If {@code true}, then the response is bound to the current activation and is removed from the cache
+     * together with the activation.
+     */
+    public final boolean isActivationScoped;
+    /**
+     * If {@code true}, then the response is also persisted in the keychain, so it's available after
+     * the application restart.
+     */
+    public final boolean isPersistent;
+
+    /**
+     * Construct the cache policy.
+     *
+     * @param timeToLive Time to live of the cached response in milliseconds.
+     * @param staleWhileRevalidate Time in milliseconds after the time to live expires, during which the stale
+     *                             response can be returned while it's refreshed in the background.
+     * @param isActivationScoped If {@code true}, then the response is bound to the current activation.
+     * @param isPersistent If {@code true}, then the response is also persisted in the keychain.
+     */
+    public EndpointCachePolicy(long timeToLive, long staleWhileRevalidate, boolean isActivationScoped, boolean isPersistent) {
+        this.timeToLive = Math.max(0, timeToLive);
+        this.staleWhileRevalidate = Math.max(0, staleWhileRevalidate);
+        this.isActivationScoped = isActivationScoped;
+        this.isPersistent = isPersistent;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+/**
+ * The {@code HttpAdaptiveTimeoutPolicy} class defines how {@link HttpClient} derives the connect and read timeouts
+ * from the network latency observed for each host, instead of using the fixed timeouts from the client
+ * configuration.
+ * <p>
+ * The timeout is the observed latency at {@link #percentile} multiplied by {@link #multiplier} and clamped to
+ * the configured bounds. The latency is measured over the last {@link #windowSize} requests to the host. Until
+ * the host has at least {@link #minSamples} measured requests, the fixed timeouts from the client configuration
+ * are used. The read timeout is additionally multiplied by the endpoint's
+ * {@link io.getlime.security.powerauth.networking.interfaces.IEndpointDefinition#getTimeoutMultiplier()}, so
+ * the endpoints that require more processing on the server have proportionally longer timeout.
+ */
+public class HttpAdaptiveTimeoutPolicy {
+
+    /**
+     * Default adaptive timeout policy. The timeouts are 3 times the 99th percentile latency, the connect timeout
+     * is between 2 and 20 seconds and the read timeout is between 5 and 20 seconds.
+     */
+    public static final HttpAdaptiveTimeoutPolicy DEFAULT = new HttpAdaptiveTimeoutPolicy(99.0, 3.0, 2_000, 20_000, 5_000, 20_000, 20, 200);
+
+    /**
+     * Percentile of the observed latency, in range 0.0 to 100.0, from which the timeout is derived.
+     */
+    public final double percentile;
+    /**
+     * Multiplier applied to the observed latency.
+     */
+    public final double multiplier;
+    /**
+     * Minimum connect timeout in milliseconds.
+     */
+    public final int minConnectionTimeout;
+    /**
+     * Maximum connect timeout in milliseconds.
+     */
+    public final int maxConnectionTimeout;
+    /**
+     * Minimum read timeout in milliseconds.
+     */
+    public final int minReadTimeout;
+    /**
+     * Maximum read timeout in milliseconds, before the endpoint's multiplier is applied.
+     */
+    public final int maxReadTimeout;
+    /**
+     * Number of measured requests required before the adaptive timeouts are used.
+     */
+    public final int minSamples;
+    /**
+     * Number of requests after which the latency measurement starts over, so the timeouts follow
+     * the changes in the network conditions.
+     */
+    public final int windowSize;
+
+    /**
+     * Construct the adaptive timeout policy.
+     *
+     * @param percentile Percentile of the observed latency from which the timeout is derived.
+     * @param multiplier Multiplier applied to the observed latency. The value must be at least 1.0.
+     * @param minConnectionTimeout Minimum connect timeout in milliseconds.
+     * @param maxConnectionTimeout Maximum connect timeout in milliseconds.
+     * @param minReadTimeout Minimum read timeout in milliseconds.
+     * @param maxReadTimeout Maximum read timeout in milliseconds, before the endpoint's multiplier is applied.
+     * @param minSamples Number of measured requests required before the adaptive timeouts are used.
+     * @param windowSize Number of requests after which the latency measurement starts over.
+     */
+    public HttpAdaptiveTimeoutPolicy(double percentile, double multiplier, int minConnectionTimeout, int maxConnectionTimeout, int minReadTimeout, int maxReadTimeout, int minSamples, int windowSize) {
+        this.percentile = Math.max(0.0, Math.min(percentile, 100.0));
+        this.multiplier = Math.max(1.0, multiplier);
+        this.minConnectionTimeout = Math.max(1, minConnectionTimeout);
+        this.maxConnectionTimeout = Math.max(this.minConnectionTimeout, maxConnectionTimeout);
+        this.minReadTimeout = Math.max(1, minReadTimeout);
+        this.maxReadTimeout = Math.max(this.minReadTimeout, maxReadTimeout);
+        this.minSamples = Math.max(1, minSamples);
+        this.windowSize = Math.max(this.minSamples, windowSize);
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+
+import io.getlime.security.powerauth.networking.metrics.HttpMetricsHistogram;
+
+/**
+ * The {@code HttpAdaptiveTimeouts} class keeps the moving estimate of the connect and response latency for
+ * each host and calculates the timeouts as defined by {@link HttpAdaptiveTimeoutPolicy}. The class is thread safe.
+ */
+class HttpAdaptiveTimeouts {
+
+    /**
+     * Latency measured over the last window of requests. Once the window is full, its snapshot is kept as
+     * the estimate until the next window has enough samples.
+     */
+    private static class LatencyWindow {
+        final @NonNull HttpMetricsHistogram histogram = new HttpMetricsHistogram();
+        @Nullable HttpMetricsHistogram.Snapshot previousWindow;
+        int count;
+    }
+
+    /**
+     * Latency estimates for one host.
+     */
+    private static class HostState {
+        final @NonNull LatencyWindow connectLatency = new LatencyWindow();
+        final @NonNull LatencyWindow responseLatency = new LatencyWindow();
+    }
+
+    private final @NonNull HttpAdaptiveTimeoutPolicy policy;
+    private final @NonNull HashMap<String, HostState> hostStates = new HashMap<>();
+
+    /**
+     * @param policy Adaptive timeout policy.
+     */
+    HttpAdaptiveTimeouts(@NonNull HttpAdaptiveTimeoutPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Calculate the connect timeout for the host.
+     *
+     * @param host Host and port of the server.
+     * @param defaultTimeout Timeout in milliseconds used if there's no estimate for the host yet.
+     * @return Connect timeout in milliseconds.
+     */
+    int getConnectionTimeout(@NonNull String host, int defaultTimeout) {
+        synchronized (this) {
+            final long latency = getEstimate(getHostState(host).connectLatency);
+            if (latency < 0) {
+                return defaultTimeout;
+            }
+            return clampTimeout(latency * policy.multiplier, policy.minConnectionTimeout, policy.maxConnectionTimeout);
+        }
+    }
+
+    /**
+     * Calculate the read timeout for the host.
+     *
+     * @param host Host and port of the server.
+     * @param timeoutMultiplier Endpoint's timeout multiplier.
+     * @param defaultTimeout Timeout in milliseconds used if there's no estimate for the host yet.
+     * @return Read timeout in milliseconds.
+     */
+    int getReadTimeout(@NonNull String host, double timeoutMultiplier, int defaultTimeout) {
+        synchronized (this) {
+            final long latency = getEstimate(getHostState(host).responseLatency);
+            if (latency < 0) {
+                return defaultTimeout;
+            }
+            final int timeout = clampTimeout(latency * policy.multiplier, policy.minReadTimeout, policy.maxReadTimeout);
+            return clampTimeout(timeout * Math.max(1.0, timeoutMultiplier), 1, Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Record the time required to establish the connection to the host.
+     *
+     * @param host Host and port of the server.
+     * @param latency Latency in milliseconds.
+     */
+    void recordConnectLatency(@NonNull String host, long latency) {
+        synchronized (this) {
+            record(getHostState(host).connectLatency, latency);
+        }
+    }
+
+    /**
+     * Record the time between the sent request and the received response. The latency is divided by the endpoint's
+     * timeout multiplier, so the slow endpoints don't prolong timeouts of other endpoints.
+     *
+     * @param host Host and port of the server.
+     * @param timeoutMultiplier Endpoint's timeout multiplier.
+     * @param latency Latency in milliseconds.
+     */
+    void recordResponseLatency(@NonNull String host, double timeoutMultiplier, long latency) {
+        synchronized (this) {
+            record(getHostState(host).responseLatency, (long) (latency / Math.max(1.0, timeoutMultiplier)));
+        }
+    }
+
+    /**
+     * Record latency to the window. The function must be called in synchronized block.
+     * @param window Window to record.
+     * @param latency Latency in milliseconds.
+     */
+    private void record(@NonNull LatencyWindow window, long latency) {
+        window.histogram.record(latency);
+        if (++window.count >= policy.windowSize) {
+            window.previousWindow = window.histogram.getSnapshot(true);
+            window.count = 0;
+        }
+    }
+
+    /**
+     * Get the latency estimate from the window. The function must be called in synchronized block.
+     * @param window Window with measured latency.
+     * @return Latency at the policy's percentile or -1 if there's not enough samples.
+     */
+    private long getEstimate(@NonNull LatencyWindow window) {
+        if (window.count >= policy.minSamples) {
+            return window.histogram.getSnapshot(false).getPercentile(policy.percentile);
+        }
+        if (window.previousWindow != null) {
+            return window.previousWindow.getPercentile(policy.percentile);
+        }
+        return -1;
+    }
+
+    /**
+     * Convert the timeout to integer and clamp it to the bounds.
+     * @param timeout Timeout in milliseconds.
+     * @param min Minimum timeout.
+     * @param max Maximum timeout.
+     * @return Clamped timeout.
+     */
+    private static int clampTimeout(double timeout, int min, int max) {
+        return (int) Math.max(min, Math.min(timeout, max));
+    }
+
+    /**
+     * Get or create state for the host. The function must be called in synchronized block.
+     * @param host Host and port of the server.
+     * @return State for the host.
+     */
+    @NonNull
+    private HostState getHostState(@NonNull String host) {
+        HostState state = hostStates.get(host);
+        if (state == null) {
+            state = new HostState();
+            hostStates.put(host, state);
+        }
+        return state;
+    }
+}
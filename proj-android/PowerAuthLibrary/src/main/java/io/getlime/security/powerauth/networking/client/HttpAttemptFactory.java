@@ -0,0 +1,41 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+
+import io.getlime.security.powerauth.networking.interfaces.ICancelable;
+import io.getlime.security.powerauth.networking.interfaces.INetworkResponseListener;
+
+/**
+ * Interface that starts one attempt to execute the request. The interface allows {@link HttpRetryTask} and
+ * {@link HttpHedgedTask} to execute the same request multiple times.
+ *
+ * @param <TResponse> type of response object
+ */
+interface HttpAttemptFactory<TResponse> {
+    /**
+     * Start a new attempt to execute the request.
+     *
+     * @param retryCount Number of previous attempts.
+     * @param listener Listener for the attempt.
+     * @return Cancelable attempt.
+     */
+    @NonNull
+    ICancelable startAttempt(int retryCount, @NonNull INetworkResponseListener<TResponse> listener);
+}
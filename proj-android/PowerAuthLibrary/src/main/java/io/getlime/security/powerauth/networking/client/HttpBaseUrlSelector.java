@@ -0,0 +1,242 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.system.PowerAuthLog;
+
+/**
+ * The {@code HttpBaseUrlSelector} class tracks the health and the latency of the base URLs of the PowerAuth server
+ * and selects the URL for each request. The class is thread safe.
+ * <p>
+ * The requests that are not signed are sent to the healthy URL with the lowest measured latency. If no URL has
+ * the latency measured yet, then the order of URLs is used. The signed requests use one sticky URL, that changes
+ * only when the URL becomes unhealthy. The URL is unhealthy for a while after the connection to the server
+ * cannot be established.
+ */
+class HttpBaseUrlSelector {
+
+    /**
+     * Time in milliseconds for which the base URL is not used after a connection failure.
+     */
+    static final long UNHEALTHY_DURATION = 30_000;
+    /**
+     * Weight of the new latency sample in the exponentially weighted moving average.
+     */
+    private static final double LATENCY_WEIGHT = 0.3;
+
+    /**
+     * State of one base URL.
+     */
+    private static class BaseUrlState {
+        final @NonNull String baseUrl;
+        long latency = -1;
+        long unhealthyUntil;
+
+        BaseUrlState(@NonNull String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        boolean isHealthy(long now) {
+            return now >= unhealthyUntil;
+        }
+    }
+
+    private final @NonNull ArrayList<BaseUrlState> states;
+    private @Nullable BaseUrlState stickyState;
+
+    /**
+     * @param baseUrls Base URLs in order of preference. The list must not be empty.
+     */
+    HttpBaseUrlSelector(@NonNull List<String> baseUrls) {
+        if (baseUrls.isEmpty()) {
+            throw new IllegalArgumentException("At least one base URL is required");
+        }
+        this.states = new ArrayList<>(baseUrls.size());
+        for (String baseUrl : baseUrls) {
+            this.states.add(new BaseUrlState(baseUrl));
+        }
+    }
+
+    /**
+     * @return List of all base URLs in order of preference.
+     */
+    @NonNull
+    List<String> getBaseUrls() {
+        final ArrayList<String> baseUrls = new ArrayList<>(states.size());
+        for (BaseUrlState state : states) {
+            baseUrls.add(state.baseUrl);
+        }
+        return baseUrls;
+    }
+
+    /**
+     * @return {@code true} if there's more than one base URL.
+     */
+    boolean hasAlternatives() {
+        return states.size() > 1;
+    }
+
+    /**
+     * Select base URL for the request that is not signed.
+     *
+     * @param excludedBaseUrls Optional set of base URLs that should not be selected, for example because the request
+     *                         already failed on them.
+     * @return Healthy base URL with the lowest latency. If there's no healthy URL, then returns the URL that will be
+     *         healthy first. Returns {@code null} only if all URLs are excluded.
+     */
+    @Nullable
+    String getPreferredBaseUrl(@Nullable Set<String> excludedBaseUrls) {
+        synchronized (this) {
+            final BaseUrlState state = selectState(excludedBaseUrls, SystemClock.elapsedRealtime());
+            return state != null ? state.baseUrl : null;
+        }
+    }
+
+    /**
+     * Select base URL for the signed request. The same URL is returned until it becomes unhealthy.
+     *
+     * @return Base URL for the signed request.
+     */
+    @NonNull
+    String getStickyBaseUrl() {
+        synchronized (this) {
+            final long now = SystemClock.elapsedRealtime();
+            if (stickyState == null || !stickyState.isHealthy(now)) {
+                final BaseUrlState newStickyState = selectState(null, now);
+                if (newStickyState != stickyState && newStickyState != null) {
+                    PowerAuthLog.d("HttpBaseUrlSelector: Signed requests are now sent to %s", newStickyState.baseUrl);
+                    stickyState = newStickyState;
+                }
+            }
+            return stickyState != null ? stickyState.baseUrl : states.get(0).baseUrl;
+        }
+    }
+
+    /**
+     * Report the response received from the server.
+     * @param baseUrl Base URL of the request.
+     */
+    void onSuccess(@NonNull String baseUrl) {
+        synchronized (this) {
+            final BaseUrlState state = findState(baseUrl);
+            if (state != null) {
+                state.unhealthyUntil = 0;
+            }
+        }
+    }
+
+    /**
+     * Report the connection failure. The base URL becomes unhealthy for {@link #UNHEALTHY_DURATION}.
+     * @param baseUrl Base URL of the request.
+     */
+    void onConnectionFailure(@NonNull String baseUrl) {
+        synchronized (this) {
+            final BaseUrlState state = findState(baseUrl);
+            if (state != null) {
+                PowerAuthLog.d("HttpBaseUrlSelector: %s is not reachable.", baseUrl);
+                state.unhealthyUntil = SystemClock.elapsedRealtime() + UNHEALTHY_DURATION;
+            }
+        }
+    }
+
+    /**
+     * Record the latency measured by the probe to the base URL.
+     * @param baseUrl Base URL of the probe.
+     * @param latency Latency in milliseconds.
+     */
+    void recordLatency(@NonNull String baseUrl, long latency) {
+        synchronized (this) {
+            final BaseUrlState state = findState(baseUrl);
+            if (state != null) {
+                final long value = Math.max(0, latency);
+                state.latency = state.latency < 0 ? value : (long) (LATENCY_WEIGHT * value + (1.0 - LATENCY_WEIGHT) * state.latency);
+            }
+        }
+    }
+
+    /**
+     * Determine whether the failure means that the connection to the server was not established, so the request
+     * was not delivered to the server and can be sent to another base URL.
+     *
+     * @param failure Failure reported from the request.
+     * @return {@code true} if the request was not delivered to the server.
+     */
+    static boolean isConnectionFailure(@NonNull Throwable failure) {
+        if (failure instanceof PowerAuthErrorException && ((PowerAuthErrorException) failure).getPowerAuthErrorCode() == PowerAuthErrorCodes.NETWORK_ERROR) {
+            final Throwable cause = failure.getCause();
+            return cause instanceof ConnectException ||
+                    cause instanceof NoRouteToHostException ||
+                    cause instanceof UnknownHostException;
+        }
+        return false;
+    }
+
+    /**
+     * Select the base URL state. The function must be called in synchronized block.
+     * @param excludedBaseUrls Optional set of excluded base URLs.
+     * @param now Current time.
+     * @return Selected state or {@code null} if all states are excluded.
+     */
+    @Nullable
+    private BaseUrlState selectState(@Nullable Set<String> excludedBaseUrls, long now) {
+        BaseUrlState bestHealthy = null;
+        BaseUrlState firstRecovering = null;
+        for (BaseUrlState state : states) {
+            if (excludedBaseUrls != null && excludedBaseUrls.contains(state.baseUrl)) {
+                continue;
+            }
+            if (state.isHealthy(now)) {
+                if (bestHealthy == null || (state.latency >= 0 && (bestHealthy.latency < 0 || state.latency < bestHealthy.latency))) {
+                    bestHealthy = state;
+                }
+            } else if (firstRecovering == null || state.unhealthyUntil < firstRecovering.unhealthyUntil) {
+                firstRecovering = state;
+            }
+        }
+        return bestHealthy != null ? bestHealthy : firstRecovering;
+    }
+
+    /**
+     * Find state for the base URL. The function must be called in synchronized block.
+     * @param baseUrl Base URL.
+     * @return State for the base URL or {@code null} if there's no such URL.
+     */
+    @Nullable
+    private BaseUrlState findState(@NonNull String baseUrl) {
+        for (BaseUrlState state : states) {
+            if (state.baseUrl.equals(baseUrl)) {
+                return state;
+            }
+        }
+        return null;
+    }
+}
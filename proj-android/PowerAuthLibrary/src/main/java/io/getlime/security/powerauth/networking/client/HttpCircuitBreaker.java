@@ -0,0 +1,173 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import io.getlime.security.powerauth.networking.interfaces.IHttpMetricsListener;
+import io.getlime.security.powerauth.system.PowerAuthLog;
+
+/**
+ * The {@code HttpCircuitBreaker} class implements the circuit breaker for one endpoint on one server, as defined
+ * by {@link HttpCircuitBreakerPolicy}. The class is thread safe.
+ */
+class HttpCircuitBreaker {
+
+    private final @NonNull HttpCircuitBreakerPolicy policy;
+    private final @NonNull Class<?> endpointClass;
+    private final @NonNull String baseUrl;
+    private final @NonNull String relativePath;
+    private final @Nullable IHttpMetricsListener metricsListener;
+
+    private @NonNull HttpCircuitBreakerState state = HttpCircuitBreakerState.CLOSED;
+    private int consecutiveFailures;
+    private int pendingProbes;
+    private long openTime;
+
+    /**
+     * @param policy Circuit breaker policy.
+     * @param endpointClass Class of endpoint definition.
+     * @param baseUrl Base URL of the server.
+     * @param relativePath Relative path to the endpoint.
+     * @param metricsListener Optional listener notified about the state transitions.
+     */
+    HttpCircuitBreaker(
+            @NonNull HttpCircuitBreakerPolicy policy,
+            @NonNull Class<?> endpointClass,
+            @NonNull String baseUrl,
+            @NonNull String relativePath,
+            @Nullable IHttpMetricsListener metricsListener) {
+        this.policy = policy;
+        this.endpointClass = endpointClass;
+        this.baseUrl = baseUrl;
+        this.relativePath = relativePath;
+        this.metricsListener = metricsListener;
+    }
+
+    /**
+     * @return Current state of the breaker.
+     */
+    @NonNull
+    HttpCircuitBreakerState getState() {
+        synchronized (this) {
+            return state;
+        }
+    }
+
+    /**
+     * Determine whether the request can be sent to the server. If the function returns {@code true}, then the caller
+     * must report the result of the request to {@link #onSuccess()}, {@link #onFailure()} or {@link #onCancel()}.
+     *
+     * @return {@code true} if the request can be sent, {@code false} if the request should fail immediately.
+     */
+    boolean tryAcquire() {
+        HttpCircuitBreakerState previousState = null;
+        final boolean result;
+        synchronized (this) {
+            if (state == HttpCircuitBreakerState.OPEN && SystemClock.elapsedRealtime() - openTime >= policy.openDuration) {
+                previousState = changeState(HttpCircuitBreakerState.HALF_OPEN);
+                pendingProbes = 0;
+            }
+            if (state == HttpCircuitBreakerState.CLOSED) {
+                result = true;
+            } else if (state == HttpCircuitBreakerState.HALF_OPEN && pendingProbes < policy.halfOpenMaxRequests) {
+                pendingProbes++;
+                result = true;
+            } else {
+                result = false;
+            }
+        }
+        notifyStateChange(previousState, HttpCircuitBreakerState.HALF_OPEN);
+        return result;
+    }
+
+    /**
+     * Report that the request reached the server.
+     */
+    void onSuccess() {
+        HttpCircuitBreakerState previousState = null;
+        synchronized (this) {
+            consecutiveFailures = 0;
+            if (state == HttpCircuitBreakerState.HALF_OPEN) {
+                previousState = changeState(HttpCircuitBreakerState.CLOSED);
+            }
+        }
+        notifyStateChange(previousState, HttpCircuitBreakerState.CLOSED);
+    }
+
+    /**
+     * Report that the request failed due to the server unavailability.
+     */
+    void onFailure() {
+        HttpCircuitBreakerState previousState = null;
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state == HttpCircuitBreakerState.HALF_OPEN ||
+                    (state == HttpCircuitBreakerState.CLOSED && consecutiveFailures >= policy.failureThreshold)) {
+                previousState = changeState(HttpCircuitBreakerState.OPEN);
+                openTime = SystemClock.elapsedRealtime();
+            }
+        }
+        notifyStateChange(previousState, HttpCircuitBreakerState.OPEN);
+    }
+
+    /**
+     * Report that the request was cancelled or failed before it reached the server, so the result is unknown.
+     */
+    void onCancel() {
+        synchronized (this) {
+            if (state == HttpCircuitBreakerState.HALF_OPEN && pendingProbes > 0) {
+                pendingProbes--;
+            }
+        }
+    }
+
+    /**
+     * Change the state of the breaker. The function must be called in synchronized block.
+     * @param newState New state.
+     * @return Previous state.
+     */
+    @NonNull
+    private HttpCircuitBreakerState changeState(@NonNull HttpCircuitBreakerState newState) {
+        final HttpCircuitBreakerState previousState = state;
+        state = newState;
+        return previousState;
+    }
+
+    /**
+     * Notify the metrics listener about the state transition.
+     * @param previousState Previous state or {@code null} if the state didn't change.
+     * @param newState New state.
+     */
+    private void notifyStateChange(@Nullable HttpCircuitBreakerState previousState, @NonNull HttpCircuitBreakerState newState) {
+        if (previousState == null) {
+            return;
+        }
+        PowerAuthLog.d("HttpCircuitBreaker: %s%s: %s -> %s", baseUrl, relativePath, previousState, newState);
+        if (metricsListener != null) {
+            try {
+                metricsListener.onCircuitBreakerStateChanged(endpointClass, baseUrl, previousState, newState);
+            } catch (Throwable t) {
+                PowerAuthLog.e("HttpCircuitBreaker: Metrics listener failed: " + t);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.exceptions.FailedApiException;
+
+/**
+ * The {@code HttpCircuitBreakerPolicy} class defines when {@link HttpClient} stops sending requests to an endpoint
+ * that repeatedly fails. Each endpoint on each server has its own circuit breaker. Once the endpoint fails
+ * {@link #failureThreshold} times in a row, the breaker opens and all requests to the endpoint immediately fail with
+ * {@link PowerAuthErrorCodes#CIRCUIT_BREAKER_OPEN} error. After {@link #openDuration}, up to
+ * {@link #halfOpenMaxRequests} probe requests are sent to the server. If the probe succeeds, then the breaker
+ * closes, otherwise it opens again.
+ * <p>
+ * Only network errors and HTTP status codes 5xx are counted as failures. Other responses prove that the server
+ * is available.
+ */
+public class HttpCircuitBreakerPolicy {
+
+    /**
+     * Default circuit breaker policy. The breaker opens after 5 consecutive failures for 30 seconds.
+     */
+    public static final HttpCircuitBreakerPolicy DEFAULT = new HttpCircuitBreakerPolicy(5, 30_000, 1);
+
+    /**
+     * Number of consecutive failures that opens the breaker.
+     */
+    public final int failureThreshold;
+    /**
+     * Time in milliseconds for which the breaker stays open.
+     */
+    public final long openDuration;
+    /**
+     * Maximum number of probe requests sent in the half-open state.
+     */
+    public final int halfOpenMaxRequests;
+
+    /**
+     * Construct the circuit breaker policy.
+     *
+     * @param failureThreshold Number of consecutive failures that opens the breaker.
+     * @param openDuration Time in milliseconds for which the breaker stays open.
+     * @param halfOpenMaxRequests Maximum number of probe requests sent in the half-open state.
+     */
+    public HttpCircuitBreakerPolicy(int failureThreshold, long openDuration, int halfOpenMaxRequests) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDuration = Math.max(0, openDuration);
+        this.halfOpenMaxRequests = Math.max(1, halfOpenMaxRequests);
+    }
+
+    /**
+     * Determine whether the failure indicates that the server is not available.
+     *
+     * @param failure Failure reported from the request.
+     * @return {@code true} if the failure is counted by the circuit breaker.
+     */
+    public boolean isServerFailure(@NonNull Throwable failure) {
+        if (failure instanceof PowerAuthErrorException) {
+            final PowerAuthErrorException exception = (PowerAuthErrorException) failure;
+            if (exception.getPowerAuthErrorCode() != PowerAuthErrorCodes.NETWORK_ERROR) {
+                return false;
+            }
+            final Throwable cause = exception.getCause();
+            // TLS validation failures are not related to the server availability.
+            return cause instanceof IOException &&
+                    !(cause instanceof SSLHandshakeException) &&
+                    !(cause instanceof SSLPeerUnverifiedException);
+        }
+        if (failure instanceof FailedApiException) {
+            return ((FailedApiException) failure).getResponseCode() >= 500;
+        }
+        return false;
+    }
+}
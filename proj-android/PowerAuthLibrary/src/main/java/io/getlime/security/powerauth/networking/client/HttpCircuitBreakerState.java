@@ -0,0 +1,38 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+/**
+ * The {@code HttpCircuitBreakerState} enumeration defines states of the circuit breaker that protects
+ * one endpoint on one server.
+ */
+public enum HttpCircuitBreakerState {
+    /**
+     * Requests are sent to the server and the consecutive failures are counted.
+     */
+    CLOSED,
+    /**
+     * The server recently failed repeatedly, so requests fail immediately without being sent.
+     */
+    OPEN,
+    /**
+     * The open period elapsed, so a limited number of probe requests is sent to the server. If the probe
+     * succeeds, then the breaker is closed, otherwise it's opened again.
+     */
+    HALF_OPEN
+}
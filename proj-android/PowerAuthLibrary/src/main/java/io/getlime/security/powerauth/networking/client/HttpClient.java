@@ -16,12 +16,23 @@
 
 package io.getlime.security.powerauth.networking.client;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
 
 import io.getlime.security.powerauth.core.EciesEncryptorScope;
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.exceptions.FailedApiException;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 import io.getlime.security.powerauth.networking.interfaces.IEndpointDefinition;
 import io.getlime.security.powerauth.networking.interfaces.IExecutorProvider;
@@ -31,6 +42,7 @@ import io.getlime.security.powerauth.sdk.IPowerAuthTimeSynchronizationService;
 import io.getlime.security.powerauth.sdk.PowerAuthAuthentication;
 import io.getlime.security.powerauth.sdk.PowerAuthClientConfiguration;
 import io.getlime.security.powerauth.sdk.impl.*;
+import io.getlime.security.powerauth.system.PowerAuthLog;
 
 /**
  * The {@code HttpClient} class provides a high level networking functionality, including
@@ -44,10 +56,34 @@ public class HttpClient {
 
     private final @NonNull PowerAuthClientConfiguration configuration;
     private final @NonNull String baseUrl;
+    private final @NonNull HttpBaseUrlSelector baseUrlSelector;
     private final @NonNull IExecutorProvider executorProvider;
     private final @NonNull ICallbackDispatcher callbackDispatcher;
     private IPowerAuthTimeSynchronizationService timeSynchronizationService;
     private IKeystoreService keystoreService;
+    private HttpResponseCache responseCache;
+    private Handler mainThreadHandler;
+    /**
+     * Collects the background requests to execute them in one batch. The instance is lazily created.
+     */
+    private DeferredTaskScheduler deferredTaskScheduler;
+    /**
+     * Keeps the latency and budget for the hedged requests. If null, then the requests are not hedged.
+     */
+    private final @Nullable HttpHedgingController hedgingController;
+    /**
+     * Keeps the latency estimate for the adaptive timeouts. If null, then the fixed timeouts are used.
+     */
+    private final @Nullable HttpAdaptiveTimeouts adaptiveTimeouts;
+    /**
+     * Circuit breakers for endpoints, keyed by base URL and relative path.
+     */
+    private final @NonNull HashMap<String, HttpCircuitBreaker> circuitBreakers = new HashMap<>();
+    /**
+     * Limits the number of signed requests transmitted at the same time. If null, then signed requests
+     * are processed entirely in the serial executor.
+     */
+    private final @Nullable Semaphore signedRequestPermits;
 
     /**
      * @param configuration HTTP client configuration
@@ -60,10 +96,31 @@ public class HttpClient {
             @NonNull String baseUrl,
             @NonNull IExecutorProvider executorProvider,
             @NonNull ICallbackDispatcher callbackDispatcher) {
+        this(configuration, Collections.singletonList(baseUrl), executorProvider, callbackDispatcher);
+    }
+
+    /**
+     * @param configuration HTTP client configuration
+     * @param baseUrls List with base URLs to PowerAuth Server REST API, in order of preference. The list must not be empty.
+     * @param executorProvider object providing serial or concurrent thread executors
+     * @param callbackDispatcher Object that dispatch callback to main thread.
+     */
+    public HttpClient(
+            @NonNull PowerAuthClientConfiguration configuration,
+            @NonNull List<String> baseUrls,
+            @NonNull IExecutorProvider executorProvider,
+            @NonNull ICallbackDispatcher callbackDispatcher) {
         this.configuration = configuration;
-        this.baseUrl = baseUrl;
+        this.baseUrlSelector = new HttpBaseUrlSelector(baseUrls);
+        this.baseUrl = baseUrls.get(0);
         this.executorProvider = executorProvider;
         this.callbackDispatcher = callbackDispatcher;
+        final int maxConcurrentSignedRequests = configuration.getMaxConcurrentSignedRequests();
+        this.signedRequestPermits = maxConcurrentSignedRequests > 1 ? new Semaphore(maxConcurrentSignedRequests, true) : null;
+        final HttpHedgingPolicy hedgingPolicy = configuration.getHedgingPolicy();
+        this.hedgingController = hedgingPolicy != null ? new HttpHedgingController(hedgingPolicy) : null;
+        final HttpAdaptiveTimeoutPolicy adaptiveTimeoutPolicy = configuration.getAdaptiveTimeoutPolicy();
+        this.adaptiveTimeouts = adaptiveTimeoutPolicy != null ? new HttpAdaptiveTimeouts(adaptiveTimeoutPolicy) : null;
     }
 
     /**
@@ -74,7 +131,7 @@ public class HttpClient {
     }
 
     /**
-     * @return String with base URL to PowerAuth Server REST API
+     * @return String with the primary base URL to PowerAuth Server REST API
      */
     public @NonNull String getBaseUrl() {
         return baseUrl;
@@ -134,6 +191,147 @@ public class HttpClient {
         return keystoreService;
     }
 
+    /**
+     * Set response cache to the HTTP client. If the cache is already set, then throws {@link IllegalStateException}.
+     * If the cache is not set, then the endpoint's cache policy is ignored.
+     * @param responseCache Response cache implementation.
+     */
+    public void setResponseCache(@Nullable HttpResponseCache responseCache) {
+        if (this.responseCache != null) {
+            throw new IllegalStateException();
+        }
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * @return Response cache associated to the HTTP client or {@code null} if the cache is not set.
+     */
+    @Nullable
+    public HttpResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * @return Handler associated with the main thread, used for scheduling the delayed operations.
+     */
+    @NonNull
+    private Handler getMainThreadHandler() {
+        synchronized (this) {
+            if (mainThreadHandler == null) {
+                mainThreadHandler = new Handler(Looper.getMainLooper());
+            }
+            return mainThreadHandler;
+        }
+    }
+
+    /**
+     * @return Scheduler for the deferrable background tasks, configured with
+     *         {@link PowerAuthClientConfiguration#getDeferredRequestWindow()}.
+     */
+    @NonNull
+    public DeferredTaskScheduler getDeferredTaskScheduler() {
+        synchronized (this) {
+            if (deferredTaskScheduler == null) {
+                deferredTaskScheduler = new DeferredTaskScheduler(getMainThreadHandler(), configuration.getDeferredRequestWindow());
+            }
+            return deferredTaskScheduler;
+        }
+    }
+
+    /**
+     * Get circuit breaker for the endpoint.
+     * @param endpoint Endpoint definition.
+     * @param baseUrl Base URL of the server.
+     * @return Circuit breaker for the endpoint or {@code null} if circuit breaker is not enabled.
+     */
+    @Nullable
+    private HttpCircuitBreaker getCircuitBreaker(@NonNull IEndpointDefinition<?> endpoint, @NonNull String baseUrl) {
+        final HttpCircuitBreakerPolicy policy = configuration.getCircuitBreakerPolicy();
+        if (policy == null) {
+            return null;
+        }
+        final String key = baseUrl + endpoint.getRelativePath();
+        synchronized (circuitBreakers) {
+            HttpCircuitBreaker circuitBreaker = circuitBreakers.get(key);
+            if (circuitBreaker == null) {
+                circuitBreaker = new HttpCircuitBreaker(policy, endpoint.getClass(), baseUrl, endpoint.getRelativePath(), configuration.getMetricsListener());
+                circuitBreakers.put(key, circuitBreaker);
+            }
+            return circuitBreaker;
+        }
+    }
+
+    /**
+     * Create a deadline for a new call to the server, as configured in {@link PowerAuthClientConfiguration#getRequestDeadline()}.
+     * @return Deadline for a new call or {@code null} if the deadline is not configured.
+     */
+    @Nullable
+    public HttpDeadline createDefaultDeadline() {
+        final long requestDeadline = configuration.getRequestDeadline();
+        return requestDeadline > 0 ? HttpDeadline.fromNow(requestDeadline) : null;
+    }
+
+    /**
+     * Open a connection to the PowerAuth server in advance, so the TLS handshake is not part of the first real request.
+     * If there are alternative base URLs, then the connection is opened to all of them and the measured latency is
+     * used for the selection of the fastest URL.
+     *
+     * @param completion Completion called on the callback dispatcher with HTTP status code of the preconnect request.
+     *                   If there are alternative base URLs, then the completion is called once all connections are
+     *                   finished, with the status code of the first successful connection.
+     * @return {@link ICancelable} object which allows application cancel the pending operation.
+     */
+    @NonNull
+    public ICancelable preconnect(@NonNull ITaskCompletion<Integer> completion) {
+        getDeferredTaskScheduler().onNetworkActivity();
+        if (!baseUrlSelector.hasAlternatives()) {
+            final HttpPreconnectTask task = new HttpPreconnectTask(baseUrl, configuration, callbackDispatcher, completion);
+            executorProvider.getConcurrentExecutor().execute(task);
+            return task;
+        }
+        // Probe all base URLs. All completions are called on the callback dispatcher.
+        final List<String> baseUrls = baseUrlSelector.getBaseUrls();
+        final CompositeCancelableTask compositeTask = new CompositeCancelableTask(false);
+        final int[] pendingProbes = { baseUrls.size() };
+        final Integer[] firstStatusCode = { null };
+        final Throwable[] lastFailure = { null };
+        for (String probeBaseUrl : baseUrls) {
+            final HttpPreconnectTask[] probe = { null };
+            probe[0] = new HttpPreconnectTask(probeBaseUrl, configuration, callbackDispatcher, new ITaskCompletion<Integer>() {
+                @Override
+                public void onSuccess(@NonNull Integer statusCode) {
+                    baseUrlSelector.recordLatency(probeBaseUrl, probe[0].getResponseLatency());
+                    baseUrlSelector.onSuccess(probeBaseUrl);
+                    if (firstStatusCode[0] == null) {
+                        firstStatusCode[0] = statusCode;
+                    }
+                    onProbeCompleted();
+                }
+
+                @Override
+                public void onFailure(@NonNull Throwable failure) {
+                    baseUrlSelector.onConnectionFailure(probeBaseUrl);
+                    lastFailure[0] = failure;
+                    onProbeCompleted();
+                }
+
+                private void onProbeCompleted() {
+                    if (--pendingProbes[0] > 0 || !compositeTask.setCompleted()) {
+                        return;
+                    }
+                    if (firstStatusCode[0] != null) {
+                        completion.onSuccess(firstStatusCode[0]);
+                    } else {
+                        completion.onFailure(lastFailure[0]);
+                    }
+                }
+            });
+            compositeTask.addCancelable(probe[0]);
+            executorProvider.getConcurrentExecutor().execute(probe[0]);
+        }
+        return compositeTask;
+    }
+
     /**
      * Posts a HTTP request with provided object to the REST endpoint.
      *
@@ -173,20 +371,212 @@ public class HttpClient {
             @Nullable IPrivateCryptoHelper helper,
             @Nullable PowerAuthAuthentication authentication,
             @NonNull INetworkResponseListener<TResponse> listener) {
+        return post(object, endpoint, helper, authentication, createDefaultDeadline(), listener);
+    }
+
+    /**
+     * Posts a HTTP request with provided object to the REST endpoint. The whole call, including the time
+     * synchronization or the temporary encryption key acquisition, must be completed before the deadline.
+     *
+     * @param object object to be serialized into POST request
+     * @param endpoint object defining the endpoint
+     * @param helper cryptographic helper
+     * @param authentication optional authentication object, if request has to be signed with PowerAuth signature.
+     * @param deadline optional deadline of the call.
+     * @param listener response listener
+     * @param <TRequest> type of request object
+     * @param <TResponse> type of response object
+     * @return {@link ICancelable} object which allows application cancel the pending operation
+     */
+    @NonNull
+    public <TRequest, TResponse> ICancelable post(
+            @Nullable TRequest object,
+            @NonNull IEndpointDefinition<TResponse> endpoint,
+            @Nullable IPrivateCryptoHelper helper,
+            @Nullable PowerAuthAuthentication authentication,
+            @Nullable HttpDeadline deadline,
+            @NonNull INetworkResponseListener<TResponse> listener) {
+
+        final EndpointCachePolicy cachePolicy = endpoint.getCachePolicy();
+        final HttpResponseCache cache = responseCache;
+        if (cachePolicy != null && cache != null && authentication == null) {
+            // Capture the generation before the activation identifier, so the removal of the activation can be detected.
+            final int activationScopeGeneration = cache.getActivationScopeGeneration();
+            final String activationId = helper != null ? helper.getCoreSession().getActivationIdentifier() : null;
+            final String cacheKey = cache.createCacheKey(object, endpoint, cachePolicy, activationId);
+            if (cacheKey != null) {
+                return cachedPost(object, endpoint, helper, cache, cachePolicy, cacheKey, activationId, activationScopeGeneration, deadline, listener);
+            }
+        }
+        return networkPost(object, endpoint, helper, authentication, deadline, listener);
+    }
+
+    /**
+     * Function returns the cached response if it's still fresh. If the cached response is stale, but still within
+     * the stale-while-revalidate window, then the cached response is returned and the request is executed in the
+     * background to refresh the cache. Otherwise, the request is executed and its response is stored to the cache.
+     *
+     * @param object object to be serialized into POST request
+     * @param endpoint object defining the endpoint
+     * @param helper cryptographic helper
+     * @param cache response cache
+     * @param cachePolicy endpoint's cache policy
+     * @param cacheKey key of the cached response
+     * @param activationId activation identifier used for the cache key creation
+     * @param activationScopeGeneration generation of activation scoped entries, captured before the activation identifier
+     * @param deadline optional deadline of the call
+     * @param listener response listener
+     * @param <TRequest> type of request object
+     * @param <TResponse> type of response object
+     * @return {@link ICancelable} object which allows application cancel the pending operation
+     */
+    @NonNull
+    private <TRequest, TResponse> ICancelable cachedPost(
+            @Nullable TRequest object,
+            @NonNull IEndpointDefinition<TResponse> endpoint,
+            @Nullable IPrivateCryptoHelper helper,
+            @NonNull HttpResponseCache cache,
+            @NonNull EndpointCachePolicy cachePolicy,
+            @NonNull String cacheKey,
+            @Nullable String activationId,
+            int activationScopeGeneration,
+            @Nullable HttpDeadline deadline,
+            @NonNull INetworkResponseListener<TResponse> listener) {
+        final HttpResponseCache.Entry entry = cache.get(cacheKey, endpoint);
+        if (entry != null) {
+            final long age = entry.getAge(System.currentTimeMillis());
+            if (age <= cachePolicy.timeToLive + cachePolicy.staleWhileRevalidate) {
+                // The cache key guarantees that the cached response has the same type.
+                @SuppressWarnings("unchecked")
+                final TResponse cachedResponse = (TResponse) entry.response;
+                if (age > cachePolicy.timeToLive && cache.beginRevalidation(cacheKey)) {
+                    // Stale response, refresh the cache in the background. The caller doesn't wait for
+                    // the response, so the deadline doesn't apply and the request can be deferred.
+                    final INetworkResponseListener<TResponse> revalidationListener = new INetworkResponseListener<TResponse>() {
+                        @Override
+                        public void onNetworkResponse(@NonNull TResponse response) {
+                            putToCache(cache, cacheKey, endpoint, cachePolicy, helper, activationId, activationScopeGeneration, response);
+                            cache.endRevalidation(cacheKey);
+                        }
+
+                        @Override
+                        public void onNetworkError(@NonNull Throwable throwable) {
+                            cache.endRevalidation(cacheKey);
+                        }
+
+                        @Override
+                        public void onCancel() {
+                            cache.endRevalidation(cacheKey);
+                        }
+                    };
+                    getDeferredTaskScheduler().schedule(() -> networkPost(object, endpoint, helper, null, null, revalidationListener));
+                }
+                callbackDispatcher.dispatchCallback(() -> listener.onNetworkResponse(cachedResponse));
+                return new DummyCancelable();
+            }
+        }
+        // There's no usable response in the cache.
+        return networkPost(object, endpoint, helper, null, deadline, new INetworkResponseListener<TResponse>() {
+            @Override
+            public void onNetworkResponse(@NonNull TResponse response) {
+                putToCache(cache, cacheKey, endpoint, cachePolicy, helper, activationId, activationScopeGeneration, response);
+                listener.onNetworkResponse(response);
+            }
+
+            @Override
+            public void onNetworkError(@NonNull Throwable throwable) {
+                listener.onNetworkError(throwable);
+            }
+
+            @Override
+            public void onCancel() {
+                listener.onCancel();
+            }
+        });
+    }
+
+    /**
+     * Store the response received in {@link #cachedPost(Object, IEndpointDefinition, IPrivateCryptoHelper, HttpResponseCache, EndpointCachePolicy, String, String, int, HttpDeadline, INetworkResponseListener)}
+     * to the cache. The activation scoped response is not stored if the activation was changed or removed while the
+     * request was running.
+     *
+     * @param cache response cache
+     * @param cacheKey key of the cached response
+     * @param endpoint object defining the endpoint
+     * @param cachePolicy endpoint's cache policy
+     * @param helper cryptographic helper
+     * @param activationId activation identifier used for the cache key creation
+     * @param activationScopeGeneration generation of activation scoped entries, captured before the request
+     * @param response response received from the server
+     * @param <TResponse> type of response object
+     */
+    private <TResponse> void putToCache(
+            @NonNull HttpResponseCache cache,
+            @NonNull String cacheKey,
+            @NonNull IEndpointDefinition<TResponse> endpoint,
+            @NonNull EndpointCachePolicy cachePolicy,
+            @Nullable IPrivateCryptoHelper helper,
+            @Nullable String activationId,
+            int activationScopeGeneration,
+            @NonNull TResponse response) {
+        if (cachePolicy.isActivationScoped) {
+            final String currentActivationId = helper != null ? helper.getCoreSession().getActivationIdentifier() : null;
+            if (activationId == null || !activationId.equals(currentActivationId)) {
+                PowerAuthLog.d("HttpClient: Activation changed during the request, the response to %s is not cached.", endpoint.getRelativePath());
+                return;
+            }
+        }
+        cache.put(cacheKey, endpoint, cachePolicy, activationId, response, System.currentTimeMillis(), activationScopeGeneration);
+    }
 
+    /**
+     * Posts a HTTP request with provided object to the REST endpoint, without using the response cache.
+     *
+     * @param object object to be serialized into POST request
+     * @param endpoint object defining the endpoint
+     * @param helper cryptographic helper
+     * @param authentication optional authentication object, if request has to be signed with PowerAuth signature.
+     * @param deadline optional deadline of the call.
+     * @param listener response listener
+     * @param <TRequest> type of request object
+     * @param <TResponse> type of response object
+     * @return {@link ICancelable} object which allows application cancel the pending operation
+     */
+    @NonNull
+    private <TRequest, TResponse> ICancelable networkPost(
+            @Nullable TRequest object,
+            @NonNull IEndpointDefinition<TResponse> endpoint,
+            @Nullable IPrivateCryptoHelper helper,
+            @Nullable PowerAuthAuthentication authentication,
+            @Nullable HttpDeadline deadline,
+            @NonNull INetworkResponseListener<TResponse> listener) {
+        if (deadline != null && deadline.isExpired()) {
+            // Fail immediately, there's no time left for the call.
+            final PowerAuthErrorException failure = deadline.createDeadlineExceededException();
+            callbackDispatcher.dispatchCallback(() -> listener.onNetworkError(failure));
+            return new DummyCancelable();
+        }
         final IKeystoreService kss = getKeystoreService();
         final IPowerAuthTimeSynchronizationService tss = getTimeSynchronizationService();
         final int encryptorScope = endpoint.isEncryptedWithApplicationScope() ? EciesEncryptorScope.APPLICATION : EciesEncryptorScope.ACTIVATION;
         final boolean requireTimeSynchronization = endpoint.isRequireSynchronizedTime() && !tss.isTimeSynchronized();
         final boolean requireEncryptionKey = endpoint.isEncrypted() && !kss.containsKeyForEncryptor(encryptorScope);
 
-        if (requireTimeSynchronization || requireEncryptionKey) {
-            // Endpoint require encryption key or time synchronization. We have to create a composite task that cover
-            // multiple tasks including an actual request execution.
+        if (requireTimeSynchronization || requireEncryptionKey || deadline != null) {
+            // Endpoint require encryption key or time synchronization, or the call has a deadline. We have to create
+            // a composite task that cover multiple tasks including an actual request execution.
             final CompositeCancelableTask compositeTask = new CompositeCancelableTask(true);
             compositeTask.setCancelCallback(() -> {
                 callbackDispatcher.dispatchCallback(listener::onCancel);
             });
+            if (deadline != null) {
+                // Fail the whole call once the deadline expires.
+                compositeTask.setTimeout(getMainThreadHandler(), deadline.getRemainingTime(), () -> {
+                    PowerAuthLog.d("HttpClient: %s: Request deadline exceeded.", endpoint.getRelativePath());
+                    final PowerAuthErrorException failure = deadline.createDeadlineExceededException();
+                    callbackDispatcher.dispatchCallback(() -> listener.onNetworkError(failure));
+                });
+            }
             // Now determine what type of task should be executed before an actual task.
             if (requireEncryptionKey) {
                 // Temporary encryption key must be acquired from the server. This operation also automatically
@@ -194,11 +584,11 @@ public class HttpClient {
                 if (helper == null) {
                     throw new IllegalArgumentException();
                 }
-                final ICancelable getKeyTask = kss.createKeyForEncryptor(encryptorScope, helper, new ICreateKeyListener() {
+                final ICancelable getKeyTask = kss.createKeyForEncryptor(encryptorScope, helper, deadline, new ICreateKeyListener() {
                     @Override
                     public void onCreateKeySucceeded() {
                         // Encryption key successfully acquired, we can continue with the actual request.
-                        compositePostImpl(object, endpoint, helper, authentication, compositeTask, listener);
+                        compositePostImpl(object, endpoint, helper, authentication, deadline, compositeTask, listener);
                     }
 
                     @Override
@@ -211,13 +601,13 @@ public class HttpClient {
                 if (getKeyTask != null) {
                     compositeTask.addCancelable(getKeyTask);
                 }
-            } else {
+            } else if (requireTimeSynchronization) {
                 // Only time synchronization is required
-                final ICancelable synchronizationTask = tss.synchronizeTime(new ITimeSynchronizationListener() {
+                final ICancelable synchronizationTask = tss.synchronizeTime(deadline, new ITimeSynchronizationListener() {
                     @Override
                     public void onTimeSynchronizationSucceeded() {
                         // The time has been successfully synchronized, we can continue with the actual request.
-                        compositePostImpl(object, endpoint, helper, authentication, compositeTask, listener);
+                        compositePostImpl(object, endpoint, helper, authentication, deadline, compositeTask, listener);
                     }
 
                     @Override
@@ -230,13 +620,16 @@ public class HttpClient {
                 if (synchronizationTask != null) {
                     compositeTask.addCancelable(synchronizationTask);
                 }
+            } else {
+                // No prerequisite, only the deadline must be applied to the actual request.
+                compositePostImpl(object, endpoint, helper, authentication, deadline, compositeTask, listener);
             }
             // Return composite task instead of original operation.
             return compositeTask;
         }
 
         // Endpoint doesn't require time synchronization or encryption.
-        return postImpl(object, endpoint, helper, authentication, listener);
+        return postImpl(object, endpoint, helper, authentication, null, listener);
     }
 
     /**
@@ -245,6 +638,7 @@ public class HttpClient {
      * @param endpoint object defining the endpoint
      * @param helper cryptographic helper
      * @param authentication optional authentication object, if request has to be signed with PowerAuth signature
+     * @param deadline optional deadline of the call
      * @param compositeTask composite task reported back to the application
      * @param listener response listener
      * @param <TRequest> type of request object
@@ -255,10 +649,11 @@ public class HttpClient {
             @NonNull IEndpointDefinition<TResponse> endpoint,
             @Nullable IPrivateCryptoHelper helper,
             @Nullable PowerAuthAuthentication authentication,
+            @Nullable HttpDeadline deadline,
             @NonNull CompositeCancelableTask compositeTask,
             @NonNull INetworkResponseListener<TResponse> listener) {
         // Create actual HTTP
-        final ICancelable actualTask = postImpl(object, endpoint, helper, authentication, new INetworkResponseListener<TResponse>() {
+        final ICancelable actualTask = postImpl(object, endpoint, helper, authentication, deadline, new INetworkResponseListener<TResponse>() {
             @Override
             public void onNetworkResponse(@NonNull TResponse tResponse) {
                 if (compositeTask.setCompleted()) {
@@ -288,6 +683,7 @@ public class HttpClient {
      * @param endpoint object defining the endpoint
      * @param helper cryptographic helper
      * @param authentication optional authentication object, if request has to be signed with PowerAuth signature.
+     * @param deadline optional deadline of the call.
      * @param listener response listener
      * @param <TRequest> type of request object
      * @param <TResponse> type of response object
@@ -299,12 +695,266 @@ public class HttpClient {
             @NonNull IEndpointDefinition<TResponse> endpoint,
             @Nullable IPrivateCryptoHelper helper,
             @Nullable PowerAuthAuthentication authentication,
+            @Nullable HttpDeadline deadline,
+            @NonNull INetworkResponseListener<TResponse> listener) {
+        final boolean isIdempotent = endpoint.isIdempotent() && endpoint.getAuthorizationUriId() == null;
+        final HttpAttemptFactory<TResponse> attemptFactory;
+        if (isIdempotent && hedgingController != null) {
+            // Idempotent request can be hedged, if there's no response after the delay.
+            attemptFactory = (retryCount, attemptListener) -> {
+                final HttpHedgedTask<TResponse> hedgedTask = new HttpHedgedTask<>(endpoint.getRelativePath(), hedgingController, getMainThreadHandler(), retryCount, attemptListener,
+                        (hedgedRetryCount, hedgedListener) -> executeTask(object, endpoint, helper, authentication, deadline, hedgedRetryCount, hedgedListener));
+                hedgedTask.start();
+                return hedgedTask;
+            };
+        } else {
+            attemptFactory = (retryCount, attemptListener) -> executeTask(object, endpoint, helper, authentication, deadline, retryCount, attemptListener);
+        }
+        final HttpRetryPolicy retryPolicy = configuration.getRetryPolicy();
+        if (isIdempotent && retryPolicy.maxRetries > 0) {
+            // Idempotent request can be retried in case of transient failure.
+            final HttpRetryTask<TResponse> retryTask = new HttpRetryTask<>(endpoint.getRelativePath(), retryPolicy, deadline, getMainThreadHandler(), listener, attemptFactory);
+            retryTask.start();
+            return retryTask;
+        }
+        return attemptFactory.startAttempt(0, listener);
+    }
+
+    /**
+     * Create and execute one HTTP request task.
+     *
+     * @param object object to be serialized into POST request
+     * @param endpoint object defining the endpoint
+     * @param helper cryptographic helper
+     * @param authentication optional authentication object, if request has to be signed with PowerAuth signature.
+     * @param deadline optional deadline of the call.
+     * @param retryCount number of previous attempts to execute the same request.
+     * @param listener response listener
+     * @param <TRequest> type of request object
+     * @param <TResponse> type of response object
+     * @return {@link ICancelable} object which allows application cancel the pending operation
+     */
+    @NonNull
+    private <TRequest, TResponse> ICancelable executeTask(
+            @Nullable TRequest object,
+            @NonNull IEndpointDefinition<TResponse> endpoint,
+            @Nullable IPrivateCryptoHelper helper,
+            @Nullable PowerAuthAuthentication authentication,
+            @Nullable HttpDeadline deadline,
+            int retryCount,
             @NonNull INetworkResponseListener<TResponse> listener) {
+        if (deadline != null && deadline.isExpired()) {
+            // Fail immediately, there's no time left for the request.
+            final PowerAuthErrorException failure = deadline.createDeadlineExceededException();
+            callbackDispatcher.dispatchCallback(() -> listener.onNetworkError(failure));
+            return new DummyCancelable();
+        }
+        if (!baseUrlSelector.hasAlternatives()) {
+            return executeTaskOnBaseUrl(object, endpoint, helper, authentication, deadline, baseUrl, retryCount, listener);
+        }
+        if (endpoint.getAuthorizationUriId() != null) {
+            // Signed requests always use the same base URL while it's available.
+            return executeTaskOnBaseUrl(object, endpoint, helper, authentication, deadline, baseUrlSelector.getStickyBaseUrl(), retryCount, listener);
+        }
+        // Other requests can fail over to another base URL.
+        final CompositeCancelableTask failoverTask = new CompositeCancelableTask(true);
+        executeFailoverAttempt(object, endpoint, helper, authentication, deadline, retryCount, new HashSet<>(), failoverTask, listener);
+        return failoverTask;
+    }
+
+    /**
+     * Execute the request on the fastest healthy base URL. If the connection to the server cannot be established,
+     * or the circuit breaker for the endpoint is open, then the request is executed on the next base URL.
+     *
+     * @param object object to be serialized into POST request
+     * @param endpoint object defining the endpoint
+     * @param helper cryptographic helper
+     * @param authentication optional authentication object, if request has to be signed with PowerAuth signature.
+     * @param deadline optional deadline of the call.
+     * @param retryCount number of previous attempts to execute the same request.
+     * @param failedBaseUrls base URLs on which the request already failed.
+     * @param failoverTask exclusive composite task that keeps the current attempt.
+     * @param listener response listener
+     * @param <TRequest> type of request object
+     * @param <TResponse> type of response object
+     */
+    private <TRequest, TResponse> void executeFailoverAttempt(
+            @Nullable TRequest object,
+            @NonNull IEndpointDefinition<TResponse> endpoint,
+            @Nullable IPrivateCryptoHelper helper,
+            @Nullable PowerAuthAuthentication authentication,
+            @Nullable HttpDeadline deadline,
+            int retryCount,
+            @NonNull HashSet<String> failedBaseUrls,
+            @NonNull CompositeCancelableTask failoverTask,
+            @NonNull INetworkResponseListener<TResponse> listener) {
+        final String attemptBaseUrl = baseUrlSelector.getPreferredBaseUrl(failedBaseUrls);
+        if (attemptBaseUrl == null) {
+            // This should never happen, the caller checks whether there's another base URL.
+            throw new IllegalStateException();
+        }
+        final ICancelable attempt = executeTaskOnBaseUrl(object, endpoint, helper, authentication, deadline, attemptBaseUrl, retryCount, new INetworkResponseListener<TResponse>() {
+            @Override
+            public void onNetworkResponse(@NonNull TResponse response) {
+                listener.onNetworkResponse(response);
+            }
+
+            @Override
+            public void onNetworkError(@NonNull Throwable throwable) {
+                final boolean isCircuitBreakerOpen = throwable instanceof PowerAuthErrorException && ((PowerAuthErrorException) throwable).getPowerAuthErrorCode() == PowerAuthErrorCodes.CIRCUIT_BREAKER_OPEN;
+                if (HttpBaseUrlSelector.isConnectionFailure(throwable) || isCircuitBreakerOpen) {
+                    failedBaseUrls.add(attemptBaseUrl);
+                    if (!failoverTask.isCancelled() && baseUrlSelector.getPreferredBaseUrl(failedBaseUrls) != null) {
+                        PowerAuthLog.d("HttpClient: %s: Request failed on %s, trying another base URL.", endpoint.getRelativePath(), attemptBaseUrl);
+                        executeFailoverAttempt(object, endpoint, helper, authentication, deadline, retryCount, failedBaseUrls, failoverTask, listener);
+                        return;
+                    }
+                }
+                listener.onNetworkError(throwable);
+            }
+
+            @Override
+            public void onCancel() {
+                listener.onCancel();
+            }
+        });
+        failoverTask.addCancelable(attempt);
+    }
+
+    /**
+     * Create and execute one HTTP request task on the given base URL.
+     *
+     * @param object object to be serialized into POST request
+     * @param endpoint object defining the endpoint
+     * @param helper cryptographic helper
+     * @param authentication optional authentication object, if request has to be signed with PowerAuth signature.
+     * @param deadline optional deadline of the call.
+     * @param taskBaseUrl base URL of the server.
+     * @param retryCount number of previous attempts to execute the same request.
+     * @param listener response listener
+     * @param <TRequest> type of request object
+     * @param <TResponse> type of response object
+     * @return {@link ICancelable} object which allows application cancel the pending operation
+     */
+    @NonNull
+    private <TRequest, TResponse> ICancelable executeTaskOnBaseUrl(
+            @Nullable TRequest object,
+            @NonNull IEndpointDefinition<TResponse> endpoint,
+            @Nullable IPrivateCryptoHelper helper,
+            @Nullable PowerAuthAuthentication authentication,
+            @Nullable HttpDeadline deadline,
+            @NonNull String taskBaseUrl,
+            int retryCount,
+            @NonNull INetworkResponseListener<TResponse> listener) {
+        final INetworkResponseListener<TResponse> healthListener;
+        if (baseUrlSelector.hasAlternatives()) {
+            // Track the health of the base URL.
+            healthListener = new INetworkResponseListener<TResponse>() {
+                @Override
+                public void onNetworkResponse(@NonNull TResponse response) {
+                    baseUrlSelector.onSuccess(taskBaseUrl);
+                    listener.onNetworkResponse(response);
+                }
+
+                @Override
+                public void onNetworkError(@NonNull Throwable throwable) {
+                    if (HttpBaseUrlSelector.isConnectionFailure(throwable)) {
+                        baseUrlSelector.onConnectionFailure(taskBaseUrl);
+                    } else if (throwable instanceof FailedApiException) {
+                        baseUrlSelector.onSuccess(taskBaseUrl);
+                    }
+                    listener.onNetworkError(throwable);
+                }
+
+                @Override
+                public void onCancel() {
+                    listener.onCancel();
+                }
+            };
+        } else {
+            healthListener = listener;
+        }
+        final HttpCircuitBreaker circuitBreaker = getCircuitBreaker(endpoint, taskBaseUrl);
+        final INetworkResponseListener<TResponse> taskListener;
+        if (circuitBreaker != null) {
+            if (!circuitBreaker.tryAcquire()) {
+                // Fail immediately, the endpoint is not available.
+                final PowerAuthErrorException failure = new PowerAuthErrorException(PowerAuthErrorCodes.CIRCUIT_BREAKER_OPEN, "Circuit breaker is open for endpoint " + endpoint.getRelativePath());
+                callbackDispatcher.dispatchCallback(() -> listener.onNetworkError(failure));
+                return new DummyCancelable();
+            }
+            taskListener = new INetworkResponseListener<TResponse>() {
+                @Override
+                public void onNetworkResponse(@NonNull TResponse response) {
+                    circuitBreaker.onSuccess();
+                    healthListener.onNetworkResponse(response);
+                }
+
+                @Override
+                public void onNetworkError(@NonNull Throwable throwable) {
+                    if (configuration.getCircuitBreakerPolicy().isServerFailure(throwable)) {
+                        circuitBreaker.onFailure();
+                    } else if (throwable instanceof FailedApiException) {
+                        // The server responded, so it's available.
+                        circuitBreaker.onSuccess();
+                    } else {
+                        // Local failure, the request probably didn't reach the server.
+                        circuitBreaker.onCancel();
+                    }
+                    healthListener.onNetworkError(throwable);
+                }
+
+                @Override
+                public void onCancel() {
+                    circuitBreaker.onCancel();
+                    healthListener.onCancel();
+                }
+            };
+        } else {
+            taskListener = healthListener;
+        }
         final HttpRequestHelper<TRequest, TResponse> request = new HttpRequestHelper<>(object, endpoint, authentication);
-        final HttpClientTask<TRequest, TResponse> task = new HttpClientTask<>(request, baseUrl, configuration, helper, listener);
+        final HttpClientTask<TRequest, TResponse> task = new HttpClientTask<>(request, taskBaseUrl, configuration, helper, taskListener);
+        task.setRetryCount(retryCount);
+        task.setDeadline(deadline);
+        task.setAdaptiveTimeouts(adaptiveTimeouts);
 
-        final Executor executor = endpoint.isSynchronized() ? executorProvider.getSerialExecutor() : executorProvider.getConcurrentExecutor();
-        task.executeOnExecutor(executor, null, null);
+        // The radio is going to be active, so execute also the deferred background requests.
+        getDeferredTaskScheduler().onNetworkActivity();
+        if (endpoint.isSynchronized() && signedRequestPermits != null) {
+            executePipelined(task, signedRequestPermits);
+        } else {
+            final Executor executor = endpoint.isSynchronized() ? executorProvider.getSerialExecutor() : executorProvider.getConcurrentExecutor();
+            task.executeOnExecutor(executor, null, null);
+        }
         return task;
     }
+
+    /**
+     * Execute the synchronized task in two stages. The request is prepared and signed in the serial executor,
+     * so the signatures are still calculated in the order in which the requests were issued. The network
+     * communication is then performed in the concurrent executor. The serial executor is blocked while
+     * the maximum number of signed requests is being transmitted.
+     *
+     * @param task Task to execute.
+     * @param permits Semaphore that limits the number of concurrently transmitted requests.
+     * @param <TRequest> type of request object
+     * @param <TResponse> type of response object
+     */
+    private <TRequest, TResponse> void executePipelined(
+            @NonNull HttpClientTask<TRequest, TResponse> task,
+            @NonNull Semaphore permits) {
+        executorProvider.getSerialExecutor().execute(() -> {
+            if (!task.isCancelled()) {
+                permits.acquireUninterruptibly();
+                task.setTransportCompletion(permits::release);
+                task.prepareRequest();
+                if (task.isCancelled()) {
+                    // Task has been cancelled in the meantime, so the transport might never start.
+                    task.notifyTransportCompleted();
+                }
+            }
+            task.executeOnExecutor(executorProvider.getConcurrentExecutor(), null, null);
+        });
+    }
 }
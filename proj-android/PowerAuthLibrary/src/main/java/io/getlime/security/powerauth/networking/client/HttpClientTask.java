@@ -18,6 +18,7 @@ package io.getlime.security.powerauth.networking.client;
 
 import android.net.TrafficStats;
 import android.os.AsyncTask;
+import android.os.SystemClock;
 import android.text.TextUtils;
 
 import androidx.annotation.NonNull;
@@ -26,14 +27,15 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.SocketTimeoutException;
 import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
-import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLException;
-import javax.net.ssl.SSLSocketFactory;
 
 import androidx.annotation.Nullable;
 import io.getlime.security.powerauth.ecies.EciesEncryptorId;
@@ -43,8 +45,9 @@ import io.getlime.security.powerauth.networking.exceptions.FailedApiException;
 import io.getlime.security.powerauth.networking.interceptors.HttpRequestInterceptor;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 import io.getlime.security.powerauth.networking.interfaces.IEndpointDefinition;
+import io.getlime.security.powerauth.networking.interfaces.IHttpMetricsListener;
 import io.getlime.security.powerauth.networking.interfaces.INetworkResponseListener;
-import io.getlime.security.powerauth.networking.ssl.HttpClientValidationStrategy;
+import io.getlime.security.powerauth.networking.metrics.HttpRequestMetrics;
 import io.getlime.security.powerauth.sdk.PowerAuthClientConfiguration;
 import io.getlime.security.powerauth.sdk.impl.IPrivateCryptoHelper;
 import io.getlime.security.powerauth.system.PowerAuthLog;
@@ -55,7 +58,10 @@ import io.getlime.security.powerauth.system.PowerAuthLog;
  */
 class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TResponse> implements ICancelable {
 
-    private static final int THREAD_STATS_TAG = 0x3456;
+    /**
+     * Base for {@link TrafficStats} tags. The lower 16 bits identify the endpoint by its relative path.
+     */
+    private static final int THREAD_STATS_TAG_BASE = 0x3456 << 16;
 
     private final HttpRequestHelper<TRequest, TResponse> httpRequestHelper;
     private final String baseUrl;
@@ -68,6 +74,52 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
      */
     private Throwable error;
 
+    /**
+     * Request data prepared in advance by {@link #prepareRequest()}.
+     */
+    private HttpRequestHelper.RequestData preparedRequestData;
+
+    /**
+     * Failure that occurred in {@link #prepareRequest()}.
+     */
+    private Throwable preparationFailure;
+
+    /**
+     * Optional callback called once the network communication is finished or the task is cancelled.
+     */
+    private final AtomicReference<Runnable> transportCompletion = new AtomicReference<>();
+
+    /**
+     * Connection used by the running request. The connection is disconnected when the task is cancelled,
+     * so the blocking connect or read is aborted immediately.
+     */
+    private final AtomicReference<HttpURLConnection> activeConnection = new AtomicReference<>();
+
+    /**
+     * Set once the request processing started, or once the task was cancelled before it started.
+     */
+    private final AtomicBoolean isStarted = new AtomicBoolean();
+
+    /**
+     * Time of the task creation, in nanoseconds measured by {@link SystemClock#elapsedRealtimeNanos()}.
+     */
+    private final long creationTime = SystemClock.elapsedRealtimeNanos();
+
+    /**
+     * Number of previous attempts to execute the same request.
+     */
+    private int retryCount;
+
+    /**
+     * Optional deadline of the call, limiting the socket timeouts.
+     */
+    private HttpDeadline deadline;
+
+    /**
+     * Optional estimator of the connect and read timeouts.
+     */
+    private HttpAdaptiveTimeouts adaptiveTimeouts;
+
     /**
      * @param httpRequestHelper request helper responsible for object serialization and deserialization
      * @param baseUrl base URL
@@ -88,6 +140,78 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
         this.listener = listener;
     }
 
+    /**
+     * Prepare request data, including the signature calculation, in advance. The function allows the caller
+     * to separate the request preparation from the network communication. If not called, then the request
+     * data is prepared in {@link #doInBackground(Object[])}.
+     */
+    void prepareRequest() {
+        try {
+            preparedRequestData = httpRequestHelper.buildRequest(baseUrl, cryptoHelper);
+        } catch (Throwable t) {
+            preparationFailure = t;
+        }
+    }
+
+    /**
+     * Set callback called once the network communication is finished or the task is cancelled. The callback
+     * is called exactly once, from the background or from the main thread.
+     *
+     * @param completion Callback to call.
+     */
+    void setTransportCompletion(@NonNull Runnable completion) {
+        transportCompletion.set(completion);
+    }
+
+    /**
+     * Set number of previous attempts to execute the same request. The value is reported in the request metrics.
+     *
+     * @param retryCount Number of previous attempts.
+     */
+    void setRetryCount(int retryCount) {
+        this.retryCount = retryCount;
+    }
+
+    /**
+     * Set deadline of the call. The connect and read timeouts are shortened to the time remaining to the deadline.
+     *
+     * @param deadline Deadline of the call or {@code null} if there's no deadline.
+     */
+    void setDeadline(@Nullable HttpDeadline deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Set estimator of the connect and read timeouts. If set, then the timeouts are derived from the latency
+     * observed for the host and the latency measured by this task is recorded back to the estimator.
+     *
+     * @param adaptiveTimeouts Estimator of the timeouts or {@code null} to use the fixed timeouts.
+     */
+    void setAdaptiveTimeouts(@Nullable HttpAdaptiveTimeouts adaptiveTimeouts) {
+        this.adaptiveTimeouts = adaptiveTimeouts;
+    }
+
+    /**
+     * Call the transport completion callback, if it was not called yet.
+     */
+    void notifyTransportCompleted() {
+        final Runnable completion = transportCompletion.getAndSet(null);
+        if (completion != null) {
+            completion.run();
+        }
+    }
+
+    /**
+     * Determine whether the request body can be compressed.
+     * @param bodyLength Length of the request body.
+     * @return {@code true} if the request body can be compressed.
+     */
+    private boolean isRequestCompressionAllowed(int bodyLength) {
+        final int threshold = clientConfiguration.getRequestCompressionThreshold();
+        final IEndpointDefinition<TResponse> endpoint = httpRequestHelper.getEndpoint();
+        return threshold > 0 && bodyLength >= threshold && endpoint.isRequestCompressionAllowed() && endpoint.getAuthorizationUriId() == null;
+    }
+
     /**
      * Reads all bytes from an input stream.
      *
@@ -113,7 +237,20 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
     @SafeVarargs
     @Override
     protected final TResponse doInBackground(TRequest... tRequests) {
-        setThreadStatsTag();
+        isStarted.set(true);
+        final boolean threadStatsTagApplied = setThreadStatsTag();
+        final IHttpMetricsListener metricsListener = clientConfiguration.getMetricsListener();
+
+        // Timestamps and counters for the request metrics
+        final long startTime = SystemClock.elapsedRealtimeNanos();
+        long connectStartTime = 0;
+        long layeredSocketTime = 0;
+        boolean tlsSessionResumed = false;
+        long connectEndTime = 0;
+        long responseTime = 0;
+        long requestBytes = 0;
+        long responseBytes = 0;
+        int statusCode = 0;
 
         InputStream inputStream = null;
         HttpURLConnection urlConnection = null;
@@ -122,43 +259,50 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
                 return null;
             }
 
-            // Prepare request data
-            HttpRequestHelper.RequestData requestData = httpRequestHelper.buildRequest(baseUrl, cryptoHelper);
+            // Prepare request data, or use data prepared in advance
+            if (preparationFailure != null) {
+                throw preparationFailure;
+            }
+            final HttpRequestHelper.RequestData requestData = preparedRequestData != null ? preparedRequestData : httpRequestHelper.buildRequest(baseUrl, cryptoHelper);
+
+            // The request might wait in the executor, so check whether there's still time for the request.
+            if (deadline != null && deadline.isExpired()) {
+                throw deadline.createDeadlineExceededException();
+            }
 
-            // Create an URL connection
+            // Create an URL connection and make it available for the cancel.
             urlConnection = (HttpURLConnection) requestData.url.openConnection();
-            final boolean securedUrlConnection = urlConnection instanceof HttpsURLConnection;
+            activeConnection.set(urlConnection);
+            if (isCancelled()) {
+                return null;
+            }
 
             // Setup the connection
             urlConnection.setRequestMethod(requestData.method);
             urlConnection.setDoOutput(true);
-            urlConnection.setUseCaches(false);
-            urlConnection.setConnectTimeout(clientConfiguration.getConnectionTimeout());
-            urlConnection.setReadTimeout(clientConfiguration.getReadTimeout());
             for (Map.Entry<String, String> header : requestData.httpHeaders.entrySet()) {
                 urlConnection.setRequestProperty(header.getKey(), header.getValue());
             }
-            if (!TextUtils.isEmpty(clientConfiguration.getUserAgent())) {
-                urlConnection.setRequestProperty("User-Agent", clientConfiguration.getUserAgent());
+            configureConnection(urlConnection, clientConfiguration);
+            if (adaptiveTimeouts != null) {
+                final String host = urlConnection.getURL().getAuthority();
+                final double timeoutMultiplier = httpRequestHelper.getEndpoint().getTimeoutMultiplier();
+                urlConnection.setConnectTimeout(adaptiveTimeouts.getConnectionTimeout(host, clientConfiguration.getConnectionTimeout()));
+                urlConnection.setReadTimeout(adaptiveTimeouts.getReadTimeout(host, timeoutMultiplier, clientConfiguration.getReadTimeout()));
+            }
+            if (deadline != null) {
+                urlConnection.setConnectTimeout(deadline.limitTimeout(urlConnection.getConnectTimeout()));
+                urlConnection.setReadTimeout(deadline.limitTimeout(urlConnection.getReadTimeout()));
             }
 
-            // ssl validation strategy
-            if (securedUrlConnection) {
-                final HttpClientValidationStrategy clientValidationStrategy = clientConfiguration.getClientValidationStrategy();
-                if (clientValidationStrategy != null) {
-                    final HttpsURLConnection sslConnection = (HttpsURLConnection) urlConnection;
-                    final SSLSocketFactory sslSocketFactory = clientValidationStrategy.getSSLSocketFactory();
-                    if (sslSocketFactory != null) {
-                        sslConnection.setSSLSocketFactory(sslSocketFactory);
-                    }
-                    final HostnameVerifier hostnameVerifier = clientValidationStrategy.getHostnameVerifier();
-                    if (hostnameVerifier != null) {
-                        sslConnection.setHostnameVerifier(hostnameVerifier);
-                    }
-                }
-            } else {
-                if (!clientConfiguration.isUnsecuredConnectionAllowed()) {
-                    throw new SSLException("Connection to non-TLS endpoint is not allowed.");
+            // Compress the request body, if allowed for the endpoint. The signature is always calculated from
+            // the original body, so the signed requests are never compressed.
+            byte[] requestBody = requestData.body;
+            if (requestBody != null && isRequestCompressionAllowed(requestBody.length)) {
+                final byte[] compressedBody = HttpCompression.compress(requestBody);
+                if (compressedBody.length < requestBody.length) {
+                    urlConnection.setRequestProperty("Content-Encoding", HttpCompression.GZIP);
+                    requestBody = compressedBody;
                 }
             }
 
@@ -173,18 +317,30 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
             logRequest(urlConnection, requestData.body);
 
             // Connect to endpoint
-            if (requestData.body != null) {
-                urlConnection.getOutputStream().write(requestData.body);
-            }
+            TimingSSLSocketFactory.resetThreadMeasurements();
+            connectStartTime = SystemClock.elapsedRealtimeNanos();
             urlConnection.connect();
+            connectEndTime = SystemClock.elapsedRealtimeNanos();
+            final Long tlsStartTime = TimingSSLSocketFactory.getLayeredSocketTime();
+            layeredSocketTime = tlsStartTime != null ? tlsStartTime : 0;
+            final Boolean resumed = TimingSSLSocketFactory.getSessionResumed();
+            tlsSessionResumed = resumed != null && resumed;
 
             if (isCancelled()) {
                 return null;
             }
 
+            // Send request body
+            if (requestBody != null) {
+                urlConnection.getOutputStream().write(requestBody);
+                requestBytes = requestBody.length;
+            }
+
             // Get response code & try to get response body
             final int responseCode = urlConnection.getResponseCode();
             final boolean responseOk = (responseCode == 200);
+            responseTime = SystemClock.elapsedRealtimeNanos();
+            statusCode = responseCode;
 
             if (isCancelled()) {
                 return null;
@@ -192,7 +348,10 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
 
             // Get response bytes from input stream
             inputStream = responseOk ? urlConnection.getInputStream() : urlConnection.getErrorStream();
-            final byte[] responseData = loadBytesFromInputStream(inputStream);
+            final byte[] receivedData = loadBytesFromInputStream(inputStream);
+            responseBytes = receivedData != null ? receivedData.length : 0;
+            // The gzip encoding is requested explicitly, so the response must be also decompressed explicitly.
+            final byte[] responseData = receivedData != null && HttpCompression.isGzipEncoded(urlConnection.getContentEncoding()) ? HttpCompression.decompress(receivedData) : receivedData;
 
             if (isCancelled()) {
                 return null;
@@ -225,8 +384,59 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
                 }
             }
             if (urlConnection != null) {
+                activeConnection.set(null);
                 urlConnection.disconnect();
             }
+            notifyTransportCompleted();
+            // Don't keep the socket referenced from the networking thread.
+            TimingSSLSocketFactory.resetThreadMeasurements();
+            if (threadStatsTagApplied) {
+                TrafficStats.clearThreadStatsTag();
+            }
+            final long tcpEndTime = layeredSocketTime != 0 ? layeredSocketTime : connectEndTime;
+            if (adaptiveTimeouts != null && urlConnection != null && !isCancelled()) {
+                // Update the latency estimate. If the phase timed out, then the elapsed time is recorded,
+                // so the estimate grows on slow networks.
+                final String host = urlConnection.getURL().getAuthority();
+                final double timeoutMultiplier = httpRequestHelper.getEndpoint().getTimeoutMultiplier();
+                final boolean timedOut = error instanceof PowerAuthErrorException && error.getCause() instanceof SocketTimeoutException;
+                if (connectEndTime != 0) {
+                    adaptiveTimeouts.recordConnectLatency(host, toMillis(tcpEndTime - connectStartTime));
+                } else if (connectStartTime != 0 && timedOut) {
+                    adaptiveTimeouts.recordConnectLatency(host, toMillis(SystemClock.elapsedRealtimeNanos() - connectStartTime));
+                }
+                if (responseTime != 0) {
+                    adaptiveTimeouts.recordResponseLatency(host, timeoutMultiplier, toMillis(responseTime - connectEndTime));
+                } else if (connectEndTime != 0 && timedOut) {
+                    adaptiveTimeouts.recordResponseLatency(host, timeoutMultiplier, toMillis(SystemClock.elapsedRealtimeNanos() - connectEndTime));
+                }
+            }
+            if (metricsListener != null) {
+                // Report metrics
+                final long endTime = SystemClock.elapsedRealtimeNanos();
+                final IEndpointDefinition<TResponse> endpoint = httpRequestHelper.getEndpoint();
+                final HttpRequestMetrics metrics = new HttpRequestMetrics(
+                        endpoint.getClass(),
+                        endpoint.getHttpMethod(),
+                        endpoint.getRelativePath(),
+                        getThreadStatsTag(endpoint),
+                        toMillis(startTime - creationTime),
+                        connectEndTime != 0 ? toMillis(tcpEndTime - connectStartTime) : 0,
+                        layeredSocketTime != 0 ? toMillis(connectEndTime - layeredSocketTime) : 0,
+                        layeredSocketTime != 0,
+                        tlsSessionResumed,
+                        responseTime != 0 ? toMillis(responseTime - connectEndTime) : 0,
+                        toMillis(endTime - startTime),
+                        requestBytes,
+                        responseBytes,
+                        statusCode,
+                        endpoint.isEncrypted(),
+                        endpoint.getAuthorizationUriId() != null,
+                        retryCount,
+                        isCancelled(),
+                        error);
+                reportMetrics(metricsListener, metrics);
+            }
         }
         return null;
     }
@@ -234,6 +444,11 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
     @Override
     protected void onCancelled() {
         super.onCancelled();
+        notifyTransportCompleted();
+        if (isStarted.compareAndSet(false, true)) {
+            // The task was cancelled while waiting in the executor, so the metrics were not reported yet.
+            reportCancelledBeforeStart();
+        }
         listener.onCancel();
     }
 
@@ -250,17 +465,131 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
     @Override
     public void cancel() {
         this.cancel(true);
+        // The blocking socket operations don't respond to the thread interruption, so close the connection
+        // to abort them. This releases the worker thread immediately, instead of waiting for the timeout.
+        final HttpURLConnection connection = activeConnection.getAndSet(null);
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    /**
+     * Report metrics of the request cancelled before it was started.
+     */
+    private void reportCancelledBeforeStart() {
+        final IHttpMetricsListener metricsListener = clientConfiguration.getMetricsListener();
+        if (metricsListener == null) {
+            return;
+        }
+        final IEndpointDefinition<TResponse> endpoint = httpRequestHelper.getEndpoint();
+        final HttpRequestMetrics metrics = new HttpRequestMetrics(
+                endpoint.getClass(),
+                endpoint.getHttpMethod(),
+                endpoint.getRelativePath(),
+                getThreadStatsTag(endpoint),
+                toMillis(SystemClock.elapsedRealtimeNanos() - creationTime),
+                0,
+                0,
+                false,
+                false,
+                0,
+                0,
+                0,
+                0,
+                0,
+                endpoint.isEncrypted(),
+                endpoint.getAuthorizationUriId() != null,
+                retryCount,
+                true,
+                null);
+        reportMetrics(metricsListener, metrics);
+    }
+
+    /**
+     * Report request metrics to the listener.
+     * @param metricsListener Listener to notify.
+     * @param metrics Metrics to report.
+     */
+    private static void reportMetrics(@NonNull IHttpMetricsListener metricsListener, @NonNull HttpRequestMetrics metrics) {
+        try {
+            metricsListener.onHttpRequestCompleted(metrics);
+        } catch (Throwable t) {
+            PowerAuthLog.e("HttpClientTask: Metrics listener failed: " + t);
+        }
+    }
+
+    /**
+     * Apply timeouts, user agent and TLS validation strategy from the client configuration to the URL connection.
+     * The function is shared with the connection preheating, so both use the same socket factory and the connection
+     * can be reused from the pool.
+     *
+     * @param urlConnection Connection to configure.
+     * @param clientConfiguration Client configuration.
+     * @throws SSLException In case that connection to non-TLS endpoint is not allowed.
+     */
+    static void configureConnection(@NonNull HttpURLConnection urlConnection, @NonNull PowerAuthClientConfiguration clientConfiguration) throws SSLException {
+        urlConnection.setUseCaches(false);
+        urlConnection.setConnectTimeout(clientConfiguration.getConnectionTimeout());
+        urlConnection.setReadTimeout(clientConfiguration.getReadTimeout());
+        if (!TextUtils.isEmpty(clientConfiguration.getUserAgent())) {
+            urlConnection.setRequestProperty("User-Agent", clientConfiguration.getUserAgent());
+        }
+
+        // ssl validation strategy
+        if (urlConnection instanceof HttpsURLConnection) {
+            final HttpsURLConnection sslConnection = (HttpsURLConnection) urlConnection;
+            final TlsConfigurationCache tlsConfiguration = TlsConfigurationCache.forConfiguration(clientConfiguration);
+            if (clientConfiguration.getMetricsListener() != null) {
+                // Use the socket factory that measures TLS handshake separately.
+                sslConnection.setSSLSocketFactory(tlsConfiguration.timingSocketFactory);
+            } else if (tlsConfiguration.socketFactory != null) {
+                sslConnection.setSSLSocketFactory(tlsConfiguration.socketFactory);
+            }
+            if (tlsConfiguration.hostnameVerifier != null) {
+                sslConnection.setHostnameVerifier(tlsConfiguration.hostnameVerifier);
+            }
+        } else {
+            if (!clientConfiguration.isUnsecuredConnectionAllowed()) {
+                throw new SSLException("Connection to non-TLS endpoint is not allowed.");
+            }
+        }
     }
 
     /**
      * This method is here to mitigate
      * {@link android.os.StrictMode.VmPolicy.Builder#detectUntaggedSockets()}
-     * detection problem.
+     * detection problem. The tag identifies the endpoint, so the network usage can be
+     * attributed to individual endpoints. If the thread is already tagged, then the tag is kept.
+     *
+     * @return {@code true} if the tag was applied and must be cleared once the request is finished.
      */
-    private void setThreadStatsTag() {
+    private boolean setThreadStatsTag() {
         if (TrafficStats.getThreadStatsTag() == -1) {
-            TrafficStats.setThreadStatsTag(THREAD_STATS_TAG);
+            TrafficStats.setThreadStatsTag(getThreadStatsTag(httpRequestHelper.getEndpoint()));
+            return true;
         }
+        return false;
+    }
+
+    /**
+     * Get {@link TrafficStats} tag for the endpoint. The tag is derived from the relative path of the endpoint,
+     * so it's the same in all builds of the application, even if the endpoint classes are renamed by the code
+     * shrinker.
+     *
+     * @param endpoint Endpoint definition.
+     * @return Tag for the endpoint.
+     */
+    static int getThreadStatsTag(@NonNull IEndpointDefinition<?> endpoint) {
+        return THREAD_STATS_TAG_BASE | (endpoint.getRelativePath().hashCode() & 0xFFFF);
+    }
+
+    /**
+     * Convert nanoseconds to milliseconds.
+     * @param nanoseconds Time in nanoseconds.
+     * @return Time in milliseconds.
+     */
+    private static long toMillis(long nanoseconds) {
+        return nanoseconds / 1_000_000;
     }
 
     /**
@@ -287,13 +616,15 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
             // Not verbose -> put a simple log
             PowerAuthLog.d("HTTP %s request%s: -> %s", method, signedEncrypted, url);
         } else {
-            // Verbose, put headers and body (if not encrypted) into the log.
+            // Verbose, put headers and body (if not encrypted) into the log. The headers are captured now,
+            // because they're not available once the connection is established. Both headers and body
+            // are converted to string later, when the log message is formatted.
             final Map<String,List<String>> prop = hasConnection ? connection.getRequestProperties() : null;
-            final String propStr = prop == null ? "<empty>" : prop.toString();
+            final Object propStr = prop == null ? "<empty>" : prop;
             if (encrypted) {
                 PowerAuthLog.d("HTTP %s request%s: %s\n- Headers: %s- Body: <encrypted>", method, signedEncrypted, url, propStr);
             } else {
-                final String bodyStr = requestData == null ? "<empty>" : new String(requestData, Charset.defaultCharset());
+                final Object bodyStr = requestData == null ? "<empty>" : new LogBody(requestData);
                 PowerAuthLog.d("HTTP %s request%s: %s\n- Headers: %s\n- Body: %s", method, signedEncrypted, url, propStr, bodyStr);
             }
         }
@@ -345,10 +676,10 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
         } else {
             final boolean encrypted = endpoint.getEncryptorId() != EciesEncryptorId.NONE;
             // Response headers
-            final String responseHeaders = hasConnection ? connection.getHeaderFields().toString() : "{}";
+            final Object responseHeaders = hasConnection ? connection.getHeaderFields() : "{}";
             // Response body
-            final String responseBodyTmp = responseData == null ? "<empty>" : new String(responseData, Charset.defaultCharset());
-            final String responseBody;
+            final Object responseBodyTmp = responseData == null ? "<empty>" : new LogBody(responseData);
+            final Object responseBody;
             if (!encrypted || error != null) {
                 responseBody = responseBodyTmp;
             } else {
@@ -361,4 +692,22 @@ class HttpClientTask<TRequest, TResponse> extends AsyncTask<TRequest, Void, TRes
             }
         }
     }
+
+    /**
+     * Wrapper for request or response body that converts the body to string only when the log message
+     * is formatted.
+     */
+    private static class LogBody {
+        private final @NonNull byte[] data;
+
+        LogBody(@NonNull byte[] data) {
+            this.data = data;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return new String(data, Charset.defaultCharset());
+        }
+    }
 }
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The {@code HttpCompression} class provides gzip compression of the request bodies and decompression of
+ * the response bodies.
+ */
+class HttpCompression {
+
+    /**
+     * Value of {@code Accept-Encoding} and {@code Content-Encoding} HTTP headers for gzip.
+     */
+    static final String GZIP = "gzip";
+
+    /**
+     * Maximum size of decompressed response body in bytes. The limit protects the application against
+     * an excessive memory allocation in case of malicious or broken response.
+     */
+    static final int MAX_DECOMPRESSED_SIZE = 4 * 1024 * 1024;
+
+    /**
+     * Compress data with gzip.
+     * @param data Data to compress.
+     * @return Compressed data.
+     * @throws IOException In case of compression failure.
+     */
+    @NonNull
+    static byte[] compress(@NonNull byte[] data) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream(data.length / 2 + 32);
+        try (GZIPOutputStream gzipStream = new GZIPOutputStream(result)) {
+            gzipStream.write(data);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Decompress gzip compressed data. The size of decompressed data is limited to {@link #MAX_DECOMPRESSED_SIZE}.
+     * @param data Compressed data.
+     * @return Decompressed data.
+     * @throws IOException In case that data is not valid gzip stream or the decompressed data is too big.
+     */
+    @NonNull
+    static byte[] decompress(@NonNull byte[] data) throws IOException {
+        return decompress(data, MAX_DECOMPRESSED_SIZE);
+    }
+
+    /**
+     * Decompress gzip compressed data.
+     * @param data Compressed data.
+     * @param maxSize Maximum size of decompressed data in bytes.
+     * @return Decompressed data.
+     * @throws IOException In case that data is not valid gzip stream or the decompressed data exceeds the maximum size.
+     */
+    @NonNull
+    static byte[] decompress(@NonNull byte[] data, int maxSize) throws IOException {
+        final ByteArrayOutputStream result = new ByteArrayOutputStream((int) Math.min((long) data.length * 4, maxSize));
+        try (GZIPInputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            final byte[] buffer = new byte[4096];
+            int length;
+            while ((length = gzipStream.read(buffer)) != -1) {
+                if (length > maxSize - result.size()) {
+                    throw new IOException("Decompressed data exceeds " + maxSize + " bytes.");
+                }
+                result.write(buffer, 0, length);
+            }
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * @param contentEncoding Value of {@code Content-Encoding} HTTP header.
+     * @return {@code true} if the content is compressed with gzip.
+     */
+    static boolean isGzipEncoded(@Nullable String contentEncoding) {
+        return contentEncoding != null && GZIP.equalsIgnoreCase(contentEncoding.trim());
+    }
+}
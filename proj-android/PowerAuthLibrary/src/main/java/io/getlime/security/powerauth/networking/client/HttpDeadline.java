@@ -0,0 +1,98 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeoutException;
+
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+
+/**
+ * The {@code HttpDeadline} class represents a point in time until which the whole call to the server must be
+ * completed, including all requests that the call depends on, such as the time synchronization or the temporary
+ * encryption key acquisition. The socket timeouts of each request are shortened to the remaining time, and
+ * once the time is over, the call fails immediately.
+ * <p>
+ * The deadline is measured with {@link SystemClock#elapsedRealtime()}, so it's not affected by changes of
+ * the system time.
+ */
+public class HttpDeadline {
+
+    /**
+     * Time in milliseconds, measured by {@link SystemClock#elapsedRealtime()}, when the deadline expires.
+     */
+    public final long expiration;
+
+    /**
+     * Construct the deadline.
+     * @param expiration Time in milliseconds, measured by {@link SystemClock#elapsedRealtime()}, when the deadline expires.
+     */
+    public HttpDeadline(long expiration) {
+        this.expiration = expiration;
+    }
+
+    /**
+     * Create a deadline that expires after the given time from now.
+     * @param timeout Time in milliseconds.
+     * @return New deadline.
+     */
+    @NonNull
+    public static HttpDeadline fromNow(long timeout) {
+        return new HttpDeadline(SystemClock.elapsedRealtime() + timeout);
+    }
+
+    /**
+     * @return Remaining time in milliseconds, or 0 if the deadline already expired.
+     */
+    public long getRemainingTime() {
+        return Math.max(0, expiration - SystemClock.elapsedRealtime());
+    }
+
+    /**
+     * @return {@code true} if the deadline already expired.
+     */
+    public boolean isExpired() {
+        return getRemainingTime() == 0;
+    }
+
+    /**
+     * Shorten the socket timeout to the remaining time.
+     * @param timeout Timeout in milliseconds, where 0 means the infinite timeout.
+     * @return Timeout in milliseconds that doesn't exceed the remaining time. The returned value is at least 1,
+     *         so it's never interpreted as the infinite timeout.
+     */
+    int limitTimeout(int timeout) {
+        final long remainingTime = Math.max(1, getRemainingTime());
+        if (timeout <= 0 || timeout > remainingTime) {
+            return (int) Math.min(remainingTime, Integer.MAX_VALUE);
+        }
+        return timeout;
+    }
+
+    /**
+     * @return Exception reported when the deadline expires.
+     */
+    @NonNull
+    public PowerAuthErrorException createDeadlineExceededException() {
+        return new PowerAuthErrorException(PowerAuthErrorCodes.NETWORK_ERROR, "Request deadline exceeded", new TimeoutException("Request deadline exceeded"));
+    }
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.os.Handler;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import io.getlime.security.powerauth.networking.interfaces.ICancelable;
+import io.getlime.security.powerauth.networking.interfaces.INetworkResponseListener;
+import io.getlime.security.powerauth.system.PowerAuthLog;
+
+/**
+ * The {@code HttpHedgedTask} class executes a request and if there's no response after the delay provided by
+ * {@link HttpHedgingController}, then sends the second, identical request. The first successful response is
+ * reported to the application and the other request is cancelled. The failure is reported only when there's
+ * no other request in progress. All callbacks are expected on the thread associated with the provided handler.
+ *
+ * @param <TResponse> type of response object
+ */
+class HttpHedgedTask<TResponse> implements ICancelable {
+
+    private static final int PRIMARY = 0;
+    private static final int HEDGED = 1;
+
+    private final @NonNull String endpointKey;
+    private final @NonNull HttpHedgingController controller;
+    private final @NonNull Handler handler;
+    private final int retryCount;
+    private final @NonNull INetworkResponseListener<TResponse> listener;
+    private final @NonNull HttpAttemptFactory<TResponse> attemptFactory;
+    private final @NonNull Runnable hedgeRunnable = this::startHedgedAttempt;
+
+    private final ICancelable[] attempts = new ICancelable[2];
+    private long startTime;
+    private int runningAttempts;
+    private boolean isCancelled;
+    private boolean isCompleted;
+
+    /**
+     * @param endpointKey Key identifying the endpoint.
+     * @param controller Controller that keeps the latency and budget for the endpoint.
+     * @param handler Handler for scheduling the hedged request.
+     * @param retryCount Number of previous attempts to execute the same request.
+     * @param listener Listener receiving the final result.
+     * @param attemptFactory Factory that starts the requests.
+     */
+    HttpHedgedTask(
+            @NonNull String endpointKey,
+            @NonNull HttpHedgingController controller,
+            @NonNull Handler handler,
+            int retryCount,
+            @NonNull INetworkResponseListener<TResponse> listener,
+            @NonNull HttpAttemptFactory<TResponse> attemptFactory) {
+        this.endpointKey = endpointKey;
+        this.controller = controller;
+        this.handler = handler;
+        this.retryCount = retryCount;
+        this.listener = listener;
+        this.attemptFactory = attemptFactory;
+    }
+
+    /**
+     * Start the primary request and schedule the hedged request.
+     */
+    void start() {
+        final long delay = controller.onRequestStarted(endpointKey);
+        synchronized (this) {
+            startTime = SystemClock.elapsedRealtime();
+            handler.postDelayed(hedgeRunnable, delay);
+        }
+        startAttempt(PRIMARY);
+    }
+
+    /**
+     * Send the hedged request if the budget allows it.
+     */
+    private void startHedgedAttempt() {
+        synchronized (this) {
+            if (isCancelled || isCompleted) {
+                return;
+            }
+        }
+        if (!controller.tryAcquireBudget(endpointKey)) {
+            PowerAuthLog.d("HttpHedgedTask: %s: Hedging budget exhausted.", endpointKey);
+            return;
+        }
+        PowerAuthLog.d("HttpHedgedTask: %s: No response yet, sending hedged request.", endpointKey);
+        startAttempt(HEDGED);
+    }
+
+    /**
+     * Start the request.
+     * @param index Index of the request, {@link #PRIMARY} or {@link #HEDGED}.
+     */
+    private void startAttempt(final int index) {
+        synchronized (this) {
+            if (isCancelled || isCompleted) {
+                return;
+            }
+            runningAttempts++;
+        }
+        final ICancelable attempt = attemptFactory.startAttempt(retryCount, new INetworkResponseListener<TResponse>() {
+            @Override
+            public void onNetworkResponse(@NonNull TResponse response) {
+                onAttemptSucceeded(index, response);
+            }
+
+            @Override
+            public void onNetworkError(@NonNull Throwable throwable) {
+                onAttemptFailed(index, throwable);
+            }
+
+            @Override
+            public void onCancel() {
+                // The request is cancelled only from this class, so the cancel is already handled.
+            }
+        });
+        final boolean cancelAttempt;
+        synchronized (this) {
+            cancelAttempt = isCancelled || isCompleted;
+            if (!cancelAttempt) {
+                attempts[index] = attempt;
+            }
+        }
+        if (cancelAttempt) {
+            attempt.cancel();
+        }
+    }
+
+    /**
+     * Process the successful response.
+     * @param index Index of the request.
+     * @param response Received response.
+     */
+    private void onAttemptSucceeded(int index, @NonNull TResponse response) {
+        final ICancelable loser;
+        final long latency;
+        synchronized (this) {
+            if (isCancelled || isCompleted) {
+                return;
+            }
+            isCompleted = true;
+            loser = attempts[1 - index];
+            attempts[PRIMARY] = null;
+            attempts[HEDGED] = null;
+            handler.removeCallbacks(hedgeRunnable);
+            latency = SystemClock.elapsedRealtime() - startTime;
+        }
+        if (loser != null) {
+            PowerAuthLog.d("HttpHedgedTask: %s: %s request won.", endpointKey, index == HEDGED ? "Hedged" : "Primary");
+            loser.cancel();
+        }
+        // Record the latency observed by the application, so the hedged responses don't lower the delay.
+        controller.recordLatency(endpointKey, latency);
+        listener.onNetworkResponse(response);
+    }
+
+    /**
+     * Process the failure. The failure is reported only if there's no other request in progress.
+     * @param index Index of the request.
+     * @param failure Failure reported from the request.
+     */
+    private void onAttemptFailed(int index, @NonNull Throwable failure) {
+        synchronized (this) {
+            if (isCancelled || isCompleted) {
+                return;
+            }
+            attempts[index] = null;
+            if (--runningAttempts > 0) {
+                // Wait for the other request.
+                return;
+            }
+            isCompleted = true;
+            handler.removeCallbacks(hedgeRunnable);
+        }
+        listener.onNetworkError(failure);
+    }
+
+    @Override
+    public void cancel() {
+        final ICancelable primary, hedged;
+        synchronized (this) {
+            if (isCancelled || isCompleted) {
+                return;
+            }
+            isCancelled = true;
+            primary = attempts[PRIMARY];
+            hedged = attempts[HEDGED];
+            attempts[PRIMARY] = null;
+            attempts[HEDGED] = null;
+            handler.removeCallbacks(hedgeRunnable);
+        }
+        if (primary != null) {
+            primary.cancel();
+        }
+        if (hedged != null) {
+            hedged.cancel();
+        }
+        handler.post(listener::onCancel);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        synchronized (this) {
+            return isCancelled;
+        }
+    }
+}
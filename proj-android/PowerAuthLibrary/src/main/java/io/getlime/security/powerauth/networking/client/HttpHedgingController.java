@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * The {@code HttpHedgingController} class keeps the observed latency and the hedging budget for each endpoint.
+ * The latency is kept in a sliding window of the most recent responses, so the hedging delay follows
+ * the changes of the network conditions. The class is thread safe.
+ */
+class HttpHedgingController {
+
+    /**
+     * Number of the most recent responses used to calculate the latency percentile.
+     */
+    static final int LATENCY_WINDOW_SIZE = 100;
+
+    /**
+     * State of hedging for one endpoint.
+     */
+    private static class EndpointState {
+        final @NonNull long[] latencies = new long[LATENCY_WINDOW_SIZE];
+        int latencyCount;
+        int nextLatencyIndex;
+        double budget;
+    }
+
+    private final @NonNull HttpHedgingPolicy policy;
+    private final @NonNull HashMap<String, EndpointState> endpointStates = new HashMap<>();
+
+    /**
+     * @param policy Hedging policy.
+     */
+    HttpHedgingController(@NonNull HttpHedgingPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Called when a new request to the endpoint is started. The function adds the portion of budget to
+     * the endpoint and calculates the delay before the hedged request.
+     *
+     * @param endpointKey Key identifying the endpoint.
+     * @return Delay in milliseconds before the hedged request should be sent.
+     */
+    long onRequestStarted(@NonNull String endpointKey) {
+        final long[] latencies;
+        synchronized (this) {
+            final EndpointState state = getEndpointState(endpointKey);
+            state.budget = Math.min(state.budget + policy.budgetRatio, policy.maxBudget);
+            if (state.latencyCount < policy.minSamples || state.latencyCount == 0) {
+                return policy.initialDelay;
+            }
+            latencies = Arrays.copyOf(state.latencies, state.latencyCount);
+        }
+        Arrays.sort(latencies);
+        final double percentile = Math.max(0.0, Math.min(policy.percentile, 100.0));
+        final int index = Math.max(0, (int) Math.ceil(latencies.length * percentile / 100.0) - 1);
+        return Math.max(policy.minDelay, latencies[index]);
+    }
+
+    /**
+     * Try to consume one hedged request from the endpoint's budget.
+     *
+     * @param endpointKey Key identifying the endpoint.
+     * @return {@code true} if the hedged request can be sent.
+     */
+    boolean tryAcquireBudget(@NonNull String endpointKey) {
+        synchronized (this) {
+            final EndpointState state = getEndpointState(endpointKey);
+            if (state.budget < 1.0) {
+                return false;
+            }
+            state.budget -= 1.0;
+            return true;
+        }
+    }
+
+    /**
+     * Record the time between the start of the request and the received response.
+     *
+     * @param endpointKey Key identifying the endpoint.
+     * @param latency Latency in milliseconds.
+     */
+    void recordLatency(@NonNull String endpointKey, long latency) {
+        synchronized (this) {
+            final EndpointState state = getEndpointState(endpointKey);
+            // Replace the oldest value once the window is full.
+            state.latencies[state.nextLatencyIndex] = Math.max(0, latency);
+            state.nextLatencyIndex = (state.nextLatencyIndex + 1) % LATENCY_WINDOW_SIZE;
+            state.latencyCount = Math.min(state.latencyCount + 1, LATENCY_WINDOW_SIZE);
+        }
+    }
+
+    /**
+     * Get or create state for the endpoint. The function must be called in synchronized block.
+     * @param endpointKey Key identifying the endpoint.
+     * @return State for the endpoint.
+     */
+    @NonNull
+    private EndpointState getEndpointState(@NonNull String endpointKey) {
+        EndpointState state = endpointStates.get(endpointKey);
+        if (state == null) {
+            state = new EndpointState();
+            endpointStates.put(endpointKey, state);
+        }
+        return state;
+    }
+}
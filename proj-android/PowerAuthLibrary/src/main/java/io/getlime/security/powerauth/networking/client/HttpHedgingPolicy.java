@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.networking.client;
+
+/**
+ * The {@code HttpHedgingPolicy} class defines when {@link HttpClient} sends a second, identical request if the
+ * first request has no response yet. The first successful response wins and the other request is cancelled.
+ * Only requests to endpoints declared as idempotent by
+ * {@link io.getlime.security.powerauth.networking.interfaces.IEndpointDefinition#isIdempotent()} are hedged.
+ * Requests signed with PowerAuth Signature are never hedged.
+ * <p>
+ * The delay before the hedged request is the observed latency at {@link #percentile}, measured separately for
+ * each endpoint. Until the endpoint has at least {@link #minSamples} measured responses, {@link #initialDelay}
+ * is used. To prevent the load amplification, each endpoint has its own budget. Each request adds
+ * {@link #budgetRatio} to the budget, up to {@link #maxBudget}, and each hedged request consumes 1.
+ */
+public class HttpHedgingPolicy {
+
+    /**
+     * Default hedging policy. The hedged request is sent after the 95th percentile latency and at most
+     * 10% of requests to the endpoint can be hedged.
+     */
+    public static final HttpHedgingPolicy DEFAULT = new HttpHedgingPolicy(95.0, 50, 2_000, 20, 0.1, 3.0);
+
+    /**
+     * Percentile of the observed latency, in range 0.0 to 100.0, after which the hedged request is sent.
+     */
+    public final double percentile;
+    /**
+     * Minimum delay in milliseconds before the hedged request is sent.
+     */
+    public final long minDelay;
+    /**
+     * Delay in milliseconds used until the endpoint has enough measured responses.
+     */
+    public final long initialDelay;
+    /**
+     * Number of measured responses required before the percentile-based delay is used.
+     */
+    public final int minSamples;
+    /**
+     * Portion of the budget added by each request.
+     */
+    public final double budgetRatio;
+    /**
+     * Maximum budget, that is, the maximum number of hedged requests that can be sent in a burst.
+     */
+    public final double maxBudget;
+
+    /**
+     * Construct the hedging policy.
+     *
+     * @param percentile Percentile of the observed latency after which the hedged request is sent.
+     * @param minDelay Minimum delay in milliseconds before the hedged request is sent.
+     * @param initialDelay Delay in milliseconds used until the endpoint has enough measured responses.
+     * @param minSamples Number of measured responses required before the percentile-based delay is used.
+     * @param budgetRatio Portion of the budget added by each request, in range 0.0 to 1.0.
+     * @param maxBudget Maximum budget. The value must be at least 1.0, otherwise no request is hedged.
+     */
+    public HttpHedgingPolicy(double percentile, long minDelay, long initialDelay, int minSamples, double budgetRatio, double maxBudget) {
+        this.percentile = Math.max(0.0, Math.min(percentile, 100.0));
+        this.minDelay = Math.max(0, minDelay);
+        this.initialDelay = Math.max(this.minDelay, initialDelay);
+        this.minSamples = Math.max(1, minSamples);
+        this.budgetRatio = Math.max(0.0, Math.min(budgetRatio, 1.0));
+        this.maxBudget = Math.max(0.0, maxBudget);
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.getlime.security.powerauth.networking.interceptors.HttpRequestInterceptor;
+import io.getlime.security.powerauth.networking.interfaces.ICancelable;
+import io.getlime.security.powerauth.sdk.PowerAuthClientConfiguration;
+import io.getlime.security.powerauth.sdk.impl.ICallbackDispatcher;
+import io.getlime.security.powerauth.sdk.impl.ITaskCompletion;
+import io.getlime.security.powerauth.system.PowerAuthLog;
+
+/**
+ * The {@code HttpPreconnectTask} class opens a connection to the PowerAuth server in advance, so the TLS handshake
+ * is already done when the first real request is sent. The task sends {@code HEAD} request to the base URL and
+ * reads the whole response, so the connection is returned to the connection pool maintained by
+ * {@link HttpURLConnection}. Any HTTP response, including an error status, is treated as a success.
+ */
+class HttpPreconnectTask implements Runnable, ICancelable {
+
+    private final @NonNull String baseUrl;
+    private final @NonNull PowerAuthClientConfiguration clientConfiguration;
+    private final @NonNull ICallbackDispatcher callbackDispatcher;
+    private final @NonNull ITaskCompletion<Integer> completion;
+    private volatile boolean isCancelled;
+    private volatile long responseLatency = -1;
+    private final @NonNull AtomicReference<HttpURLConnection> activeConnection = new AtomicReference<>();
+
+    /**
+     * @param baseUrl Base URL to PowerAuth Server REST API.
+     * @param clientConfiguration HTTP client configuration.
+     * @param callbackDispatcher Object that dispatch callback to main thread.
+     * @param completion Completion called with HTTP status code in case of success.
+     */
+    HttpPreconnectTask(
+            @NonNull String baseUrl,
+            @NonNull PowerAuthClientConfiguration clientConfiguration,
+            @NonNull ICallbackDispatcher callbackDispatcher,
+            @NonNull ITaskCompletion<Integer> completion) {
+        this.baseUrl = baseUrl;
+        this.clientConfiguration = clientConfiguration;
+        this.callbackDispatcher = callbackDispatcher;
+        this.completion = completion;
+    }
+
+    @Override
+    public void run() {
+        if (isCancelled) {
+            return;
+        }
+        HttpURLConnection urlConnection = null;
+        try {
+            final String url = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+            urlConnection = (HttpURLConnection) new URL(url).openConnection();
+            activeConnection.set(urlConnection);
+            if (isCancelled) {
+                activeConnection.set(null);
+                urlConnection.disconnect();
+                return;
+            }
+            urlConnection.setRequestMethod("HEAD");
+            HttpClientTask.configureConnection(urlConnection, clientConfiguration);
+            final List<HttpRequestInterceptor> requestInterceptors = clientConfiguration.getRequestInterceptors();
+            if (requestInterceptors != null) {
+                for (HttpRequestInterceptor interceptor : requestInterceptors) {
+                    interceptor.processRequestConnection(urlConnection);
+                }
+            }
+            final long startTime = SystemClock.elapsedRealtime();
+            urlConnection.connect();
+            final int statusCode = urlConnection.getResponseCode();
+            responseLatency = SystemClock.elapsedRealtime() - startTime;
+            // Drain the response to allow the connection reuse.
+            final InputStream inputStream = statusCode < 400 ? urlConnection.getInputStream() : urlConnection.getErrorStream();
+            if (inputStream != null) {
+                final byte[] buffer = new byte[256];
+                while (inputStream.read(buffer) >= 0) {
+                    // Nothing to do
+                }
+                inputStream.close();
+            }
+            activeConnection.set(null);
+            PowerAuthLog.d("HttpClient: Connection to %s is ready. Status code = %d", url, statusCode);
+            callbackDispatcher.dispatchCallback(() -> {
+                if (!isCancelled) {
+                    completion.onSuccess(statusCode);
+                }
+            });
+        } catch (Throwable e) {
+            // Keep the connection open only in case of success. Note that not only IOException is reported,
+            // the request interceptor or the connection configuration may also fail with a runtime exception.
+            if (urlConnection != null) {
+                activeConnection.set(null);
+                urlConnection.disconnect();
+            }
+            PowerAuthLog.e("HttpClient: Failed to preconnect: %s", e.getMessage());
+            callbackDispatcher.dispatchCallback(() -> {
+                if (!isCancelled) {
+                    completion.onFailure(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return Time in milliseconds between the start of the connection and the received response, or -1 if
+     *         the response was not received.
+     */
+    long getResponseLatency() {
+        return responseLatency;
+    }
+
+    @Override
+    public void cancel() {
+        isCancelled = true;
+        // Abort the blocking connect or read, so the worker thread is released immediately.
+        final HttpURLConnection connection = activeConnection.getAndSet(null);
+        if (connection != null) {
+            connection.disconnect();
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+}
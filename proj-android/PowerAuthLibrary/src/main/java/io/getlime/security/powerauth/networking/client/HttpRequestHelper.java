@@ -219,6 +219,7 @@ class HttpRequestHelper<TRequest, TResponse> {
         // Finalize headers
         requestHeaders.put("Content-Type", "application/json");
         requestHeaders.put("Accept", "application/json");
+        requestHeaders.put("Accept-Encoding", HttpCompression.GZIP);
 
         // Return object with all information prepared for request processing.
         return new RequestData(requestUrl, requestMethod, requestHeaders, requestData);
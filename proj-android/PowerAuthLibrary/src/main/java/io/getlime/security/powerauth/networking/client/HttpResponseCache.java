@@ -0,0 +1,483 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.JsonElement;
+import com.google.gson.reflect.TypeToken;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import io.getlime.security.powerauth.keychain.Keychain;
+import io.getlime.security.powerauth.networking.interfaces.IEndpointDefinition;
+import io.getlime.security.powerauth.system.PowerAuthLog;
+
+/**
+ * The {@code HttpResponseCache} class keeps responses received from endpoints that provide
+ * {@link EndpointCachePolicy}. The responses are kept in the memory, with LRU eviction policy,
+ * and optionally persisted in the keychain. The persisted responses are loaded lazily, on the first
+ * access to the cache.
+ * <p>
+ * The responses are kept in JSON representation and each caller receives its own copy of the response
+ * object, so a caller cannot modify the response returned to other callers.
+ * <p>
+ * The class is thread safe. The keychain is never accessed while the cache's monitor is held. The changes
+ * in the keychain are queued in the monitor and applied in the same order under a separate lock.
+ */
+public class HttpResponseCache {
+
+    /**
+     * Maximum number of entries kept in the cache.
+     */
+    public static final int MAX_ENTRIES = 32;
+
+    /**
+     * The {@code Entry} class represents one cached response returned from {@link #get(String, IEndpointDefinition)}.
+     */
+    public static class Entry {
+        /**
+         * Activation identifier, if the entry is bound to the activation.
+         */
+        final @Nullable String activationId;
+        /**
+         * Time of the response retrieval, in milliseconds since the Unix epoch.
+         */
+        final long timestamp;
+        /**
+         * Response object, created for the caller.
+         */
+        final @NonNull Object response;
+
+        Entry(@Nullable String activationId, long timestamp, @NonNull Object response) {
+            this.activationId = activationId;
+            this.timestamp = timestamp;
+            this.response = response;
+        }
+
+        /**
+         * Get age of the cached response.
+         * @param now Current time in milliseconds since the Unix epoch.
+         * @return Age of the cached response in milliseconds or {@code Long.MAX_VALUE} if the response
+         *         was created in the future. This may happen when the system time is changed.
+         */
+        public long getAge(long now) {
+            final long age = now - timestamp;
+            return age >= 0 ? age : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Entry kept in the memory. The response is never modified once the entry is created.
+     */
+    private static class StoredEntry {
+        final @Nullable String activationId;
+        final long timestamp;
+        final @NonNull JsonElement json;
+
+        StoredEntry(@Nullable String activationId, long timestamp, @NonNull JsonElement json) {
+            this.activationId = activationId;
+            this.timestamp = timestamp;
+            this.json = json;
+        }
+    }
+
+    /**
+     * Entry representation stored in the keychain.
+     */
+    private static class PersistedEntry {
+        String activationId;
+        long timestamp;
+        JsonElement response;
+    }
+
+    private final @NonNull Keychain keychain;
+    private final @NonNull String keyPrefix;
+    private final @NonNull String indexKey;
+    private final @NonNull JsonSerialization serialization;
+    private final @NonNull LinkedHashMap<String, StoredEntry> entries;
+    private final @NonNull Set<String> persistedKeys = new HashSet<>();
+    private final @NonNull Set<String> pendingRevalidations = new HashSet<>();
+    /**
+     * Generation of activation scoped entries, incremented in {@link #removeActivationScopedEntries()}.
+     */
+    private int activationScopeGeneration;
+    /**
+     * Changes in the keychain, queued in the monitor and applied in {@link #applyKeychainChanges()}.
+     */
+    private final @NonNull ArrayList<Runnable> pendingKeychainChanges = new ArrayList<>();
+    /**
+     * Lock that serializes the keychain access. The lock is never acquired while the monitor is held.
+     */
+    private final @NonNull Object keychainLock = new Object();
+    private volatile boolean isLoaded;
+
+    /**
+     * Construct the cache.
+     *
+     * @param keychain Keychain to persist the responses.
+     * @param instanceId Identifier of PowerAuthSDK instance.
+     */
+    public HttpResponseCache(@NonNull Keychain keychain, @NonNull String instanceId) {
+        this.keychain = keychain;
+        this.keyPrefix = instanceId + ".responseCache.";
+        this.indexKey = instanceId + ".responseCache.index";
+        this.serialization = new JsonSerialization();
+        this.entries = new LinkedHashMap<String, StoredEntry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredEntry> eldest) {
+                if (size() > MAX_ENTRIES) {
+                    // Called with the cache's monitor acquired.
+                    removePersistedEntry(eldest.getKey());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Create key that identifies the cached response.
+     *
+     * @param object Request object.
+     * @param endpoint Endpoint definition.
+     * @param policy Endpoint's cache policy.
+     * @param activationId Current activation identifier.
+     * @param <TRequest> Type of request object.
+     * @return Key for the cached response or {@code null} if the response cannot be cached. This happens
+     *         when the policy is bound to the activation, but there's no activation.
+     */
+    @Nullable
+    public <TRequest> String createCacheKey(
+            @Nullable TRequest object,
+            @NonNull IEndpointDefinition<?> endpoint,
+            @NonNull EndpointCachePolicy policy,
+            @Nullable String activationId) {
+        if (policy.isActivationScoped && activationId == null) {
+            return null;
+        }
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((endpoint.getHttpMethod() + " " + endpoint.getRelativePath() + "\n").getBytes(StandardCharsets.UTF_8));
+            if (policy.isActivationScoped) {
+                digest.update((activationId + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(serialization.serializeRequestObject(object));
+            final byte[] hash = digest.digest();
+            final StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (Throwable t) {
+            PowerAuthLog.e("HttpResponseCache: Failed to create cache key: " + t);
+            return null;
+        }
+    }
+
+    /**
+     * Get cached response.
+     *
+     * @param cacheKey Key created in {@link #createCacheKey(Object, IEndpointDefinition, EndpointCachePolicy, String)}.
+     * @param endpoint Endpoint definition.
+     * @param <TResponse> Type of response object.
+     * @return Cached entry or {@code null} if there's no such response cached. The response object in the
+     *         returned entry is always available.
+     */
+    @Nullable
+    public <TResponse> Entry get(@NonNull String cacheKey, @NonNull IEndpointDefinition<TResponse> endpoint) {
+        loadPersistedEntries();
+        final StoredEntry entry;
+        synchronized (this) {
+            entry = entries.get(cacheKey);
+        }
+        if (entry == null) {
+            return null;
+        }
+        // Create a new response object for each caller.
+        Object response = null;
+        final TypeToken<TResponse> type = endpoint.getResponseType();
+        if (type != null) {
+            try {
+                response = serialization.getGson().fromJson(entry.json, type.getType());
+            } catch (Throwable t) {
+                PowerAuthLog.e("HttpResponseCache: Failed to restore response: %s", t);
+            }
+        }
+        if (response == null) {
+            remove(cacheKey);
+            return null;
+        }
+        return new Entry(entry.activationId, entry.timestamp, response);
+    }
+
+    /**
+     * Store the response to the cache.
+     *
+     * @param cacheKey Key created in {@link #createCacheKey(Object, IEndpointDefinition, EndpointCachePolicy, String)}.
+     * @param endpoint Endpoint definition.
+     * @param policy Endpoint's cache policy.
+     * @param activationId Activation identifier used for the cache key creation.
+     * @param response Response received from the server.
+     * @param timestamp Time of the response retrieval, in milliseconds since the Unix epoch.
+     * @param activationScopeGeneration Value of {@link #getActivationScopeGeneration()} captured before the request
+     *                                  started. If activation scoped entries were removed since then, the activation
+     *                                  scoped response is not stored.
+     * @param <TResponse> Type of response object.
+     */
+    public <TResponse> void put(
+            @NonNull String cacheKey,
+            @NonNull IEndpointDefinition<TResponse> endpoint,
+            @NonNull EndpointCachePolicy policy,
+            @Nullable String activationId,
+            @NonNull TResponse response,
+            long timestamp,
+            int activationScopeGeneration) {
+        loadPersistedEntries();
+        final String entryActivationId = policy.isActivationScoped ? activationId : null;
+        final TypeToken<TResponse> type = endpoint.getResponseType();
+        if (type == null) {
+            // The response cannot be copied for the callers without its type.
+            PowerAuthLog.d("HttpResponseCache: Endpoint %s has no response type, the response is not cached.", endpoint.getRelativePath());
+            return;
+        }
+        final JsonElement json;
+        final byte[] persistedData;
+        try {
+            json = serialization.getGson().toJsonTree(response, type.getType());
+            if (policy.isPersistent) {
+                final PersistedEntry persistedEntry = new PersistedEntry();
+                persistedEntry.activationId = entryActivationId;
+                persistedEntry.timestamp = timestamp;
+                persistedEntry.response = json;
+                persistedData = serialization.serializeObject(persistedEntry);
+            } else {
+                persistedData = null;
+            }
+        } catch (Throwable t) {
+            PowerAuthLog.e("HttpResponseCache: Failed to serialize response: %s", t);
+            return;
+        }
+        synchronized (this) {
+            if (entryActivationId != null && activationScopeGeneration != this.activationScopeGeneration) {
+                // The response was requested for already removed activation.
+                PowerAuthLog.d("HttpResponseCache: Activation scoped entries were removed, the response is not cached.");
+                return;
+            }
+            if (persistedData != null) {
+                queueKeychainChange(() -> keychain.putData(persistedData, keyPrefix + cacheKey));
+                if (persistedKeys.add(cacheKey)) {
+                    savePersistedKeys();
+                }
+            } else {
+                // Response is not persisted, so make sure that there's no older version in the keychain.
+                removePersistedEntry(cacheKey);
+            }
+            entries.put(cacheKey, new StoredEntry(entryActivationId, timestamp, json));
+        }
+        applyKeychainChanges();
+    }
+
+    /**
+     * Remove one cached response.
+     * @param cacheKey Key of the response to remove.
+     */
+    public void remove(@NonNull String cacheKey) {
+        loadPersistedEntries();
+        synchronized (this) {
+            entries.remove(cacheKey);
+            removePersistedEntry(cacheKey);
+        }
+        applyKeychainChanges();
+    }
+
+    /**
+     * Remove all responses bound to an activation, from the memory and from the keychain.
+     */
+    public void removeActivationScopedEntries() {
+        loadPersistedEntries();
+        synchronized (this) {
+            activationScopeGeneration++;
+            final Iterator<Map.Entry<String, StoredEntry>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<String, StoredEntry> entry = iterator.next();
+                if (entry.getValue().activationId != null) {
+                    removePersistedEntry(entry.getKey());
+                    iterator.remove();
+                }
+            }
+        }
+        applyKeychainChanges();
+    }
+
+    /**
+     * Remove all cached responses, from the memory and from the keychain.
+     */
+    public void clear() {
+        loadPersistedEntries();
+        synchronized (this) {
+            for (String cacheKey : persistedKeys) {
+                queueKeychainChange(() -> keychain.remove(keyPrefix + cacheKey));
+            }
+            persistedKeys.clear();
+            queueKeychainChange(() -> keychain.remove(indexKey));
+            entries.clear();
+        }
+        applyKeychainChanges();
+    }
+
+    /**
+     * @return Generation of activation scoped entries. The value must be captured before the request is started
+     *         and then passed to {@link #put(String, IEndpointDefinition, EndpointCachePolicy, String, Object, long, int)}.
+     */
+    public synchronized int getActivationScopeGeneration() {
+        return activationScopeGeneration;
+    }
+
+    /**
+     * Mark that the cached response is being revalidated.
+     * @param cacheKey Key of the cached response.
+     * @return {@code true} if the caller should revalidate the response, {@code false} if the revalidation
+     *         is already in progress.
+     */
+    public synchronized boolean beginRevalidation(@NonNull String cacheKey) {
+        return pendingRevalidations.add(cacheKey);
+    }
+
+    /**
+     * Mark that the revalidation of cached response is complete.
+     * @param cacheKey Key of the cached response.
+     */
+    public synchronized void endRevalidation(@NonNull String cacheKey) {
+        pendingRevalidations.remove(cacheKey);
+    }
+
+    // Private methods
+
+    /**
+     * Load persisted entries from the keychain, if not loaded yet. The function must not be called in synchronized
+     * block. All public functions that modify the cache call this function first, so the cache is not modified before
+     * the persisted entries are loaded.
+     */
+    private void loadPersistedEntries() {
+        if (isLoaded) {
+            return;
+        }
+        synchronized (keychainLock) {
+            if (isLoaded) {
+                return;
+            }
+            final LinkedHashMap<String, StoredEntry> loadedEntries = new LinkedHashMap<>();
+            final ArrayList<String> invalidKeys = new ArrayList<>();
+            final Set<String> storedKeys = keychain.getStringSet(indexKey);
+            if (storedKeys != null) {
+                for (String cacheKey : storedKeys) {
+                    StoredEntry entry = null;
+                    final byte[] data = keychain.getData(keyPrefix + cacheKey);
+                    if (data != null) {
+                        try {
+                            final PersistedEntry persistedEntry = serialization.deserializeObject(data, TypeToken.get(PersistedEntry.class));
+                            if (persistedEntry.response != null) {
+                                entry = new StoredEntry(persistedEntry.activationId, persistedEntry.timestamp, persistedEntry.response);
+                            }
+                        } catch (Throwable t) {
+                            PowerAuthLog.e("HttpResponseCache: Failed to restore cache entry: %s", t);
+                        }
+                    }
+                    if (entry != null && loadedEntries.size() < MAX_ENTRIES) {
+                        loadedEntries.put(cacheKey, entry);
+                    } else {
+                        keychain.remove(keyPrefix + cacheKey);
+                        invalidKeys.add(cacheKey);
+                    }
+                }
+            }
+            synchronized (this) {
+                persistedKeys.addAll(loadedEntries.keySet());
+                entries.putAll(loadedEntries);
+                if (!invalidKeys.isEmpty()) {
+                    savePersistedKeys();
+                }
+                isLoaded = true;
+            }
+        }
+        applyKeychainChanges();
+    }
+
+    /**
+     * Remove entry from the keychain. The function must be called in synchronized block.
+     * @param cacheKey Key of the cached response.
+     */
+    private void removePersistedEntry(@NonNull String cacheKey) {
+        if (persistedKeys.remove(cacheKey)) {
+            queueKeychainChange(() -> keychain.remove(keyPrefix + cacheKey));
+            savePersistedKeys();
+        }
+    }
+
+    /**
+     * Save index of persisted entries to the keychain. The function must be called in synchronized block.
+     */
+    private void savePersistedKeys() {
+        if (persistedKeys.isEmpty()) {
+            queueKeychainChange(() -> keychain.remove(indexKey));
+        } else {
+            final Set<String> keys = new HashSet<>(persistedKeys);
+            queueKeychainChange(() -> keychain.putStringSet(keys, indexKey));
+        }
+    }
+
+    /**
+     * Queue change in the keychain. The function must be called in synchronized block. The change is applied
+     * later, in {@link #applyKeychainChanges()}.
+     * @param change Change to apply.
+     */
+    private void queueKeychainChange(@NonNull Runnable change) {
+        pendingKeychainChanges.add(change);
+    }
+
+    /**
+     * Apply all queued changes in the keychain, in the order they were queued. The function must not be called in
+     * synchronized block.
+     */
+    private void applyKeychainChanges() {
+        synchronized (keychainLock) {
+            while (true) {
+                final Runnable change;
+                synchronized (this) {
+                    if (pendingKeychainChanges.isEmpty()) {
+                        return;
+                    }
+                    change = pendingKeychainChanges.remove(0);
+                }
+                try {
+                    change.run();
+                } catch (Throwable t) {
+                    PowerAuthLog.e("HttpResponseCache: Failed to update keychain: %s", t);
+                }
+            }
+        }
+    }
+}
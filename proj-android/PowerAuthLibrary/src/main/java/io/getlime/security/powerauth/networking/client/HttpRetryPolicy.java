@@ -0,0 +1,130 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import javax.net.ssl.SSLHandshakeException;
+import javax.net.ssl.SSLPeerUnverifiedException;
+
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.exceptions.FailedApiException;
+
+/**
+ * The {@code HttpRetryPolicy} class defines how {@link HttpClient} retries requests that failed on a transient
+ * error. Only requests to endpoints declared as idempotent by
+ * {@link io.getlime.security.powerauth.networking.interfaces.IEndpointDefinition#isIdempotent()} are retried.
+ * Requests signed with PowerAuth Signature are never retried, because each signature advances the counter.
+ * <p>
+ * The delay before the retry grows exponentially from {@link #initialBackoff} up to {@link #maxBackoff}. Half
+ * of the delay is randomized, so the clients that failed at the same time don't retry at the same time.
+ */
+public class HttpRetryPolicy {
+
+    /**
+     * Default retry policy, allowing two retries within 10 seconds.
+     */
+    public static final HttpRetryPolicy DEFAULT = new HttpRetryPolicy(2, 250, 2_000, 2.0, 10_000);
+
+    /**
+     * Policy that disables retries.
+     */
+    public static final HttpRetryPolicy NONE = new HttpRetryPolicy(0, 0, 0, 1.0, 0);
+
+    /**
+     * Maximum number of retries. The request is executed at most {@code maxRetries + 1} times.
+     */
+    public final int maxRetries;
+    /**
+     * Delay in milliseconds before the first retry.
+     */
+    public final long initialBackoff;
+    /**
+     * Maximum delay in milliseconds between two attempts.
+     */
+    public final long maxBackoff;
+    /**
+     * Multiplier applied to the delay after each retry.
+     */
+    public final double backoffMultiplier;
+    /**
+     * Overall time in milliseconds, measured from the first attempt, after which the request is no longer retried.
+     */
+    public final long deadline;
+
+    /**
+     * Construct the retry policy.
+     *
+     * @param maxRetries Maximum number of retries.
+     * @param initialBackoff Delay in milliseconds before the first retry.
+     * @param maxBackoff Maximum delay in milliseconds between two attempts.
+     * @param backoffMultiplier Multiplier applied to the delay after each retry. The value must be at least 1.0.
+     * @param deadline Overall time in milliseconds after which the request is no longer retried.
+     */
+    public HttpRetryPolicy(int maxRetries, long initialBackoff, long maxBackoff, double backoffMultiplier, long deadline) {
+        this.maxRetries = Math.max(0, maxRetries);
+        this.initialBackoff = Math.max(0, initialBackoff);
+        this.maxBackoff = Math.max(this.initialBackoff, maxBackoff);
+        this.backoffMultiplier = Math.max(1.0, backoffMultiplier);
+        this.deadline = Math.max(0, deadline);
+    }
+
+    /**
+     * Calculate the delay before the retry.
+     *
+     * @param retryIndex Index of the retry, starting at 0.
+     * @return Delay in milliseconds.
+     */
+    public long getBackoffDelay(int retryIndex) {
+        final double exponentialDelay = initialBackoff * Math.pow(backoffMultiplier, retryIndex);
+        final long delay = (long) Math.min(maxBackoff, exponentialDelay);
+        if (delay <= 1) {
+            return delay;
+        }
+        final long halfDelay = delay / 2;
+        return halfDelay + ThreadLocalRandom.current().nextLong(delay - halfDelay + 1);
+    }
+
+    /**
+     * Determine whether the failure is transient, so the request can be retried.
+     *
+     * @param failure Failure reported from the request.
+     * @return {@code true} if the request can be retried.
+     */
+    public boolean isRetryableError(@NonNull Throwable failure) {
+        if (failure instanceof PowerAuthErrorException) {
+            final PowerAuthErrorException exception = (PowerAuthErrorException) failure;
+            if (exception.getPowerAuthErrorCode() != PowerAuthErrorCodes.NETWORK_ERROR) {
+                return false;
+            }
+            final Throwable cause = exception.getCause();
+            // TLS validation failures are not transient.
+            return cause instanceof IOException &&
+                    !(cause instanceof SSLHandshakeException) &&
+                    !(cause instanceof SSLPeerUnverifiedException);
+        }
+        if (failure instanceof FailedApiException) {
+            final int responseCode = ((FailedApiException) failure).getResponseCode();
+            return responseCode == 502 || responseCode == 503 || responseCode == 504;
+        }
+        return false;
+    }
+}
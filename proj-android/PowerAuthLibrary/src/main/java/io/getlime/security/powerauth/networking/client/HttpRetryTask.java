@@ -0,0 +1,247 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.os.Handler;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import io.getlime.security.powerauth.networking.interfaces.ICancelable;
+import io.getlime.security.powerauth.networking.interfaces.INetworkResponseListener;
+import io.getlime.security.powerauth.system.PowerAuthLog;
+
+/**
+ * The {@code HttpRetryTask} class executes a request and repeats it with a backoff delay when the request
+ * fails on a transient error, as defined by {@link HttpRetryPolicy}. The application receives only the result
+ * of the last attempt. All callbacks are expected on the thread associated with the provided handler.
+ *
+ * @param <TResponse> type of response object
+ */
+class HttpRetryTask<TResponse> implements ICancelable {
+
+    private final @NonNull String requestName;
+    private final @NonNull HttpRetryPolicy retryPolicy;
+    private final @Nullable HttpDeadline deadline;
+    private final @NonNull Handler handler;
+    private final @NonNull INetworkResponseListener<TResponse> listener;
+    private final @NonNull HttpAttemptFactory<TResponse> attemptFactory;
+    private final long startTime = SystemClock.elapsedRealtime();
+
+    private int retryCount;
+    private Attempt currentAttempt;
+    private Runnable pendingRetry;
+    private boolean isCancelled;
+    private boolean isCompleted;
+
+    /**
+     * @param requestName Name of request, for the debug purposes.
+     * @param retryPolicy Retry policy.
+     * @param deadline Optional deadline of the call.
+     * @param handler Handler for scheduling the retries.
+     * @param listener Listener receiving the final result.
+     * @param attemptFactory Factory that starts the attempts.
+     */
+    HttpRetryTask(
+            @NonNull String requestName,
+            @NonNull HttpRetryPolicy retryPolicy,
+            @Nullable HttpDeadline deadline,
+            @NonNull Handler handler,
+            @NonNull INetworkResponseListener<TResponse> listener,
+            @NonNull HttpAttemptFactory<TResponse> attemptFactory) {
+        this.requestName = requestName;
+        this.retryPolicy = retryPolicy;
+        this.deadline = deadline;
+        this.handler = handler;
+        this.listener = listener;
+        this.attemptFactory = attemptFactory;
+    }
+
+    /**
+     * Start the first attempt.
+     */
+    void start() {
+        startAttempt(0);
+    }
+
+    /**
+     * Start attempt to execute the request.
+     * @param attemptRetryCount Number of previous attempts.
+     */
+    private void startAttempt(final int attemptRetryCount) {
+        final Attempt attempt = new Attempt();
+        synchronized (this) {
+            if (isCancelled || isCompleted) {
+                return;
+            }
+            pendingRetry = null;
+            // Assign the attempt before it's started, because it can report its result immediately.
+            currentAttempt = attempt;
+        }
+        final ICancelable task = attemptFactory.startAttempt(attemptRetryCount, new INetworkResponseListener<TResponse>() {
+            @Override
+            public void onNetworkResponse(@NonNull TResponse response) {
+                if (setCompleted(attempt)) {
+                    listener.onNetworkResponse(response);
+                }
+            }
+
+            @Override
+            public void onNetworkError(@NonNull Throwable throwable) {
+                if (scheduleRetry(attempt, throwable)) {
+                    return;
+                }
+                if (setCompleted(attempt)) {
+                    listener.onNetworkError(throwable);
+                }
+            }
+
+            @Override
+            public void onCancel() {
+                // The attempt is cancelled only from cancel(), which already reported the cancel.
+            }
+        });
+        attempt.setTask(task);
+    }
+
+    /**
+     * Schedule the next attempt if the policy allows it.
+     * @param attempt Attempt that failed.
+     * @param failure Failure of the last attempt.
+     * @return {@code true} if the next attempt is scheduled.
+     */
+    private boolean scheduleRetry(@NonNull Attempt attempt, @NonNull Throwable failure) {
+        synchronized (this) {
+            if (isCancelled || isCompleted || currentAttempt != attempt) {
+                return false;
+            }
+            if (retryCount >= retryPolicy.maxRetries || !retryPolicy.isRetryableError(failure)) {
+                return false;
+            }
+            final long delay = retryPolicy.getBackoffDelay(retryCount);
+            final long elapsed = SystemClock.elapsedRealtime() - startTime;
+            if (elapsed + delay >= retryPolicy.deadline) {
+                PowerAuthLog.d("HttpRetryTask: %s: Retry deadline exceeded.", requestName);
+                return false;
+            }
+            if (deadline != null && delay >= deadline.getRemainingTime()) {
+                PowerAuthLog.d("HttpRetryTask: %s: Request deadline doesn't allow another attempt.", requestName);
+                return false;
+            }
+            final int nextRetryCount = ++retryCount;
+            PowerAuthLog.d("HttpRetryTask: %s: Attempt %d failed, retrying in %d ms.", requestName, nextRetryCount, delay);
+            currentAttempt = null;
+            pendingRetry = () -> startAttempt(nextRetryCount);
+            handler.postDelayed(pendingRetry, delay);
+            return true;
+        }
+    }
+
+    /**
+     * Mark the task as completed.
+     * @param attempt Attempt that completed the task.
+     * @return {@code true} if task was completed, {@code false} if it's already completed or cancelled, or if
+     *         the attempt is no longer the current one.
+     */
+    private boolean setCompleted(@NonNull Attempt attempt) {
+        synchronized (this) {
+            if (isCancelled || isCompleted || currentAttempt != attempt) {
+                return false;
+            }
+            isCompleted = true;
+            currentAttempt = null;
+            return true;
+        }
+    }
+
+    @Override
+    public void cancel() {
+        final Attempt attemptToCancel;
+        synchronized (this) {
+            if (isCancelled || isCompleted) {
+                return;
+            }
+            isCancelled = true;
+            attemptToCancel = currentAttempt;
+            currentAttempt = null;
+            if (pendingRetry != null) {
+                handler.removeCallbacks(pendingRetry);
+                pendingRetry = null;
+            }
+        }
+        if (attemptToCancel != null) {
+            attemptToCancel.cancel();
+        }
+        handler.post(listener::onCancel);
+    }
+
+    @Override
+    public boolean isCancelled() {
+        synchronized (this) {
+            return isCancelled;
+        }
+    }
+
+    /**
+     * The {@code Attempt} class keeps the task of one attempt, so the attempt can be cancelled even before
+     * the attempt factory returns its task.
+     */
+    private class Attempt implements ICancelable {
+
+        private ICancelable task;
+        private boolean isAttemptCancelled;
+
+        /**
+         * Set the task executing this attempt. If the attempt is already cancelled, then the task is cancelled
+         * immediately.
+         * @param task Task executing the attempt.
+         */
+        void setTask(@NonNull ICancelable task) {
+            synchronized (HttpRetryTask.this) {
+                if (!isAttemptCancelled) {
+                    this.task = task;
+                    return;
+                }
+            }
+            task.cancel();
+        }
+
+        @Override
+        public void cancel() {
+            final ICancelable taskToCancel;
+            synchronized (HttpRetryTask.this) {
+                if (isAttemptCancelled) {
+                    return;
+                }
+                isAttemptCancelled = true;
+                taskToCancel = task;
+                task = null;
+            }
+            if (taskToCancel != null) {
+                taskToCancel.cancel();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            synchronized (HttpRetryTask.this) {
+                return isAttemptCancelled;
+            }
+        }
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.client;
+
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import javax.net.ssl.SSLSession;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * The {@code TimingSSLSocketFactory} class wraps another {@link SSLSocketFactory} and records the time when
+ * the TLS layer is created over an already connected socket. This allows {@link HttpClientTask} to split
+ * the connection time into the TCP connect and TLS handshake phases. The factory also keeps the created
+ * socket, so once the connection is established, the caller can determine whether the handshake resumed
+ * a previous TLS session. Both values are recorded per thread, because the socket is created on the thread
+ * that opens the connection. To detect the resumption, the factory remembers the session negotiated by
+ * the previous handshake with the same server.
+ * <p>
+ * The connection pool identifies connections also by the socket factory, so the wrapper must be created
+ * only once per socket factory. See {@link TlsConfigurationCache}.
+ */
+class TimingSSLSocketFactory extends SSLSocketFactory {
+
+    /**
+     * Cipher suite reported by the session when the handshake failed.
+     */
+    private static final String INVALID_CIPHER_SUITE = "SSL_NULL_WITH_NULL_NULL";
+
+    /**
+     * Information about the TLS socket created on the current thread.
+     */
+    private static class LayeredSocket {
+        final long creationTime = SystemClock.elapsedRealtimeNanos();
+        final @NonNull TimingSSLSocketFactory factory;
+        final @NonNull String peer;
+        SSLSocket socket;
+
+        LayeredSocket(@NonNull TimingSSLSocketFactory factory, @NonNull String peer) {
+            this.factory = factory;
+            this.peer = peer;
+        }
+    }
+
+    /**
+     * Session negotiated by the last handshake with the server.
+     */
+    private static class HandshakeSession {
+        final @NonNull byte[] id;
+        final @NonNull WeakReference<SSLSession> session;
+
+        HandshakeSession(@NonNull SSLSession session) {
+            final byte[] id = session.getId();
+            this.id = id != null ? id : new byte[0];
+            this.session = new WeakReference<>(session);
+        }
+
+        /**
+         * @param other Session negotiated by the new handshake.
+         * @return {@code true} if the other session is the same session as this one.
+         */
+        boolean isSameSession(@NonNull SSLSession other) {
+            if (session.get() == other) {
+                return true;
+            }
+            return id.length > 0 && Arrays.equals(id, other.getId());
+        }
+    }
+
+    private static final ThreadLocal<LayeredSocket> layeredSocket = new ThreadLocal<>();
+
+    private final @NonNull SSLSocketFactory delegate;
+
+    /**
+     * Sessions negotiated by the last handshake, keyed by the server's host and port.
+     */
+    private final @NonNull HashMap<String, HandshakeSession> lastSessions = new HashMap<>();
+
+    /**
+     * @param delegate Socket factory to wrap.
+     */
+    TimingSSLSocketFactory(@NonNull SSLSocketFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Reset the recorded values for the current thread.
+     */
+    static void resetThreadMeasurements() {
+        layeredSocket.remove();
+    }
+
+    /**
+     * @return Time in nanoseconds, measured by {@link SystemClock#elapsedRealtimeNanos()}, when the TLS layer
+     *         was created on the current thread, or {@code null} if no TLS layer was created since the last reset.
+     */
+    @Nullable
+    static Long getLayeredSocketTime() {
+        final LayeredSocket info = layeredSocket.get();
+        return info != null ? info.creationTime : null;
+    }
+
+    /**
+     * Determine whether the TLS handshake on the socket created on the current thread resumed a previous session.
+     * The function must be called after the connection is established, so the handshake is already completed.
+     * The session is compared with the session negotiated by the previous handshake with the same server. If both
+     * have the same identifier, or it's the same object, then the previous session was resumed.
+     *
+     * @return {@code true} if the handshake resumed a previous session, {@code false} for the full handshake, or
+     *         {@code null} if no TLS socket was created since the last reset, or if the handshake didn't complete.
+     */
+    @Nullable
+    static Boolean getSessionResumed() {
+        final LayeredSocket info = layeredSocket.get();
+        if (info == null || info.socket == null || info.socket.isClosed()) {
+            return null;
+        }
+        final SSLSession session = info.socket.getSession();
+        if (session == null || !session.isValid() || INVALID_CIPHER_SUITE.equals(session.getCipherSuite())) {
+            return null;
+        }
+        return info.factory.updateLastSession(info.peer, session);
+    }
+
+    /**
+     * Remember the session negotiated by the handshake with the server.
+     *
+     * @param peer Server's host and port.
+     * @param session Session negotiated by the handshake.
+     * @return {@code true} if the session is the same as the session negotiated by the previous handshake.
+     */
+    private boolean updateLastSession(@NonNull String peer, @NonNull SSLSession session) {
+        synchronized (lastSessions) {
+            final HandshakeSession lastSession = lastSessions.get(peer);
+            if (lastSession != null && lastSession.isSameSession(session)) {
+                return true;
+            }
+            lastSessions.put(peer, new HandshakeSession(session));
+            return false;
+        }
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket(Socket s, String host, int port, boolean autoClose) throws IOException {
+        final LayeredSocket info = new LayeredSocket(this, host + ":" + port);
+        layeredSocket.set(info);
+        final Socket socket = delegate.createSocket(s, host, port, autoClose);
+        if (socket instanceof SSLSocket) {
+            info.socket = (SSLSocket) socket;
+        }
+        return socket;
+    }
+
+    @Override
+    public Socket createSocket() throws IOException {
+        return delegate.createSocket();
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        return delegate.createSocket(host, port);
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+        return delegate.createSocket(host, port, localHost, localPort);
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        return delegate.createSocket(host, port);
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+        return delegate.createSocket(address, port, localAddress, localPort);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.client;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.WeakHashMap;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.HttpsURLConnection;
+import javax.net.ssl.SSLSocketFactory;
+
+import io.getlime.security.powerauth.networking.ssl.HttpClientValidationStrategy;
+import io.getlime.security.powerauth.sdk.PowerAuthClientConfiguration;
+
+/**
+ * The {@code TlsConfigurationCache} class keeps the socket factory and the hostname verifier resolved from
+ * {@link HttpClientValidationStrategy} for each {@link PowerAuthClientConfiguration}.
+ * <p>
+ * The validation strategy typically creates a new {@code SSLContext} in each call. Each context has its own
+ * TLS session cache and the connection pool doesn't reuse connections created by a different socket factory,
+ * so without the cache, each request performs a full TLS handshake. Reusing the same socket factory allows
+ * both the connection reuse and the TLS session resumption.
+ */
+class TlsConfigurationCache {
+
+    private static final WeakHashMap<PowerAuthClientConfiguration, TlsConfigurationCache> cache = new WeakHashMap<>();
+
+    /**
+     * Socket factory provided by the validation strategy, or {@code null} if the system default should be used.
+     */
+    final @Nullable SSLSocketFactory socketFactory;
+    /**
+     * Socket factory that measures the TLS handshake, wrapping the strategy's or the system default factory.
+     */
+    final @NonNull SSLSocketFactory timingSocketFactory;
+    /**
+     * Hostname verifier provided by the validation strategy, or {@code null} if the system default should be used.
+     */
+    final @Nullable HostnameVerifier hostnameVerifier;
+
+    private TlsConfigurationCache(@Nullable SSLSocketFactory socketFactory, @Nullable HostnameVerifier hostnameVerifier) {
+        this.socketFactory = socketFactory;
+        this.timingSocketFactory = new TimingSSLSocketFactory(socketFactory != null ? socketFactory : HttpsURLConnection.getDefaultSSLSocketFactory());
+        this.hostnameVerifier = hostnameVerifier;
+    }
+
+    /**
+     * Get resolved TLS configuration for the client configuration. The validation strategy is called only once
+     * for each client configuration.
+     *
+     * @param clientConfiguration Client configuration.
+     * @return Resolved TLS configuration.
+     */
+    @NonNull
+    static TlsConfigurationCache forConfiguration(@NonNull PowerAuthClientConfiguration clientConfiguration) {
+        synchronized (cache) {
+            TlsConfigurationCache resolved = cache.get(clientConfiguration);
+            if (resolved == null) {
+                final HttpClientValidationStrategy clientValidationStrategy = clientConfiguration.getClientValidationStrategy();
+                if (clientValidationStrategy != null) {
+                    resolved = new TlsConfigurationCache(clientValidationStrategy.getSSLSocketFactory(), clientValidationStrategy.getHostnameVerifier());
+                } else {
+                    resolved = new TlsConfigurationCache(null, null);
+                }
+                cache.put(clientConfiguration, resolved);
+            }
+            return resolved;
+        }
+    }
+}
@@ -63,6 +63,18 @@ public class CreateActivationEndpoint implements IEndpointDefinition<ActivationL
         return true;
     }
 
+    @Override
+    public double getTimeoutMultiplier() {
+        // The activation creation involves multiple cryptographic operations and optional custom
+        // activation processing on the server.
+        return 3.0;
+    }
+
+    @Override
+    public boolean isRequestCompressionAllowed() {
+        return true;
+    }
+
     @Nullable
     @Override
     public ICustomEndpointOperation getBeforeRequestSerializationOperation() {
@@ -49,4 +49,9 @@ public class GetActivationStatusEndpoint implements IEndpointDefinition<Activati
         // automatically with the fetching the activation status.
         return true;
     }
+
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
 }
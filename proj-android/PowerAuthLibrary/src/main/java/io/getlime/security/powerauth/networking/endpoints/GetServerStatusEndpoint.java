@@ -39,4 +39,9 @@ public class GetServerStatusEndpoint implements IEndpointDefinition<ServerStatus
     public boolean isAvailableInProtocolUpgrade() {
         return true;
     }
+
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
 }
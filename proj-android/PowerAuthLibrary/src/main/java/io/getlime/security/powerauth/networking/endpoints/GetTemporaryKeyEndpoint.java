@@ -39,4 +39,9 @@ public class GetTemporaryKeyEndpoint implements IEndpointDefinition<JwtObject> {
     public boolean isAvailableInProtocolUpgrade() {
         return true;
     }
+
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
 }
@@ -23,9 +23,28 @@ import java.util.Map;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.getlime.security.powerauth.ecies.EciesEncryptorId;
+import io.getlime.security.powerauth.networking.client.EndpointCachePolicy;
 import io.getlime.security.powerauth.networking.interfaces.IEndpointDefinition;
 
 public class GetUserInfoEndpoint implements IEndpointDefinition<Map<String, Object>> {
+
+    private final @Nullable EndpointCachePolicy cachePolicy;
+
+    /**
+     * Construct endpoint with no response caching.
+     */
+    public GetUserInfoEndpoint() {
+        this(null);
+    }
+
+    /**
+     * Construct endpoint with optional response caching.
+     * @param cachePolicy Cache policy or {@code null} if response should not be cached.
+     */
+    public GetUserInfoEndpoint(@Nullable EndpointCachePolicy cachePolicy) {
+        this.cachePolicy = cachePolicy;
+    }
+
     @NonNull
     @Override
     public String getRelativePath() {
@@ -43,4 +62,15 @@ public class GetUserInfoEndpoint implements IEndpointDefinition<Map<String, Obje
     public TypeToken<Map<String, Object>> getResponseType() {
         return new TypeToken<Map<String, Object>>() {};
     }
+
+    @Nullable
+    @Override
+    public EndpointCachePolicy getCachePolicy() {
+        return cachePolicy;
+    }
+
+    @Override
+    public boolean isIdempotent() {
+        return true;
+    }
 }
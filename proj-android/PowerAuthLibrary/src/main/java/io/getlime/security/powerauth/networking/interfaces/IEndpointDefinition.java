@@ -22,6 +22,7 @@ import androidx.annotation.Nullable;
 import com.google.gson.reflect.TypeToken;
 
 import io.getlime.security.powerauth.ecies.EciesEncryptorId;
+import io.getlime.security.powerauth.networking.client.EndpointCachePolicy;
 
 /**
  * Interface defines endpoint for communicating with PowerAuth REST API.
@@ -86,7 +87,8 @@ public interface IEndpointDefinition<TResponse> {
 
     /**
      * @return true if request needs to be processed in serialized queue. By default, all requests signed with PowerAuth
-     * Signature are synchronized.
+     * Signature are synchronized. If {@code PowerAuthClientConfiguration} allows more concurrent signed requests, then
+     * only the request preparation and the signature calculation is serialized.
      */
     default boolean isSynchronized() {
         return getAuthorizationUriId() != null;
@@ -107,6 +109,41 @@ public interface IEndpointDefinition<TResponse> {
         return getEncryptorId() != EciesEncryptorId.NONE;
     }
 
+    /**
+     * @return {@code true} if the request can be safely repeated without side effects on the server, so it can
+     * be retried in case of transient failure. Requests signed with PowerAuth Signature are never retried, because
+     * each signature advances the counter. By default, returns false.
+     */
+    default boolean isIdempotent() {
+        return false;
+    }
+
+    /**
+     * @return Multiplier applied to the read timeout when the adaptive timeouts are enabled. Endpoints that require
+     * more processing on the server should return value greater than 1.0. By default, returns 1.0.
+     */
+    default double getTimeoutMultiplier() {
+        return 1.0;
+    }
+
+    /**
+     * @return {@code true} if the request body can be compressed with gzip, when the request compression is enabled
+     * in the client configuration. Requests signed with PowerAuth Signature are never compressed. By default,
+     * returns false.
+     */
+    default boolean isRequestCompressionAllowed() {
+        return false;
+    }
+
+    /**
+     * @return Cache policy for responses received from this endpoint, or {@code null} if responses should not be
+     * cached. Requests signed with PowerAuth Signature are never served from the cache. By default, returns null.
+     */
+    @Nullable
+    default EndpointCachePolicy getCachePolicy() {
+        return null;
+    }
+
     /**
      * Provide optional custom operation performed on the networking thread, before the request is serialized.
      * @return Optional custom operation that should be executed before the request serialization is performed.
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.interfaces;
+
+import androidx.annotation.AnyThread;
+import androidx.annotation.NonNull;
+
+import io.getlime.security.powerauth.networking.client.HttpCircuitBreakerState;
+import io.getlime.security.powerauth.networking.metrics.HttpRequestMetrics;
+
+/**
+ * The {@code IHttpMetricsListener} interface receives structured information about each HTTP request
+ * performed by the SDK. The listener is registered in {@code PowerAuthClientConfiguration}.
+ * <p>
+ * The listener is typically called from the networking thread, so the implementation must be thread safe and
+ * should return as soon as possible. You can use {@link io.getlime.security.powerauth.networking.metrics.HttpMetricsCollector}
+ * as the implementation, if you only need aggregated histograms.
+ */
+public interface IHttpMetricsListener {
+
+    /**
+     * Called once the HTTP request is finished, regardless of whether the request succeeded, failed or was cancelled.
+     * If the request was cancelled before its processing started, then the function is called from the main thread.
+     *
+     * @param metrics Metrics collected during the request processing.
+     */
+    @AnyThread
+    void onHttpRequestCompleted(@NonNull HttpRequestMetrics metrics);
+
+    /**
+     * Called when the circuit breaker protecting the endpoint changes its state. The function is called only
+     * if the circuit breaker is enabled in {@code PowerAuthClientConfiguration}. The default implementation
+     * does nothing.
+     *
+     * @param endpointClass Class of endpoint definition.
+     * @param baseUrl Base URL of the server.
+     * @param previousState Previous state of the circuit breaker.
+     * @param newState New state of the circuit breaker.
+     */
+    @AnyThread
+    default void onCircuitBreakerStateChanged(
+            @NonNull Class<?> endpointClass,
+            @NonNull String baseUrl,
+            @NonNull HttpCircuitBreakerState previousState,
+            @NonNull HttpCircuitBreakerState newState) {
+    }
+}
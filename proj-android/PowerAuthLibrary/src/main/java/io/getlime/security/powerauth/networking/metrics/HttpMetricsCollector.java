@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.getlime.security.powerauth.networking.client.HttpCircuitBreakerState;
+import io.getlime.security.powerauth.networking.interfaces.IHttpMetricsListener;
+
+/**
+ * The {@code HttpMetricsCollector} class implements {@link IHttpMetricsListener} that aggregates
+ * the received metrics into per-endpoint counters and histograms. The collector doesn't use locks,
+ * so it can be sampled from the application's telemetry at any time.
+ * <p>
+ * If you provide another listener to the constructor, then the collector forwards all received
+ * metrics to that listener.
+ */
+public class HttpMetricsCollector implements IHttpMetricsListener {
+
+    /**
+     * The {@code EndpointMetrics} class contains aggregated metrics for one endpoint.
+     */
+    public static class EndpointMetrics {
+        /**
+         * Histogram of total request times.
+         */
+        public final @NonNull HttpMetricsHistogram totalTime = new HttpMetricsHistogram();
+        /**
+         * Histogram of times to the first byte of the response.
+         */
+        public final @NonNull HttpMetricsHistogram timeToFirstByte = new HttpMetricsHistogram();
+        /**
+         * Histogram of times spent in the queue.
+         */
+        public final @NonNull HttpMetricsHistogram queueWaitTime = new HttpMetricsHistogram();
+        /**
+         * Histogram of connection establishment times, including the TLS handshake. Only requests
+         * that opened a new connection are recorded.
+         */
+        public final @NonNull HttpMetricsHistogram connectTime = new HttpMetricsHistogram();
+        /**
+         * Number of all requests.
+         */
+        public final @NonNull AtomicLong requestCount = new AtomicLong();
+        /**
+         * Number of failed requests.
+         */
+        public final @NonNull AtomicLong failureCount = new AtomicLong();
+        /**
+         * Number of cancelled requests.
+         */
+        public final @NonNull AtomicLong cancelCount = new AtomicLong();
+        /**
+         * Number of retried requests.
+         */
+        public final @NonNull AtomicLong retryCount = new AtomicLong();
+        /**
+         * Number of requests that performed the TLS handshake.
+         */
+        public final @NonNull AtomicLong tlsHandshakeCount = new AtomicLong();
+        /**
+         * Number of requests that performed the abbreviated TLS handshake, resuming a previous session.
+         */
+        public final @NonNull AtomicLong tlsResumedHandshakeCount = new AtomicLong();
+        /**
+         * Number of bytes sent in request bodies.
+         */
+        public final @NonNull AtomicLong requestBytes = new AtomicLong();
+        /**
+         * Number of bytes received in response bodies.
+         */
+        public final @NonNull AtomicLong responseBytes = new AtomicLong();
+        /**
+         * Number of times the circuit breaker protecting the endpoint opened.
+         */
+        public final @NonNull AtomicLong circuitBreakerOpenCount = new AtomicLong();
+        /**
+         * Number of times the circuit breaker protecting the endpoint closed after a successful probe.
+         */
+        public final @NonNull AtomicLong circuitBreakerCloseCount = new AtomicLong();
+
+        /**
+         * Record metrics of one request.
+         * @param metrics Metrics to record.
+         */
+        void record(@NonNull HttpRequestMetrics metrics) {
+            requestCount.incrementAndGet();
+            if (metrics.isCancelled) {
+                cancelCount.incrementAndGet();
+            } else if (metrics.error != null) {
+                failureCount.incrementAndGet();
+            }
+            if (metrics.retryCount > 0) {
+                retryCount.incrementAndGet();
+            }
+            if (metrics.isTlsHandshake) {
+                tlsHandshakeCount.incrementAndGet();
+                if (metrics.isTlsSessionResumed) {
+                    tlsResumedHandshakeCount.incrementAndGet();
+                }
+            }
+            requestBytes.addAndGet(metrics.requestBytes);
+            responseBytes.addAndGet(metrics.responseBytes);
+            totalTime.record(metrics.totalTime);
+            queueWaitTime.record(metrics.queueWaitTime);
+            if (metrics.statusCode != 0) {
+                timeToFirstByte.record(metrics.timeToFirstByte);
+            }
+            final long connectionTime = metrics.connectTime + metrics.tlsHandshakeTime;
+            if (connectionTime > 0) {
+                connectTime.record(connectionTime);
+            }
+        }
+    }
+
+    private final @NonNull ConcurrentHashMap<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private final @Nullable IHttpMetricsListener nextListener;
+
+    /**
+     * Construct the collector.
+     */
+    public HttpMetricsCollector() {
+        this(null);
+    }
+
+    /**
+     * Construct the collector that forwards all metrics to another listener.
+     * @param nextListener Listener that receives all metrics after they're aggregated.
+     */
+    public HttpMetricsCollector(@Nullable IHttpMetricsListener nextListener) {
+        this.nextListener = nextListener;
+    }
+
+    @Override
+    public void onHttpRequestCompleted(@NonNull HttpRequestMetrics metrics) {
+        getOrCreateEndpointMetrics(metrics.endpointClass).record(metrics);
+        if (nextListener != null) {
+            nextListener.onHttpRequestCompleted(metrics);
+        }
+    }
+
+    @Override
+    public void onCircuitBreakerStateChanged(
+            @NonNull Class<?> endpointClass,
+            @NonNull String baseUrl,
+            @NonNull HttpCircuitBreakerState previousState,
+            @NonNull HttpCircuitBreakerState newState) {
+        final EndpointMetrics endpointMetrics = getOrCreateEndpointMetrics(endpointClass);
+        if (newState == HttpCircuitBreakerState.OPEN) {
+            endpointMetrics.circuitBreakerOpenCount.incrementAndGet();
+        } else if (newState == HttpCircuitBreakerState.CLOSED) {
+            endpointMetrics.circuitBreakerCloseCount.incrementAndGet();
+        }
+        if (nextListener != null) {
+            nextListener.onCircuitBreakerStateChanged(endpointClass, baseUrl, previousState, newState);
+        }
+    }
+
+    /**
+     * Get or create aggregated metrics for the endpoint.
+     * @param endpointClass Class of endpoint definition.
+     * @return Aggregated metrics for the endpoint.
+     */
+    @NonNull
+    private EndpointMetrics getOrCreateEndpointMetrics(@NonNull Class<?> endpointClass) {
+        final String key = endpointClass.getName();
+        EndpointMetrics endpointMetrics = endpoints.get(key);
+        if (endpointMetrics == null) {
+            final EndpointMetrics newMetrics = new EndpointMetrics();
+            endpointMetrics = endpoints.putIfAbsent(key, newMetrics);
+            if (endpointMetrics == null) {
+                endpointMetrics = newMetrics;
+            }
+        }
+        return endpointMetrics;
+    }
+
+    /**
+     * Get aggregated metrics for the endpoint.
+     * @param endpointClass Class of endpoint definition.
+     * @return Aggregated metrics or {@code null} if there was no request to such endpoint yet.
+     */
+    @Nullable
+    public EndpointMetrics getEndpointMetrics(@NonNull Class<?> endpointClass) {
+        return endpoints.get(endpointClass.getName());
+    }
+
+    /**
+     * @return Map with aggregated metrics, where the key is the full class name of endpoint definition.
+     */
+    @NonNull
+    public Map<String, EndpointMetrics> getAllEndpointMetrics() {
+        return new HashMap<>(endpoints);
+    }
+}
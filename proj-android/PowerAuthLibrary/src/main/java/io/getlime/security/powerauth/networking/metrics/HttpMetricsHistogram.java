@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.metrics;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The {@code HttpMetricsHistogram} class implements a lock-free histogram with fixed, roughly exponential
+ * buckets for durations in milliseconds. The values can be recorded from multiple threads at the same time
+ * and the histogram can be sampled at any time.
+ */
+public class HttpMetricsHistogram {
+
+    /**
+     * Inclusive upper bounds of buckets in milliseconds. The last bucket collects all larger values.
+     */
+    private static final long[] BUCKET_BOUNDS = {
+            1, 2, 5, 10, 25, 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000, 30_000, Long.MAX_VALUE
+    };
+
+    private final @NonNull AtomicLongArray buckets = new AtomicLongArray(BUCKET_BOUNDS.length);
+    private final @NonNull AtomicLong count = new AtomicLong();
+    private final @NonNull AtomicLong sum = new AtomicLong();
+    private final @NonNull AtomicLong max = new AtomicLong();
+
+    /**
+     * The {@code Snapshot} class contains values of the histogram captured at some point in time.
+     */
+    public static class Snapshot {
+        /**
+         * Inclusive upper bounds of buckets in milliseconds.
+         */
+        public final @NonNull long[] bucketBounds;
+        /**
+         * Number of values in each bucket.
+         */
+        public final @NonNull long[] bucketCounts;
+        /**
+         * Number of all recorded values.
+         */
+        public final long count;
+        /**
+         * Sum of all recorded values.
+         */
+        public final long sum;
+        /**
+         * Maximum recorded value.
+         */
+        public final long max;
+
+        Snapshot(@NonNull long[] bucketCounts, long count, long sum, long max) {
+            this.bucketBounds = BUCKET_BOUNDS.clone();
+            this.bucketCounts = bucketCounts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        /**
+         * @return Average of recorded values or 0 if there's no value.
+         */
+        public double getAverage() {
+            return count > 0 ? (double) sum / count : 0;
+        }
+
+        /**
+         * Get an upper estimate of the value at the given percentile.
+         *
+         * @param percentile Percentile in range 0.0 to 100.0.
+         * @return Upper bound of the bucket that contains the percentile, or the maximum recorded value if
+         *         the percentile falls into the last bucket. Returns 0 if there's no value.
+         */
+        public long getPercentile(double percentile) {
+            long total = 0;
+            for (long bucketCount : bucketCounts) {
+                total += bucketCount;
+            }
+            if (total == 0) {
+                return 0;
+            }
+            final double threshold = total * Math.max(0.0, Math.min(percentile, 100.0)) / 100.0;
+            long accumulated = 0;
+            for (int i = 0; i < bucketCounts.length; i++) {
+                accumulated += bucketCounts[i];
+                if (accumulated >= threshold && bucketCounts[i] > 0) {
+                    return Math.min(bucketBounds[i], max);
+                }
+            }
+            return max;
+        }
+    }
+
+    /**
+     * Record a new value.
+     * @param value Value in milliseconds. Negative values are recorded as 0.
+     */
+    public void record(long value) {
+        final long v = Math.max(0, value);
+        int index = 0;
+        while (v > BUCKET_BOUNDS[index]) {
+            index++;
+        }
+        buckets.incrementAndGet(index);
+        count.incrementAndGet();
+        sum.addAndGet(v);
+        long currentMax;
+        do {
+            currentMax = max.get();
+        } while (v > currentMax && !max.compareAndSet(currentMax, v));
+    }
+
+    /**
+     * Capture the current values of the histogram.
+     *
+     * @param reset If {@code true}, then the histogram is reset after the capture. The values recorded
+     *              concurrently with the reset are not lost, but may be reported in the next snapshot.
+     * @return Snapshot with the histogram values.
+     */
+    @NonNull
+    public Snapshot getSnapshot(boolean reset) {
+        final long[] counts = new long[BUCKET_BOUNDS.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = reset ? buckets.getAndSet(i, 0) : buckets.get(i);
+        }
+        if (reset) {
+            return new Snapshot(counts, count.getAndSet(0), sum.getAndSet(0), max.getAndSet(0));
+        }
+        return new Snapshot(counts, count.get(), sum.get(), max.get());
+    }
+}
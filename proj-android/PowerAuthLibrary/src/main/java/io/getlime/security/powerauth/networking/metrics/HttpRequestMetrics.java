@@ -0,0 +1,181 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.metrics;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * The {@code HttpRequestMetrics} class contains information collected during one HTTP request. All durations
+ * are in milliseconds. If the request didn't reach a particular phase, then the duration of such phase is 0.
+ */
+public class HttpRequestMetrics {
+
+    /**
+     * Class of endpoint definition.
+     */
+    public final @NonNull Class<?> endpointClass;
+    /**
+     * HTTP method.
+     */
+    public final @NonNull String httpMethod;
+    /**
+     * Relative path to the endpoint.
+     */
+    public final @NonNull String relativePath;
+    /**
+     * Tag applied to the networking thread with {@link android.net.TrafficStats#setThreadStatsTag(int)}.
+     */
+    public final int trafficStatsTag;
+    /**
+     * Time between the request creation and the start of the request processing on the networking thread.
+     * The time includes possible waiting for other signed requests.
+     */
+    public final long queueWaitTime;
+    /**
+     * Time spent by establishing the TCP connection. The value is 0 if the pooled connection was reused.
+     */
+    public final long connectTime;
+    /**
+     * Time spent by the TLS handshake. The value is 0 if the pooled connection was reused, or if the handshake
+     * time cannot be measured separately. In such case, the handshake time is included in {@link #connectTime}.
+     */
+    public final long tlsHandshakeTime;
+    /**
+     * {@code true} if the request opened a new TLS connection, {@code false} if the pooled connection was reused
+     * or if the connection is not secured.
+     */
+    public final boolean isTlsHandshake;
+    /**
+     * {@code true} if the TLS handshake resumed a previous TLS session, so the abbreviated handshake was performed.
+     */
+    public final boolean isTlsSessionResumed;
+    /**
+     * Time between the established connection and the received response headers. The time includes
+     * the request body upload.
+     */
+    public final long timeToFirstByte;
+    /**
+     * Total time of the request processing on the networking thread.
+     */
+    public final long totalTime;
+    /**
+     * Number of bytes in the request body, as transferred over the network.
+     */
+    public final long requestBytes;
+    /**
+     * Number of bytes in the response body, as transferred over the network. If the response is compressed, then
+     * the value is the size of the compressed body.
+     */
+    public final long responseBytes;
+    /**
+     * HTTP status code or 0 if no response was received.
+     */
+    public final int statusCode;
+    /**
+     * {@code true} if the request uses ECIES encryption.
+     */
+    public final boolean isEncrypted;
+    /**
+     * {@code true} if the request is signed with PowerAuth signature.
+     */
+    public final boolean isSigned;
+    /**
+     * Number of previous attempts to execute the same request.
+     */
+    public final int retryCount;
+    /**
+     * {@code true} if the request was cancelled. If the request was cancelled before its processing started,
+     * then all times except the queue wait time and all counters are zero.
+     */
+    public final boolean isCancelled;
+    /**
+     * Failure in case that request failed.
+     */
+    public final @Nullable Throwable error;
+
+    /**
+     * Construct metrics object. The constructor is used internally by the SDK.
+     *
+     * @param endpointClass Class of endpoint definition.
+     * @param httpMethod HTTP method.
+     * @param relativePath Relative path to the endpoint.
+     * @param trafficStatsTag Tag applied to the networking thread.
+     * @param queueWaitTime Time before the request processing started.
+     * @param connectTime Time spent by establishing the TCP connection.
+     * @param tlsHandshakeTime Time spent by the TLS handshake.
+     * @param isTlsHandshake Request opened a new TLS connection.
+     * @param isTlsSessionResumed TLS handshake resumed a previous session.
+     * @param timeToFirstByte Time between the established connection and the received response headers.
+     * @param totalTime Total time of the request processing.
+     * @param requestBytes Number of bytes in the request body.
+     * @param responseBytes Number of bytes in the response body.
+     * @param statusCode HTTP status code.
+     * @param isEncrypted Request uses ECIES encryption.
+     * @param isSigned Request is signed with PowerAuth signature.
+     * @param retryCount Number of previous attempts.
+     * @param isCancelled Request was cancelled.
+     * @param error Optional failure.
+     */
+    public HttpRequestMetrics(
+            @NonNull Class<?> endpointClass,
+            @NonNull String httpMethod,
+            @NonNull String relativePath,
+            int trafficStatsTag,
+            long queueWaitTime,
+            long connectTime,
+            long tlsHandshakeTime,
+            boolean isTlsHandshake,
+            boolean isTlsSessionResumed,
+            long timeToFirstByte,
+            long totalTime,
+            long requestBytes,
+            long responseBytes,
+            int statusCode,
+            boolean isEncrypted,
+            boolean isSigned,
+            int retryCount,
+            boolean isCancelled,
+            @Nullable Throwable error) {
+        this.endpointClass = endpointClass;
+        this.httpMethod = httpMethod;
+        this.relativePath = relativePath;
+        this.trafficStatsTag = trafficStatsTag;
+        this.queueWaitTime = queueWaitTime;
+        this.connectTime = connectTime;
+        this.tlsHandshakeTime = tlsHandshakeTime;
+        this.isTlsHandshake = isTlsHandshake;
+        this.isTlsSessionResumed = isTlsSessionResumed;
+        this.timeToFirstByte = timeToFirstByte;
+        this.totalTime = totalTime;
+        this.requestBytes = requestBytes;
+        this.responseBytes = responseBytes;
+        this.statusCode = statusCode;
+        this.isEncrypted = isEncrypted;
+        this.isSigned = isSigned;
+        this.retryCount = retryCount;
+        this.isCancelled = isCancelled;
+        this.error = error;
+    }
+
+    /**
+     * @return {@code true} if the request succeeded.
+     */
+    public boolean isSuccess() {
+        return error == null && !isCancelled;
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.response;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import io.getlime.security.powerauth.core.ActivationStatus;
+
+/**
+ * Listener for activation status changes, reported by {@code PowerAuthActivationStatusMonitor}.
+ */
+public interface IActivationStatusChangeListener {
+
+    /**
+     * Called when the monitor receives activation status that is different from the previously
+     * received one. The first received status is always reported.
+     *
+     * @param status New activation status.
+     */
+    @MainThread
+    void onActivationStatusChanged(@NonNull ActivationStatus status);
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.response;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+import io.getlime.security.powerauth.sdk.PowerAuthSDK;
+
+/**
+ * Listener for asynchronous {@link PowerAuthSDK} instance creation.
+ */
+public interface IBuildPowerAuthSDKListener {
+    /**
+     * Called when the instance of {@link PowerAuthSDK} is successfully created.
+     *
+     * @param powerAuthSDK Created instance of {@link PowerAuthSDK}.
+     */
+    @MainThread
+    void onBuildSucceeded(@NonNull PowerAuthSDK powerAuthSDK);
+
+    /**
+     * Called when the instance of {@link PowerAuthSDK} cannot be created.
+     *
+     * @param t error occurred during the operation
+     */
+    @MainThread
+    void onBuildFailed(@NonNull Throwable t);
+}
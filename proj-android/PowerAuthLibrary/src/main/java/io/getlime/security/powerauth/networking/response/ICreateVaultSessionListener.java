@@ -0,0 +1,42 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.response;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import io.getlime.security.powerauth.sdk.PowerAuthVaultSession;
+
+/**
+ * Listener for vault session creation.
+ */
+public interface ICreateVaultSessionListener {
+    /**
+     * Called when the vault is unlocked and the session is created.
+     *
+     * @param vaultSession New vault session.
+     */
+    @MainThread
+    void onCreateVaultSessionSucceed(@NonNull PowerAuthVaultSession vaultSession);
+
+    /**
+     * Called when the vault unlock fails.
+     *
+     * @param t error that occurred during the vault unlock.
+     */
+    @MainThread
+    void onCreateVaultSessionFailed(@NonNull Throwable t);
+}
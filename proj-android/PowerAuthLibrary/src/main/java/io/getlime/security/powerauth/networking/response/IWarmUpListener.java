@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.networking.response;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+
+/**
+ * Listener for SDK warm-up.
+ */
+public interface IWarmUpListener {
+    /**
+     * Called when all preparations succeeded.
+     */
+    @MainThread
+    void onWarmUpSucceeded();
+
+    /**
+     * Called when all preparations are finished and at least one of them failed. The failed preparation
+     * is performed again, on demand, when the SDK needs its result.
+     *
+     * @param t first error occurred during the operation
+     */
+    @MainThread
+    void onWarmUpFailed(@NonNull Throwable t);
+}
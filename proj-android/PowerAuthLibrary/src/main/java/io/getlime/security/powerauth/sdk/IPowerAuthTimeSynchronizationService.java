@@ -18,6 +18,7 @@ package io.getlime.security.powerauth.sdk;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.networking.client.HttpDeadline;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 import io.getlime.security.powerauth.networking.response.ITimeSynchronizationListener;
 
@@ -56,6 +57,16 @@ public interface IPowerAuthTimeSynchronizationService {
      */
     @Nullable ICancelable synchronizeTime(@NonNull ITimeSynchronizationListener listener);
 
+    /**
+     * Synchronize the local with the time on the server, with the deadline applied to the underlying HTTP request.
+     * @param deadline Optional deadline of the operation. If {@code null}, then the default deadline is used.
+     * @param listener Listener to call once the operation is completed.
+     * @return Cancelable object associated with underlying HTTP request.
+     */
+    default @Nullable ICancelable synchronizeTime(@Nullable HttpDeadline deadline, @NonNull ITimeSynchronizationListener listener) {
+        return synchronizeTime(listener);
+    }
+
     /**
      * Reset the time synchronization. The time must be synchronized again after this call.
      */
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.sdk;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.core.ActivationStatus;
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.interfaces.ICancelable;
+import io.getlime.security.powerauth.networking.response.IActivationStatusChangeListener;
+import io.getlime.security.powerauth.networking.response.IActivationStatusListener;
+import io.getlime.security.powerauth.system.PowerAuthLog;
+
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * The {@code PowerAuthActivationStatusMonitor} class periodically fetches the activation status in the background
+ * and notifies registered listeners only when the status actually changes. You can get the instance of monitor
+ * from {@link PowerAuthSDK#getActivationStatusMonitor()}.
+ * <p>
+ * The polling interval is adaptive. The monitor polls with the minimum interval after the start, after the application
+ * returns to the foreground, after the status change, or after {@link #reportSignatureFailure()} is called. If the
+ * status doesn't change, then the interval is doubled up to the maximum interval. The status is fetched with
+ * {@link PowerAuthSDK#fetchActivationStatusWithCallback(Context, IActivationStatusListener)}, so the request is shared
+ * with other status requests issued by the application at the same time.
+ * <p>
+ * The monitor is automatically paused when the application goes to the background and resumed when the application
+ * returns to the foreground. The monitor is stopped when there's no activation.
+ * <p>
+ * The periodic polls are background requests, so they can be deferred and batched with other requests if
+ * {@link PowerAuthClientConfiguration.Builder#deferredRequestWindow(long)} is configured.
+ */
+public class PowerAuthActivationStatusMonitor {
+
+    /**
+     * Default minimum polling interval in milliseconds.
+     */
+    public static final long DEFAULT_MIN_INTERVAL = 10_000;
+    /**
+     * Default maximum polling interval in milliseconds.
+     */
+    public static final long DEFAULT_MAX_INTERVAL = 300_000;
+
+    private final @NonNull PowerAuthSDK powerAuthSDK;
+    private final @NonNull Handler handler;
+    private final @NonNull ArrayList<IActivationStatusChangeListener> listeners = new ArrayList<>();
+    private final @NonNull Runnable pollRunnable = this::poll;
+    private final @NonNull Runnable deferredPollRunnable = this::deferPoll;
+
+    private @Nullable Context appContext;
+    private long minInterval = DEFAULT_MIN_INTERVAL;
+    private long maxInterval = DEFAULT_MAX_INTERVAL;
+    private long currentInterval = DEFAULT_MIN_INTERVAL;
+    private boolean isStarted;
+    private boolean isInBackground;
+    private boolean isPolling;
+    private int pollCounter;
+    private @Nullable ICancelable pendingFetch;
+    private @Nullable ICancelable pendingDeferredPoll;
+    private @Nullable ActivationStatus lastStatus;
+
+    /**
+     * Construct the monitor for {@link PowerAuthSDK} instance.
+     * @param powerAuthSDK Instance of {@link PowerAuthSDK}.
+     */
+    PowerAuthActivationStatusMonitor(@NonNull PowerAuthSDK powerAuthSDK) {
+        this.powerAuthSDK = powerAuthSDK;
+        this.handler = new Handler(Looper.getMainLooper());
+    }
+
+    /**
+     * Add listener for the activation status changes.
+     * @param listener Listener to add.
+     */
+    public void addListener(@NonNull IActivationStatusChangeListener listener) {
+        synchronized (this) {
+            if (!listeners.contains(listener)) {
+                listeners.add(listener);
+            }
+        }
+    }
+
+    /**
+     * Remove previously added listener.
+     * @param listener Listener to remove.
+     */
+    public void removeListener(@NonNull IActivationStatusChangeListener listener) {
+        synchronized (this) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Set minimum and maximum polling interval. The change is applied to the next scheduled poll.
+     *
+     * @param minInterval Minimum polling interval in milliseconds.
+     * @param maxInterval Maximum polling interval in milliseconds.
+     * @throws IllegalArgumentException In case that minimum interval is not positive, or is greater than maximum interval.
+     */
+    public void setPollingIntervals(long minInterval, long maxInterval) {
+        if (minInterval <= 0 || minInterval > maxInterval) {
+            throw new IllegalArgumentException("Invalid polling intervals");
+        }
+        synchronized (this) {
+            this.minInterval = minInterval;
+            this.maxInterval = maxInterval;
+            this.currentInterval = Math.max(minInterval, Math.min(currentInterval, maxInterval));
+        }
+    }
+
+    /**
+     * Start monitoring. The first status is fetched immediately. If the monitor is already started, then
+     * the call is ignored.
+     *
+     * @param context Android context.
+     */
+    public void start(@NonNull Context context) {
+        final Context applicationContext = context.getApplicationContext();
+        // Register outside of the monitor's lock, because the lifecycle listener calls the monitor back.
+        PowerAuthAppLifecycleListener.getInstance().registerActivationStatusMonitor(applicationContext, this);
+        synchronized (this) {
+            if (isStarted) {
+                return;
+            }
+            isStarted = true;
+            appContext = applicationContext;
+            currentInterval = minInterval;
+            scheduleNextPoll(0);
+        }
+    }
+
+    /**
+     * Stop monitoring and cancel possible pending status fetch.
+     */
+    public void stop() {
+        final ICancelable fetchToCancel;
+        synchronized (this) {
+            isStarted = false;
+            fetchToCancel = cancelPendingOperations();
+        }
+        cancelFetch(fetchToCancel);
+    }
+
+    /**
+     * @return {@code true} if monitoring is started. Note that the monitor doesn't poll while the application
+     *         is in the background.
+     */
+    public boolean isStarted() {
+        synchronized (this) {
+            return isStarted;
+        }
+    }
+
+    /**
+     * @return Last activation status received by the monitor or {@code null} if no status was received yet.
+     */
+    @Nullable
+    public ActivationStatus getLastStatus() {
+        synchronized (this) {
+            return lastStatus;
+        }
+    }
+
+    /**
+     * Report that the server rejected the signature calculated by the application. A failed signature may indicate
+     * that the activation has been blocked, so the monitor polls the status with the minimum interval.
+     */
+    public void reportSignatureFailure() {
+        synchronized (this) {
+            currentInterval = minInterval;
+            if (isStarted && !isInBackground && !isPolling) {
+                scheduleNextPoll(0);
+            }
+        }
+    }
+
+    // Internal interfaces
+
+    /**
+     * Called when the application goes to the background. The polling is paused.
+     */
+    void onApplicationDidEnterBackground() {
+        final ICancelable fetchToCancel;
+        synchronized (this) {
+            isInBackground = true;
+            fetchToCancel = cancelPendingOperations();
+        }
+        cancelFetch(fetchToCancel);
+    }
+
+    /**
+     * Called when the application returns to the foreground. The polling is resumed with the minimum interval.
+     */
+    void onApplicationDidEnterForeground() {
+        ICancelable fetchToCancel = null;
+        synchronized (this) {
+            isInBackground = false;
+            if (isStarted) {
+                currentInterval = minInterval;
+                fetchToCancel = cancelPendingOperations();
+                scheduleNextPoll(0);
+            }
+        }
+        cancelFetch(fetchToCancel);
+    }
+
+    /**
+     * Called when the activation is removed. The monitor is stopped and the last status is forgotten.
+     */
+    void onActivationRemoved() {
+        final ICancelable fetchToCancel;
+        synchronized (this) {
+            isStarted = false;
+            lastStatus = null;
+            fetchToCancel = cancelPendingOperations();
+        }
+        cancelFetch(fetchToCancel);
+    }
+
+    // Private methods
+
+    /**
+     * Schedule next poll. The function must be called in synchronized block.
+     * @param delay Delay in milliseconds.
+     */
+    private void scheduleNextPoll(long delay) {
+        removeScheduledPoll();
+        if (isStarted && !isInBackground) {
+            if (delay > 0) {
+                // Periodic poll, can be deferred to the next batch of background requests.
+                handler.postDelayed(deferredPollRunnable, delay);
+            } else {
+                handler.post(pollRunnable);
+            }
+        }
+    }
+
+    /**
+     * Remove scheduled poll, including the poll waiting in the deferred task scheduler. The function must
+     * be called in synchronized block.
+     */
+    private void removeScheduledPoll() {
+        handler.removeCallbacks(pollRunnable);
+        handler.removeCallbacks(deferredPollRunnable);
+        if (pendingDeferredPoll != null) {
+            pendingDeferredPoll.cancel();
+            pendingDeferredPoll = null;
+        }
+    }
+
+    /**
+     * Cancel scheduled poll and detach pending status fetch. The function must be called in synchronized block.
+     * The returned fetch must be canceled with {@link #cancelFetch(ICancelable)} after the lock is released,
+     * because the cancel acquires the lock of {@link PowerAuthSDK} and the SDK calls the monitor while holding
+     * its own lock.
+     *
+     * @return Pending status fetch to cancel or {@code null} if there's no such fetch.
+     */
+    @Nullable
+    private ICancelable cancelPendingOperations() {
+        removeScheduledPoll();
+        isPolling = false;
+        pollCounter++;
+        final ICancelable fetchToCancel = pendingFetch;
+        pendingFetch = null;
+        return fetchToCancel;
+    }
+
+    /**
+     * Cancel status fetch detached by {@link #cancelPendingOperations()}. The function must be called outside
+     * of synchronized block.
+     *
+     * @param fetch Fetch to cancel, or {@code null}.
+     */
+    private static void cancelFetch(@Nullable ICancelable fetch) {
+        if (fetch != null) {
+            fetch.cancel();
+        }
+    }
+
+    /**
+     * Pass the periodic poll to the deferred task scheduler.
+     */
+    private void deferPoll() {
+        synchronized (this) {
+            if (!isStarted || isInBackground || isPolling) {
+                return;
+            }
+        }
+        // The poll may be executed immediately, so don't hold the lock while scheduling.
+        final ICancelable deferredPoll = powerAuthSDK.scheduleDeferredTask(pollRunnable);
+        synchronized (this) {
+            if (!deferredPoll.isCancelled()) {
+                pendingDeferredPoll = deferredPoll;
+            }
+        }
+    }
+
+    /**
+     * Fetch the activation status.
+     */
+    private void poll() {
+        final Context context;
+        final int pollId;
+        synchronized (this) {
+            if (!isStarted || isInBackground || isPolling || appContext == null) {
+                return;
+            }
+            context = appContext;
+            pendingDeferredPoll = null;
+            isPolling = true;
+            pollId = ++pollCounter;
+        }
+        final ICancelable operation = powerAuthSDK.fetchActivationStatusWithCallback(context, new IActivationStatusListener() {
+            @Override
+            public void onActivationStatusSucceed(ActivationStatus status) {
+                onPollCompleted(pollId, status, null);
+            }
+
+            @Override
+            public void onActivationStatusFailed(@NonNull Throwable t) {
+                onPollCompleted(pollId, null, t);
+            }
+        });
+        synchronized (this) {
+            // Keep the operation only if it's still running.
+            if (isPolling && pollId == pollCounter) {
+                pendingFetch = operation;
+            }
+        }
+    }
+
+    /**
+     * Process the result of the status fetch.
+     * @param pollId Identifier of poll operation.
+     * @param status Activation status in case of success.
+     * @param failure Failure in case of error.
+     */
+    private void onPollCompleted(int pollId, @Nullable ActivationStatus status, @Nullable Throwable failure) {
+        final ArrayList<IActivationStatusChangeListener> listenersToNotify;
+        synchronized (this) {
+            if (!isPolling || pollId != pollCounter) {
+                // Result from already cancelled operation.
+                return;
+            }
+            isPolling = false;
+            pendingFetch = null;
+            if (status == null) {
+                if (failure instanceof PowerAuthErrorException) {
+                    final int errorCode = ((PowerAuthErrorException) failure).getPowerAuthErrorCode();
+                    if (errorCode == PowerAuthErrorCodes.MISSING_ACTIVATION || errorCode == PowerAuthErrorCodes.PENDING_ACTIVATION) {
+                        PowerAuthLog.d("ActivationStatusMonitor: There's no activation, stopping the monitor.");
+                        isStarted = false;
+                        return;
+                    }
+                }
+                // Back off also in case of failure, to do not overload the server.
+                currentInterval = Math.min(currentInterval * 2, maxInterval);
+                scheduleNextPoll(currentInterval);
+                return;
+            }
+            final boolean isChanged = lastStatus == null || !isEqualStatus(lastStatus, status);
+            lastStatus = status;
+            if (isChanged) {
+                currentInterval = minInterval;
+                listenersToNotify = new ArrayList<>(listeners);
+            } else {
+                currentInterval = Math.min(currentInterval * 2, maxInterval);
+                listenersToNotify = null;
+            }
+            scheduleNextPoll(currentInterval);
+        }
+        if (listenersToNotify != null) {
+            for (IActivationStatusChangeListener listener : listenersToNotify) {
+                listener.onActivationStatusChanged(status);
+            }
+        }
+    }
+
+    /**
+     * Compare two activation statuses.
+     * @param s1 First status to compare.
+     * @param s2 Second status to compare.
+     * @return {@code true} if both statuses contains the same information.
+     */
+    private static boolean isEqualStatus(@NonNull ActivationStatus s1, @NonNull ActivationStatus s2) {
+        return s1.state == s2.state &&
+                s1.failCount == s2.failCount &&
+                s1.maxFailCount == s2.maxFailCount &&
+                s1.currentVersion == s2.currentVersion &&
+                s1.upgradeVersion == s2.upgradeVersion &&
+                s1.isUpgradeAvailable == s2.isUpgradeAvailable &&
+                s1.isSignatureCalculationRecommended == s2.isSignatureCalculationRecommended &&
+                Objects.equals(s1.getCustomObject(), s2.getCustomObject());
+    }
+}
@@ -26,10 +26,15 @@ import io.getlime.security.powerauth.system.PowerAuthLog;
 
 import java.lang.ref.WeakReference;
 import java.util.ArrayList;
+import java.util.HashSet;
 
 /**
  * The {@code PowerAuthAppLifecycleListener} is a global listener that provides information about application's lifecycle
  * to PowerAuth mobile SDK.
+ * <p>
+ * The registered objects are notified outside of the listener's lock, so they can call back to this listener.
+ * An activity restarted due to the configuration change, such as the screen rotation, doesn't cause the transition
+ * to the background.
  */
 public class PowerAuthAppLifecycleListener implements Application.ActivityLifecycleCallbacks {
 
@@ -111,23 +116,193 @@ public class PowerAuthAppLifecycleListener implements Application.ActivityLifecy
         }
     }
 
-    private void resetTimeSynchronizationServices(boolean wasStartedBefore) {
-        if (!wasStartedBefore) {
-            // Application just started, we don't need to reset the service.
-            return;
-        }
-        // Iterate over all weak references and reset the time service
+    /**
+     * Collect time synchronization services for reset and remove references to already released services.
+     * The function must be called in synchronized block.
+     * @return List of services to reset.
+     */
+    @NonNull
+    private ArrayList<IPowerAuthTimeSynchronizationService> collectTimeSynchronizationServices() {
+        final ArrayList<IPowerAuthTimeSynchronizationService> services = new ArrayList<>();
         final ArrayList<WeakReference<IPowerAuthTimeSynchronizationService>> referencesToRemove = new ArrayList<>();
         for (WeakReference<IPowerAuthTimeSynchronizationService> weakReference : registeredServices) {
             final IPowerAuthTimeSynchronizationService service = weakReference.get();
             if (service != null) {
-                service.resetTimeSynchronization();
+                services.add(service);
             } else {
                 referencesToRemove.add(weakReference);
             }
         }
         // Cleanup all references that no longer contains valid service
         registeredServices.removeAll(referencesToRemove);
+        return services;
+    }
+
+    /**
+     * Authentication sessions registered for invalidation.
+     */
+    private final ArrayList<WeakReference<PowerAuthAuthenticationSession>> registeredAuthenticationSessions = new ArrayList<>();
+
+    /**
+     * Register instance of {@link PowerAuthAuthenticationSession} for invalidation in case that app is going from
+     * foreground to background.
+     * @param appContext Application's context.
+     * @param session Authentication session.
+     */
+    void registerAuthenticationSession(@NonNull Context appContext, @NonNull PowerAuthAuthenticationSession session) {
+        synchronized (this) {
+            registerForActivityLifecycleCallbacksImpl(appContext);
+            // Remove references to already released sessions
+            final ArrayList<WeakReference<PowerAuthAuthenticationSession>> referencesToRemove = new ArrayList<>();
+            for (WeakReference<PowerAuthAuthenticationSession> weakReference : registeredAuthenticationSessions) {
+                if (weakReference.get() == null) {
+                    referencesToRemove.add(weakReference);
+                }
+            }
+            registeredAuthenticationSessions.removeAll(referencesToRemove);
+            registeredAuthenticationSessions.add(new WeakReference<>(session));
+        }
+    }
+
+    /**
+     * Vault sessions registered for invalidation.
+     */
+    private final ArrayList<WeakReference<PowerAuthVaultSession>> registeredVaultSessions = new ArrayList<>();
+
+    /**
+     * Register instance of {@link PowerAuthVaultSession} for invalidation in case that app is going from
+     * foreground to background.
+     * @param appContext Application's context.
+     * @param session Vault session.
+     */
+    void registerVaultSession(@NonNull Context appContext, @NonNull PowerAuthVaultSession session) {
+        synchronized (this) {
+            registerForActivityLifecycleCallbacksImpl(appContext);
+            // Remove references to already released sessions
+            final ArrayList<WeakReference<PowerAuthVaultSession>> referencesToRemove = new ArrayList<>();
+            for (WeakReference<PowerAuthVaultSession> weakReference : registeredVaultSessions) {
+                if (weakReference.get() == null) {
+                    referencesToRemove.add(weakReference);
+                }
+            }
+            registeredVaultSessions.removeAll(referencesToRemove);
+            registeredVaultSessions.add(new WeakReference<>(session));
+        }
+    }
+
+    /**
+     * Collect all registered authentication and vault sessions and forget them, because they're going to be
+     * invalidated. The function must be called in synchronized block.
+     * @return List of invalidation tasks.
+     */
+    @NonNull
+    private ArrayList<Runnable> collectSessionsForInvalidation() {
+        final ArrayList<Runnable> invalidations = new ArrayList<>();
+        for (WeakReference<PowerAuthAuthenticationSession> weakReference : registeredAuthenticationSessions) {
+            final PowerAuthAuthenticationSession session = weakReference.get();
+            if (session != null) {
+                invalidations.add(session::onApplicationDidEnterBackground);
+            }
+        }
+        registeredAuthenticationSessions.clear();
+        for (WeakReference<PowerAuthVaultSession> weakReference : registeredVaultSessions) {
+            final PowerAuthVaultSession session = weakReference.get();
+            if (session != null) {
+                invalidations.add(session::onApplicationDidEnterBackground);
+            }
+        }
+        registeredVaultSessions.clear();
+        return invalidations;
+    }
+
+    /**
+     * Activation status monitors registered for pause and resume.
+     */
+    private final ArrayList<WeakReference<PowerAuthActivationStatusMonitor>> registeredStatusMonitors = new ArrayList<>();
+
+    /**
+     * Register instance of {@link PowerAuthActivationStatusMonitor} to pause polling in case that app is going from
+     * foreground to background and resume polling when app is going back to foreground.
+     * @param appContext Application's context.
+     * @param monitor Activation status monitor.
+     */
+    void registerActivationStatusMonitor(@NonNull Context appContext, @NonNull PowerAuthActivationStatusMonitor monitor) {
+        synchronized (this) {
+            registerForActivityLifecycleCallbacksImpl(appContext);
+            final ArrayList<WeakReference<PowerAuthActivationStatusMonitor>> referencesToRemove = new ArrayList<>();
+            for (WeakReference<PowerAuthActivationStatusMonitor> weakReference : registeredStatusMonitors) {
+                final PowerAuthActivationStatusMonitor registeredMonitor = weakReference.get();
+                if (registeredMonitor == monitor) {
+                    // Already registered
+                    return;
+                }
+                if (registeredMonitor == null) {
+                    referencesToRemove.add(weakReference);
+                }
+            }
+            registeredStatusMonitors.removeAll(referencesToRemove);
+            registeredStatusMonitors.add(new WeakReference<>(monitor));
+        }
+    }
+
+    /**
+     * Collect notifications for all registered activation status monitors about the application's transition.
+     * The function must be called in synchronized block.
+     * @param isForeground {@code true} if application is going to foreground.
+     * @param notifications List where the notifications are added.
+     */
+    private void collectActivationStatusMonitorNotifications(boolean isForeground, @NonNull ArrayList<Runnable> notifications) {
+        for (WeakReference<PowerAuthActivationStatusMonitor> weakReference : registeredStatusMonitors) {
+            final PowerAuthActivationStatusMonitor monitor = weakReference.get();
+            if (monitor != null) {
+                notifications.add(isForeground ? monitor::onApplicationDidEnterForeground : monitor::onApplicationDidEnterBackground);
+            }
+        }
+    }
+
+    /**
+     * SDK instances registered for automatic warm-up.
+     */
+    private final ArrayList<WeakReference<PowerAuthSDK>> registeredWarmUpInstances = new ArrayList<>();
+
+    /**
+     * Register instance of {@link PowerAuthSDK} to start the automatic warm-up in case that app is going from
+     * background to foreground and to cancel the pending warm-up when app is going to background.
+     * @param appContext Application's context.
+     * @param powerAuthSDK Instance of {@link PowerAuthSDK}.
+     */
+    void registerAutomaticWarmUp(@NonNull Context appContext, @NonNull PowerAuthSDK powerAuthSDK) {
+        synchronized (this) {
+            registerForActivityLifecycleCallbacksImpl(appContext);
+            final ArrayList<WeakReference<PowerAuthSDK>> referencesToRemove = new ArrayList<>();
+            for (WeakReference<PowerAuthSDK> weakReference : registeredWarmUpInstances) {
+                final PowerAuthSDK registeredInstance = weakReference.get();
+                if (registeredInstance == powerAuthSDK) {
+                    // Already registered
+                    return;
+                }
+                if (registeredInstance == null) {
+                    referencesToRemove.add(weakReference);
+                }
+            }
+            registeredWarmUpInstances.removeAll(referencesToRemove);
+            registeredWarmUpInstances.add(new WeakReference<>(powerAuthSDK));
+        }
+    }
+
+    /**
+     * Collect notifications for all SDK instances registered for automatic warm-up about the application's transition.
+     * The function must be called in synchronized block.
+     * @param isForeground {@code true} if application is going to foreground.
+     * @param notifications List where the notifications are added.
+     */
+    private void collectWarmUpNotifications(boolean isForeground, @NonNull ArrayList<Runnable> notifications) {
+        for (WeakReference<PowerAuthSDK> weakReference : registeredWarmUpInstances) {
+            final PowerAuthSDK powerAuthSDK = weakReference.get();
+            if (powerAuthSDK != null) {
+                notifications.add(isForeground ? powerAuthSDK::onApplicationDidEnterForeground : powerAuthSDK::onApplicationDidEnterBackground);
+            }
+        }
     }
 
     // Transitions
@@ -137,8 +312,34 @@ public class PowerAuthAppLifecycleListener implements Application.ActivityLifecy
      * @param wasStartedBefore Contains false if this is a fresh start.
      */
     private void onTransitionFromBackgroundToForeground(boolean wasStartedBefore) {
+        final ArrayList<IPowerAuthTimeSynchronizationService> services;
+        final ArrayList<Runnable> notifications = new ArrayList<>();
+        synchronized (this) {
+            // If application just started, then we don't need to reset the time services.
+            services = wasStartedBefore ? collectTimeSynchronizationServices() : new ArrayList<>();
+            collectActivationStatusMonitorNotifications(true, notifications);
+            collectWarmUpNotifications(true, notifications);
+        }
+        for (IPowerAuthTimeSynchronizationService service : services) {
+            service.resetTimeSynchronization();
+        }
+        for (Runnable notification : notifications) {
+            notification.run();
+        }
+    }
+
+    /**
+     * Called when application is transitioning from foreground to background.
+     */
+    private void onTransitionFromForegroundToBackground() {
+        final ArrayList<Runnable> notifications;
         synchronized (this) {
-            resetTimeSynchronizationServices(wasStartedBefore);
+            notifications = collectSessionsForInvalidation();
+            collectActivationStatusMonitorNotifications(false, notifications);
+            collectWarmUpNotifications(false, notifications);
+        }
+        for (Runnable notification : notifications) {
+            notification.run();
         }
     }
 
@@ -149,9 +350,13 @@ public class PowerAuthAppLifecycleListener implements Application.ActivityLifecy
      */
     private boolean wasStartedBefore = false;
     /**
-     * Number of activities started.
+     * Identities of started activities. The activities are not referenced directly to do not leak them.
+     */
+    private final HashSet<Integer> startedActivities = new HashSet<>();
+    /**
+     * Contains true if the last stopped activity is going to be recreated due to the configuration change.
      */
-    private int numActivitiesStarted = 0;
+    private boolean isChangingConfigurations = false;
 
     @Override
     public void onActivityCreated(@NonNull Activity activity, @Nullable Bundle savedInstanceState) {
@@ -159,10 +364,18 @@ public class PowerAuthAppLifecycleListener implements Application.ActivityLifecy
 
     @Override
     public void onActivityStarted(@NonNull Activity activity) {
-        if (numActivitiesStarted == 0) {
-            onTransitionFromBackgroundToForeground(wasStartedBefore);
+        final boolean isTransition;
+        final boolean wasStarted;
+        synchronized (this) {
+            // The activity recreated after the configuration change doesn't change the application's state.
+            isTransition = startedActivities.isEmpty() && !isChangingConfigurations;
+            isChangingConfigurations = false;
+            startedActivities.add(System.identityHashCode(activity));
+            wasStarted = wasStartedBefore;
+        }
+        if (isTransition) {
+            onTransitionFromBackgroundToForeground(wasStarted);
         }
-        numActivitiesStarted++;
     }
 
     @Override
@@ -175,9 +388,19 @@ public class PowerAuthAppLifecycleListener implements Application.ActivityLifecy
 
     @Override
     public void onActivityStopped(@NonNull Activity activity) {
-        numActivitiesStarted--;
-        if (numActivitiesStarted == 0) {
-            wasStartedBefore = true;
+        final boolean isTransition;
+        synchronized (this) {
+            // If the activity is not known, then it was started before this listener was registered,
+            // so the application was in the foreground.
+            startedActivities.remove(System.identityHashCode(activity));
+            isChangingConfigurations = activity.isChangingConfigurations();
+            isTransition = startedActivities.isEmpty() && !isChangingConfigurations;
+            if (isTransition) {
+                wasStartedBefore = true;
+            }
+        }
+        if (isTransition) {
+            onTransitionFromForegroundToBackground();
         }
     }
 
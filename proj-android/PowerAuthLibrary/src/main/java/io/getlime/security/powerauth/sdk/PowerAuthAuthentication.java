@@ -19,6 +19,7 @@ package io.getlime.security.powerauth.sdk;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.getlime.security.powerauth.core.Password;
+import io.getlime.security.powerauth.system.PowerAuthCleaner;
 import io.getlime.security.powerauth.system.PowerAuthLog;
 
 import java.util.Arrays;
@@ -46,6 +47,14 @@ public class PowerAuthAuthentication {
      * specified.
      */
     private final Boolean persistActivation;
+    /**
+     * If set, then the authentication object is bound to the authentication session.
+     */
+    private final @Nullable PowerAuthAuthenticationSession authenticationSession;
+    /**
+     * Cleanable object that wipes out the sensitive data when this object is no longer reachable.
+     */
+    private final @Nullable PowerAuthCleaner.Cleanable cleanable;
 
     /**
      * Construct object with desired combination of factors. Such authentication object can be used
@@ -73,6 +82,23 @@ public class PowerAuthAuthentication {
         this.password = password;
         this.overriddenPossessionKey = safeArrayCopy(overriddenPossessionKey);
         this.persistActivation = persistActivation;
+        this.authenticationSession = null;
+        this.cleanable = registerCleanup(this, this.useBiometry, this.overriddenPossessionKey);
+    }
+
+    /**
+     * Construct object bound to the authentication session. Such authentication object can be used only
+     * for the signature calculation and all factor related keys are provided by the session.
+     *
+     * @param authenticationSession Authentication session that provides keys for the signature calculation.
+     */
+    PowerAuthAuthentication(@NonNull PowerAuthAuthenticationSession authenticationSession) {
+        this.useBiometry = null;
+        this.password = null;
+        this.overriddenPossessionKey = null;
+        this.persistActivation = false;
+        this.authenticationSession = authenticationSession;
+        this.cleanable = null;
     }
 
     /**
@@ -88,26 +114,27 @@ public class PowerAuthAuthentication {
     }
 
     /**
-     * Make sure that the sensitive data is always wiped out from the memory.
-     */
-    protected void finalize() {
-        releaseSensitiveData(true);
-    }
-
-    /**
-     * Release all sensitive data.
-     * @param fromGC If true, then this comes from Garbage Collector, otherwise from application.
+     * Register cleanup action that makes sure that the sensitive data is always wiped out from the memory.
+     * The action doesn't destroy {@link Password}, because the password object has its own cleanup.
+     *
+     * @param object Authentication object.
+     * @param useBiometry Biometry factor related key to wipe out.
+     * @param overriddenPossessionKey Custom possession key to wipe out.
+     * @return Cleanable object or {@code null} if there's no sensitive data to wipe out.
      */
-    private void releaseSensitiveData(boolean fromGC) {
-        if (password != null && !fromGC) {          // Do not destroy Password if request comes from GC
-            password.destroy();
-        }
-        if (useBiometry != null) {
-            Arrays.fill(useBiometry, (byte) 0xCD);  // This may help with the debugging. CD CD CD is more suspicious than 00 00 00
-        }
-        if (overriddenPossessionKey != null) {
-            Arrays.fill(overriddenPossessionKey, (byte) 0xCD);
+    @Nullable
+    private static PowerAuthCleaner.Cleanable registerCleanup(@NonNull Object object, @Nullable final byte[] useBiometry, @Nullable final byte[] overriddenPossessionKey) {
+        if (useBiometry == null && overriddenPossessionKey == null) {
+            return null;
         }
+        return PowerAuthCleaner.register(object, () -> {
+            if (useBiometry != null) {
+                Arrays.fill(useBiometry, (byte) 0xCD);  // This may help with the debugging. CD CD CD is more suspicious than 00 00 00
+            }
+            if (overriddenPossessionKey != null) {
+                Arrays.fill(overriddenPossessionKey, (byte) 0xCD);
+            }
+        });
     }
 
 
@@ -302,7 +329,12 @@ public class PowerAuthAuthentication {
      * After this call, the object becomes unusable for authentication operations.
      */
     public void destroy() {
-        releaseSensitiveData(false);
+        if (password != null) {
+            password.destroy();
+        }
+        if (cleanable != null) {
+            cleanable.clean();
+        }
     }
 
     // Internal interfaces
@@ -312,6 +344,9 @@ public class PowerAuthAuthentication {
      * @return Numeric value representing a combination of factors.
      */
     int getSignatureFactorsMask() {
+        if (authenticationSession != null) {
+            return authenticationSession.getSignatureFactorsMask();
+        }
         int factors = 1;
         if (password != null) {
             factors |= 2;
@@ -322,6 +357,14 @@ public class PowerAuthAuthentication {
         return factors;
     }
 
+    /**
+     * @return Authentication session if this object is bound to the session, otherwise {@code null}.
+     */
+    @Nullable
+    PowerAuthAuthenticationSession getAuthenticationSession() {
+        return authenticationSession;
+    }
+
     /**
      * Validate usage of PowerAuthAuthentication object. If something doesn't match, then function
      * print warning to the debug console.
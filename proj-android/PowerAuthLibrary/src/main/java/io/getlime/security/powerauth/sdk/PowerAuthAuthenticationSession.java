@@ -0,0 +1,335 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.sdk;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.core.Password;
+import io.getlime.security.powerauth.core.SignatureFactor;
+import io.getlime.security.powerauth.core.SignatureUnlockKeys;
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.system.PowerAuthCleaner;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code PowerAuthAuthenticationSession} class represents a short-lived authentication session
+ * created from {@link PowerAuthAuthentication} object. The session derives the knowledge factor unlock
+ * key only once and keeps it, together with the biometry factor related key, in the memory for a limited
+ * time or for a limited number of uses. This is useful for multi-step operations, where multiple requests
+ * are signed after a single password entry, because the expensive password derivation is performed only once.
+ * <p>
+ * The session is invalidated and all sensitive data is immediately wiped out when:
+ * <ul>
+ *     <li>The time to live expires.</li>
+ *     <li>The maximum number of uses is reached.</li>
+ *     <li>The {@link #destroy()} method is called.</li>
+ *     <li>The application goes to the background.</li>
+ *     <li>The password is changed or the activation is removed.</li>
+ * </ul>
+ * Use {@link PowerAuthSDK#createAuthenticationSession(android.content.Context, PowerAuthAuthentication, long, int)}
+ * to create a new session and {@link #createAuthentication()} to get an authentication object that can be used
+ * wherever {@link PowerAuthAuthentication} is accepted.
+ */
+public class PowerAuthAuthenticationSession {
+
+    /**
+     * Default time to live for the session in milliseconds.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 30_000;
+    /**
+     * Default maximum number of uses of the session.
+     */
+    public static final int DEFAULT_MAX_USES = 5;
+
+    /**
+     * Knowledge factor unlock key, already derived from the password.
+     */
+    private @Nullable Password derivedKnowledgeKey;
+    /**
+     * Biometry factor related key.
+     */
+    private @Nullable byte[] biometryKey;
+    /**
+     * Optional custom possession key.
+     */
+    private @Nullable byte[] overriddenPossessionKey;
+    /**
+     * Wipes out the keys when the session is destroyed or when the application doesn't destroy the session.
+     */
+    private final @NonNull PowerAuthCleaner.Cleanable cleanable;
+    /**
+     * Destroys the session once the time to live expires.
+     */
+    private final @NonNull Runnable expirationRunnable;
+    /**
+     * Signature factors mask, compatible with {@link PowerAuthAuthentication#getSignatureFactorsMask()}.
+     */
+    private final int signatureFactorsMask;
+    /**
+     * Signature factors for the low level signature calculation.
+     */
+    private final @SignatureFactor int signatureFactor;
+    /**
+     * Time in milliseconds (measured by {@link SystemClock#elapsedRealtime()}) when the session expires.
+     */
+    private final long expiration;
+    /**
+     * Generation counter owned by {@link PowerAuthSDK}. If the counter's value is different than
+     * {@link #generation}, then the session is no longer valid.
+     */
+    private final @NonNull AtomicInteger generationCounter;
+    /**
+     * Generation captured at the time of the session creation.
+     */
+    private final int generation;
+    /**
+     * Number of remaining uses.
+     */
+    private int remainingUses;
+    /**
+     * Contains {@code true} if session has been already destroyed.
+     */
+    private boolean isDestroyed;
+
+    /**
+     * Construct the authentication session. The constructor takes ownership of provided derived knowledge key
+     * and makes copy of byte arrays.
+     *
+     * @param derivedKnowledgeKey Knowledge factor unlock key, already derived from the password.
+     * @param biometryKey Biometry factor related key.
+     * @param overriddenPossessionKey Custom possession factor related key.
+     * @param timeToLive Time to live in milliseconds.
+     * @param maxUses Maximum number of uses.
+     * @param generationCounter Generation counter owned by {@link PowerAuthSDK}.
+     */
+    PowerAuthAuthenticationSession(
+            @Nullable Password derivedKnowledgeKey,
+            @Nullable byte[] biometryKey,
+            @Nullable byte[] overriddenPossessionKey,
+            long timeToLive,
+            int maxUses,
+            @NonNull AtomicInteger generationCounter) {
+        this.derivedKnowledgeKey = derivedKnowledgeKey;
+        this.biometryKey = biometryKey != null ? Arrays.copyOf(biometryKey, biometryKey.length) : null;
+        this.overriddenPossessionKey = overriddenPossessionKey != null ? Arrays.copyOf(overriddenPossessionKey, overriddenPossessionKey.length) : null;
+        this.signatureFactorsMask = 1 | (derivedKnowledgeKey != null ? 2 : 0) | (biometryKey != null ? 4 : 0);
+        this.signatureFactor = SignatureFactor.Possession |
+                (derivedKnowledgeKey != null ? SignatureFactor.Knowledge : 0) |
+                (biometryKey != null ? SignatureFactor.Biometry : 0);
+        this.expiration = SystemClock.elapsedRealtime() + timeToLive;
+        this.remainingUses = maxUses;
+        this.generationCounter = generationCounter;
+        this.generation = generationCounter.get();
+        final Password knowledgeKeyToWipe = this.derivedKnowledgeKey;
+        final byte[] biometryKeyToWipe = this.biometryKey;
+        final byte[] possessionKeyToWipe = this.overriddenPossessionKey;
+        this.cleanable = PowerAuthCleaner.register(this, () -> {
+            if (knowledgeKeyToWipe != null) {
+                knowledgeKeyToWipe.destroy();
+            }
+            if (biometryKeyToWipe != null) {
+                Arrays.fill(biometryKeyToWipe, (byte) 0);
+            }
+            if (possessionKeyToWipe != null) {
+                Arrays.fill(possessionKeyToWipe, (byte) 0);
+            }
+        });
+        // Don't let the scheduled expiration keep the abandoned session alive.
+        final WeakReference<PowerAuthAuthenticationSession> weakSession = new WeakReference<>(this);
+        this.expirationRunnable = () -> {
+            final PowerAuthAuthenticationSession session = weakSession.get();
+            if (session != null) {
+                session.destroy();
+            }
+        };
+        getExpirationHandler().postDelayed(expirationRunnable, timeToLive);
+    }
+
+    /**
+     * Create a new authentication object that can be used wherever {@link PowerAuthAuthentication} is accepted.
+     * Each signature calculated with such object consumes one use of the session.
+     *
+     * @return Authentication object bound to this session.
+     */
+    @NonNull
+    public PowerAuthAuthentication createAuthentication() {
+        return new PowerAuthAuthentication(this);
+    }
+
+    /**
+     * @return {@code true} if the session is still valid and can be used for the signature calculation.
+     */
+    public boolean isValid() {
+        synchronized (this) {
+            return isValidImpl();
+        }
+    }
+
+    /**
+     * @return Number of remaining uses or 0 if the session is no longer valid.
+     */
+    public int getRemainingUses() {
+        synchronized (this) {
+            return isValidImpl() ? remainingUses : 0;
+        }
+    }
+
+    /**
+     * Destroy the session and wipe out all sensitive data. After this call, the session and all authentication
+     * objects created from this session become unusable.
+     */
+    public void destroy() {
+        synchronized (this) {
+            if (isDestroyed) {
+                return;
+            }
+            isDestroyed = true;
+            cleanable.clean();
+            derivedKnowledgeKey = null;
+            biometryKey = null;
+            overriddenPossessionKey = null;
+        }
+        getExpirationHandler().removeCallbacks(expirationRunnable);
+    }
+
+    // Internal interfaces
+
+    /**
+     * @return Signature factors mask, compatible with {@link PowerAuthAuthentication#getSignatureFactorsMask()}.
+     */
+    int getSignatureFactorsMask() {
+        return signatureFactorsMask;
+    }
+
+    /**
+     * @return Signature factors for the low level signature calculation.
+     */
+    @SignatureFactor
+    int getSignatureFactor() {
+        return signatureFactor;
+    }
+
+    /**
+     * Determine whether the session was created by {@link PowerAuthSDK} that owns the provided generation counter.
+     * @param counter Generation counter to compare.
+     * @return {@code true} if session belongs to the instance of {@link PowerAuthSDK}.
+     */
+    boolean isOwnedBy(@NonNull AtomicInteger counter) {
+        return generationCounter == counter;
+    }
+
+    /**
+     * Return unlock keys for the signature calculation and optionally consume one use of the session. The returned
+     * keys are copies owned by the caller, so the session can be destroyed while the keys are still in use. The caller
+     * must release the keys with {@link #destroyUnlockKeys(SignatureUnlockKeys)} once they're no longer needed.
+     *
+     * @param possessionKey Default possession factor related key, used when the session has no custom possession key.
+     * @param consumeUse If {@code true}, then one use of the session is consumed. Use {@code false} only when the keys
+     *                   are required again by the operation that already consumed the use.
+     * @return Signature unlock keys.
+     * @throws PowerAuthErrorException In case that session is no longer valid.
+     */
+    @NonNull
+    SignatureUnlockKeys acquireUnlockKeys(@NonNull byte[] possessionKey, boolean consumeUse) throws PowerAuthErrorException {
+        synchronized (this) {
+            if (consumeUse ? !isValidImpl() : !isAliveImpl()) {
+                destroy();
+                throw new PowerAuthErrorException(PowerAuthErrorCodes.AUTHENTICATION_SESSION_EXPIRED, "Authentication session is no longer valid.");
+            }
+            final byte[] possessionUnlockKey = overriddenPossessionKey != null ? overriddenPossessionKey : possessionKey;
+            final SignatureUnlockKeys keys = new SignatureUnlockKeys(
+                    Arrays.copyOf(possessionUnlockKey, possessionUnlockKey.length),
+                    biometryKey != null ? Arrays.copyOf(biometryKey, biometryKey.length) : null,
+                    derivedKnowledgeKey != null ? derivedKnowledgeKey.copyToImmutable() : null,
+                    derivedKnowledgeKey != null);
+            if (consumeUse && --remainingUses <= 0) {
+                // The last use is consumed, so the keys are no longer needed.
+                destroy();
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * Wipe out unlock keys previously acquired from the session.
+     * @param keys Keys returned from {@link #acquireUnlockKeys(byte[], boolean)}.
+     */
+    static void destroyUnlockKeys(@NonNull SignatureUnlockKeys keys) {
+        if (keys.possessionUnlockKey != null) {
+            Arrays.fill(keys.possessionUnlockKey, (byte) 0xCD);
+        }
+        if (keys.biometryUnlockKey != null) {
+            Arrays.fill(keys.biometryUnlockKey, (byte) 0xCD);
+        }
+        if (keys.userPassword != null) {
+            keys.userPassword.destroy();
+        }
+    }
+
+    /**
+     * Called when the application goes to the background.
+     */
+    void onApplicationDidEnterBackground() {
+        destroy();
+    }
+
+    /**
+     * Called when the password is changed or the activation is removed.
+     */
+    void onInvalidated() {
+        destroy();
+    }
+
+    /**
+     * Handler for scheduling the session expiration.
+     */
+    private static Handler expirationHandler;
+
+    /**
+     * @return Handler for scheduling the session expiration.
+     */
+    private static synchronized @NonNull Handler getExpirationHandler() {
+        if (expirationHandler == null) {
+            expirationHandler = new Handler(Looper.getMainLooper());
+        }
+        return expirationHandler;
+    }
+
+    /**
+     * @return {@code true} if session is still valid. The function must be called in synchronized block.
+     */
+    private boolean isValidImpl() {
+        return remainingUses > 0 && isAliveImpl();
+    }
+
+    /**
+     * @return {@code true} if session is not destroyed and not expired, regardless of the remaining uses.
+     * The function must be called in synchronized block.
+     */
+    private boolean isAliveImpl() {
+        return !isDestroyed &&
+                generationCounter.get() == generation &&
+                SystemClock.elapsedRealtime() < expiration;
+    }
+}
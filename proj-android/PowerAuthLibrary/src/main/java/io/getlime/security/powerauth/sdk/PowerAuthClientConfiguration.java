@@ -23,7 +23,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import io.getlime.security.powerauth.networking.client.HttpAdaptiveTimeoutPolicy;
+import io.getlime.security.powerauth.networking.client.HttpCircuitBreakerPolicy;
+import io.getlime.security.powerauth.networking.client.HttpHedgingPolicy;
+import io.getlime.security.powerauth.networking.client.HttpRetryPolicy;
 import io.getlime.security.powerauth.networking.interceptors.HttpRequestInterceptor;
+import io.getlime.security.powerauth.networking.interfaces.IHttpMetricsListener;
 import io.getlime.security.powerauth.networking.ssl.HttpClientValidationStrategy;
 import io.getlime.security.powerauth.system.PowerAuthLog;
 
@@ -47,6 +52,11 @@ public class PowerAuthClientConfiguration {
      */
     public static final boolean DEFAULT_ALLOW_UNSECURED_CONNECTION = false;
 
+    /**
+     * By default, only one signed request is processed at the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_SIGNED_REQUESTS = 1;
+
     /**
      * Property that specifies the default HTTP client connection timeout. The default value is 20.0 (seconds).
      */
@@ -79,6 +89,51 @@ public class PowerAuthClientConfiguration {
      */
     private final String userAgent;
 
+    /**
+     * Property that specifies how many signed requests can be transmitted to the server at the same time.
+     */
+    private final int maxConcurrentSignedRequests;
+
+    /**
+     * Property that specifies the listener receiving metrics of each HTTP request.
+     */
+    private final IHttpMetricsListener metricsListener;
+
+    /**
+     * Property that specifies the retry policy applied to idempotent requests.
+     */
+    private final @NonNull HttpRetryPolicy retryPolicy;
+
+    /**
+     * Property that specifies the hedging policy applied to idempotent requests.
+     */
+    private final @Nullable HttpHedgingPolicy hedgingPolicy;
+
+    /**
+     * Property that specifies the circuit breaker policy applied to all endpoints.
+     */
+    private final @Nullable HttpCircuitBreakerPolicy circuitBreakerPolicy;
+
+    /**
+     * Time in milliseconds, in which the whole call to the server must be completed, or 0 if there's no deadline.
+     */
+    private final long requestDeadline;
+
+    /**
+     * Policy for the timeouts derived from the observed network latency, or null if the fixed timeouts are used.
+     */
+    private final @Nullable HttpAdaptiveTimeoutPolicy adaptiveTimeoutPolicy;
+
+    /**
+     * Minimum size of the request body in bytes, for which the body is compressed, or 0 if the compression is disabled.
+     */
+    private final int requestCompressionThreshold;
+
+    /**
+     * Maximum time in milliseconds, for which the background requests can be deferred to execute them in one batch.
+     */
+    private final long deferredRequestWindow;
+
     /**
      * @return connection timeout in milliseconds
      */
@@ -120,6 +175,73 @@ public class PowerAuthClientConfiguration {
         return userAgent;
     }
 
+    /**
+     * @return Maximum number of signed requests that can be transmitted to the server at the same time.
+     */
+    public int getMaxConcurrentSignedRequests() {
+        return maxConcurrentSignedRequests;
+    }
+
+    /**
+     * @return Listener receiving metrics of each HTTP request, or {@code null} if metrics are not collected.
+     */
+    public @Nullable IHttpMetricsListener getMetricsListener() {
+        return metricsListener;
+    }
+
+    /**
+     * @return Retry policy applied to idempotent requests.
+     */
+    public @NonNull HttpRetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * @return Hedging policy applied to idempotent requests or {@code null} if requests are not hedged.
+     */
+    public @Nullable HttpHedgingPolicy getHedgingPolicy() {
+        return hedgingPolicy;
+    }
+
+    /**
+     * @return Circuit breaker policy applied to all endpoints or {@code null} if circuit breaker is not enabled.
+     */
+    public @Nullable HttpCircuitBreakerPolicy getCircuitBreakerPolicy() {
+        return circuitBreakerPolicy;
+    }
+
+    /**
+     * @return Time in milliseconds, in which the whole call to the server, including the time synchronization or
+     * the temporary encryption key acquisition, must be completed. If 0, then the call has no deadline.
+     */
+    public long getRequestDeadline() {
+        return requestDeadline;
+    }
+
+    /**
+     * @return Policy for the timeouts derived from the observed network latency, or {@code null} if the fixed
+     * connect and read timeouts are used.
+     */
+    public @Nullable HttpAdaptiveTimeoutPolicy getAdaptiveTimeoutPolicy() {
+        return adaptiveTimeoutPolicy;
+    }
+
+    /**
+     * @return Minimum size of the request body in bytes, for which the body is compressed with gzip. If 0, then
+     * the request compression is disabled.
+     */
+    public int getRequestCompressionThreshold() {
+        return requestCompressionThreshold;
+    }
+
+    /**
+     * @return Maximum time in milliseconds, for which the background requests, such as the periodic activation status
+     * polling, can be deferred to execute them in one batch. If 0, then the background requests are not deferred.
+     */
+    public long getDeferredRequestWindow() {
+        return deferredRequestWindow;
+    }
+
     /**
      * Default private constructor. Use {@link Builder} to create a new instance of this class.
      *
@@ -129,6 +251,15 @@ public class PowerAuthClientConfiguration {
      * @param clientValidationStrategy {@link HttpClientValidationStrategy} object that implements TLS validation strategy.
      * @param requestInterceptors Array of {@link HttpRequestInterceptor} objects or {@code null} if there's none.
      * @param userAgent Value for User-Agent HTTP request header or (@code ""} if default, system provided User-Agent should be used.
+     * @param maxConcurrentSignedRequests Maximum number of signed requests transmitted at the same time.
+     * @param metricsListener Listener receiving metrics of each HTTP request or {@code null} if there's none.
+     * @param retryPolicy Retry policy applied to idempotent requests.
+     * @param hedgingPolicy Hedging policy applied to idempotent requests or {@code null} if requests are not hedged.
+     * @param circuitBreakerPolicy Circuit breaker policy or {@code null} if circuit breaker is not enabled.
+     * @param requestDeadline Time in milliseconds, in which the whole call to the server must be completed.
+     * @param adaptiveTimeoutPolicy Policy for the timeouts derived from the observed network latency.
+     * @param requestCompressionThreshold Minimum size of the request body in bytes, for which the body is compressed.
+     * @param deferredRequestWindow Maximum time in milliseconds, for which the background requests can be deferred.
      */
     private PowerAuthClientConfiguration(
             int connectionTimeout,
@@ -136,13 +267,31 @@ public class PowerAuthClientConfiguration {
             boolean allowUnsecuredConnection,
             HttpClientValidationStrategy clientValidationStrategy,
             List<HttpRequestInterceptor> requestInterceptors,
-            String userAgent) {
+            String userAgent,
+            int maxConcurrentSignedRequests,
+            IHttpMetricsListener metricsListener,
+            @NonNull HttpRetryPolicy retryPolicy,
+            @Nullable HttpHedgingPolicy hedgingPolicy,
+            @Nullable HttpCircuitBreakerPolicy circuitBreakerPolicy,
+            long requestDeadline,
+            @Nullable HttpAdaptiveTimeoutPolicy adaptiveTimeoutPolicy,
+            int requestCompressionThreshold,
+            long deferredRequestWindow) {
         this.connectionTimeout = connectionTimeout;
         this.readTimeout = readTimeout;
         this.allowUnsecuredConnection = allowUnsecuredConnection;
         this.clientValidationStrategy = clientValidationStrategy;
         this.requestInterceptors = requestInterceptors;
         this.userAgent = userAgent;
+        this.maxConcurrentSignedRequests = maxConcurrentSignedRequests;
+        this.metricsListener = metricsListener;
+        this.retryPolicy = retryPolicy;
+        this.hedgingPolicy = hedgingPolicy;
+        this.circuitBreakerPolicy = circuitBreakerPolicy;
+        this.requestDeadline = requestDeadline;
+        this.adaptiveTimeoutPolicy = adaptiveTimeoutPolicy;
+        this.requestCompressionThreshold = requestCompressionThreshold;
+        this.deferredRequestWindow = deferredRequestWindow;
     }
 
     /**
@@ -155,6 +304,15 @@ public class PowerAuthClientConfiguration {
         private HttpClientValidationStrategy clientValidationStrategy;
         private ArrayList<HttpRequestInterceptor> requestInterceptors;
         private String userAgent;
+        private int maxConcurrentSignedRequests = DEFAULT_MAX_CONCURRENT_SIGNED_REQUESTS;
+        private IHttpMetricsListener metricsListener;
+        private @NonNull HttpRetryPolicy retryPolicy = HttpRetryPolicy.NONE;
+        private @Nullable HttpHedgingPolicy hedgingPolicy;
+        private @Nullable HttpCircuitBreakerPolicy circuitBreakerPolicy;
+        private long requestDeadline;
+        private @Nullable HttpAdaptiveTimeoutPolicy adaptiveTimeoutPolicy;
+        private int requestCompressionThreshold;
+        private long deferredRequestWindow;
 
         /**
          * Creates a builder for {@link PowerAuthClientConfiguration}.
@@ -226,6 +384,166 @@ public class PowerAuthClientConfiguration {
             return this;
         }
 
+        /**
+         * Sets maximum number of signed requests that can be transmitted to the server at the same time.
+         * <p>
+         * Requests signed with PowerAuth signature are always signed in the order in which they were
+         * issued, but by default, the next signed request is not even signed until the previous one
+         * is fully processed. If the value is greater than 1, then the signature calculation is still
+         * serialized, but the network communication of up to {@code maxConcurrentSignedRequests} requests
+         * may overlap.
+         * <p>
+         * <b>WARNING:</b> The server's counter look-ahead window tolerates requests that never reached
+         * the server, but not requests that were delivered out of order. If a request with a newer counter
+         * is processed first, then the request with the older counter is rejected and counted as a failed
+         * authentication attempt. Use this option only if your application can handle such failures.
+         *
+         * @param maxConcurrentSignedRequests Maximum number of concurrent signed requests. The value must
+         *                                    be greater than 0.
+         * @return The same {@link Builder} object instance.
+         * @throws IllegalArgumentException In case that value is less than 1.
+         */
+        public Builder maxConcurrentSignedRequests(int maxConcurrentSignedRequests) {
+            if (maxConcurrentSignedRequests < 1) {
+                throw new IllegalArgumentException("Maximum number of concurrent signed requests must be greater than 0");
+            }
+            this.maxConcurrentSignedRequests = maxConcurrentSignedRequests;
+            return this;
+        }
+
+        /**
+         * Sets listener that receives metrics of each HTTP request performed by the SDK. The listener
+         * is called from the networking thread, so it must be thread safe and should return as soon
+         * as possible. You can use {@link io.getlime.security.powerauth.networking.metrics.HttpMetricsCollector}
+         * to aggregate the metrics into per-endpoint histograms.
+         *
+         * @param metricsListener Listener receiving metrics or {@code null} to do not collect metrics.
+         * @return The same {@link Builder} object instance.
+         */
+        public Builder metricsListener(@Nullable IHttpMetricsListener metricsListener) {
+            this.metricsListener = metricsListener;
+            return this;
+        }
+
+        /**
+         * Sets retry policy applied to idempotent requests, such as the server status or the activation
+         * status. Requests signed with PowerAuth signature are never retried. By default, the requests
+         * are not retried, so the retries must be explicitly enabled, for example with the
+         * {@link HttpRetryPolicy#DEFAULT} policy.
+         *
+         * @param retryPolicy Retry policy or {@code null} to disable retries.
+         * @return The same {@link Builder} object instance.
+         */
+        public Builder retryPolicy(@Nullable HttpRetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy != null ? retryPolicy : HttpRetryPolicy.NONE;
+            return this;
+        }
+
+        /**
+         * Sets hedging policy applied to idempotent requests, such as the server status or the activation
+         * status. If there's no response after the delay calculated from the observed latency, then the second,
+         * identical request is sent and the first successful response wins. Requests signed with PowerAuth
+         * signature are never hedged. By default, requests are not hedged.
+         *
+         * @param hedgingPolicy Hedging policy, for example {@link HttpHedgingPolicy#DEFAULT}, or {@code null}
+         *                      to do not hedge requests.
+         * @return The same {@link Builder} object instance.
+         */
+        public Builder hedgingPolicy(@Nullable HttpHedgingPolicy hedgingPolicy) {
+            this.hedgingPolicy = hedgingPolicy;
+            return this;
+        }
+
+        /**
+         * Sets circuit breaker policy applied to all endpoints. If an endpoint repeatedly fails due to network
+         * error or HTTP status 5xx, then the requests to such endpoint immediately fail with
+         * {@link io.getlime.security.powerauth.exception.PowerAuthErrorCodes#CIRCUIT_BREAKER_OPEN} error, instead
+         * of waiting for the timeout. By default, the circuit breaker is not enabled.
+         *
+         * @param circuitBreakerPolicy Circuit breaker policy, for example {@link HttpCircuitBreakerPolicy#DEFAULT},
+         *                             or {@code null} to disable the circuit breaker.
+         * @return The same {@link Builder} object instance.
+         */
+        public Builder circuitBreakerPolicy(@Nullable HttpCircuitBreakerPolicy circuitBreakerPolicy) {
+            this.circuitBreakerPolicy = circuitBreakerPolicy;
+            return this;
+        }
+
+        /**
+         * Sets time in milliseconds, in which the whole call to the server must be completed. The deadline covers
+         * also the requests that the call depends on, such as the time synchronization or the temporary encryption
+         * key acquisition, and all retries of the request. The connect and read timeouts of each request are
+         * shortened to the remaining time and once the deadline expires, the call fails with
+         * {@link io.getlime.security.powerauth.exception.PowerAuthErrorCodes#NETWORK_ERROR}. By default, there's
+         * no deadline.
+         *
+         * @param requestDeadline Deadline in milliseconds or 0 to do not apply the deadline.
+         * @return The same {@link Builder} object instance.
+         * @throws IllegalArgumentException In case that value is negative.
+         */
+        public Builder requestDeadline(long requestDeadline) {
+            if (requestDeadline < 0) {
+                throw new IllegalArgumentException("Request deadline must not be negative");
+            }
+            this.requestDeadline = requestDeadline;
+            return this;
+        }
+
+        /**
+         * Sets policy for the connect and read timeouts derived from the network latency observed for each host.
+         * Until there are enough measured requests to the host, the fixed timeouts set by
+         * {@link #timeouts(int, int)} are used. The read timeout is also multiplied by the endpoint's timeout
+         * multiplier, so the endpoints that require more processing on the server, such as the activation
+         * creation, have longer timeout. By default, the fixed timeouts are used.
+         *
+         * @param adaptiveTimeoutPolicy Adaptive timeout policy, for example {@link HttpAdaptiveTimeoutPolicy#DEFAULT},
+         *                              or {@code null} to use the fixed timeouts.
+         * @return The same {@link Builder} object instance.
+         */
+        public Builder adaptiveTimeoutPolicy(@Nullable HttpAdaptiveTimeoutPolicy adaptiveTimeoutPolicy) {
+            this.adaptiveTimeoutPolicy = adaptiveTimeoutPolicy;
+            return this;
+        }
+
+        /**
+         * Enables gzip compression of the request bodies. The body is compressed only if its size is equal or greater
+         * than the threshold, if the endpoint allows the compression, and if the compressed body is smaller than
+         * the original one. The requests signed with PowerAuth signature are never compressed. Enable this option only
+         * if the server accepts requests with {@code Content-Encoding: gzip}. By default, the request compression
+         * is disabled. The response compression is always negotiated with the server.
+         *
+         * @param requestCompressionThreshold Minimum size of the request body in bytes, or 0 to disable the compression.
+         * @return The same {@link Builder} object instance.
+         * @throws IllegalArgumentException In case that value is negative.
+         */
+        public Builder requestCompressionThreshold(int requestCompressionThreshold) {
+            if (requestCompressionThreshold < 0) {
+                throw new IllegalArgumentException("Request compression threshold must not be negative");
+            }
+            this.requestCompressionThreshold = requestCompressionThreshold;
+            return this;
+        }
+
+        /**
+         * Sets maximum time in milliseconds, for which the background requests can be deferred to execute them
+         * together in one batch. Such requests are the periodic activation status polling, the background refresh
+         * of the stale activation status and the background refresh of the cached responses. The batch is executed
+         * immediately when any other request is sent, or when the network was used recently, so the cellular radio
+         * doesn't need to be woken up again. The interactive requests are never deferred. By default, the background
+         * requests are not deferred.
+         *
+         * @param deferredRequestWindow Batch window in milliseconds or 0 to do not defer the background requests.
+         * @return The same {@link Builder} object instance.
+         * @throws IllegalArgumentException In case that value is negative.
+         */
+        public Builder deferredRequestWindow(long deferredRequestWindow) {
+            if (deferredRequestWindow < 0) {
+                throw new IllegalArgumentException("Deferred request window must not be negative");
+            }
+            this.deferredRequestWindow = deferredRequestWindow;
+            return this;
+        }
+
         /**
          * Build a final configuration.
          *
@@ -238,7 +556,16 @@ public class PowerAuthClientConfiguration {
                     allowUnsecuredConnection,
                     clientValidationStrategy,
                     requestInterceptors != null ? Collections.unmodifiableList(requestInterceptors) : null,
-                    userAgent);
+                    userAgent,
+                    maxConcurrentSignedRequests,
+                    metricsListener,
+                    retryPolicy,
+                    hedgingPolicy,
+                    circuitBreakerPolicy,
+                    requestDeadline,
+                    adaptiveTimeoutPolicy,
+                    requestCompressionThreshold,
+                    deferredRequestWindow);
         }
     }
 
@@ -263,6 +590,15 @@ public class PowerAuthClientConfiguration {
                 allowUnsecuredConnection,
                 clientValidationStrategy,
                 requestInterceptors,
-                customUserAgent);
+                customUserAgent,
+                maxConcurrentSignedRequests,
+                metricsListener,
+                retryPolicy,
+                hedgingPolicy,
+                circuitBreakerPolicy,
+                requestDeadline,
+                adaptiveTimeoutPolicy,
+                requestCompressionThreshold,
+                deferredRequestWindow);
     }
 }
@@ -19,7 +19,10 @@ package io.getlime.security.powerauth.sdk;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import io.getlime.security.powerauth.core.SessionSetup;
 
@@ -30,6 +33,7 @@ public class PowerAuthConfiguration {
 
     private final @NonNull String instanceId;
     private final @NonNull String baseEndpointUrl;
+    private final @NonNull List<String> alternativeEndpointUrls;
     private final @NonNull SessionSetup sessionSetup;
     private final boolean disableAutomaticProtocolUpgrade;
     private final int offlineSignatureComponentLength;
@@ -53,6 +57,23 @@ public class PowerAuthConfiguration {
         return baseEndpointUrl;
     }
 
+    /**
+     * @return Unmodifiable list of alternative base URLs to the PowerAuth Standard REST API, in order of preference.
+     */
+    public @NonNull List<String> getAlternativeEndpointUrls() {
+        return alternativeEndpointUrls;
+    }
+
+    /**
+     * @return Unmodifiable list with the base URL followed by all alternative base URLs.
+     */
+    public @NonNull List<String> getBaseEndpointUrls() {
+        final ArrayList<String> urls = new ArrayList<>(alternativeEndpointUrls.size() + 1);
+        urls.add(baseEndpointUrl);
+        urls.addAll(alternativeEndpointUrls);
+        return Collections.unmodifiableList(urls);
+    }
+
     /**
      * @return String containing cryptographic configuration.
      */
@@ -120,17 +141,20 @@ public class PowerAuthConfiguration {
      *
      * @param instanceId Identifier of the PowerAuthSDK instance, used as a 'key' to store session state.
      * @param baseEndpointUrl Base URL to the PowerAuth Standard REST API (the URL part before {@code "/pa/..."}).
+     * @param alternativeEndpointUrls Alternative base URLs to the PowerAuth Standard REST API.
      * @param sessionSetup Setup for core/Session object.
      * @param disableAutomaticProtocolUpgrade If set to {@code true}, then PowerAuthSDK will not automatically upgrade activation to a newer protocol version.
      */
     private PowerAuthConfiguration(
             @NonNull String instanceId,
             @NonNull String baseEndpointUrl,
+            @NonNull List<String> alternativeEndpointUrls,
             @NonNull SessionSetup sessionSetup,
             boolean disableAutomaticProtocolUpgrade,
             int offlineSignatureComponentLength) {
         this.instanceId = instanceId;
         this.baseEndpointUrl = baseEndpointUrl;
+        this.alternativeEndpointUrls = alternativeEndpointUrls;
         this.sessionSetup = sessionSetup;
         this.disableAutomaticProtocolUpgrade = disableAutomaticProtocolUpgrade;
         this.offlineSignatureComponentLength = offlineSignatureComponentLength;
@@ -145,6 +169,7 @@ public class PowerAuthConfiguration {
         private final @NonNull String configuration;
         // optional
         private String instanceId;
+        private final @NonNull ArrayList<String> alternativeEndpointUrls = new ArrayList<>();
         private byte[] externalEncryptionKey = null;
         private boolean disableAutomaticProtocolUpgrade = false;
         private int offlineSignatureComponentLength = MAX_OFFLINE_SIGNATURE_COMPONENT_LENGTH;
@@ -159,11 +184,39 @@ public class PowerAuthConfiguration {
         public Builder(@Nullable String instanceId, @NonNull String baseEndpointUrl, @NonNull String configuration) {
             this.instanceId = instanceId;
             this.configuration = configuration;
-            if (baseEndpointUrl.endsWith("/")) { // make sure to remove trailing slash
-                this.baseEndpointUrl = baseEndpointUrl.substring(0, baseEndpointUrl.length() - 1);
-            } else {
-                this.baseEndpointUrl = baseEndpointUrl;
+            this.baseEndpointUrl = removeTrailingSlash(baseEndpointUrl);
+        }
+
+        /**
+         * Remove trailing slash from the base URL.
+         * @param baseEndpointUrl Base URL.
+         * @return Base URL without the trailing slash.
+         */
+        private static @NonNull String removeTrailingSlash(@NonNull String baseEndpointUrl) {
+            if (baseEndpointUrl.endsWith("/")) {
+                return baseEndpointUrl.substring(0, baseEndpointUrl.length() - 1);
+            }
+            return baseEndpointUrl;
+        }
+
+        /**
+         * Set alternative base URLs to the PowerAuth Standard REST API, for example, the URLs of other regional
+         * ingress points to the same PowerAuth Server. Requests that are not signed with PowerAuth signature are
+         * sent to the fastest healthy URL and fail over to another URL if the connection cannot be established.
+         * Signed requests always use the same URL while it's healthy.
+         *
+         * @param alternativeEndpointUrls Alternative base URLs, in order of preference.
+         * @return {@link Builder}
+         */
+        public @NonNull Builder alternativeEndpointUrls(@NonNull String... alternativeEndpointUrls) {
+            this.alternativeEndpointUrls.clear();
+            for (String url : alternativeEndpointUrls) {
+                final String normalizedUrl = removeTrailingSlash(url);
+                if (!normalizedUrl.equals(baseEndpointUrl) && !this.alternativeEndpointUrls.contains(normalizedUrl)) {
+                    this.alternativeEndpointUrls.add(normalizedUrl);
+                }
             }
+            return this;
         }
 
         /**
@@ -216,6 +269,7 @@ public class PowerAuthConfiguration {
             return new PowerAuthConfiguration(
                     instanceId != null ? instanceId : DEFAULT_INSTANCE_ID,
                     baseEndpointUrl,
+                    Collections.unmodifiableList(new ArrayList<>(alternativeEndpointUrls)),
                     sessionSetup,
                     disableAutomaticProtocolUpgrade,
                     offlineSignatureComponentLength);
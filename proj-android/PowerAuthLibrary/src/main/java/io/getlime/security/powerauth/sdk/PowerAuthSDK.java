@@ -28,9 +28,12 @@ import androidx.fragment.app.FragmentActivity;
 
 import com.google.gson.reflect.TypeToken;
 
+import java.lang.ref.WeakReference;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 
 import io.getlime.security.powerauth.biometry.*;
@@ -43,9 +46,13 @@ import io.getlime.security.powerauth.exception.PowerAuthMissingConfigException;
 import io.getlime.security.powerauth.keychain.Keychain;
 import io.getlime.security.powerauth.keychain.KeychainFactory;
 import io.getlime.security.powerauth.keychain.KeychainProtection;
+import io.getlime.security.powerauth.keychain.impl.LazyKeychain;
+import io.getlime.security.powerauth.networking.client.EndpointCachePolicy;
 import io.getlime.security.powerauth.networking.client.HttpClient;
+import io.getlime.security.powerauth.networking.client.HttpResponseCache;
 import io.getlime.security.powerauth.networking.client.JsonSerialization;
 import io.getlime.security.powerauth.networking.endpoints.*;
+import io.getlime.security.powerauth.networking.exceptions.FailedApiException;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 import io.getlime.security.powerauth.networking.interfaces.IExecutorProvider;
 import io.getlime.security.powerauth.networking.interfaces.INetworkResponseListener;
@@ -54,6 +61,7 @@ import io.getlime.security.powerauth.networking.model.request.*;
 import io.getlime.security.powerauth.networking.model.response.*;
 import io.getlime.security.powerauth.networking.response.*;
 import io.getlime.security.powerauth.sdk.impl.*;
+import io.getlime.security.powerauth.system.PowerAuthDiagnostics;
 import io.getlime.security.powerauth.system.PowerAuthLog;
 import io.getlime.security.powerauth.system.PowerAuthSystem;
 
@@ -79,6 +87,14 @@ public class PowerAuthSDK {
     private final @NonNull TimeSynchronizationService mTimeSynchronizationService;
     private final @NonNull IKeystoreService mKeystoreService;
     private final @NonNull BiometricDataMapper mBiometricDataMapper;
+    private final @NonNull ActivationStatusCache mActivationStatusCache;
+    private final @NonNull SingleFlightRequestRegistry mSingleFlightRequestRegistry;
+    private PowerAuthActivationStatusMonitor mActivationStatusMonitor;
+    private final @NonNull AtomicInteger mAuthenticationSessionGeneration = new AtomicInteger();
+    private final @NonNull ArrayList<WeakReference<PowerAuthAuthenticationSession>> mAuthenticationSessions = new ArrayList<>();
+    private PowerAuthWarmUpOptions mAutomaticWarmUpOptions;
+    private Context mAutomaticWarmUpContext;
+    private ICancelable mAutomaticWarmUpTask;
 
     /**
      * A builder that collects configurations and arguments for {@link PowerAuthSDK}.
@@ -193,13 +209,15 @@ public class PowerAuthSDK {
 
             // Prepare HTTP client
             final IExecutorProvider executorProvider = new DefaultExecutorProvider();
-            final HttpClient httpClient = new HttpClient(mClientConfiguration, mConfiguration.getBaseEndpointUrl(), executorProvider, mCallbackDispatcher);
+            final HttpClient httpClient = new HttpClient(mClientConfiguration, mConfiguration.getBaseEndpointUrls(), executorProvider, mCallbackDispatcher);
 
             // Prepare keychains
             final @KeychainProtection int minRequiredKeychainProtection = mKeychainConfiguration.getMinimalRequiredKeychainProtection();
             final Keychain statusKeychain = KeychainFactory.getKeychain(appContext, mKeychainConfiguration.getKeychainStatusId(), minRequiredKeychainProtection);
-            final Keychain biometryKeychain = KeychainFactory.getKeychain(appContext, mKeychainConfiguration.getKeychainBiometryId(), minRequiredKeychainProtection);
-            final Keychain tokenStoreKeychain = KeychainFactory.getKeychain(appContext, mKeychainConfiguration.getKeychainTokenStoreId(), minRequiredKeychainProtection);
+            // Biometry and token store keychains are not required at startup, so create them on the first use. The status
+            // keychain is already created with the same protection, so the lazy creation cannot fail.
+            final Keychain biometryKeychain = new LazyKeychain(appContext, mKeychainConfiguration.getKeychainBiometryId(), minRequiredKeychainProtection);
+            final Keychain tokenStoreKeychain = new LazyKeychain(appContext, mKeychainConfiguration.getKeychainTokenStoreId(), minRequiredKeychainProtection);
 
             // Prepare state listener
             final ISavePowerAuthStateListener stateListener = mStateListener != null ? mStateListener : new DefaultSavePowerAuthStateListener(statusKeychain);
@@ -222,6 +240,12 @@ public class PowerAuthSDK {
             final DefaultKeystoreService keystoreService = new DefaultKeystoreService(timeSynchronizationService, session, mCallbackDispatcher, sharedLock, httpClient);
             httpClient.setKeystoreService(keystoreService);
 
+            // Prepare cache for endpoint responses and connect it with HTTP client
+            httpClient.setResponseCache(new HttpResponseCache(statusKeychain, mConfiguration.getInstanceId()));
+
+            // Prepare cache for activation status
+            final ActivationStatusCache activationStatusCache = new ActivationStatusCache(statusKeychain, mConfiguration.getInstanceId(), executorProvider.getConcurrentExecutor());
+
             // Create a final PowerAuthSDK instance
             final PowerAuthSDK instance = new PowerAuthSDK(
                     sharedLock,
@@ -238,7 +262,8 @@ public class PowerAuthSDK {
                     mCallbackDispatcher,
                     serverStatusProvider,
                     timeSynchronizationService,
-                    keystoreService);
+                    keystoreService,
+                    activationStatusCache);
 
             // Register time service for automatic reset.
             PowerAuthAppLifecycleListener.getInstance().registerTimeSynchronizationService(context, timeSynchronizationService);
@@ -246,6 +271,31 @@ public class PowerAuthSDK {
             boolean b = instance.restoreState(instance.mStateListener.serializedState(mConfiguration.getInstanceId()));
             return instance;
         }
+
+        /**
+         * Build instance of {@link PowerAuthSDK} asynchronously. The keychain initialization, the state restoration
+         * and other potentially expensive operations are performed on a background thread, so the function can be
+         * safely called from the main thread, for example in {@code Application.onCreate()}.
+         *
+         * @param context Android context. See {@link #build(Context)} for more details.
+         * @param listener Listener called back with the created instance or with the failure. The listener is called
+         *                 with the callback dispatcher provided to this builder, or on the main thread by default.
+         */
+        public void buildAsync(@NonNull Context context, @NonNull IBuildPowerAuthSDKListener listener) {
+            final Context appContext = context.getApplicationContext();
+            final ICallbackDispatcher callbackDispatcher = mCallbackDispatcher != null ? mCallbackDispatcher : MainThreadExecutor.getInstance();
+            // Register for the lifecycle callbacks now, so the application's state is tracked since the first activity.
+            PowerAuthAppLifecycleListener.getInstance().registerForActivityLifecycleCallbacks(appContext);
+            new DefaultExecutorProvider().getConcurrentExecutor().execute(() -> {
+                try {
+                    final PowerAuthSDK instance = build(appContext);
+                    callbackDispatcher.dispatchCallback(() -> listener.onBuildSucceeded(instance));
+                } catch (Throwable t) {
+                    PowerAuthLog.e("PowerAuthSDK: Failed to build instance: " + t.getMessage());
+                    callbackDispatcher.dispatchCallback(() -> listener.onBuildFailed(t));
+                }
+            });
+        }
     }
 
     /**
@@ -265,6 +315,7 @@ public class PowerAuthSDK {
      * @param serverStatusProvider      Implementation of {@link IServerStatusProvider}.
      * @param timeSynchronizationService Implementation of {@link IPowerAuthTimeSynchronizationService}.
      * @param keystoreService           Implementation of {@link IKeystoreService}.
+     * @param activationStatusCache     Cache for the last received activation status.
      */
     private PowerAuthSDK(
             @NonNull ReentrantLock sharedLock,
@@ -281,7 +332,8 @@ public class PowerAuthSDK {
             @NonNull ICallbackDispatcher callbackDispatcher,
             @NonNull IServerStatusProvider serverStatusProvider,
             @NonNull IPowerAuthTimeSynchronizationService timeSynchronizationService,
-            @NonNull IKeystoreService keystoreService) {
+            @NonNull IKeystoreService keystoreService,
+            @NonNull ActivationStatusCache activationStatusCache) {
         this.mLock = sharedLock;
         this.mSession = session;
         this.mConfiguration = configuration;
@@ -289,14 +341,16 @@ public class PowerAuthSDK {
         this.mExecutorProvider = executorProvider;
         this.mClient = client;
         this.mStateListener = stateListener;
-        this.mPossessionFactorEncryptionKeyProvider = possessionKeyProvider;
+        this.mPossessionFactorEncryptionKeyProvider = CachedPossessionFactorEncryptionKeyProvider.wrapIfCacheable(possessionKeyProvider);
         this.mBiometryKeychain = biometryKeychain;
         this.mBiometricDataMapper = biometricDataMapper;
         this.mCallbackDispatcher = callbackDispatcher;
+        this.mSingleFlightRequestRegistry = new SingleFlightRequestRegistry(client, sharedLock, callbackDispatcher);
         this.mTokenStore = new PowerAuthTokenStore(this, tokenStoreKeychain, client);
         this.mServerStatusProvider = serverStatusProvider;
         this.mTimeSynchronizationService = (TimeSynchronizationService) timeSynchronizationService;
         this.mKeystoreService = keystoreService;
+        this.mActivationStatusCache = activationStatusCache;
     }
 
     /**
@@ -363,6 +417,13 @@ public class PowerAuthSDK {
         return mLock;
     }
 
+    /**
+     * @return Registry that allows internal objects to share pending HTTP requests.
+     */
+    @NonNull SingleFlightRequestRegistry getSingleFlightRequestRegistry() {
+        return mSingleFlightRequestRegistry;
+    }
+
     /**
      * Checks for valid SessionSetup and throws a PowerAuthMissingConfigException when the provided configuration
      * is not correct or is missing.
@@ -378,6 +439,7 @@ public class PowerAuthSDK {
 
     /**
      * Return a default device related key used for computing the possession factor encryption key.
+     * If the key provider declares its key as cacheable, then the key is calculated only once.
      * @param context Context.
      * @return Default device related key.
      */
@@ -392,12 +454,37 @@ public class PowerAuthSDK {
      * @param context android context object
      * @param authentication authentication object to be converted
      * @return {@link SignatureUnlockKeys} object with
+     * @throws PowerAuthErrorException In case that authentication session is no longer valid.
+     */
+    private @NonNull SignatureUnlockKeys signatureKeysForAuthentication(@NonNull Context context, @NonNull PowerAuthAuthentication authentication) throws PowerAuthErrorException {
+        return signatureKeysForAuthentication(context, authentication, true);
+    }
+
+    /**
+     * Converts high level authentication object into low level {@link SignatureUnlockKeys} object. The returned keys
+     * must be released with {@link #releaseSignatureKeys(PowerAuthAuthentication, SignatureUnlockKeys)}.
+     *
+     * @param context android context object
+     * @param authentication authentication object to be converted
+     * @param consumeSessionUse If {@code false} and authentication is bound to the authentication session, then the session's
+     *                          use is not consumed, because the operation already consumed it.
+     * @return {@link SignatureUnlockKeys} object with
+     * @throws PowerAuthErrorException In case that authentication session is no longer valid.
      */
-    private @NonNull SignatureUnlockKeys signatureKeysForAuthentication(@NonNull Context context, @NonNull PowerAuthAuthentication authentication) {
+    private @NonNull SignatureUnlockKeys signatureKeysForAuthentication(@NonNull Context context, @NonNull PowerAuthAuthentication authentication, boolean consumeSessionUse) throws PowerAuthErrorException {
 
         // Validate authentication usage for signature calculation.
         authentication.validateAuthenticationUsage(false);
 
+        // Authentication session provides all keys on its own.
+        final PowerAuthAuthenticationSession authenticationSession = authentication.getAuthenticationSession();
+        if (authenticationSession != null) {
+            if (!authenticationSession.isOwnedBy(mAuthenticationSessionGeneration)) {
+                throw new PowerAuthErrorException(PowerAuthErrorCodes.WRONG_PARAMETER, "Authentication session is created by a different PowerAuthSDK instance.");
+            }
+            return authenticationSession.acquireUnlockKeys(deviceRelatedKey(context), consumeSessionUse);
+        }
+
         // Generate signature key encryption keys
         byte[] possessionKey;
         byte[] biometryKey = null;
@@ -416,6 +503,19 @@ public class PowerAuthSDK {
         return new SignatureUnlockKeys(possessionKey, biometryKey, authentication.getPassword());
     }
 
+    /**
+     * Wipe out signature unlock keys, if the keys were acquired from the authentication session. Other keys
+     * are owned by the authentication object.
+     *
+     * @param authentication authentication object used to acquire the keys
+     * @param keys keys to release
+     */
+    private void releaseSignatureKeys(@NonNull PowerAuthAuthentication authentication, @NonNull SignatureUnlockKeys keys) {
+        if (authentication.getAuthenticationSession() != null) {
+            PowerAuthAuthenticationSession.destroyUnlockKeys(keys);
+        }
+    }
+
     /**
      * Converts signature factors from {@link PowerAuthAuthentication} into numeric constant
      * usable in low level signature calculation routines.
@@ -425,6 +525,10 @@ public class PowerAuthSDK {
      */
     @SignatureFactor
     private int determineSignatureFactorForAuthentication(@NonNull PowerAuthAuthentication authentication) {
+        final PowerAuthAuthenticationSession authenticationSession = authentication.getAuthenticationSession();
+        if (authenticationSession != null) {
+            return authenticationSession.getSignatureFactor();
+        }
         @SignatureFactor int factor = SignatureFactor.Possession;
         if (authentication.getPassword() != null) {
             factor |= SignatureFactor.Knowledge;
@@ -448,6 +552,12 @@ public class PowerAuthSDK {
         @MainThread
         void onFetchEncryptedVaultUnlockKeySucceed(String encryptedEncryptionKey);
 
+        /**
+         * Called after the request for the vault key has been canceled.
+         */
+        default void onFetchEncryptedVaultUnlockKeyCanceled() {
+        }
+
         /**
          * Called after the vault key was not acquired from the server.
          *
@@ -500,6 +610,7 @@ public class PowerAuthSDK {
 
                     @Override
                     public void onCancel() {
+                        listener.onFetchEncryptedVaultUnlockKeyCanceled();
                     }
                 });
     }
@@ -565,8 +676,10 @@ public class PowerAuthSDK {
     public void saveSerializedState() {
         try {
             mLock.lock();
+            final long startTime = PowerAuthDiagnostics.start();
             final byte[] state = mSession.serializedState();
             mStateListener.onPowerAuthStateChanged(mConfiguration.getInstanceId(), state);
+            PowerAuthDiagnostics.stop(PowerAuthDiagnostics.Operation.STATE_PERSISTENCE, startTime);
         } finally {
             mLock.unlock();
         }
@@ -641,6 +754,10 @@ public class PowerAuthSDK {
         // After this call, Session.hasValidSetup() no longer return true, because handle is
         // no longer set to a valid C++ Session instance.
         mSession.destroy();
+        // Wipe out the cached possession factor encryption key.
+        if (mPossessionFactorEncryptionKeyProvider instanceof CachedPossessionFactorEncryptionKeyProvider) {
+            ((CachedPossessionFactorEncryptionKeyProvider) mPossessionFactorEncryptionKeyProvider).clear();
+        }
     }
 
     /**
@@ -1129,6 +1246,10 @@ public class PowerAuthSDK {
             PowerAuthLog.e("Password is required to persist activation");
             return PowerAuthErrorCodes.WRONG_PARAMETER;
         }
+        if (authentication.getAuthenticationSession() != null) {
+            PowerAuthLog.e("Authentication session cannot be used to persist activation");
+            return PowerAuthErrorCodes.WRONG_PARAMETER;
+        }
 
         // Validate authentication usage for persist.
         authentication.validateAuthenticationUsage(true);
@@ -1195,7 +1316,7 @@ public class PowerAuthSDK {
     /**
      * Fetch information about the user from the server. If operation succeed, then the user
      * information object is also internally stored and available in {@link #getLastFetchedUserInfo()}
-     * method.
+     * method. If the user information is already being fetched, then the pending request is shared.
      *
      * @param context Android context.
      * @param listener A callback called once the user info is retrieved from the server.
@@ -1204,13 +1325,54 @@ public class PowerAuthSDK {
      */
     @Nullable
     public ICancelable fetchUserInfo(@NonNull Context context, @NonNull IUserInfoListener listener) {
+        return fetchUserInfoImpl(context, "", new GetUserInfoEndpoint(), listener);
+    }
+
+    /**
+     * Fetch information about the user from the server, or return the cached information if it's not older than
+     * the requested maximum age. If the cached information is older, but still within the stale-while-revalidate
+     * window, then the cached information is returned and the cache is refreshed in the background. The information
+     * is cached per activation and persisted in the keychain, so it's available also after the application restart.
+     * The cache is cleared when the activation is removed.
+     * <p>
+     * If operation succeed, then the user information object is also internally stored and available in
+     * {@link #getLastFetchedUserInfo()} method.
+     *
+     * @param context Android context.
+     * @param maxAge Maximum age of the cached information in milliseconds.
+     * @param staleWhileRevalidate Time in milliseconds after the maximum age, during which the stale information
+     *                             is returned while it's refreshed in the background.
+     * @param listener A callback called once the user info is available.
+     * @return {@link ICancelable} object associated with the pending HTTP request.
+     * @throws PowerAuthMissingConfigException thrown in case configuration is not present.
+     */
+    @Nullable
+    public ICancelable fetchUserInfo(@NonNull Context context, long maxAge, long staleWhileRevalidate, @NonNull IUserInfoListener listener) {
+        final EndpointCachePolicy cachePolicy = new EndpointCachePolicy(maxAge, staleWhileRevalidate, true, true);
+        final String requestKey = "maxAge=" + maxAge + ",swr=" + staleWhileRevalidate;
+        return fetchUserInfoImpl(context, requestKey, new GetUserInfoEndpoint(cachePolicy), listener);
+    }
+
+    /**
+     * Fetch information about the user from the server.
+     *
+     * @param context Android context.
+     * @param requestKey Key that identifies the shared request.
+     * @param endpoint Endpoint definition.
+     * @param listener A callback called once the user info is available.
+     * @return {@link ICancelable} object associated with the pending HTTP request.
+     */
+    @Nullable
+    private ICancelable fetchUserInfoImpl(@NonNull Context context, @NonNull String requestKey, @NonNull GetUserInfoEndpoint endpoint, @NonNull IUserInfoListener listener) {
         // State validations
         checkForValidSetup();
-        // Execute HTTP request.
-        return mClient.post(
+        // Execute HTTP request, or join the pending one.
+        return mSingleFlightRequestRegistry.post(
+                requestKey,
                 null,
-                new GetUserInfoEndpoint(),
+                endpoint,
                 getCryptoHelper(context),
+                null,
                 new INetworkResponseListener<Map<String, Object>>() {
                     @Override
                     public void onNetworkResponse(@NonNull Map<String, Object> response) {
@@ -1326,6 +1488,10 @@ public class PowerAuthSDK {
                         if (task == mGetActivationStatusTask) {
                             if (status != null) {
                                 mLastFetchedActivationStatus = status;
+                                final String activationId = mSession.getActivationIdentifier();
+                                if (activationId != null) {
+                                    mActivationStatusCache.update(activationId, status, System.currentTimeMillis());
+                                }
                             }
                             mGetActivationStatusTask = null;
                         }
@@ -1340,6 +1506,375 @@ public class PowerAuthSDK {
         return task;
     }
 
+    /**
+     * Fetch the activation status for current activation, or return the cached status if it's fresh enough.
+     * <p>
+     * The last status received from the server is kept in the memory and is also persisted in the status
+     * keychain, together with the time of its retrieval. The method behaves as follows:
+     * <ul>
+     *     <li>If the cached status is not older than {@code maxAge}, then the cached status is reported
+     *     and no request is sent to the server.</li>
+     *     <li>If the cached status is older than {@code maxAge}, but the age doesn't exceed {@code maxAge + staleWhileRevalidate},
+     *     then the cached status is reported immediately and the status is refreshed in the background. The refreshed
+     *     status is available for the subsequent calls.</li>
+     *     <li>Otherwise, the status is fetched from the server, like with {@link #fetchActivationStatusWithCallback(Context, IActivationStatusListener)}.</li>
+     * </ul>
+     * The cached status is useful for the screens that need to render the status immediately, for example,
+     * right after the application's cold start. Note that the cached status may not reflect the latest state
+     * on the server, so you should not use this method before the operations where the actual status matters.
+     *
+     * @param context               Context
+     * @param maxAge                Maximum age of the cached status in milliseconds.
+     * @param staleWhileRevalidate  Time in milliseconds after {@code maxAge}, during which the stale status is still reported
+     *                              while the status is refreshed in the background. Use 0 to disable this behavior.
+     * @param listener              A callback listener with activation status result - it contains status information in case of success and error in case of failure.
+     * @return {@link ICancelable} object associated with the running HTTP request, or {@code null} if the cached status is reported.
+     * @throws PowerAuthMissingConfigException thrown in case configuration is not present.
+     */
+    public @Nullable
+    ICancelable fetchActivationStatusWithCallback(@NonNull final Context context, long maxAge, long staleWhileRevalidate, @NonNull final IActivationStatusListener listener) {
+
+        // Input validations
+        checkForValidSetup();
+
+        final ActivationStatusCache.Entry entry = mSession.hasValidActivation() ? mActivationStatusCache.getEntry(mSession.getActivationIdentifier()) : null;
+        if (entry != null) {
+            final long age = entry.getAge(System.currentTimeMillis());
+            final boolean isFresh = age <= maxAge;
+            if (isFresh || age - maxAge <= staleWhileRevalidate) {
+                if (!isFresh) {
+                    // Status is stale, so refresh it in the background. Nobody waits for the result, so the request can be deferred.
+                    final IActivationStatusListener refreshListener = new IActivationStatusListener() {
+                        @Override
+                        public void onActivationStatusSucceed(ActivationStatus status) {
+                        }
+
+                        @Override
+                        public void onActivationStatusFailed(@NonNull Throwable t) {
+                            PowerAuthLog.w("Failed to refresh activation status: " + t);
+                        }
+                    };
+                    scheduleDeferredTask(() -> fetchActivationStatusWithCallback(context, refreshListener));
+                }
+                final ActivationStatus cachedStatus = entry.status;
+                dispatchCallback(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onActivationStatusSucceed(cachedStatus);
+                    }
+                });
+                return null;
+            }
+        }
+        return fetchActivationStatusWithCallback(context, listener);
+    }
+
+    /**
+     * Return activation status monitor associated with this SDK instance. The monitor periodically fetches the activation
+     * status in the background and notifies its listeners only when the status changes. The monitor is not started
+     * by default, so you have to call {@link PowerAuthActivationStatusMonitor#start(Context)} to start monitoring.
+     *
+     * @return Instance of {@link PowerAuthActivationStatusMonitor}.
+     */
+    public @NonNull PowerAuthActivationStatusMonitor getActivationStatusMonitor() {
+        try {
+            mLock.lock();
+            if (mActivationStatusMonitor == null) {
+                mActivationStatusMonitor = new PowerAuthActivationStatusMonitor(this);
+            }
+            return mActivationStatusMonitor;
+        } finally {
+            mLock.unlock();
+        }
+    }
+
+    /**
+     * Schedule the background task that can be deferred and executed together with other background tasks.
+     * The task is executed immediately if the deferring is not enabled in {@link PowerAuthClientConfiguration}.
+     *
+     * @param task Task to execute.
+     * @return {@link ICancelable} object that allows cancel the task before it's executed.
+     */
+    @NonNull
+    ICancelable scheduleDeferredTask(@NonNull Runnable task) {
+        return mClient.getDeferredTaskScheduler().schedule(task);
+    }
+
+    /**
+     * Tell activation status monitor that the server rejected the signature, if the monitor exists.
+     */
+    private void reportSignatureFailureToStatusMonitor() {
+        final PowerAuthActivationStatusMonitor monitor;
+        try {
+            mLock.lock();
+            monitor = mActivationStatusMonitor;
+        } finally {
+            mLock.unlock();
+        }
+        if (monitor != null) {
+            monitor.reportSignatureFailure();
+        }
+    }
+
+    // Warm-up
+
+    /**
+     * Prepare the SDK for the first business request. The function performs the preparations defined in options in parallel:
+     * <ul>
+     *     <li>Synchronizes the time with the server.</li>
+     *     <li>Acquires temporary encryption keys for activation and application scoped encryption.</li>
+     *     <li>Fetches the activation status.</li>
+     *     <li>Establishes the TLS connection to the server, if no other preparation requires the network communication.
+     *         If alternative base URLs are configured, then the connection is established to all of them, to measure
+     *         their latency.</li>
+     * </ul>
+     * Preparations that are already fulfilled, or that are not possible in the current activation state, are skipped.
+     * If the same preparation is already running, for example because the application already issued a request that
+     * requires the encryption key, then the warm-up joins the pending operation.
+     *
+     * @param context Android context.
+     * @param options Options defining which preparations should be performed.
+     * @param listener Optional listener called once all preparations are finished. The listener is always called
+     *                 asynchronously, even if there's nothing to prepare. If the warm-up is cancelled, then the listener
+     *                 receives the failure with {@link PowerAuthErrorCodes#OPERATION_CANCELED} error code.
+     * @return {@link ICancelable} object that allows the application to cancel the warm-up.
+     */
+    public @NonNull ICancelable warmUp(@NonNull Context context, @NonNull PowerAuthWarmUpOptions options, @Nullable IWarmUpListener listener) {
+        final Context appContext = context.getApplicationContext();
+        final boolean hasValidActivation = hasValidActivation();
+        final boolean prepareActivationScopeKey = options.isPrepareActivationScopeKey() && hasValidActivation && !mKeystoreService.containsKeyForEncryptor(EciesEncryptorScope.ACTIVATION);
+        final boolean prepareApplicationScopeKey = options.isPrepareApplicationScopeKey() && !mKeystoreService.containsKeyForEncryptor(EciesEncryptorScope.APPLICATION);
+        // Acquiring the temporary key synchronizes the time as well.
+        final boolean synchronizeTime = options.isSynchronizeTime() && !prepareActivationScopeKey && !prepareApplicationScopeKey && !mTimeSynchronizationService.isTimeSynchronized();
+        final boolean fetchActivationStatus = options.isFetchActivationStatus() && hasValidActivation;
+        // Any other request opens the connection as well.
+        final boolean preconnect = options.isPreconnect() && !prepareActivationScopeKey && !prepareApplicationScopeKey && !synchronizeTime && !fetchActivationStatus;
+
+        final boolean[] steps = { prepareActivationScopeKey, prepareApplicationScopeKey, synchronizeTime, fetchActivationStatus, preconnect };
+        int stepsCount = 0;
+        for (boolean step : steps) {
+            if (step) {
+                stepsCount++;
+            }
+        }
+        final WarmUpTask warmUpTask = new WarmUpTask(listener, mCallbackDispatcher, stepsCount);
+        if (prepareActivationScopeKey) {
+            warmUpTask.startStep(mKeystoreService.createKeyForEncryptor(EciesEncryptorScope.ACTIVATION, getCryptoHelper(appContext), warmUpTask.createKeyListener()));
+        }
+        if (prepareApplicationScopeKey) {
+            warmUpTask.startStep(mKeystoreService.createKeyForEncryptor(EciesEncryptorScope.APPLICATION, getCryptoHelper(null), warmUpTask.createKeyListener()));
+        }
+        if (synchronizeTime) {
+            warmUpTask.startStep(mTimeSynchronizationService.synchronizeTime(new ITimeSynchronizationListener() {
+                @Override
+                public void onTimeSynchronizationSucceeded() {
+                    warmUpTask.completeStep(null);
+                }
+
+                @Override
+                public void onTimeSynchronizationFailed(@NonNull Throwable t) {
+                    warmUpTask.completeStep(t);
+                }
+            }));
+        }
+        if (fetchActivationStatus) {
+            warmUpTask.startStep(fetchActivationStatusWithCallback(appContext, new IActivationStatusListener() {
+                @Override
+                public void onActivationStatusSucceed(ActivationStatus status) {
+                    warmUpTask.completeStep(null);
+                }
+
+                @Override
+                public void onActivationStatusFailed(@NonNull Throwable t) {
+                    warmUpTask.completeStep(t);
+                }
+            }));
+        }
+        if (preconnect) {
+            warmUpTask.startStep(mClient.preconnect(new ITaskCompletion<Integer>() {
+                @Override
+                public void onSuccess(@NonNull Integer statusCode) {
+                    warmUpTask.completeStep(null);
+                }
+
+                @Override
+                public void onFailure(@NonNull Throwable failure) {
+                    warmUpTask.completeStep(failure);
+                }
+            }));
+        }
+        warmUpTask.completeStart();
+        return warmUpTask.compositeTask;
+    }
+
+    /**
+     * Set options for the automatic warm-up, performed each time the application goes to the foreground. The automatic
+     * warm-up is disabled by default.
+     *
+     * @param context Android context.
+     * @param options Options for the warm-up, or {@code null} to disable the automatic warm-up.
+     */
+    public void setAutomaticWarmUpOptions(@NonNull Context context, @Nullable PowerAuthWarmUpOptions options) {
+        final Context appContext = context.getApplicationContext();
+        try {
+            mLock.lock();
+            mAutomaticWarmUpOptions = options;
+            mAutomaticWarmUpContext = options != null ? appContext : null;
+        } finally {
+            mLock.unlock();
+        }
+        if (options != null) {
+            PowerAuthAppLifecycleListener.getInstance().registerAutomaticWarmUp(appContext, this);
+        }
+    }
+
+    /**
+     * Called when the application goes to the foreground. Starts the automatic warm-up if it's enabled.
+     */
+    void onApplicationDidEnterForeground() {
+        final PowerAuthWarmUpOptions options;
+        final Context context;
+        try {
+            mLock.lock();
+            options = mAutomaticWarmUpOptions;
+            context = mAutomaticWarmUpContext;
+        } finally {
+            mLock.unlock();
+        }
+        if (options != null && context != null) {
+            PowerAuthLog.d("PowerAuthSDK: Starting automatic warm-up.");
+            final ICancelable warmUpTask = warmUp(context, options, null);
+            try {
+                mLock.lock();
+                mAutomaticWarmUpTask = warmUpTask;
+            } finally {
+                mLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Called when the application goes to the background. Cancels the pending automatic warm-up.
+     */
+    void onApplicationDidEnterBackground() {
+        final ICancelable warmUpTask;
+        try {
+            mLock.lock();
+            warmUpTask = mAutomaticWarmUpTask;
+            mAutomaticWarmUpTask = null;
+        } finally {
+            mLock.unlock();
+        }
+        if (warmUpTask != null) {
+            warmUpTask.cancel();
+        }
+    }
+
+    /**
+     * The {@code WarmUpTask} class tracks parallel warm-up steps and reports the result once all steps are finished.
+     */
+    private static class WarmUpTask {
+
+        final @NonNull CompositeCancelableTask compositeTask = new CompositeCancelableTask(false);
+        private final @Nullable IWarmUpListener listener;
+        private final @NonNull ICallbackDispatcher callbackDispatcher;
+        /**
+         * Number of pending steps, including the start of the warm-up. The step may complete before its start
+         * is reported, so the steps must be counted in advance.
+         */
+        private int pendingSteps;
+        private Throwable failure;
+
+        WarmUpTask(@Nullable IWarmUpListener listener, @NonNull ICallbackDispatcher callbackDispatcher, int stepsCount) {
+            this.listener = listener;
+            this.callbackDispatcher = callbackDispatcher;
+            this.pendingSteps = stepsCount + 1;
+            this.compositeTask.setCancelCallback(this::onCancel);
+        }
+
+        /**
+         * Called when the warm-up is cancelled. The cancel is reported to the listener as a failure.
+         */
+        private void onCancel() {
+            final Throwable cancelFailure = new PowerAuthErrorException(PowerAuthErrorCodes.OPERATION_CANCELED, "Warm-up is cancelled");
+            synchronized (this) {
+                failure = cancelFailure;
+            }
+            PowerAuthLog.d("PowerAuthSDK: Warm-up is cancelled.");
+            if (listener != null) {
+                callbackDispatcher.dispatchCallback(() -> listener.onWarmUpFailed(cancelFailure));
+            }
+        }
+
+        /**
+         * Register started step.
+         * @param cancelable Cancelable object of the step, or {@code null} if the step cannot be cancelled.
+         */
+        void startStep(@Nullable ICancelable cancelable) {
+            if (cancelable != null) {
+                compositeTask.addCancelable(cancelable);
+            }
+        }
+
+        /**
+         * Called when all steps are started.
+         */
+        void completeStart() {
+            completeStep(null);
+        }
+
+        /**
+         * Complete one step.
+         * @param stepFailure Failure of the step, or {@code null} in case of success.
+         */
+        void completeStep(@Nullable Throwable stepFailure) {
+            final Throwable reportedFailure;
+            synchronized (this) {
+                if (stepFailure != null && failure == null) {
+                    failure = stepFailure;
+                }
+                if (--pendingSteps > 0) {
+                    return;
+                }
+                reportedFailure = failure;
+            }
+            if (!compositeTask.setCompleted()) {
+                return;
+            }
+            if (reportedFailure != null) {
+                PowerAuthLog.e("PowerAuthSDK: Warm-up failed: %s", reportedFailure.getMessage());
+            }
+            if (listener != null) {
+                // Always dispatch the result, so the listener is not called from warmUp() when there's no step.
+                callbackDispatcher.dispatchCallback(() -> {
+                    if (reportedFailure == null) {
+                        listener.onWarmUpSucceeded();
+                    } else {
+                        listener.onWarmUpFailed(reportedFailure);
+                    }
+                });
+            }
+        }
+
+        /**
+         * @return Listener for temporary key acquisition step.
+         */
+        @NonNull
+        ICreateKeyListener createKeyListener() {
+            return new ICreateKeyListener() {
+                @Override
+                public void onCreateKeySucceeded() {
+                    completeStep(null);
+                }
+
+                @Override
+                public void onCreateKeyFailed(@NonNull Throwable throwable) {
+                    completeStep(throwable);
+                }
+            };
+        }
+    }
+
     /**
      * Cancels possible pending {@link GetActivationStatusTask}. The method should be called
      * only in rare cases, like when SDK object is going to reset its local state.
@@ -1430,6 +1965,7 @@ public class PowerAuthSDK {
         BiometricAuthentication.getBiometricKeystore().removeBiometricKeyEncryptor(biometricDataMapping.keystoreId);
 
         // Remove all tokens from token store
+        mSingleFlightRequestRegistry.cancelAllRequests();
         getTokenStore().cancelAllRequests();
         getTokenStore().removeAllLocalTokens(context);
 
@@ -1467,13 +2003,26 @@ public class PowerAuthSDK {
      * Clear in-memory cached data.
      */
     private void clearCachedData() {
+        final PowerAuthActivationStatusMonitor monitor;
         try {
             mLock.lock();
             mLastFetchedActivationStatus = null;
             mLastFetchedUserInfo = null;
+            mActivationStatusCache.clear();
+            monitor = mActivationStatusMonitor;
         } finally {
             mLock.unlock();
         }
+        // The response cache accesses the keychain, so purge it after the lock is released.
+        final HttpResponseCache responseCache = mClient.getResponseCache();
+        if (responseCache != null) {
+            responseCache.removeActivationScopedEntries();
+        }
+        // The monitor cancels its pending fetch, which acquires mLock, so notify it after the lock is released.
+        if (monitor != null) {
+            monitor.onActivationRemoved();
+        }
+        invalidateAuthenticationSessions();
     }
 
     /**
@@ -1548,6 +2097,22 @@ public class PowerAuthSDK {
         }
     }
 
+    /**
+     * Determine which diagnostics operation measures the signature calculation.
+     * @param authentication Authentication object used for the signature.
+     * @param signatureFactor Signature factor.
+     * @return Diagnostics operation.
+     */
+    private static @NonNull PowerAuthDiagnostics.Operation getSignatureDiagnosticsOperation(@NonNull PowerAuthAuthentication authentication, @SignatureFactor int signatureFactor) {
+        if ((signatureFactor & SignatureFactor.Knowledge) == 0) {
+            return PowerAuthDiagnostics.Operation.SIGNATURE;
+        }
+        // The authentication session provides already derived password key.
+        return authentication.getAuthenticationSession() != null
+                ? PowerAuthDiagnostics.Operation.SIGNATURE_WITH_SESSION_PASSWORD
+                : PowerAuthDiagnostics.Operation.SIGNATURE_WITH_PASSWORD;
+    }
+
     /**
      * Compute PowerAuth signature for given signature request object and authentication.
      * <p>
@@ -1584,7 +2149,14 @@ public class PowerAuthSDK {
         final SignatureUnlockKeys keys = signatureKeysForAuthentication(context, authentication);
 
         // Calculate signature
-        final SignatureResult signatureResult = mSession.signHTTPRequest(signatureRequest, keys, signatureFactor);
+        final long startTime = PowerAuthDiagnostics.start();
+        final SignatureResult signatureResult;
+        try {
+            signatureResult = mSession.signHTTPRequest(signatureRequest, keys, signatureFactor);
+        } finally {
+            releaseSignatureKeys(authentication, keys);
+        }
+        PowerAuthDiagnostics.stop(getSignatureDiagnosticsOperation(authentication, signatureFactor), startTime);
         if (signatureResult == null) {
             // Should never happen, except that Session was just recently destroyed.
             throw new PowerAuthErrorException(PowerAuthErrorCodes.INVALID_ACTIVATION_STATE, "Session is no longer valid.");
@@ -1671,6 +2243,190 @@ public class PowerAuthSDK {
     }
 
 
+    //
+    // Authentication session
+    //
+
+    /**
+     * Create a short-lived authentication session with the default time to live and maximum number of uses.
+     * See {@link #createAuthenticationSession(Context, PowerAuthAuthentication, long, int)} for more details.
+     *
+     * @param context Android context.
+     * @param authentication Authentication object for the signature calculation.
+     * @return New authentication session.
+     * @throws PowerAuthErrorException In case that there's no activation or the authentication object is not valid.
+     * @throws PowerAuthMissingConfigException thrown in case configuration is not present.
+     */
+    public @NonNull PowerAuthAuthenticationSession createAuthenticationSession(@NonNull Context context, @NonNull PowerAuthAuthentication authentication) throws PowerAuthErrorException {
+        return createAuthenticationSession(context, authentication, PowerAuthAuthenticationSession.DEFAULT_TIME_TO_LIVE, PowerAuthAuthenticationSession.DEFAULT_MAX_USES);
+    }
+
+    /**
+     * Create a short-lived authentication session from the provided authentication object. The session derives
+     * the knowledge factor unlock key only once, so the subsequent signatures calculated with authentication objects
+     * created by {@link PowerAuthAuthenticationSession#createAuthentication()} don't need to perform the expensive
+     * password derivation again.
+     * <p>
+     * The session is automatically invalidated when the time to live expires, when the maximum number of uses is
+     * reached, when the application goes to the background, or when the password is changed or the activation
+     * is removed. You should destroy the session as soon as it's no longer needed.
+     * <p>
+     * Note that the password is not validated during the session creation. If the wrong password is provided, then
+     * the signatures calculated with the session are invalid.
+     *
+     * @param context Android context.
+     * @param authentication Authentication object for the signature calculation.
+     * @param timeToLive Time to live in milliseconds.
+     * @param maxUses Maximum number of signatures that can be calculated with the session.
+     * @return New authentication session.
+     * @throws PowerAuthErrorException In case that there's no activation or the authentication object is not valid.
+     * @throws PowerAuthMissingConfigException thrown in case configuration is not present.
+     */
+    public @NonNull PowerAuthAuthenticationSession createAuthenticationSession(@NonNull Context context, @NonNull PowerAuthAuthentication authentication, long timeToLive, int maxUses) throws PowerAuthErrorException {
+        checkForValidSetup();
+        if (!mSession.hasValidActivation()) {
+            throw new PowerAuthErrorException(PowerAuthErrorCodes.MISSING_ACTIVATION, "Missing activation.");
+        }
+        if (timeToLive <= 0 || maxUses <= 0) {
+            throw new PowerAuthErrorException(PowerAuthErrorCodes.WRONG_PARAMETER, "Time to live and maximum number of uses must be greater than zero.");
+        }
+        if (authentication.getAuthenticationSession() != null) {
+            throw new PowerAuthErrorException(PowerAuthErrorCodes.WRONG_PARAMETER, "Authentication object is already bound to the session.");
+        }
+        authentication.validateAuthenticationUsage(false);
+
+        // Derive the knowledge factor unlock key for once.
+        Password derivedKnowledgeKey = null;
+        if (authentication.getPassword() != null) {
+            derivedKnowledgeKey = mSession.deriveKnowledgeUnlockKey(authentication.getPassword());
+            if (derivedKnowledgeKey == null) {
+                throw new PowerAuthErrorException(PowerAuthErrorCodes.ENCRYPTION_ERROR, "Failed to derive knowledge factor key.");
+            }
+        }
+        final PowerAuthAuthenticationSession authenticationSession = new PowerAuthAuthenticationSession(
+                derivedKnowledgeKey,
+                authentication.getBiometryFactorRelatedKey(),
+                authentication.getOverriddenPossessionKey(),
+                timeToLive,
+                maxUses,
+                mAuthenticationSessionGeneration);
+        PowerAuthAppLifecycleListener.getInstance().registerAuthenticationSession(context, authenticationSession);
+        synchronized (mAuthenticationSessions) {
+            // Remove references to already released sessions
+            final ArrayList<WeakReference<PowerAuthAuthenticationSession>> referencesToRemove = new ArrayList<>();
+            for (WeakReference<PowerAuthAuthenticationSession> weakReference : mAuthenticationSessions) {
+                if (weakReference.get() == null) {
+                    referencesToRemove.add(weakReference);
+                }
+            }
+            mAuthenticationSessions.removeAll(referencesToRemove);
+            mAuthenticationSessions.add(new WeakReference<>(authenticationSession));
+        }
+        return authenticationSession;
+    }
+
+    //
+    // Vault session
+    //
+
+    /**
+     * Unlock the secure vault and create a short-lived vault session with the default time to live and maximum
+     * number of uses. See {@link #createVaultSession(Context, PowerAuthAuthentication, long, int, ICreateVaultSessionListener)}
+     * for more details.
+     *
+     * @param context Android context.
+     * @param authentication Authentication object for vault unlock request.
+     * @param listener Listener with callbacks to the session creation.
+     * @return {@link ICancelable} object associated with the running HTTP request.
+     * @throws PowerAuthMissingConfigException thrown in case configuration is not present.
+     */
+    public @Nullable
+    ICancelable createVaultSession(@NonNull Context context, @NonNull PowerAuthAuthentication authentication, @NonNull ICreateVaultSessionListener listener) {
+        return createVaultSession(context, authentication, PowerAuthVaultSession.DEFAULT_TIME_TO_LIVE, PowerAuthVaultSession.DEFAULT_MAX_USES, listener);
+    }
+
+    /**
+     * Unlock the secure vault and create a short-lived vault session. The session keeps the encrypted vault key
+     * received from the server, so multiple operations with the device private key or multiple key derivations
+     * can be performed after a single vault unlock request.
+     * <p>
+     * The session is automatically invalidated when the time to live expires, when the maximum number of uses is
+     * reached, when the application goes to the background, or when the password is changed or the activation
+     * is removed. You should destroy the session as soon as it's no longer needed.
+     *
+     * @param context Android context.
+     * @param authentication Authentication object for vault unlock request.
+     * @param timeToLive Time to live in milliseconds.
+     * @param maxUses Maximum number of vault operations that can be performed with the session.
+     * @param listener Listener with callbacks to the session creation.
+     * @return {@link ICancelable} object associated with the running HTTP request.
+     * @throws PowerAuthMissingConfigException thrown in case configuration is not present.
+     */
+    public @Nullable
+    ICancelable createVaultSession(@NonNull final Context context, @NonNull PowerAuthAuthentication authentication, final long timeToLive, final int maxUses, @NonNull final ICreateVaultSessionListener listener) {
+        if (timeToLive <= 0 || maxUses <= 0) {
+            dispatchCallback(new Runnable() {
+                @Override
+                public void run() {
+                    listener.onCreateVaultSessionFailed(new PowerAuthErrorException(PowerAuthErrorCodes.WRONG_PARAMETER, "Time to live and maximum number of uses must be greater than zero."));
+                }
+            });
+            return null;
+        }
+        // Capture the generation before the request, so the password change or activation removal
+        // during the request invalidates the session.
+        final int generation = mAuthenticationSessionGeneration.get();
+        return fetchEncryptedVaultUnlockKey(context, authentication, VaultUnlockReason.VAULT_SESSION, new IFetchEncryptedVaultUnlockKeyListener() {
+            @Override
+            public void onFetchEncryptedVaultUnlockKeySucceed(String encryptedEncryptionKey) {
+                if (encryptedEncryptionKey == null) {
+                    listener.onCreateVaultSessionFailed(new PowerAuthErrorException(PowerAuthErrorCodes.INVALID_ACTIVATION_STATE));
+                    return;
+                }
+                if (generation != mAuthenticationSessionGeneration.get()) {
+                    listener.onCreateVaultSessionFailed(new PowerAuthErrorException(PowerAuthErrorCodes.AUTHENTICATION_SESSION_EXPIRED, "Vault session is no longer valid."));
+                    return;
+                }
+                final PowerAuthVaultSession vaultSession = new PowerAuthVaultSession(
+                        mSession,
+                        encryptedEncryptionKey,
+                        deviceRelatedKey(context),
+                        timeToLive,
+                        maxUses,
+                        mAuthenticationSessionGeneration);
+                PowerAuthAppLifecycleListener.getInstance().registerVaultSession(context, vaultSession);
+                listener.onCreateVaultSessionSucceed(vaultSession);
+            }
+
+            @Override
+            public void onFetchEncryptedVaultUnlockKeyFailed(Throwable t) {
+                listener.onCreateVaultSessionFailed(t);
+            }
+        });
+    }
+
+    /**
+     * Invalidate all authentication and vault sessions created by this instance of {@link PowerAuthSDK}.
+     */
+    private void invalidateAuthenticationSessions() {
+        mAuthenticationSessionGeneration.incrementAndGet();
+        // Wipe out the keys of the authentication sessions immediately. The vault sessions are invalidated
+        // by the generation change.
+        final ArrayList<PowerAuthAuthenticationSession> sessionsToInvalidate = new ArrayList<>();
+        synchronized (mAuthenticationSessions) {
+            for (WeakReference<PowerAuthAuthenticationSession> weakReference : mAuthenticationSessions) {
+                final PowerAuthAuthenticationSession session = weakReference.get();
+                if (session != null) {
+                    sessionsToInvalidate.add(session);
+                }
+            }
+            mAuthenticationSessions.clear();
+        }
+        for (PowerAuthAuthenticationSession session : sessionsToInvalidate) {
+            session.onInvalidated();
+        }
+    }
+
     /**
      * Change the password using local re-encryption, do not validate old password by calling any endpoint.
      *
@@ -1703,6 +2459,7 @@ public class PowerAuthSDK {
         final int result = mSession.changeUserPassword(oldPassword, newPassword);
         if (result == ErrorCode.OK) {
             saveSerializedState();
+            invalidateAuthenticationSessions();
             return true;
         }
         return false;
@@ -1744,6 +2501,7 @@ public class PowerAuthSDK {
                 if (result == ErrorCode.OK) {
                     // Update state
                     saveSerializedState();
+                    invalidateAuthenticationSessions();
                     listener.onPasswordChangeSucceed();
                 } else {
                     listener.onPasswordChangeFailed(new PowerAuthErrorException(PowerAuthErrorCodes.INVALID_ACTIVATION_STATE));
@@ -2136,6 +2894,9 @@ public class PowerAuthSDK {
 
                     @Override
                     public void onNetworkError(@NonNull Throwable t) {
+                        if (t instanceof FailedApiException && ((FailedApiException) t).getResponseCode() == 401) {
+                            reportSignatureFailureToStatusMonitor();
+                        }
                         listener.onPasswordValidationFailed(t);
                     }
 
@@ -2327,18 +3088,11 @@ public class PowerAuthSDK {
      */
     @Nullable
     public ICancelable signJwtWithDevicePrivateKey(@NonNull Context context, @NonNull PowerAuthAuthentication authentication, @NonNull Map<String, Object> claims, @NonNull IJwtSignatureListener listener) {
-        final JsonSerialization serialization = new JsonSerialization();
-        final String jwtHeader = "eyJhbGciOiJFUzI1NiIsInR5cCI6IkpXVCJ9"; // {"alg":"ES256","typ":"JWT"}
-        final String jwtClaims = serialization.serializeJwtObject(claims);
-        final String jwtHeaderAndClaims = jwtHeader + "." + jwtClaims;
+        final String jwtHeaderAndClaims = prepareJwtHeaderAndClaims(claims);
         return signDataWithDevicePrivateKeyImpl(context, authentication, jwtHeaderAndClaims.getBytes(StandardCharsets.US_ASCII), SignatureFormat.ECDSA_JOSE, new IDataSignatureListener() {
             @Override
             public void onDataSignedSucceed(@NonNull byte[] signature) {
-                // Encoded signature
-                final String jwtSignature = Base64.encodeToString(signature, Base64.NO_WRAP | Base64.URL_SAFE | Base64.NO_PADDING);
-                // Construct final JWT
-                final String jwt = jwtHeaderAndClaims + "." + jwtSignature;
-                listener.onJwtSignatureSucceed(jwt);
+                listener.onJwtSignatureSucceed(composeJwt(jwtHeaderAndClaims, signature));
             }
 
             @Override
@@ -2348,6 +3102,31 @@ public class PowerAuthSDK {
         });
     }
 
+    /**
+     * Prepare JWT header and claims for the signature calculation with the device private key.
+     * @param claims Claims to be signed with the private key.
+     * @return Base64 encoded JWT header and claims, separated by dot.
+     */
+    @NonNull
+    static String prepareJwtHeaderAndClaims(@NonNull Map<String, Object> claims) {
+        final JsonSerialization serialization = new JsonSerialization();
+        final String jwtHeader = "eyJhbGciOiJFUzI1NiIsInR5cCI6IkpXVCJ9"; // {"alg":"ES256","typ":"JWT"}
+        final String jwtClaims = serialization.serializeJwtObject(claims);
+        return jwtHeader + "." + jwtClaims;
+    }
+
+    /**
+     * Construct final JWT from header and claims and the signature.
+     * @param jwtHeaderAndClaims Header and claims prepared by {@link #prepareJwtHeaderAndClaims(Map)}.
+     * @param signature ECDSA signature in JOSE format.
+     * @return Final JWT.
+     */
+    @NonNull
+    static String composeJwt(@NonNull String jwtHeaderAndClaims, @NonNull byte[] signature) {
+        final String jwtSignature = Base64.encodeToString(signature, Base64.NO_WRAP | Base64.URL_SAFE | Base64.NO_PADDING);
+        return jwtHeaderAndClaims + "." + jwtSignature;
+    }
+
     // E2EE
 
     /**
@@ -2425,6 +3204,9 @@ public class PowerAuthSDK {
      * at the time. The PowerAuth signatures are based on a logical counter, so this technique makes that all requests are delivered
      * to the server in the right order. So, if the application is creating its own signed requests, then it's recommended to synchronize
      * them with the SDK.
+     * <p>
+     * If {@link PowerAuthClientConfiguration#getMaxConcurrentSignedRequests()} is greater than 1, then the SDK keeps only
+     * the signature calculation in this executor and the network communication of its signed requests runs concurrently.
      *
      * <h3>Recommended practices</h3>
      * <ul>
@@ -2487,11 +3269,45 @@ public class PowerAuthSDK {
             return null;
         }
 
+        // The vault unlock request may consume the last use of the authentication session and the session is then
+        // destroyed, so acquire the keys for the recovery data decryption before the request.
+        final SignatureUnlockKeys sessionKeys;
+        if (authentication.getAuthenticationSession() != null) {
+            try {
+                sessionKeys = signatureKeysForAuthentication(context, authentication, false);
+            } catch (PowerAuthErrorException e) {
+                dispatchCallback(new Runnable() {
+                    @Override
+                    public void run() {
+                        listener.onGetRecoveryDataFailed(e);
+                    }
+                });
+                return null;
+            }
+        } else {
+            sessionKeys = null;
+        }
+
         return fetchEncryptedVaultUnlockKey(context, authentication, VaultUnlockReason.RECOVERY_CODE, new IFetchEncryptedVaultUnlockKeyListener() {
             @Override
             public void onFetchEncryptedVaultUnlockKeySucceed(String encryptedEncryptionKey) {
-                final SignatureUnlockKeys keys = signatureKeysForAuthentication(context, authentication);
-                final RecoveryData recoveryData = mSession.getActivationRecoveryData(encryptedEncryptionKey, keys);
+                final SignatureUnlockKeys keys;
+                if (sessionKeys != null) {
+                    keys = sessionKeys;
+                } else {
+                    try {
+                        keys = signatureKeysForAuthentication(context, authentication, false);
+                    } catch (PowerAuthErrorException e) {
+                        listener.onGetRecoveryDataFailed(e);
+                        return;
+                    }
+                }
+                final RecoveryData recoveryData;
+                try {
+                    recoveryData = mSession.getActivationRecoveryData(encryptedEncryptionKey, keys);
+                } finally {
+                    releaseSignatureKeys(authentication, keys);
+                }
                 if (recoveryData != null) {
                     listener.onGetRecoveryDataSucceeded(recoveryData);
                 } else {
@@ -2501,8 +3317,18 @@ public class PowerAuthSDK {
 
             @Override
             public void onFetchEncryptedVaultUnlockKeyFailed(Throwable throwable) {
+                if (sessionKeys != null) {
+                    releaseSignatureKeys(authentication, sessionKeys);
+                }
                 listener.onGetRecoveryDataFailed(throwable);
             }
+
+            @Override
+            public void onFetchEncryptedVaultUnlockKeyCanceled() {
+                if (sessionKeys != null) {
+                    releaseSignatureKeys(authentication, sessionKeys);
+                }
+            }
         });
     }
 
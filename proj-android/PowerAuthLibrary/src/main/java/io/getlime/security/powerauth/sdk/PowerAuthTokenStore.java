@@ -353,7 +353,8 @@ public class PowerAuthTokenStore {
      * <p>
      * Note that if the removal request doesn't succeed, then the local token's data is not removed.
      * The method is thread safe, but it's not recommended to issue conflicting request for the same
-     * token's name in parallel (e.g. create &amp; remove token at the same time).
+     * token's name in parallel (e.g. create &amp; remove token at the same time). Multiple removal requests
+     * for the same token share one HTTP request.
      *
      * @param context Context
      * @param tokenName Name of token to be removed
@@ -387,11 +388,12 @@ public class PowerAuthTokenStore {
             return null;
         }
 
-        // Launch HTTP request...
+        // Launch HTTP request, or join the pending removal of the same token...
         final TokenRemoveRequest request = new TokenRemoveRequest();
         request.setTokenId(tokenData.identifier);
 
-        return httpClient.post(
+        return sdk.getSingleFlightRequestRegistry().post(
+                tokenData.identifier,
                 request,
                 new RemoveTokenEndpoint(),
                 sdk.getCryptoHelper(context),
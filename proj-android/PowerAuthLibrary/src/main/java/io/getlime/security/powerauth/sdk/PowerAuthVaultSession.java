@@ -0,0 +1,295 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.sdk;
+
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import io.getlime.security.powerauth.core.Session;
+import io.getlime.security.powerauth.core.SignatureFormat;
+import io.getlime.security.powerauth.core.SignatureUnlockKeys;
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.system.PowerAuthCleaner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The {@code PowerAuthVaultSession} class represents a short-lived session with an unlocked secure vault.
+ * The session keeps the encrypted vault key received from the server in the memory for a limited time or
+ * for a limited number of uses, so multiple vault operations, such as signing multiple JWTs or deriving
+ * multiple cryptographic keys, require only one vault unlock request.
+ * <p>
+ * The session is invalidated and the vault key is wiped out when:
+ * <ul>
+ *     <li>The time to live expires.</li>
+ *     <li>The maximum number of uses is reached.</li>
+ *     <li>The {@link #destroy()} method is called.</li>
+ *     <li>The application goes to the background.</li>
+ *     <li>The password is changed or the activation is removed.</li>
+ * </ul>
+ * Use {@link PowerAuthSDK#createVaultSession(android.content.Context, PowerAuthAuthentication, long, int, io.getlime.security.powerauth.networking.response.ICreateVaultSessionListener)}
+ * to create a new session. All methods of the session are synchronous and don't communicate with the server.
+ */
+public class PowerAuthVaultSession {
+
+    /**
+     * Default time to live for the session in milliseconds.
+     */
+    public static final long DEFAULT_TIME_TO_LIVE = 30_000;
+    /**
+     * Default maximum number of uses of the session.
+     */
+    public static final int DEFAULT_MAX_USES = 10;
+
+    /**
+     * Low level session that owns the vault.
+     */
+    private final @NonNull Session session;
+    /**
+     * Encrypted vault key received from the server, in ASCII representation. The key is never converted
+     * back to {@code String}, so no immutable copy of the key stays in the memory after the session is destroyed.
+     */
+    private final @NonNull byte[] encryptedVaultKey;
+    /**
+     * Possession factor related key.
+     */
+    private final @NonNull byte[] possessionKey;
+    /**
+     * Wipes out the keys when the application doesn't destroy the session.
+     */
+    private final @NonNull PowerAuthCleaner.Cleanable cleanable;
+    /**
+     * Time in milliseconds (measured by {@link SystemClock#elapsedRealtime()}) when the session expires.
+     */
+    private final long expiration;
+    /**
+     * Generation counter owned by {@link PowerAuthSDK}. If the counter's value is different than
+     * {@link #generation}, then the session is no longer valid.
+     */
+    private final @NonNull AtomicInteger generationCounter;
+    /**
+     * Generation captured at the time of the session creation.
+     */
+    private final int generation;
+    /**
+     * Number of remaining uses.
+     */
+    private int remainingUses;
+    /**
+     * Contains {@code true} if session has been already destroyed.
+     */
+    private boolean isDestroyed;
+
+    /**
+     * Construct the vault session. The constructor makes copy of the possession key.
+     *
+     * @param session Low level session that owns the vault.
+     * @param encryptedVaultKey Encrypted vault key received from the server.
+     * @param possessionKey Possession factor related key.
+     * @param timeToLive Time to live in milliseconds.
+     * @param maxUses Maximum number of uses.
+     * @param generationCounter Generation counter owned by {@link PowerAuthSDK}.
+     */
+    PowerAuthVaultSession(
+            @NonNull Session session,
+            @NonNull String encryptedVaultKey,
+            @NonNull byte[] possessionKey,
+            long timeToLive,
+            int maxUses,
+            @NonNull AtomicInteger generationCounter) {
+        this.session = session;
+        this.encryptedVaultKey = encryptedVaultKey.getBytes(StandardCharsets.US_ASCII);
+        this.possessionKey = Arrays.copyOf(possessionKey, possessionKey.length);
+        this.expiration = SystemClock.elapsedRealtime() + timeToLive;
+        this.remainingUses = maxUses;
+        this.generationCounter = generationCounter;
+        this.generation = generationCounter.get();
+        final byte[] vaultKeyToWipe = this.encryptedVaultKey;
+        final byte[] possessionKeyToWipe = this.possessionKey;
+        this.cleanable = PowerAuthCleaner.register(this, () -> {
+            Arrays.fill(vaultKeyToWipe, (byte) 0);
+            Arrays.fill(possessionKeyToWipe, (byte) 0);
+        });
+    }
+
+    /**
+     * Sign provided data with the device private key stored in the secure vault. The operation consumes one use
+     * of the session.
+     *
+     * @param data Data to be signed.
+     * @return ECDSA signature in DER format.
+     * @throws PowerAuthErrorException In case that session is no longer valid or the signature calculation failed.
+     */
+    @NonNull
+    public byte[] signDataWithDevicePrivateKey(@NonNull byte[] data) throws PowerAuthErrorException {
+        return signDataImpl(data, SignatureFormat.ECDSA_DER);
+    }
+
+    /**
+     * Sign provided claims with the device private key stored in the secure vault and produce JWT signed with
+     * ES256 algorithm. The operation consumes one use of the session.
+     *
+     * @param claims Claims to be signed with the private key.
+     * @return JWT string.
+     * @throws PowerAuthErrorException In case that session is no longer valid or the signature calculation failed.
+     */
+    @NonNull
+    public String signJwtWithDevicePrivateKey(@NonNull Map<String, Object> claims) throws PowerAuthErrorException {
+        final String jwtHeaderAndClaims = PowerAuthSDK.prepareJwtHeaderAndClaims(claims);
+        final byte[] signature = signDataImpl(jwtHeaderAndClaims.getBytes(StandardCharsets.US_ASCII), SignatureFormat.ECDSA_JOSE);
+        return PowerAuthSDK.composeJwt(jwtHeaderAndClaims, signature);
+    }
+
+    /**
+     * Derive a cryptographic key with given index from the vault key. The function produces the same key as
+     * {@link PowerAuthSDK#fetchEncryptionKey(android.content.Context, PowerAuthAuthentication, long, io.getlime.security.powerauth.networking.response.IFetchEncryptionKeyListener)}.
+     * The operation consumes one use of the session.
+     *
+     * @param index Index of the derived key.
+     * @return Derived cryptographic key.
+     * @throws PowerAuthErrorException In case that session is no longer valid or the key derivation failed.
+     */
+    @NonNull
+    public byte[] deriveCryptographicKey(long index) throws PowerAuthErrorException {
+        synchronized (this) {
+            final byte[] key;
+            try {
+                key = session.deriveCryptographicKeyFromVaultKey(acquireVaultKey(), createUnlockKeys(), index);
+            } finally {
+                releaseVaultKey();
+            }
+            if (key == null) {
+                throw new PowerAuthErrorException(PowerAuthErrorCodes.INVALID_ACTIVATION_DATA, "Failed to derive cryptographic key.");
+            }
+            return key;
+        }
+    }
+
+    /**
+     * @return {@code true} if the session is still valid and can be used for the vault operations.
+     */
+    public boolean isValid() {
+        synchronized (this) {
+            return isValidImpl();
+        }
+    }
+
+    /**
+     * @return Number of remaining uses or 0 if the session is no longer valid.
+     */
+    public int getRemainingUses() {
+        synchronized (this) {
+            return isValidImpl() ? remainingUses : 0;
+        }
+    }
+
+    /**
+     * Destroy the session and wipe out the vault key. After this call, the session becomes unusable.
+     */
+    public void destroy() {
+        synchronized (this) {
+            if (isDestroyed) {
+                return;
+            }
+            isDestroyed = true;
+            cleanable.clean();
+        }
+    }
+
+    // Internal interfaces
+
+    /**
+     * Called when the application goes to the background.
+     */
+    void onApplicationDidEnterBackground() {
+        destroy();
+    }
+
+    // Private methods
+
+    /**
+     * Sign data with the device private key.
+     * @param data Data to sign.
+     * @param signatureFormat Format of output signature.
+     * @return Calculated signature.
+     * @throws PowerAuthErrorException In case that session is no longer valid or the signature calculation failed.
+     */
+    @NonNull
+    private byte[] signDataImpl(@NonNull byte[] data, @SignatureFormat int signatureFormat) throws PowerAuthErrorException {
+        synchronized (this) {
+            final byte[] signature;
+            try {
+                signature = session.signDataWithDevicePrivateKey(acquireVaultKey(), createUnlockKeys(), data, signatureFormat);
+            } finally {
+                releaseVaultKey();
+            }
+            if (signature == null) {
+                throw new PowerAuthErrorException(PowerAuthErrorCodes.INVALID_ACTIVATION_DATA, "Failed to sign data with device private key.");
+            }
+            return signature;
+        }
+    }
+
+    /**
+     * Consume one use of the session and return the encrypted vault key. The function must be called
+     * in synchronized block and the returned array must not leave the block, because it's wiped out
+     * once the session is destroyed.
+     *
+     * @return Encrypted vault key in ASCII representation.
+     * @throws PowerAuthErrorException In case that session is no longer valid.
+     */
+    @NonNull
+    private byte[] acquireVaultKey() throws PowerAuthErrorException {
+        if (!isValidImpl()) {
+            destroy();
+            throw new PowerAuthErrorException(PowerAuthErrorCodes.AUTHENTICATION_SESSION_EXPIRED, "Vault session is no longer valid.");
+        }
+        remainingUses--;
+        return encryptedVaultKey;
+    }
+
+    /**
+     * Wipe out the vault key if the last use of the session has been consumed. The function must be called
+     * in synchronized block.
+     */
+    private void releaseVaultKey() {
+        if (remainingUses <= 0) {
+            destroy();
+        }
+    }
+
+    /**
+     * @return Unlock keys for the vault operation. The function must be called in synchronized block.
+     */
+    @NonNull
+    private SignatureUnlockKeys createUnlockKeys() {
+        return new SignatureUnlockKeys(possessionKey, null, null);
+    }
+
+    /**
+     * @return {@code true} if session is still valid. The function must be called in synchronized block.
+     */
+    private boolean isValidImpl() {
+        return !isDestroyed &&
+                remainingUses > 0 &&
+                generationCounter.get() == generation &&
+                SystemClock.elapsedRealtime() < expiration;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.sdk;
+
+import androidx.annotation.NonNull;
+
+/**
+ * The {@code PowerAuthWarmUpOptions} class defines which preparations are performed by
+ * {@link PowerAuthSDK#warmUp(android.content.Context, PowerAuthWarmUpOptions, io.getlime.security.powerauth.networking.response.IWarmUpListener)}.
+ * Use {@link Builder} to create an instance of this class. By default, all preparations are enabled.
+ */
+public class PowerAuthWarmUpOptions {
+
+    private final boolean synchronizeTime;
+    private final boolean prepareActivationScopeKey;
+    private final boolean prepareApplicationScopeKey;
+    private final boolean preconnect;
+    private final boolean fetchActivationStatus;
+
+    /**
+     * @return {@code true} if time should be synchronized with the server.
+     */
+    public boolean isSynchronizeTime() {
+        return synchronizeTime;
+    }
+
+    /**
+     * @return {@code true} if temporary encryption key for activation scoped encryption should be acquired.
+     */
+    public boolean isPrepareActivationScopeKey() {
+        return prepareActivationScopeKey;
+    }
+
+    /**
+     * @return {@code true} if temporary encryption key for application scoped encryption should be acquired.
+     */
+    public boolean isPrepareApplicationScopeKey() {
+        return prepareApplicationScopeKey;
+    }
+
+    /**
+     * @return {@code true} if TLS connection to the server should be established in advance.
+     */
+    public boolean isPreconnect() {
+        return preconnect;
+    }
+
+    /**
+     * @return {@code true} if activation status should be fetched.
+     */
+    public boolean isFetchActivationStatus() {
+        return fetchActivationStatus;
+    }
+
+    /**
+     * Private constructor. Use {@link Builder} to create an instance of this class.
+     */
+    private PowerAuthWarmUpOptions(
+            boolean synchronizeTime,
+            boolean prepareActivationScopeKey,
+            boolean prepareApplicationScopeKey,
+            boolean preconnect,
+            boolean fetchActivationStatus) {
+        this.synchronizeTime = synchronizeTime;
+        this.prepareActivationScopeKey = prepareActivationScopeKey;
+        this.prepareApplicationScopeKey = prepareApplicationScopeKey;
+        this.preconnect = preconnect;
+        this.fetchActivationStatus = fetchActivationStatus;
+    }
+
+    /**
+     * A builder that collects arguments for {@link PowerAuthWarmUpOptions}.
+     */
+    public static class Builder {
+        private boolean synchronizeTime = true;
+        private boolean prepareActivationScopeKey = true;
+        private boolean prepareApplicationScopeKey = true;
+        private boolean preconnect = true;
+        private boolean fetchActivationStatus = true;
+
+        /**
+         * Creates a builder for {@link PowerAuthWarmUpOptions}.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Enable or disable time synchronization. Note that the time is also synchronized when the temporary
+         * encryption key is acquired from the server, so the separate request is not sent in such case.
+         *
+         * @param synchronizeTime {@code true} to synchronize time with the server.
+         * @return The same {@link Builder} object instance.
+         */
+        public @NonNull Builder synchronizeTime(boolean synchronizeTime) {
+            this.synchronizeTime = synchronizeTime;
+            return this;
+        }
+
+        /**
+         * Enable or disable acquiring temporary encryption key for activation scoped encryption. The key is
+         * acquired only if there's a valid activation.
+         *
+         * @param prepareActivationScopeKey {@code true} to acquire the key.
+         * @return The same {@link Builder} object instance.
+         */
+        public @NonNull Builder prepareActivationScopeKey(boolean prepareActivationScopeKey) {
+            this.prepareActivationScopeKey = prepareActivationScopeKey;
+            return this;
+        }
+
+        /**
+         * Enable or disable acquiring temporary encryption key for application scoped encryption.
+         *
+         * @param prepareApplicationScopeKey {@code true} to acquire the key.
+         * @return The same {@link Builder} object instance.
+         */
+        public @NonNull Builder prepareApplicationScopeKey(boolean prepareApplicationScopeKey) {
+            this.prepareApplicationScopeKey = prepareApplicationScopeKey;
+            return this;
+        }
+
+        /**
+         * Enable or disable establishing TLS connection to the server in advance. The connection is established
+         * only if no other preparation requires communication with the server, because such request opens
+         * the connection as well.
+         *
+         * @param preconnect {@code true} to establish the connection.
+         * @return The same {@link Builder} object instance.
+         */
+        public @NonNull Builder preconnect(boolean preconnect) {
+            this.preconnect = preconnect;
+            return this;
+        }
+
+        /**
+         * Enable or disable fetching the activation status. The status is fetched only if there's a valid activation.
+         *
+         * @param fetchActivationStatus {@code true} to fetch the activation status.
+         * @return The same {@link Builder} object instance.
+         */
+        public @NonNull Builder fetchActivationStatus(boolean fetchActivationStatus) {
+            this.fetchActivationStatus = fetchActivationStatus;
+            return this;
+        }
+
+        /**
+         * Build a final options object.
+         *
+         * @return Final {@link PowerAuthWarmUpOptions} instance.
+         */
+        public @NonNull PowerAuthWarmUpOptions build() {
+            return new PowerAuthWarmUpOptions(synchronizeTime, prepareActivationScopeKey, prepareApplicationScopeKey, preconnect, fetchActivationStatus);
+        }
+    }
+}
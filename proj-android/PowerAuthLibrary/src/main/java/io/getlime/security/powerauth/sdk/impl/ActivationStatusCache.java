@@ -0,0 +1,226 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.sdk.impl;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.util.concurrent.Executor;
+
+import io.getlime.security.powerauth.core.ActivationStatus;
+import io.getlime.security.powerauth.keychain.Keychain;
+import io.getlime.security.powerauth.networking.client.JsonSerialization;
+import io.getlime.security.powerauth.system.PowerAuthLog;
+
+/**
+ * The {@code ActivationStatusCache} class keeps the last {@link ActivationStatus} received from the server,
+ * together with the time of its retrieval. The status is also persisted in the status keychain, so the
+ * application can get the last known status immediately after the cold start.
+ * <p>
+ * The status is kept in its serialized form and each caller receives its own copy of the cached entry, so
+ * a caller cannot modify the status returned to other callers.
+ * <p>
+ * The class is thread safe. The keychain is never accessed while the cache's monitor is held and the status
+ * is persisted on the background executor, so the update doesn't block the main thread.
+ */
+public class ActivationStatusCache {
+
+    /**
+     * The {@code Entry} class represents the cached status. The class is also used for the status persistence.
+     */
+    public static class Entry {
+        /**
+         * Activation identifier that belongs to the status.
+         */
+        public final String activationId;
+        /**
+         * Time of the status retrieval, in milliseconds since the Unix epoch.
+         */
+        public final long timestamp;
+        /**
+         * Cached activation status.
+         */
+        public final ActivationStatus status;
+
+        Entry(@NonNull String activationId, long timestamp, @NonNull ActivationStatus status) {
+            this.activationId = activationId;
+            this.timestamp = timestamp;
+            this.status = status;
+        }
+
+        /**
+         * Get age of the cached status.
+         * @param now Current time in milliseconds since the Unix epoch.
+         * @return Age of the cached status in milliseconds or {@code Long.MAX_VALUE} if the status
+         *         was created in the future. This may happen when the system time is changed.
+         */
+        public long getAge(long now) {
+            final long age = now - timestamp;
+            return age >= 0 ? age : Long.MAX_VALUE;
+        }
+    }
+
+    private final @NonNull Keychain keychain;
+    private final @NonNull String keychainKey;
+    private final @NonNull JsonSerialization serialization;
+    private final @NonNull Executor persistenceExecutor;
+
+    /**
+     * Lock that serializes the keychain access. The lock is never acquired while the monitor is held.
+     */
+    private final @NonNull Object keychainLock = new Object();
+
+    private boolean isLoaded;
+    private @Nullable String entryActivationId;
+    private @Nullable byte[] entryData;
+
+    /**
+     * Construct the cache.
+     *
+     * @param keychain Keychain to persist the status.
+     * @param instanceId Identifier of PowerAuthSDK instance.
+     * @param persistenceExecutor Background executor for the status persistence.
+     */
+    public ActivationStatusCache(@NonNull Keychain keychain, @NonNull String instanceId, @NonNull Executor persistenceExecutor) {
+        this.keychain = keychain;
+        this.persistenceExecutor = persistenceExecutor;
+        this.keychainKey = instanceId + ".lastActivationStatus";
+        this.serialization = new JsonSerialization();
+    }
+
+    /**
+     * Get cached status for the activation. If the status is not in the memory yet, then the status
+     * is loaded from the keychain.
+     *
+     * @param activationId Current activation identifier.
+     * @return Cached entry or {@code null} if there's no status cached for the activation.
+     */
+    @Nullable
+    public Entry getEntry(@Nullable String activationId) {
+        if (activationId == null) {
+            return null;
+        }
+        loadEntry();
+        final byte[] data;
+        synchronized (this) {
+            data = activationId.equals(entryActivationId) ? entryData : null;
+        }
+        // Create a new copy of the entry for each caller.
+        return data != null ? deserializeEntry(data) : null;
+    }
+
+    /**
+     * Store a new status to the cache.
+     *
+     * @param activationId Activation identifier that belongs to the status.
+     * @param status Status received from the server.
+     * @param timestamp Time of the status retrieval, in milliseconds since the Unix epoch.
+     */
+    public void update(@NonNull String activationId, @NonNull ActivationStatus status, long timestamp) {
+        final byte[] data;
+        try {
+            data = serialization.serializeObject(new Entry(activationId, timestamp, status));
+        } catch (Throwable t) {
+            PowerAuthLog.e("ActivationStatusCache: Failed to serialize activation status: %s", t);
+            return;
+        }
+        synchronized (this) {
+            entryActivationId = activationId;
+            entryData = data;
+            isLoaded = true;
+        }
+        persistenceExecutor.execute(this::persistEntry);
+    }
+
+    /**
+     * Remove the cached status from the memory and from the keychain.
+     */
+    public void clear() {
+        synchronized (this) {
+            entryActivationId = null;
+            entryData = null;
+            isLoaded = true;
+        }
+        persistenceExecutor.execute(this::persistEntry);
+    }
+
+    /**
+     * Store the current entry to the keychain, or remove it from the keychain if there's no entry. The function
+     * always stores the latest entry, so it doesn't matter in which order the calls scheduled on the executor
+     * are performed.
+     */
+    private void persistEntry() {
+        synchronized (keychainLock) {
+            final byte[] data;
+            synchronized (this) {
+                data = entryData;
+            }
+            try {
+                if (data != null) {
+                    keychain.putData(data, keychainKey);
+                } else {
+                    keychain.remove(keychainKey);
+                }
+            } catch (Throwable t) {
+                PowerAuthLog.e("ActivationStatusCache: Failed to persist activation status: %s", t);
+            }
+        }
+    }
+
+    /**
+     * Load the status from the keychain, if not loaded yet. The loaded status is ignored if the cache was
+     * updated in the meantime.
+     */
+    private void loadEntry() {
+        synchronized (this) {
+            if (isLoaded) {
+                return;
+            }
+        }
+        synchronized (keychainLock) {
+            final byte[] data = keychain.getData(keychainKey);
+            final Entry loadedEntry = data != null ? deserializeEntry(data) : null;
+            synchronized (this) {
+                if (!isLoaded) {
+                    isLoaded = true;
+                    entryActivationId = loadedEntry != null ? loadedEntry.activationId : null;
+                    entryData = loadedEntry != null ? data : null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Deserialize the cached entry.
+     * @param data Serialized entry.
+     * @return Deserialized entry or {@code null} if the data doesn't contain a valid entry.
+     */
+    @Nullable
+    private Entry deserializeEntry(@NonNull byte[] data) {
+        try {
+            final Entry entry = serialization.deserializeObject(data, TypeToken.get(Entry.class));
+            if (entry != null && entry.activationId != null && entry.status != null) {
+                return entry;
+            }
+        } catch (Throwable t) {
+            PowerAuthLog.e("ActivationStatusCache: Failed to restore activation status: %s", t);
+        }
+        return null;
+    }
+}
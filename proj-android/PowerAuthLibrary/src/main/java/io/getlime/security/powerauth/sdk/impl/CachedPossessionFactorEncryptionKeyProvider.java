@@ -0,0 +1,85 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.sdk.impl;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * The {@code CachedPossessionFactorEncryptionKeyProvider} class wraps another {@link IPossessionFactorEncryptionKeyProvider}
+ * and keeps the provided key in the memory, so the key is calculated only once. The cached key can be wiped out
+ * from the memory by calling {@link #clear()}.
+ */
+public class CachedPossessionFactorEncryptionKeyProvider implements IPossessionFactorEncryptionKeyProvider {
+
+    private final @NonNull IPossessionFactorEncryptionKeyProvider provider;
+    private @Nullable byte[] cachedKey;
+
+    /**
+     * Construct object with the provider that calculates the key.
+     * @param provider Provider that calculates the key.
+     */
+    public CachedPossessionFactorEncryptionKeyProvider(@NonNull IPossessionFactorEncryptionKeyProvider provider) {
+        this.provider = provider;
+    }
+
+    /**
+     * Wrap the provided key provider into the caching provider, if the provider declares its key as cacheable.
+     * @param provider Provider to wrap.
+     * @return Caching provider or the original provider if its key cannot be cached.
+     */
+    @NonNull
+    public static IPossessionFactorEncryptionKeyProvider wrapIfCacheable(@NonNull IPossessionFactorEncryptionKeyProvider provider) {
+        if (provider instanceof CachedPossessionFactorEncryptionKeyProvider || !provider.isPossessionFactorEncryptionKeyCacheable()) {
+            return provider;
+        }
+        return new CachedPossessionFactorEncryptionKeyProvider(provider);
+    }
+
+    @NonNull
+    @Override
+    public byte[] getPossessionFactorEncryptionKey(@NonNull Context context) {
+        synchronized (this) {
+            if (cachedKey == null) {
+                cachedKey = provider.getPossessionFactorEncryptionKey(context);
+            }
+            // Return copy, so the caller cannot modify the cached key.
+            return Arrays.copyOf(cachedKey, cachedKey.length);
+        }
+    }
+
+    @Override
+    public boolean isPossessionFactorEncryptionKeyCacheable() {
+        return true;
+    }
+
+    /**
+     * Wipe out the cached key from the memory. The key is calculated again on the next request.
+     */
+    public void clear() {
+        synchronized (this) {
+            if (cachedKey != null) {
+                Arrays.fill(cachedKey, (byte) 0);
+                cachedKey = null;
+            }
+        }
+    }
+}
@@ -16,6 +16,8 @@
 
 package io.getlime.security.powerauth.sdk.impl;
 
+import android.os.Handler;
+
 import androidx.annotation.NonNull;
 
 import java.util.ArrayList;
@@ -41,6 +43,8 @@ public class CompositeCancelableTask implements ICancelable {
     private boolean isCompleted;
     private final ArrayList<ICancelable> cancelables;
     private ICancelCallback cancelCallback;
+    private Handler timeoutHandler;
+    private Runnable timeoutRunnable;
 
     @FunctionalInterface
     public interface ICancelCallback {
@@ -78,6 +82,51 @@ public class CompositeCancelableTask implements ICancelable {
         this.cancelCallback = cancelCallback;
     }
 
+    /**
+     * Complete the task automatically once the timeout elapses. If the task is not finished at that time,
+     * then all managed cancelable objects are canceled and the expire callback is called. The task then behaves
+     * as completed, so the {@link #setCompleted()} returns false.
+     *
+     * @param handler Handler used for scheduling the timeout.
+     * @param timeout Timeout in milliseconds.
+     * @param expireCallback Callback called once the timeout elapses.
+     */
+    public void setTimeout(@NonNull Handler handler, long timeout, @NonNull Runnable expireCallback) {
+        final Runnable runnable = () -> {
+            final ArrayList<ICancelable> cancelablesToCancel;
+            synchronized (this) {
+                if (!isNotFinished()) {
+                    return;
+                }
+                isCompleted = true;
+                timeoutRunnable = null;
+                cancelablesToCancel = new ArrayList<>(cancelables);
+                cancelables.clear();
+            }
+            for (ICancelable cancelable : cancelablesToCancel) {
+                cancelable.cancel();
+            }
+            expireCallback.run();
+        };
+        synchronized (this) {
+            if (isNotFinished()) {
+                timeoutHandler = handler;
+                timeoutRunnable = runnable;
+                handler.postDelayed(runnable, timeout);
+            }
+        }
+    }
+
+    /**
+     * Remove the scheduled timeout. The method must be called in synchronized block.
+     */
+    private void removeTimeout() {
+        if (timeoutRunnable != null) {
+            timeoutHandler.removeCallbacks(timeoutRunnable);
+            timeoutRunnable = null;
+        }
+    }
+
     /**
      * Add another cancelable object. If instance is in the exclusive mode, then removes previously
      * managed cancelable object.
@@ -124,6 +173,7 @@ public class CompositeCancelableTask implements ICancelable {
         synchronized (this) {
             if (isNotFinished()) {
                 isCompleted = true;
+                removeTimeout();
                 return true;
             }
             return false;
@@ -135,6 +185,7 @@ public class CompositeCancelableTask implements ICancelable {
         synchronized (this) {
             if (isNotFinished()) {
                 isCancelled = true;
+                removeTimeout();
                 for (ICancelable cancelable : cancelables) {
                     cancelable.cancel();
                 }
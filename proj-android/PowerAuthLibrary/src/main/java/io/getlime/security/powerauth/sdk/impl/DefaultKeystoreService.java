@@ -25,6 +25,7 @@ import io.getlime.security.powerauth.core.Session;
 import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
 import io.getlime.security.powerauth.exception.PowerAuthErrorException;
 import io.getlime.security.powerauth.networking.client.HttpClient;
+import io.getlime.security.powerauth.networking.client.HttpDeadline;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 import io.getlime.security.powerauth.networking.model.response.GetTemporaryKeyResponse;
 import io.getlime.security.powerauth.system.PowerAuthLog;
@@ -98,6 +99,12 @@ public class DefaultKeystoreService implements IKeystoreService, GetTemporaryKey
     @Override
     @Nullable
     public ICancelable createKeyForEncryptor(@EciesEncryptorScope int scope, @NonNull IPrivateCryptoHelper cryptoHelper, @NonNull ICreateKeyListener listener) {
+        return createKeyForEncryptor(scope, cryptoHelper, httpClient.createDefaultDeadline(), listener);
+    }
+
+    @Nullable
+    @Override
+    public ICancelable createKeyForEncryptor(@EciesEncryptorScope int scope, @NonNull IPrivateCryptoHelper cryptoHelper, @Nullable HttpDeadline deadline, @NonNull ICreateKeyListener listener) {
         if (scope == EciesEncryptorScope.ACTIVATION && !session.hasValidActivation()) {
             callbackDispatcher.dispatchCallback(() -> listener.onCreateKeyFailed(new PowerAuthErrorException(PowerAuthErrorCodes.INVALID_ACTIVATION_STATE)));
             return null;
@@ -125,7 +132,7 @@ public class DefaultKeystoreService implements IKeystoreService, GetTemporaryKey
                 public void onFailure(@NonNull Throwable failure) {
                     listener.onCreateKeyFailed(failure);
                 }
-            });
+            }, deadline);
         } finally {
             lock.unlock();
         }
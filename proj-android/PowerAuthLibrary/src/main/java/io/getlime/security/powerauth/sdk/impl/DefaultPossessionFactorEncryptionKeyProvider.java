@@ -42,6 +42,12 @@ public class DefaultPossessionFactorEncryptionKeyProvider implements IPossession
         return normalizeStringToSignatureKek(sb.toString());
     }
 
+    @Override
+    public boolean isPossessionFactorEncryptionKeyCacheable() {
+        // ANDROID_ID and the device information doesn't change while the application is running.
+        return true;
+    }
+
     /**
      * Convert provided string into possession encryption key.
      * @param keyData Source key data for possession encryption key.
@@ -19,6 +19,7 @@ package io.getlime.security.powerauth.sdk.impl;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.getlime.security.powerauth.networking.client.HttpClient;
+import io.getlime.security.powerauth.networking.client.HttpDeadline;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 import io.getlime.security.powerauth.networking.response.IServerStatusListener;
 import io.getlime.security.powerauth.networking.response.ServerStatus;
@@ -53,6 +54,12 @@ public class DefaultServerStatusProvider implements IServerStatusProvider {
     @Nullable
     @Override
     public ICancelable getServerStatus(@NonNull IServerStatusListener listener) {
+        return getServerStatus(httpClient.createDefaultDeadline(), listener);
+    }
+
+    @Nullable
+    @Override
+    public ICancelable getServerStatus(@Nullable HttpDeadline deadline, @NonNull IServerStatusListener listener) {
         final ITaskCompletion<ServerStatus> taskCompletion = new ITaskCompletion<ServerStatus>() {
             @Override
             public void onSuccess(@NonNull ServerStatus serverStatus) {
@@ -68,13 +75,13 @@ public class DefaultServerStatusProvider implements IServerStatusProvider {
             ICancelable task;
             lock.lock();
             if (getStatusTask != null) {
-                task = getStatusTask.createChildTask(taskCompletion);
+                task = getStatusTask.createChildTask(taskCompletion, deadline);
             } else {
                 task = null;
             }
             if (task == null) {
                 getStatusTask = new GetServerStatusTask(lock, callbackDispatcher, httpClient, this::onGetServerStatusTaskCompletion);
-                task = getStatusTask.createChildTask(taskCompletion);
+                task = getStatusTask.createChildTask(taskCompletion, deadline);
             }
             return task;
         } finally {
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package io.getlime.security.powerauth.sdk.impl;
+
+import android.os.Handler;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+
+import io.getlime.security.powerauth.networking.interfaces.ICancelable;
+import io.getlime.security.powerauth.system.PowerAuthLog;
+
+/**
+ * The {@code DeferredTaskScheduler} class collects deferrable background tasks, such as the periodic
+ * activation status polling, or the background refresh of the cached responses, and executes them
+ * together in one batch. This allows the cellular radio to return to its idle state between the batches.
+ * <p>
+ * The batch is executed when the batch window expires, or immediately when the network activity is
+ * reported with {@link #onNetworkActivity()}. If the network was used recently, then the radio is
+ * probably still active and the scheduled task is executed immediately. The interactive requests are
+ * never delayed by this class.
+ */
+public class DeferredTaskScheduler {
+
+    /**
+     * Default time in milliseconds, during which the radio is considered to be active after the last
+     * network activity.
+     */
+    public static final long DEFAULT_RADIO_ACTIVE_DURATION = 10_000;
+
+    private final @NonNull Handler handler;
+    private final long batchWindow;
+    private final long radioActiveDuration;
+    private final @NonNull ArrayList<DeferredTask> pendingTasks = new ArrayList<>();
+    private final @NonNull Runnable flushRunnable = this::flush;
+    private long lastNetworkActivity;
+    private boolean hasNetworkActivity;
+
+    /**
+     * Deferred task waiting for the execution.
+     */
+    private class DeferredTask implements ICancelable {
+        final @NonNull Runnable runnable;
+        boolean isCancelled;
+
+        DeferredTask(@NonNull Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (DeferredTaskScheduler.this) {
+                isCancelled = true;
+                pendingTasks.remove(this);
+                if (pendingTasks.isEmpty()) {
+                    handler.removeCallbacks(flushRunnable);
+                }
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            synchronized (DeferredTaskScheduler.this) {
+                return isCancelled;
+            }
+        }
+    }
+
+    /**
+     * Construct scheduler with the default radio active duration.
+     *
+     * @param handler Handler used to execute the batch.
+     * @param batchWindow Maximum time in milliseconds, for which the task can be deferred. If 0, then tasks are executed immediately.
+     */
+    public DeferredTaskScheduler(@NonNull Handler handler, long batchWindow) {
+        this(handler, batchWindow, DEFAULT_RADIO_ACTIVE_DURATION);
+    }
+
+    /**
+     * Construct scheduler.
+     *
+     * @param handler Handler used to execute the batch.
+     * @param batchWindow Maximum time in milliseconds, for which the task can be deferred. If 0, then tasks are executed immediately.
+     * @param radioActiveDuration Time in milliseconds, during which the radio is considered to be active after the last network activity.
+     */
+    public DeferredTaskScheduler(@NonNull Handler handler, long batchWindow, long radioActiveDuration) {
+        this.handler = handler;
+        this.batchWindow = Math.max(0, batchWindow);
+        this.radioActiveDuration = Math.max(0, radioActiveDuration);
+    }
+
+    /**
+     * Schedule the deferrable task. The task is executed immediately if the batching is disabled, or if the
+     * radio is still active after the recent network activity. Otherwise, the task is executed with the next batch,
+     * on the scheduler's handler thread.
+     *
+     * @param task Task to execute.
+     * @return {@link ICancelable} object that allows cancel the task before it's executed. The cancel doesn't
+     *         affect the task that has been already executed.
+     */
+    @NonNull
+    public ICancelable schedule(@NonNull Runnable task) {
+        synchronized (this) {
+            if (batchWindow > 0 && !isRadioActive()) {
+                final DeferredTask deferredTask = new DeferredTask(task);
+                pendingTasks.add(deferredTask);
+                if (pendingTasks.size() == 1) {
+                    handler.postDelayed(flushRunnable, batchWindow);
+                }
+                return deferredTask;
+            }
+        }
+        // Batching is disabled or the radio is active, so execute the task now.
+        task.run();
+        return new DummyCancelable();
+    }
+
+    /**
+     * Report network activity, typically when the interactive request is going to be sent. The radio
+     * is going to be active, so all deferred tasks are executed.
+     */
+    public void onNetworkActivity() {
+        synchronized (this) {
+            lastNetworkActivity = SystemClock.elapsedRealtime();
+            hasNetworkActivity = true;
+            if (pendingTasks.isEmpty()) {
+                return;
+            }
+            handler.removeCallbacks(flushRunnable);
+        }
+        handler.post(flushRunnable);
+    }
+
+    /**
+     * @return Number of tasks waiting for the execution.
+     */
+    public int getPendingTaskCount() {
+        synchronized (this) {
+            return pendingTasks.size();
+        }
+    }
+
+    /**
+     * Execute all pending tasks.
+     */
+    private void flush() {
+        final ArrayList<DeferredTask> tasksToExecute;
+        synchronized (this) {
+            handler.removeCallbacks(flushRunnable);
+            if (pendingTasks.isEmpty()) {
+                return;
+            }
+            tasksToExecute = new ArrayList<>(pendingTasks);
+            pendingTasks.clear();
+        }
+        PowerAuthLog.d("DeferredTaskScheduler: Executing %d deferred tasks.", tasksToExecute.size());
+        for (DeferredTask task : tasksToExecute) {
+            if (!task.isCancelled()) {
+                task.runnable.run();
+            }
+        }
+    }
+
+    /**
+     * The function must be called in synchronized block.
+     * @return {@code true} if the radio is probably still active after the last network activity.
+     */
+    private boolean isRadioActive() {
+        return hasNetworkActivity && SystemClock.elapsedRealtime() - lastNetworkActivity < radioActiveDuration;
+    }
+}
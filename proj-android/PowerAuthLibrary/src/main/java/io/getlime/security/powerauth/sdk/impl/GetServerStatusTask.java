@@ -62,6 +62,8 @@ public class GetServerStatusTask extends GroupedTask<ServerStatus> {
                 null,
                 new GetServerStatusEndpoint(),
                 null,
+                null,
+                null,
                 new INetworkResponseListener<ServerStatusResponse>() {
                     @Override
                     public void onNetworkResponse(@NonNull ServerStatusResponse response) {
@@ -16,6 +16,9 @@
 
 package io.getlime.security.powerauth.sdk.impl;
 
+import android.os.Handler;
+import android.os.Looper;
+
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
@@ -24,6 +27,7 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
 import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.client.HttpDeadline;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 import io.getlime.security.powerauth.system.PowerAuthLog;
 
@@ -44,6 +48,11 @@ public class GroupedTask<TResult> implements ICancelable {
     private TResult successResult;
     private Throwable failureResult;
 
+    /**
+     * Handler used for scheduling the child task deadlines, lazily created.
+     */
+    private static Handler deadlineHandler;
+
     private boolean isStarted = false;
     private boolean isFinished = false;
     private boolean isCanceled = false;
@@ -98,12 +107,26 @@ public class GroupedTask<TResult> implements ICancelable {
      * @return ICancelable instance or null if this grouped task is already finished.
      */
     public @Nullable ICancelable createChildTask(@NonNull ITaskCompletion<TResult> completion) {
+        return createChildTask(completion, null);
+    }
+
+    /**
+     * Create child task that will be associated with this grouped task. The deadline applies only to the created
+     * child task, because other child tasks may have a later deadline, or no deadline at all. Once the deadline
+     * expires, the child task is completed with the deadline exceeded failure and is removed from this grouped
+     * task. If it was the last child task, then the grouped task is automatically cancelled.
+     *
+     * @param completion Task completion.
+     * @param deadline Optional deadline of the call that created the child task.
+     * @return ICancelable instance or null if this grouped task is already finished.
+     */
+    public @Nullable ICancelable createChildTask(@NonNull ITaskCompletion<TResult> completion, @Nullable HttpDeadline deadline) {
         final ICancelable result;
         final Runnable completionTask;
         try {
             lock.lock();
             if (!isFinished) {
-                final ChildTask childTask = new ChildTask(completion);
+                final ChildTask childTask = new ChildTask(completion, deadline);
                 childTasks.add(childTask);
                 if (!isStarted && childTasks.size() == 1 && !onTaskStart()) {
                     // The task implementation failed to add a cancelable operation.
@@ -418,6 +441,16 @@ public class GroupedTask<TResult> implements ICancelable {
         return null;
     }
 
+    /**
+     * @return Handler used for scheduling the child task deadlines.
+     */
+    private static synchronized @NonNull Handler getDeadlineHandler() {
+        if (deadlineHandler == null) {
+            deadlineHandler = new Handler(Looper.getMainLooper());
+        }
+        return deadlineHandler;
+    }
+
     /**
      * Dispatch result in form of {@link Runnable} implementation with using the callback dispatcher.
      * @param runnable Runnable to execute in callback dispatcher.
@@ -437,14 +470,56 @@ public class GroupedTask<TResult> implements ICancelable {
     private class ChildTask implements ICancelable {
 
         private final ITaskCompletion<TResult> completion;
+        private final @Nullable HttpDeadline deadline;
+        private final @Nullable Runnable deadlineRunnable;
         private boolean isCanceled = false;
 
         /**
          * Initialize object with parent task and completion listener.
          * @param completion Completion to call once the task is finished.
+         * @param deadline Optional deadline of this child task.
          */
-        ChildTask(@NonNull ITaskCompletion<TResult> completion) {
+        ChildTask(@NonNull ITaskCompletion<TResult> completion, @Nullable HttpDeadline deadline) {
             this.completion = completion;
+            this.deadline = deadline;
+            if (deadline != null) {
+                this.deadlineRunnable = this::onDeadlineExceeded;
+                getDeadlineHandler().postDelayed(deadlineRunnable, deadline.getRemainingTime());
+            } else {
+                this.deadlineRunnable = null;
+            }
+        }
+
+        /**
+         * Remove the scheduled deadline.
+         */
+        private void removeDeadline() {
+            if (deadlineRunnable != null) {
+                getDeadlineHandler().removeCallbacks(deadlineRunnable);
+            }
+        }
+
+        /**
+         * Called when the deadline of this child task expires. The child task is removed from the parent task
+         * and completed with the failure.
+         */
+        private void onDeadlineExceeded() {
+            final Runnable completionTask;
+            try {
+                lock.lock();
+                if (isCanceled || !childTasks.remove(this)) {
+                    // Already completed or cancelled.
+                    return;
+                }
+                PowerAuthLog.d(taskName + "Child task deadline exceeded");
+                completionTask = childTasks.isEmpty() ? onAutomaticTaskCancel() : null;
+            } finally {
+                lock.unlock();
+            }
+            // The deadline is always set when this method is scheduled.
+            final Throwable failure = deadline.createDeadlineExceededException();
+            dispatchResult(() -> complete(failure));
+            dispatchResult(completionTask);
         }
 
         /**
@@ -456,6 +531,7 @@ public class GroupedTask<TResult> implements ICancelable {
                 lock.lock();
                 if (!isCanceled) {
                     isCanceled = true;
+                    removeDeadline();
                     completion.onSuccess(result);
                 }
             } finally {
@@ -472,6 +548,7 @@ public class GroupedTask<TResult> implements ICancelable {
                 lock.lock();
                 if (!isCanceled) {
                     isCanceled = true;
+                    removeDeadline();
                     completion.onFailure(failure);
                 }
             } finally {
@@ -485,6 +562,7 @@ public class GroupedTask<TResult> implements ICancelable {
                 lock.lock();
                 if (!isCanceled) {
                     isCanceled = true;
+                    removeDeadline();
                     removeChildTask(this);
                 }
             } finally {
@@ -19,6 +19,7 @@ package io.getlime.security.powerauth.sdk.impl;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.getlime.security.powerauth.core.EciesEncryptorScope;
+import io.getlime.security.powerauth.networking.client.HttpDeadline;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 
 /**
@@ -44,4 +45,17 @@ public interface IKeystoreService {
      */
     @Nullable
     ICancelable createKeyForEncryptor(@EciesEncryptorScope int scope, @NonNull IPrivateCryptoHelper cryptoHelper, @NonNull ICreateKeyListener listener);
+
+    /**
+     * Create a key for the requested encryptor scope, with the deadline applied to the HTTP request. If the already
+     * exist and is valid, then does nothing.
+     * @param scope The scope of the key.
+     * @param cryptoHelper Implementation of {@link IPrivateCryptoHelper} interface.
+     * @param deadline Optional deadline of the call.
+     * @param listener The listener where the result of the operation will be notified.
+     * @return Cancelable operation if communication with the server is required, or {@code null} if the result of
+     *         the call has been determined immediately.
+     */
+    @Nullable
+    ICancelable createKeyForEncryptor(@EciesEncryptorScope int scope, @NonNull IPrivateCryptoHelper cryptoHelper, @Nullable HttpDeadline deadline, @NonNull ICreateKeyListener listener);
 }
@@ -31,4 +31,14 @@ public interface IPossessionFactorEncryptionKeyProvider {
      * @return 16 bytes long encryption key that protects possession factor key.
      */
     @NonNull byte[] getPossessionFactorEncryptionKey(@NonNull Context context);
+
+    /**
+     * Determine whether the key provided by this object can be cached for the lifetime of {@code PowerAuthSDK}
+     * instance. If {@code true} is returned, then the key is calculated only once and is kept in the memory
+     * until the SDK instance is destroyed.
+     * @return {@code true} if the provided key never changes, so it can be cached.
+     */
+    default boolean isPossessionFactorEncryptionKeyCacheable() {
+        return false;
+    }
 }
@@ -18,6 +18,7 @@ package io.getlime.security.powerauth.sdk.impl;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import io.getlime.security.powerauth.networking.client.HttpDeadline;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 import io.getlime.security.powerauth.networking.response.IServerStatusListener;
 
@@ -32,4 +33,15 @@ public interface IServerStatusProvider {
      */
     @Nullable
     ICancelable getServerStatus(@NonNull IServerStatusListener listener);
+
+    /**
+     * Fetch status of the server from the server, with the deadline applied to the HTTP request.
+     * @param deadline Optional deadline of the call.
+     * @param listener The callback called when operation succeeds or fails.
+     * @return {@link ICancelable} object associated with the running HTTP request.
+     */
+    @Nullable
+    default ICancelable getServerStatus(@Nullable HttpDeadline deadline, @NonNull IServerStatusListener listener) {
+        return getServerStatus(listener);
+    }
 }
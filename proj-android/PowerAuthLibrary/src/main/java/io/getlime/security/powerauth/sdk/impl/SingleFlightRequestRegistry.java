@@ -0,0 +1,229 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.sdk.impl;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
+import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.client.HttpClient;
+import io.getlime.security.powerauth.networking.interfaces.ICancelable;
+import io.getlime.security.powerauth.networking.interfaces.IEndpointDefinition;
+import io.getlime.security.powerauth.networking.interfaces.INetworkResponseListener;
+import io.getlime.security.powerauth.sdk.PowerAuthAuthentication;
+
+/**
+ * The {@code SingleFlightRequestRegistry} class implements a keyed request coalescing on top of {@link GroupedTask}.
+ * If the same request is posted while the previous one is still pending, then both callers share one network
+ * operation and receive the same response.
+ * <p>
+ * The request is identified by the endpoint's HTTP method and relative path, and by the request key provided by
+ * the caller. The request key must reflect everything that makes the response different, such as the request
+ * object content or the authentication factors. If the authentication is provided, then the signature is calculated
+ * only once, from the authentication of the first caller.
+ */
+public class SingleFlightRequestRegistry {
+
+    private final @NonNull HttpClient httpClient;
+    private final @NonNull ReentrantLock lock;
+    private final @NonNull ICallbackDispatcher callbackDispatcher;
+    private final @NonNull HashMap<String, SharedRequestTask<?, ?>> pendingTasks = new HashMap<>();
+
+    /**
+     * Construct registry with all required parameters.
+     *
+     * @param httpClient HTTP client.
+     * @param sharedLock Reentrant lock shared between multiple PowerAuthSDK internal classes.
+     * @param callbackDispatcher Object dispatching callbacks to main thread.
+     */
+    public SingleFlightRequestRegistry(
+            @NonNull HttpClient httpClient,
+            @NonNull ReentrantLock sharedLock,
+            @NonNull ICallbackDispatcher callbackDispatcher) {
+        this.httpClient = httpClient;
+        this.lock = sharedLock;
+        this.callbackDispatcher = callbackDispatcher;
+    }
+
+    /**
+     * Post a HTTP request to the REST endpoint, or join the already pending request with the same key.
+     *
+     * @param requestKey Key that identifies the request for the given endpoint.
+     * @param object object to be serialized into POST request
+     * @param endpoint object defining the endpoint
+     * @param helper cryptographic helper
+     * @param authentication optional authentication object, if request has to be signed with PowerAuth signature.
+     * @param listener response listener
+     * @param <TRequest> type of request object
+     * @param <TResponse> type of response object
+     * @return {@link ICancelable} object which allows the caller to stop waiting for the response. The shared
+     *         network operation is cancelled once there's no caller waiting for the response.
+     */
+    @NonNull
+    public <TRequest, TResponse> ICancelable post(
+            @NonNull String requestKey,
+            @Nullable TRequest object,
+            @NonNull IEndpointDefinition<TResponse> endpoint,
+            @Nullable IPrivateCryptoHelper helper,
+            @Nullable PowerAuthAuthentication authentication,
+            @NonNull INetworkResponseListener<TResponse> listener) {
+        final String taskKey = endpoint.getHttpMethod() + " " + endpoint.getRelativePath() + "#" + requestKey;
+        final ITaskCompletion<SharedResponse<TResponse>> completion = new ITaskCompletion<SharedResponse<TResponse>>() {
+            @Override
+            public void onSuccess(@NonNull SharedResponse<TResponse> result) {
+                listener.onNetworkResponse(result.response);
+            }
+
+            @Override
+            public void onFailure(@NonNull Throwable failure) {
+                if (failure instanceof PowerAuthErrorException && ((PowerAuthErrorException) failure).getPowerAuthErrorCode() == PowerAuthErrorCodes.OPERATION_CANCELED) {
+                    listener.onCancel();
+                } else {
+                    listener.onNetworkError(failure);
+                }
+            }
+        };
+        try {
+            lock.lock();
+            ICancelable childTask = null;
+            final SharedRequestTask<?, ?> pendingTask = pendingTasks.get(taskKey);
+            if (pendingTask != null) {
+                // The key guarantees that the pending task has the same response type.
+                @SuppressWarnings("unchecked")
+                final SharedRequestTask<TRequest, TResponse> typedTask = (SharedRequestTask<TRequest, TResponse>) pendingTask;
+                childTask = typedTask.createChildTask(completion);
+            }
+            if (childTask == null) {
+                final SharedRequestTask<TRequest, TResponse> newTask = new SharedRequestTask<>(taskKey, object, endpoint, helper, authentication);
+                pendingTasks.put(taskKey, newTask);
+                childTask = newTask.createChildTask(completion);
+            }
+            if (childTask == null) {
+                // This should never happen, because the task is not started yet.
+                throw new IllegalStateException();
+            }
+            return childTask;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancel all pending requests.
+     */
+    public void cancelAllRequests() {
+        final ArrayList<SharedRequestTask<?, ?>> tasksToCancel;
+        try {
+            lock.lock();
+            tasksToCancel = new ArrayList<>(pendingTasks.values());
+            pendingTasks.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (SharedRequestTask<?, ?> task : tasksToCancel) {
+            task.cancel();
+        }
+    }
+
+    /**
+     * @return Number of pending shared requests.
+     */
+    public int getPendingRequestsCount() {
+        try {
+            lock.lock();
+            return pendingTasks.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Wrapper for the response, allowing {@link GroupedTask} to report also {@code null} responses.
+     * @param <TResponse> type of response object
+     */
+    private static class SharedResponse<TResponse> {
+        final @Nullable TResponse response;
+
+        SharedResponse(@Nullable TResponse response) {
+            this.response = response;
+        }
+    }
+
+    /**
+     * Grouped task that executes one HTTP request and reports its response to all child tasks.
+     *
+     * @param <TRequest> type of request object
+     * @param <TResponse> type of response object
+     */
+    private class SharedRequestTask<TRequest, TResponse> extends GroupedTask<SharedResponse<TResponse>> {
+
+        private final @NonNull String taskKey;
+        private final @Nullable TRequest object;
+        private final @NonNull IEndpointDefinition<TResponse> endpoint;
+        private final @Nullable IPrivateCryptoHelper helper;
+        private final @Nullable PowerAuthAuthentication authentication;
+
+        SharedRequestTask(
+                @NonNull String taskKey,
+                @Nullable TRequest object,
+                @NonNull IEndpointDefinition<TResponse> endpoint,
+                @Nullable IPrivateCryptoHelper helper,
+                @Nullable PowerAuthAuthentication authentication) {
+            super("SingleFlight(" + taskKey + ")", SingleFlightRequestRegistry.this.lock, SingleFlightRequestRegistry.this.callbackDispatcher);
+            this.taskKey = taskKey;
+            this.object = object;
+            this.endpoint = endpoint;
+            this.helper = helper;
+            this.authentication = authentication;
+        }
+
+        @Override
+        public void onGroupedTaskStart() {
+            super.onGroupedTaskStart();
+            final ICancelable cancelable = httpClient.post(object, endpoint, helper, authentication, new INetworkResponseListener<TResponse>() {
+                @Override
+                public void onNetworkResponse(@NonNull TResponse response) {
+                    complete(new SharedResponse<>(response));
+                }
+
+                @Override
+                public void onNetworkError(@NonNull Throwable throwable) {
+                    complete(throwable);
+                }
+
+                @Override
+                public void onCancel() {
+                }
+            });
+            addCancelableOperation(cancelable);
+        }
+
+        @Override
+        public void onGroupedTaskComplete(@Nullable SharedResponse<TResponse> result, @Nullable Throwable failure) {
+            super.onGroupedTaskComplete(result, failure);
+            // Called with the lock acquired.
+            if (pendingTasks.get(taskKey) == this) {
+                pendingTasks.remove(taskKey);
+            }
+        }
+    }
+}
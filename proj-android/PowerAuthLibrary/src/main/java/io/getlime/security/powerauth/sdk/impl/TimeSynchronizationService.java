@@ -21,6 +21,7 @@ import androidx.annotation.Nullable;
 import io.getlime.security.powerauth.core.ICoreTimeService;
 import io.getlime.security.powerauth.exception.PowerAuthErrorCodes;
 import io.getlime.security.powerauth.exception.PowerAuthErrorException;
+import io.getlime.security.powerauth.networking.client.HttpDeadline;
 import io.getlime.security.powerauth.networking.interfaces.ICancelable;
 import io.getlime.security.powerauth.networking.response.IServerStatusListener;
 import io.getlime.security.powerauth.networking.response.ITimeSynchronizationListener;
@@ -173,12 +174,18 @@ public class TimeSynchronizationService implements ICoreTimeService, IPowerAuthT
     @Nullable
     @Override
     public ICancelable synchronizeTime(@NonNull ITimeSynchronizationListener listener) {
+        return synchronizeTime(null, listener);
+    }
+
+    @Nullable
+    @Override
+    public ICancelable synchronizeTime(@Nullable HttpDeadline deadline, @NonNull ITimeSynchronizationListener listener) {
         if (isTimeSynchronized()) {
             callbackDispatcher.dispatchCallback(listener::onTimeSynchronizationSucceeded);
             return null;
         }
         final Object timeSynchronizationTask = startTimeSynchronizationTask();
-        return serverStatusProvider.getServerStatus(new IServerStatusListener() {
+        final IServerStatusListener statusListener = new IServerStatusListener() {
             @Override
             public void onServerStatusSucceeded(@NonNull ServerStatus serverStatus) {
                 if (!completeTimeSynchronizationTask(timeSynchronizationTask, serverStatus.getServerTime())) {
@@ -192,7 +199,11 @@ public class TimeSynchronizationService implements ICoreTimeService, IPowerAuthT
             public void onServerStatusFailed(@NonNull Throwable t) {
                 listener.onTimeSynchronizationFailed(t);
             }
-        });
+        };
+        if (deadline != null) {
+            return serverStatusProvider.getServerStatus(deadline, statusListener);
+        }
+        return serverStatusProvider.getServerStatus(statusListener);
     }
 
     @Override
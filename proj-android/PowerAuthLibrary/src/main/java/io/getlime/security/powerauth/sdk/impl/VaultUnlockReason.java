@@ -28,7 +28,7 @@ import static io.getlime.security.powerauth.sdk.impl.VaultUnlockReason.*;
  * Constants for Vault Unlock reasons.
  */
 @Retention(RetentionPolicy.SOURCE)
-@StringDef({ADD_BIOMETRY, FETCH_ENCRYPTION_KEY, SIGN_WITH_DEVICE_PRIVATE_KEY, RECOVERY_CODE})
+@StringDef({ADD_BIOMETRY, FETCH_ENCRYPTION_KEY, SIGN_WITH_DEVICE_PRIVATE_KEY, RECOVERY_CODE, VAULT_SESSION})
 public @interface VaultUnlockReason {
 
     /**
@@ -47,4 +47,8 @@ public @interface VaultUnlockReason {
      * Get recovery code is the reason for vault unlock.
      */
     String RECOVERY_CODE = "RECOVERY_CODE";
+    /**
+     * Create vault session for multiple vault operations is the reason for vault unlock.
+     */
+    String VAULT_SESSION = "VAULT_SESSION";
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.system;
+
+import androidx.annotation.NonNull;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code PowerAuthCleaner} class is a lightweight replacement for {@code java.lang.ref.Cleaner}, that is not
+ * available on all supported Android versions. The class allows you to register a cleanup action for an object
+ * that holds a native resource or a sensitive data. The action is executed exactly once, either explicitly, when
+ * the object is destroyed by the application, or from the dedicated reaper thread, once the object becomes phantom
+ * reachable.
+ * <p>
+ * Unlike {@code finalize()}, the registered objects don't need to go through the finalizer queue, so the native
+ * memory is released right after the first garbage collection that discovers the object.
+ * <p>
+ * The cleanup action must not hold a reference to the registered object, otherwise the object will never
+ * become phantom reachable.
+ */
+public final class PowerAuthCleaner {
+
+    /**
+     * The {@code Cleanable} interface represents an object and its cleanup action registered in the cleaner.
+     */
+    public interface Cleanable {
+        /**
+         * Unregister the object and execute the cleanup action. The action is executed at most once,
+         * regardless of how many times this method is called.
+         */
+        void clean();
+    }
+
+    /**
+     * The {@code NativeObjectDestructor} interface destroys a native object referenced by its handle.
+     */
+    public interface NativeObjectDestructor {
+        /**
+         * Destroy the native object.
+         * @param handle Pointer to native underlying object.
+         */
+        void destroy(long handle);
+    }
+
+    /**
+     * Queue with references to objects that are no longer reachable.
+     */
+    private static final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    /**
+     * Set of registered references. The set keeps references reachable until they're processed.
+     */
+    private static final Set<CleanableReference> registeredReferences = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    /**
+     * Number of objects cleaned by the reaper thread.
+     */
+    private static final AtomicLong leakedObjectsCount = new AtomicLong();
+    /**
+     * Cleanable returned for objects that have nothing to clean.
+     */
+    private static final Cleanable NO_OP_CLEANABLE = () -> {};
+    /**
+     * Reaper thread, created on the first registration.
+     */
+    private static volatile Thread reaperThread;
+
+    /**
+     * Private constructor, class provides only static methods.
+     */
+    private PowerAuthCleaner() {
+    }
+
+    /**
+     * Register an object and the action to run when the object becomes phantom reachable.
+     *
+     * @param object Object to monitor.
+     * @param cleanupAction Action to execute. The action must not refer to the monitored object.
+     * @return {@link Cleanable} instance that allows you to execute the action deterministically.
+     */
+    @NonNull
+    public static Cleanable register(@NonNull Object object, @NonNull Runnable cleanupAction) {
+        ensureReaperThread();
+        final CleanableReference reference = new CleanableReference(object, cleanupAction);
+        registeredReferences.add(reference);
+        return reference;
+    }
+
+    /**
+     * Register an object that owns a native object and the destructor that releases the native object
+     * when the java object becomes phantom reachable. If the handle is 0, then the object is not registered,
+     * so it's never reported as leaked, and the returned {@link Cleanable} does nothing.
+     *
+     * @param object Object that owns the native object.
+     * @param handle Pointer to native underlying object.
+     * @param destructor Destructor to call. The destructor must not refer to the owner object.
+     * @return {@link Cleanable} instance that allows you to destroy the native object deterministically.
+     */
+    @NonNull
+    public static Cleanable registerNativeObject(@NonNull Object object, final long handle, @NonNull final NativeObjectDestructor destructor) {
+        if (handle == 0) {
+            return NO_OP_CLEANABLE;
+        }
+        return register(object, () -> destructor.destroy(handle));
+    }
+
+    /**
+     * Return number of objects that were not destroyed by the application and had to be cleaned by the reaper thread.
+     * The value is useful for diagnostic purposes, for example to detect that the application doesn't destroy
+     * {@code PowerAuthAuthentication} or other objects holding sensitive information.
+     *
+     * @return Number of objects cleaned by the reaper thread since the process start.
+     */
+    public static long getLeakedObjectsCount() {
+        return leakedObjectsCount.get();
+    }
+
+    /**
+     * @return Number of objects that are registered and not cleaned yet.
+     */
+    public static int getRegisteredObjectsCount() {
+        return registeredReferences.size();
+    }
+
+    /**
+     * Start the reaper thread if it's not running yet.
+     */
+    private static void ensureReaperThread() {
+        if (reaperThread != null) {
+            return;
+        }
+        synchronized (PowerAuthCleaner.class) {
+            if (reaperThread == null) {
+                final Thread thread = new Thread(PowerAuthCleaner::reaperLoop, "PowerAuthCleaner");
+                thread.setDaemon(true);
+                thread.start();
+                reaperThread = thread;
+            }
+        }
+    }
+
+    /**
+     * Main loop of the reaper thread.
+     */
+    private static void reaperLoop() {
+        while (true) {
+            try {
+                final CleanableReference reference = (CleanableReference) queue.remove();
+                if (reference.cleanImpl()) {
+                    leakedObjectsCount.incrementAndGet();
+                }
+            } catch (InterruptedException e) {
+                // Ignore, the thread must not stop.
+            } catch (Throwable t) {
+                PowerAuthLog.e("PowerAuthCleaner: Cleanup action failed: " + t);
+            }
+        }
+    }
+
+    /**
+     * Phantom reference to the registered object, holding its cleanup action.
+     */
+    private static final class CleanableReference extends PhantomReference<Object> implements Cleanable {
+
+        private Runnable cleanupAction;
+
+        CleanableReference(@NonNull Object referent, @NonNull Runnable cleanupAction) {
+            super(referent, queue);
+            this.cleanupAction = cleanupAction;
+        }
+
+        @Override
+        public void clean() {
+            cleanImpl();
+        }
+
+        /**
+         * Unregister this reference and execute the cleanup action, if it was not executed yet.
+         * @return {@code true} if the action was executed.
+         */
+        boolean cleanImpl() {
+            final Runnable action;
+            synchronized (this) {
+                action = cleanupAction;
+                cleanupAction = null;
+            }
+            if (action == null) {
+                return false;
+            }
+            registeredReferences.remove(this);
+            clear();
+            action.run();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.system;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Class that provides timing diagnostics for expensive operations performed by PowerAuth SDK library,
+ * such as the signature calculation, ECIES encryption, KeyStore backed encryption or activation state
+ * persistence. The diagnostics is disabled by default. If disabled, then each measured operation costs
+ * only one volatile read.
+ * <p>
+ * The collected values are kept in counters and in fixed-size reservoirs of samples, so the percentiles
+ * can be estimated without keeping all measured values. Each operation has its own lock, so the snapshot
+ * is always consistent with the counters. All times are in nanoseconds.
+ */
+public class PowerAuthDiagnostics {
+
+    /**
+     * Operations measured by the diagnostics.
+     */
+    public enum Operation {
+        /**
+         * PowerAuth signature calculation with possession or biometry factor.
+         */
+        SIGNATURE,
+        /**
+         * PowerAuth signature calculation with knowledge factor. The time includes the password key derivation.
+         */
+        SIGNATURE_WITH_PASSWORD,
+        /**
+         * PowerAuth signature calculation with knowledge factor provided by the authentication session. The password
+         * key is already derived in the session, so the time doesn't include the password key derivation.
+         */
+        SIGNATURE_WITH_SESSION_PASSWORD,
+        /**
+         * ECIES request encryption.
+         */
+        ECIES_ENCRYPT,
+        /**
+         * ECIES response decryption.
+         */
+        ECIES_DECRYPT,
+        /**
+         * Keychain value encryption with Android KeyStore backed key.
+         */
+        KEYSTORE_ENCRYPT,
+        /**
+         * Keychain value decryption with Android KeyStore backed key.
+         */
+        KEYSTORE_DECRYPT,
+        /**
+         * Serialization and persistence of activation state.
+         */
+        STATE_PERSISTENCE,
+        /**
+         * Initialization of cipher for biometric authentication.
+         */
+        BIOMETRIC_CIPHER_INIT
+    }
+
+    /**
+     * The {@code OperationSnapshot} class contains values collected for one operation.
+     */
+    public static class OperationSnapshot {
+        /**
+         * Measured operation.
+         */
+        public final @NonNull Operation operation;
+        /**
+         * Number of measured executions.
+         */
+        public final long count;
+        /**
+         * Total time of all measured executions.
+         */
+        public final long totalTime;
+        /**
+         * Maximum time of one execution.
+         */
+        public final long maxTime;
+        /**
+         * Sorted reservoir of sampled execution times.
+         */
+        private final @NonNull long[] samples;
+
+        OperationSnapshot(@NonNull Operation operation, long count, long totalTime, long maxTime, @NonNull long[] samples) {
+            this.operation = operation;
+            this.count = count;
+            this.totalTime = totalTime;
+            this.maxTime = maxTime;
+            this.samples = samples;
+        }
+
+        /**
+         * @return Average time of one execution or 0 if there was no execution.
+         */
+        public long getAverageTime() {
+            return count > 0 ? totalTime / count : 0;
+        }
+
+        /**
+         * Estimate the execution time at the given percentile from the sampled values.
+         *
+         * @param percentile Percentile in range 0.0 to 100.0.
+         * @return Estimated time or 0 if there was no execution.
+         */
+        public long getPercentile(double percentile) {
+            if (samples.length == 0) {
+                return 0;
+            }
+            final double p = Math.max(0.0, Math.min(percentile, 100.0));
+            final int index = (int) Math.ceil(p / 100.0 * samples.length) - 1;
+            return samples[Math.max(0, index)];
+        }
+    }
+
+    /**
+     * Number of samples kept for each operation.
+     */
+    private static final int RESERVOIR_SIZE = 256;
+
+    /**
+     * Values collected for one operation. All values are guarded by the object's lock.
+     */
+    private static class OperationStats {
+        long count;
+        long totalTime;
+        long maxTime;
+        final long[] reservoir = new long[RESERVOIR_SIZE];
+
+        void record(long time) {
+            // The random index is chosen outside the lock, the count may be slightly outdated at that point,
+            // but that doesn't affect the sampling.
+            final long randomValue = ThreadLocalRandom.current().nextLong(Long.MAX_VALUE);
+            synchronized (this) {
+                final long n = ++count;
+                totalTime += time;
+                if (time > maxTime) {
+                    maxTime = time;
+                }
+                // Reservoir sampling, each value has the same probability to be kept.
+                if (n <= RESERVOIR_SIZE) {
+                    reservoir[(int) (n - 1)] = time;
+                } else {
+                    final long index = randomValue % n;
+                    if (index < RESERVOIR_SIZE) {
+                        reservoir[(int) index] = time;
+                    }
+                }
+            }
+        }
+
+        @NonNull
+        OperationSnapshot snapshot(@NonNull Operation operation) {
+            final long n;
+            final long total;
+            final long max;
+            final long[] samples;
+            synchronized (this) {
+                n = count;
+                total = totalTime;
+                max = maxTime;
+                samples = Arrays.copyOf(reservoir, (int) Math.min(n, RESERVOIR_SIZE));
+            }
+            Arrays.sort(samples);
+            return new OperationSnapshot(operation, n, total, max, samples);
+        }
+    }
+
+    /**
+     * Value returned from {@link #start()} when the diagnostics is disabled.
+     */
+    private static final long NOT_MEASURED = Long.MIN_VALUE;
+
+    /**
+     * Controls whether the diagnostics is enabled.
+     */
+    private static volatile boolean isEnabled = false;
+
+    /**
+     * Collected values. The array is replaced on reset.
+     */
+    private static volatile OperationStats[] stats = createStats();
+
+    /**
+     * Controls timing diagnostics of PowerAuth SDK operations.
+     * @param enabled enables or disables the diagnostics.
+     */
+    public static void setEnabled(boolean enabled) {
+        isEnabled = enabled;
+    }
+
+    /**
+     * @return true if the diagnostics is enabled.
+     */
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     * Start measuring an operation. The function is used internally by the SDK.
+     * @return Start time to be passed to {@link #stop(Operation, long)}.
+     */
+    public static long start() {
+        return isEnabled ? System.nanoTime() : NOT_MEASURED;
+    }
+
+    /**
+     * Stop measuring an operation. The function is used internally by the SDK.
+     * @param operation Measured operation.
+     * @param startTime Value returned from {@link #start()}.
+     */
+    public static void stop(@NonNull Operation operation, long startTime) {
+        if (startTime != NOT_MEASURED) {
+            stats[operation.ordinal()].record(Math.max(0, System.nanoTime() - startTime));
+        }
+    }
+
+    /**
+     * @return Map with values collected for each operation.
+     */
+    @NonNull
+    public static Map<Operation, OperationSnapshot> getSnapshot() {
+        final OperationStats[] currentStats = stats;
+        final EnumMap<Operation, OperationSnapshot> result = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            result.put(operation, currentStats[operation.ordinal()].snapshot(operation));
+        }
+        return result;
+    }
+
+    /**
+     * Remove all collected values.
+     */
+    public static void reset() {
+        stats = createStats();
+    }
+
+    /**
+     * @return New array with empty values for all operations.
+     */
+    @NonNull
+    private static OperationStats[] createStats() {
+        final OperationStats[] result = new OperationStats[Operation.values().length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new OperationStats();
+        }
+        return result;
+    }
+}
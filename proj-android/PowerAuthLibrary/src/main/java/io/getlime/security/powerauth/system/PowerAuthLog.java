@@ -16,23 +16,64 @@
 
 package io.getlime.security.powerauth.system;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * Class that provides logging facility for PowerAuth SDK library.
+ * <p>
+ * By default, the DEBUG messages are not formatted on the caller's thread. Each message is stored with its
+ * format and arguments into a bounded lock-free ring buffer and a background thread formats the message
+ * and delivers it to Logcat and to {@link #logListener}. If the buffer is full, then the message is dropped
+ * and the number of dropped messages is reported later. Use {@link #setAsynchronous(boolean)} to switch
+ * back to the synchronous logging.
+ * <p>
+ * The WARNING and ERROR messages are always formatted and delivered on the caller's thread, so they're
+ * not lost if the application crashes right after the failure, and they capture the state of arguments at
+ * the time of the failure. Such messages may therefore precede DEBUG messages that are still pending.
+ * <p>
+ * The category of the message is the prefix of the format string before the colon, for example
+ * {@code "HttpClientTask"} for {@code "HttpClientTask: Metrics listener failed"}. You can set minimum
+ * level and sampling rate for each category.
  *
  * @author Juraj Durech
  */
 public class PowerAuthLog {
 
+    /**
+     * Level of DEBUG messages.
+     */
+    public static final int LEVEL_DEBUG = 0;
+    /**
+     * Level of WARNING messages.
+     */
+    public static final int LEVEL_WARNING = 1;
+    /**
+     * Level of ERROR messages.
+     */
+    public static final int LEVEL_ERROR = 2;
+    /**
+     * Level that turns off all messages in the category.
+     */
+    public static final int LEVEL_OFF = 3;
+
     /**
      Controls whether the PowerAuth log is enabled.
      */
-    private static boolean logIsEnabled = false;
+    private static volatile boolean logIsEnabled = false;
     /**
      Controls whether the PowerAuth log is more verbose.
      */
-    private static boolean logIsVerbose = false;
+    private static volatile boolean logIsVerbose = false;
+    /**
+     Controls whether the messages are delivered on the background thread.
+     */
+    private static volatile boolean logIsAsynchronous = true;
 
     /**
      TAG constant for our messages
@@ -42,7 +83,50 @@ public class PowerAuthLog {
     /**
      * Listener that can tap into the log stream and process it on it's own.
      */
-    public @Nullable static PowerAuthLogListener logListener;
+    public @Nullable static volatile PowerAuthLogListener logListener;
+
+    /**
+     * Capacity of the buffer for pending messages.
+     */
+    private static final int BUFFER_CAPACITY = 1024;
+
+    /**
+     * Message waiting for the delivery.
+     */
+    private static class LogEvent {
+        final int level;
+        final String format;
+        final Object[] args;
+
+        LogEvent(int level, String format, Object[] args) {
+            this.level = level;
+            this.format = format;
+            this.args = args;
+        }
+    }
+
+    /**
+     * Minimum level and sampling rate for one category.
+     */
+    private static class CategoryConfig {
+        final int minimumLevel;
+        final double samplingRate;
+
+        CategoryConfig(int minimumLevel, double samplingRate) {
+            this.minimumLevel = minimumLevel;
+            this.samplingRate = samplingRate;
+        }
+    }
+
+    private static final PowerAuthLogRingBuffer<LogEvent> pendingEvents = new PowerAuthLogRingBuffer<>(BUFFER_CAPACITY);
+    private static final AtomicLong acceptedEvents = new AtomicLong();
+    private static final AtomicLong droppedEvents = new AtomicLong();
+    private static volatile long deliveredEvents;
+    private static volatile Thread drainThread;
+    private static volatile boolean drainThreadIsWaiting;
+
+    private static final ConcurrentHashMap<String, CategoryConfig> categories = new ConcurrentHashMap<>();
+    private static volatile boolean hasCategories;
 
     /**
      * Controls logging from PowerAuth classes
@@ -71,6 +155,65 @@ public class PowerAuthLog {
      */
     public static boolean isVerbose() { return logIsVerbose; }
 
+    /**
+     * Controls whether DEBUG messages are formatted and delivered on the background thread. WARNING and ERROR
+     * messages are always delivered synchronously.
+     * @param asynchronous enables or disables asynchronous logging. The default value is true.
+     */
+    public static void setAsynchronous(boolean asynchronous) {
+        if (!asynchronous) {
+            flush();
+        }
+        logIsAsynchronous = asynchronous;
+    }
+    /**
+     * @return true if DEBUG messages are formatted and delivered on the background thread.
+     */
+    public static boolean isAsynchronous() { return logIsAsynchronous; }
+
+    /**
+     * Set minimum level and sampling rate for messages in the category.
+     * @param category Category of messages, for example {@code "HttpClientTask"}.
+     * @param minimumLevel Minimum level of messages to log, one of {@code LEVEL_*} constants.
+     * @param samplingRate Rate in range 0.0 to 1.0, defining the fraction of messages to log.
+     */
+    public static void setCategoryConfiguration(@NonNull String category, int minimumLevel, double samplingRate) {
+        categories.put(category, new CategoryConfig(minimumLevel, Math.max(0.0, Math.min(samplingRate, 1.0))));
+        hasCategories = true;
+    }
+
+    /**
+     * Remove configuration for all categories.
+     */
+    public static void resetCategoryConfigurations() {
+        categories.clear();
+        hasCategories = false;
+    }
+
+    /**
+     * @return Number of messages dropped because the buffer for pending messages was full.
+     */
+    public static long getDroppedMessagesCount() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Wait until all pending messages are delivered. The function waits for one second at most.
+     */
+    public static void flush() {
+        final long accepted = acceptedEvents.get();
+        final long deadline = System.currentTimeMillis() + 1000;
+        while (deliveredEvents < accepted && drainThread != null && System.currentTimeMillis() < deadline) {
+            LockSupport.unpark(drainThread);
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
     /**
      * Adds a formatted DEBUG log message if log is enabled.
      * @param format format string, just like for {@link java.lang.String#format String.format}
@@ -79,11 +222,7 @@ public class PowerAuthLog {
      */
     public static void d(String format, Object... args) {
         if (logIsEnabled) {
-            String message = String.format(format, args);
-            android.util.Log.d(LOG_TAG, message);
-            if (logListener != null) {
-                logListener.powerAuthDebugLog(message);
-            }
+            log(LEVEL_DEBUG, format, args);
         }
     }
 
@@ -95,11 +234,7 @@ public class PowerAuthLog {
      *        string.
      */
     public static void e(String format, Object... args) {
-        String message = String.format(format, args);
-        android.util.Log.e(LOG_TAG, message);
-        if (logListener != null) {
-            logListener.powerAuthErrorLog(message);
-        }
+        log(LEVEL_ERROR, format, args);
     }
 
     /**
@@ -110,10 +245,153 @@ public class PowerAuthLog {
      *        string.
      */
     public static void w(String format, Object... args) {
-        String message = String.format(format, args);
-        android.util.Log.w(LOG_TAG, message);
-        if (logListener != null) {
-            logListener.powerAuthWarningLog(message);
+        log(LEVEL_WARNING, format, args);
+    }
+
+    // Private methods
+
+    /**
+     * Filter the message and deliver it, or put it to the buffer for pending messages. WARNING and ERROR
+     * messages are always delivered immediately.
+     * @param level Level of message.
+     * @param format Format string.
+     * @param args Arguments referenced by the format specifiers.
+     */
+    private static void log(int level, String format, Object[] args) {
+        if (hasCategories && !isAllowedInCategory(level, format)) {
+            return;
+        }
+        if (!logIsAsynchronous || level >= LEVEL_WARNING) {
+            deliver(level, format, args);
+            return;
+        }
+        if (drainThread == null) {
+            startDrainThread();
+        }
+        if (pendingEvents.offer(new LogEvent(level, format, args))) {
+            acceptedEvents.incrementAndGet();
+            if (drainThreadIsWaiting) {
+                LockSupport.unpark(drainThread);
+            }
+        } else {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    /**
+     * Determine whether the message is allowed by the configuration of its category.
+     * @param level Level of message.
+     * @param format Format string.
+     * @return {@code true} if message should be logged.
+     */
+    private static boolean isAllowedInCategory(int level, String format) {
+        final CategoryConfig config = categories.get(getCategory(format));
+        if (config == null) {
+            return true;
+        }
+        if (level < config.minimumLevel) {
+            return false;
+        }
+        return config.samplingRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < config.samplingRate;
+    }
+
+    /**
+     * Get category of the message.
+     * @param format Format string.
+     * @return Prefix of the format string before the colon or empty string if there's no such prefix.
+     */
+    @NonNull
+    private static String getCategory(String format) {
+        if (format == null) {
+            return "";
+        }
+        final int length = format.length();
+        int i = 0;
+        while (i < length) {
+            final char c = format.charAt(i);
+            if (!Character.isLetterOrDigit(c) && c != '_' && c != '.') {
+                break;
+            }
+            i++;
+        }
+        return (i > 0 && i < length && format.charAt(i) == ':') ? format.substring(0, i) : "";
+    }
+
+    /**
+     * Start the thread that delivers pending messages.
+     */
+    private static synchronized void startDrainThread() {
+        if (drainThread != null) {
+            return;
+        }
+        final Thread thread = new Thread(PowerAuthLog::drainPendingEvents, "PowerAuthLog");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        drainThread = thread;
+        thread.start();
+    }
+
+    /**
+     * Deliver pending messages. The function is executed on the drain thread.
+     */
+    private static void drainPendingEvents() {
+        long reportedDroppedEvents = 0;
+        while (true) {
+            LogEvent event = pendingEvents.poll();
+            if (event == null) {
+                final long dropped = droppedEvents.get();
+                if (dropped != reportedDroppedEvents) {
+                    deliver(LEVEL_WARNING, "PowerAuthLog: %d messages dropped because the log buffer was full.", new Object[] { dropped - reportedDroppedEvents });
+                    reportedDroppedEvents = dropped;
+                }
+                drainThreadIsWaiting = true;
+                event = pendingEvents.poll();
+                if (event == null) {
+                    LockSupport.park();
+                    drainThreadIsWaiting = false;
+                    continue;
+                }
+                drainThreadIsWaiting = false;
+            }
+            deliver(event.level, event.format, event.args);
+            deliveredEvents++;
+        }
+    }
+
+    /**
+     * Format the message and deliver it to Logcat and to the listener.
+     * @param level Level of message.
+     * @param format Format string.
+     * @param args Arguments referenced by the format specifiers.
+     */
+    private static void deliver(int level, String format, Object[] args) {
+        String message;
+        try {
+            message = (format != null && format.indexOf('%') < 0) ? format : String.format(format, args);
+        } catch (Throwable t) {
+            message = String.valueOf(format);
+        }
+        final PowerAuthLogListener listener = logListener;
+        try {
+            if (level == LEVEL_DEBUG) {
+                android.util.Log.d(LOG_TAG, message);
+                if (listener != null) {
+                    listener.powerAuthDebugLog(message);
+                }
+            } else if (level == LEVEL_WARNING) {
+                android.util.Log.w(LOG_TAG, message);
+                if (listener != null) {
+                    listener.powerAuthWarningLog(message);
+                }
+            } else {
+                android.util.Log.e(LOG_TAG, message);
+                if (listener != null) {
+                    listener.powerAuthErrorLog(message);
+                }
+            }
+        } catch (Throwable t) {
+            // The listener failed. Don't let the failure break the drain thread or the caller.
+            android.util.Log.e(LOG_TAG, "PowerAuthLog: Log listener failed: " + t);
         }
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2024 Wultra s.r.o.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package io.getlime.security.powerauth.system;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The {@code PowerAuthLogRingBuffer} class implements a bounded, lock-free ring buffer with multiple
+ * producers and a single consumer. Each slot has a sequence number that tells whether the slot is free
+ * for the producer or already filled for the consumer, so the producers never block each other and
+ * never block the consumer.
+ *
+ * @param <T> Type of stored elements.
+ */
+class PowerAuthLogRingBuffer<T> {
+
+    private final int capacity;
+    private final int mask;
+    private final @NonNull AtomicReferenceArray<T> elements;
+    private final @NonNull AtomicLongArray sequences;
+    private final @NonNull AtomicLong tail = new AtomicLong();
+    /**
+     * Position of the next element to read. Accessed only by the consumer.
+     */
+    private long head;
+
+    /**
+     * Construct the ring buffer.
+     * @param capacity Requested capacity. The value is rounded up to the nearest power of two.
+     */
+    PowerAuthLogRingBuffer(int capacity) {
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.capacity = size;
+        this.mask = size - 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add element to the buffer. The function can be called from any thread.
+     * @param element Element to add.
+     * @return {@code true} if element was added, {@code false} if the buffer is full.
+     */
+    boolean offer(@NonNull T element) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) (position & mask);
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    elements.set(index, element);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still contains an element from the previous round.
+                return false;
+            } else {
+                // Other producer already took this slot.
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Remove element from the buffer. The function must be called only from the consumer thread.
+     * @return Removed element or {@code null} if the buffer is empty.
+     */
+    @Nullable
+    T poll() {
+        final int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        final T element = elements.get(index);
+        elements.set(index, null);
+        sequences.set(index, head + capacity);
+        head++;
+        return element;
+    }
+}
@@ -798,6 +798,21 @@ namespace powerAuth
         return EC_Ok;
     }
 
+    ErrorCode Session::deriveKnowledgeUnlockKey(const cc7::ByteRange & password, cc7::ByteArray & out_key) const
+    {
+        LOCK_GUARD();
+        if (!hasValidActivation()) {
+            CC7_LOG("Session %p: DeriveKnowledgeKey: There's no valid activation.", this);
+            return EC_WrongState;
+        }
+        if (password.size() < protocol::MINIMAL_PASSWORD_LENGTH) {
+            CC7_LOG("Session %p: DeriveKnowledgeKey: The password is too short.", this);
+            return EC_WrongParam;
+        }
+        out_key = protocol::DeriveSecretKeyFromPassword(password, _pd->passwordSalt, _pd->passwordIterations);
+        return out_key.size() == protocol::SIGNATURE_KEY_SIZE ? EC_Ok : EC_Encryption;
+    }
+
     ErrorCode Session::addBiometryFactor(const std::string & c_vault_key, const SignatureUnlockKeys & keys)
     {
         LOCK_GUARD();
@@ -113,13 +113,13 @@ static cc7::ByteArray LoadAssociatedData(JNIEnv * env, jobject encryptor, std::s
 // ----------------------------------------------------------------------------
 
 //
-// private native void destroy(long handle)
+// private static native void destroy(long handle)
 //
 CC7_JNI_METHOD_PARAMS(void, destroy, jlong handle)
 {
-    auto encryptor = CC7_THIS_OBJ();
-    if (!encryptor || (jlong)encryptor != handle) {
-        CC7_ASSERT(false, "Internal object is already destroyed, or provided handle is not ours.");
+    auto encryptor = reinterpret_cast<ECIESEncryptor*>(handle);
+    if (!encryptor) {
+        CC7_ASSERT(false, "Internal object is already destroyed.");
         return;
     }
     delete encryptor;
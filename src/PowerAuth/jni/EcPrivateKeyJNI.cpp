@@ -33,13 +33,13 @@ CC7_JNI_MODULE_CLASS_BEGIN()
 // ----------------------------------------------------------------------------
 
 //
-// private native void destroy(long handle)
+// private static native void destroy(long handle)
 //
 CC7_JNI_METHOD_PARAMS(void, destroy, jlong handle)
 {
-    auto object = CC7_THIS_OBJ();
-    if (!object || (jlong)object != handle) {
-        CC7_ASSERT(false, "Internal object is already destroyed, or provided handle is not ours.");
+    auto object = reinterpret_cast<EcPrivateKeyJNI*>(handle);
+    if (!object) {
+        CC7_ASSERT(false, "Internal object is already destroyed.");
         return;
     }
     delete object;
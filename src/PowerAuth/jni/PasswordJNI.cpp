@@ -91,13 +91,13 @@ CC7_JNI_METHOD_PARAMS(jlong, initPassword, jstring strPass, jbyteArray dataPass,
 }
 
 //
-// private native void destroy(long handle)
+// private static native void destroy(long handle)
 //
 CC7_JNI_METHOD_PARAMS(void, destroy, jlong handle)
 {
-    auto pass = CC7_THIS_OBJ();
-    if (!pass || (jlong)pass != handle) {
-        CC7_ASSERT(false, "Internal object is already destroyed, or provided handle is not ours.");
+    auto pass = reinterpret_cast<Password*>(handle);
+    if (!pass) {
+        CC7_ASSERT(false, "Internal object is already destroyed.");
         return;
     }
     delete pass;
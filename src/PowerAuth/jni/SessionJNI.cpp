@@ -52,10 +52,30 @@ static bool LoadSignatureUnlockKeys(SignatureUnlockKeys & out, JNIEnv * env, job
             return false;
         }
         out.userPassword = cppPassword->passwordData();
+        jfieldID isDerivedField = env->GetFieldID(keysClazz, "userPasswordIsDerivedKey", "Z");
+        out.userPasswordIsDerivedKey = isDerivedField != NULL && env->GetBooleanField(unlockKeys, isDerivedField) == JNI_TRUE;
     }
     return true;
 }
 
+static std::string CopyVaultKeyFromJavaByteArray(JNIEnv * env, jbyteArray cVaultKey)
+{
+    cc7::ByteArray bytes = cc7::jni::CopyFromJavaByteArray(env, cVaultKey);
+    std::string result(bytes.begin(), bytes.end());
+    bytes.secureClear();
+    return result;
+}
+
+static void SecureClearVaultKey(std::string & cVaultKey)
+{
+    // Don't use std::fill, the compiler may optimize it out for the string going out of scope.
+    volatile char * p = &cVaultKey[0];
+    for (size_t i = 0; i < cVaultKey.size(); i++) {
+        p[i] = 0;
+    }
+    cVaultKey.clear();
+}
+
 
 // ----------------------------------------------------------------------------
 // Init & Destroy
@@ -85,22 +105,24 @@ CC7_JNI_METHOD_PARAMS(jlong, init, jobject setup)
 }
 
 //
-// private native void destroy(long handle)
+// private static native void destroy(long handle)
 //
 CC7_JNI_METHOD_PARAMS(void, destroy, jlong handle)
 {
-    auto session = CC7_THIS_OBJ();
-    if (!session || (jlong)session != handle) {
-        CC7_ASSERT(false, "Internal object is already destroyed, or provided handle is not ours.");
+    // The method is static, so the handle cannot be validated against the java object. The java object
+    // might be already collected when this is called from the cleanup action.
+    auto session = reinterpret_cast<Session*>(handle);
+    if (!session) {
+        CC7_ASSERT(false, "Internal object is already destroyed.");
         return;
     }
     delete session;
 }
 
 //
-// public native void resetSession(boolean fullReset)
+// private native void resetSessionImpl(boolean fullReset)
 //
-CC7_JNI_METHOD_PARAMS(void, resetSession, jboolean fullReset)
+CC7_JNI_METHOD_PARAMS(void, resetSessionImpl, jboolean fullReset)
 {
     auto session = CC7_THIS_OBJ();
     if (session) {
@@ -161,9 +183,9 @@ CC7_JNI_METHOD(jbyteArray, serializedState)
 }
 
 //
-// public native int deserializeState(byte[] state);
+// private native int deserializeStateImpl(byte[] state);
 //
-CC7_JNI_METHOD_PARAMS(jint, deserializeState, jbyteArray state)
+CC7_JNI_METHOD_PARAMS(jint, deserializeStateImpl, jbyteArray state)
 {
     auto session = CC7_THIS_OBJ();
     if (!session) {
@@ -188,27 +210,27 @@ CC7_JNI_METHOD(jboolean, canStartActivation)
 }
 
 //
-// public native boolean hasPendingActivation();
+// private native boolean hasPendingActivationImpl();
 //
-CC7_JNI_METHOD(jboolean, hasPendingActivation)
+CC7_JNI_METHOD(jboolean, hasPendingActivationImpl)
 {
     auto session = CC7_THIS_OBJ();
     return session ? session->hasPendingActivation() : false;
 }
 
 //
-// public native boolean hasValidActivation();
+// private native boolean hasValidActivationImpl();
 //
-CC7_JNI_METHOD(jboolean, hasValidActivation)
+CC7_JNI_METHOD(jboolean, hasValidActivationImpl)
 {
     auto session = CC7_THIS_OBJ();
     return session ? session->hasValidActivation() : false;
 }
 
 //
-// public native String getActivationIdentifier()
+// private native String getActivationIdentifierImpl()
 //
-CC7_JNI_METHOD(jstring, getActivationIdentifier)
+CC7_JNI_METHOD(jstring, getActivationIdentifierImpl)
 {
     auto session = CC7_THIS_OBJ();
     if (!session) {
@@ -218,9 +240,9 @@ CC7_JNI_METHOD(jstring, getActivationIdentifier)
 }
 
 //
-// public native String getActivationFingerprint()
+// private native String getActivationFingerprintImpl()
 //
-CC7_JNI_METHOD(jstring, getActivationFingerprint)
+CC7_JNI_METHOD(jstring, getActivationFingerprintImpl)
 {
     auto session = CC7_THIS_OBJ();
     if (!session) {
@@ -230,9 +252,9 @@ CC7_JNI_METHOD(jstring, getActivationFingerprint)
 }
 
 //
-// public native ActivationStep1Result startActivation(ActivationStep1Param param);
+// private native ActivationStep1Result startActivationImpl(ActivationStep1Param param);
 //
-CC7_JNI_METHOD_PARAMS(jobject, startActivation, jobject param)
+CC7_JNI_METHOD_PARAMS(jobject, startActivationImpl, jobject param)
 {
     auto session = CC7_THIS_OBJ();
     if (!session) {
@@ -260,9 +282,9 @@ CC7_JNI_METHOD_PARAMS(jobject, startActivation, jobject param)
 }
 
 //
-// public native ActivationStep2Result validateActivationResponse(ActivationStep2Param param);
+// private native ActivationStep2Result validateActivationResponseImpl(ActivationStep2Param param);
 //
-CC7_JNI_METHOD_PARAMS(jobject, validateActivationResponse, jobject param)
+CC7_JNI_METHOD_PARAMS(jobject, validateActivationResponseImpl, jobject param)
 {
     auto session = CC7_THIS_OBJ();
     if (!session || !param) {
@@ -296,9 +318,9 @@ CC7_JNI_METHOD_PARAMS(jobject, validateActivationResponse, jobject param)
 }
 
 //
-// public native int completeActivation(SignatureUnlockKeys lockKeys);
+// private native int completeActivationImpl(SignatureUnlockKeys lockKeys);
 //
-CC7_JNI_METHOD_PARAMS(jint, completeActivation, jobject lockKeys)
+CC7_JNI_METHOD_PARAMS(jint, completeActivationImpl, jobject lockKeys)
 {
     auto session = CC7_THIS_OBJ();
     if (!session || !lockKeys) {
@@ -532,9 +554,39 @@ CC7_JNI_METHOD_PARAMS(jint, changeUserPassword, jobject oldPassword, jobject new
 }
 
 //
-// public native int addBiometryFactor(String cVaultKey, SignatureUnlockKeys unlockKeys);
+// public native Password deriveKnowledgeUnlockKey(Password password);
+//
+CC7_JNI_METHOD_PARAMS(jobject, deriveKnowledgeUnlockKey, jobject password)
+{
+    auto session = CC7_THIS_OBJ();
+    if (!session || !password) {
+        CC7_ASSERT(false, "Missing param or internal handle.");
+        return NULL;
+    }
+    Password * passwordObj = GetCppPasswordFromJavaObject(env, password);
+    if (!passwordObj) {
+        return NULL;
+    }
+    // Call C++ session
+    cc7::ByteArray derivedKey;
+    if (EC_Ok != session->deriveKnowledgeUnlockKey(passwordObj->passwordData(), derivedKey)) {
+        return NULL;
+    }
+    // Keep the derived key in the native memory, wrapped in the immutable Password object.
+    auto derivedPassword = new Password();
+    derivedPassword->initAsImmutable(derivedKey);
+    derivedKey.secureClear();
+    jobject resultObject = cc7::jni::CreateJavaObject(env, CC7_JNI_MODULE_CLASS_PATH("Password"), "(J)V", (jlong)derivedPassword);
+    if (!resultObject) {
+        delete derivedPassword;
+    }
+    return resultObject;
+}
+
+//
+// private native int addBiometryFactorImpl(String cVaultKey, SignatureUnlockKeys unlockKeys);
 //
-CC7_JNI_METHOD_PARAMS(jint, addBiometryFactor, jstring cVaultKey, jobject unlockKeys)
+CC7_JNI_METHOD_PARAMS(jint, addBiometryFactorImpl, jstring cVaultKey, jobject unlockKeys)
 {
     auto session = CC7_THIS_OBJ();
     if (!session || !cVaultKey || !unlockKeys) {
@@ -552,9 +604,9 @@ CC7_JNI_METHOD_PARAMS(jint, addBiometryFactor, jstring cVaultKey, jobject unlock
 }
 
 //
-// public native boolean hasBiometryFactor();
+// private native boolean hasBiometryFactorImpl();
 //
-CC7_JNI_METHOD(jboolean, hasBiometryFactor)
+CC7_JNI_METHOD(jboolean, hasBiometryFactorImpl)
 {
     auto session = CC7_THIS_OBJ();
     if (!session) {
@@ -570,9 +622,9 @@ CC7_JNI_METHOD(jboolean, hasBiometryFactor)
 }
 
 //
-// public native int removeBiometryFactor();
+// private native int removeBiometryFactorImpl();
 //
-CC7_JNI_METHOD(jint, removeBiometryFactor)
+CC7_JNI_METHOD(jint, removeBiometryFactorImpl)
 {
     auto session = CC7_THIS_OBJ();
     if (!session) {
@@ -637,6 +689,60 @@ CC7_JNI_METHOD_PARAMS(jbyteArray, signDataWithDevicePrivateKey, jstring cVaultKe
     return cc7::jni::CopyToJavaByteArray(env, signature);
 }
 
+//
+// private native byte[] deriveCryptographicKeyFromVaultKeyBytesImpl(byte[] cVaultKey, SignatureUnlockKeys unlockKeys, long keyIndex);
+//
+CC7_JNI_METHOD_PARAMS(jbyteArray, deriveCryptographicKeyFromVaultKeyBytesImpl, jbyteArray cVaultKey, jobject unlockKeys, jlong keyIndex)
+{
+    auto session = CC7_THIS_OBJ();
+    if (!session || !cVaultKey || !unlockKeys) {
+        CC7_ASSERT(false, "Missing param or internal handle.");
+        return NULL;
+    }
+    // Load parameters into C++ objects
+    SignatureUnlockKeys cppUnlockKeys;
+    if (false == LoadSignatureUnlockKeys(cppUnlockKeys, env, unlockKeys)) {
+        return NULL;
+    }
+    std::string cppCVaultKey = CopyVaultKeyFromJavaByteArray(env, cVaultKey);
+    cc7::ByteArray derivedKey;
+    ErrorCode code = session->deriveCryptographicKeyFromVaultKey(cppCVaultKey, cppUnlockKeys, (cc7::U64)keyIndex, derivedKey);
+    SecureClearVaultKey(cppCVaultKey);
+    if (code != EC_Ok) {
+        return NULL;
+    }
+    jbyteArray result = cc7::jni::CopyToJavaByteArray(env, derivedKey);
+    derivedKey.secureClear();
+    return result;
+}
+
+//
+// private native byte[] signDataWithDevicePrivateKeyBytesImpl(byte[] cVaultKey, SignatureUnlockKeys unlockKeys, byte[] data, int signatureFormat);
+//
+CC7_JNI_METHOD_PARAMS(jbyteArray, signDataWithDevicePrivateKeyBytesImpl, jbyteArray cVaultKey, jobject unlockKeys, jbyteArray data, jint signatureFormat)
+{
+    auto session = CC7_THIS_OBJ();
+    if (!session || !cVaultKey || !unlockKeys || !data) {
+        CC7_ASSERT(false, "Missing param or internal handle.");
+        return NULL;
+    }
+    // Load parameters into C++ objects
+    cc7::ByteArray cppData   = cc7::jni::CopyFromJavaByteArray(env, data);
+    auto cppSignatureFormat  = static_cast<SignedData::SignatureFormat>(signatureFormat);
+    SignatureUnlockKeys cppUnlockKeys;
+    if (false == LoadSignatureUnlockKeys(cppUnlockKeys, env, unlockKeys)) {
+        return NULL;
+    }
+    std::string cppCVaultKey = CopyVaultKeyFromJavaByteArray(env, cVaultKey);
+    cc7::ByteArray signature;
+    ErrorCode code = session->signDataWithDevicePrivateKey(cppCVaultKey, cppUnlockKeys, cppData, cppSignatureFormat, signature);
+    SecureClearVaultKey(cppCVaultKey);
+    if (code != EC_Ok) {
+        return NULL;
+    }
+    return cc7::jni::CopyToJavaByteArray(env, signature);
+}
+
 
 // ----------------------------------------------------------------------------
 // External Encryption Key
@@ -848,9 +954,9 @@ CC7_JNI_METHOD(jboolean, hasProtocolUpgradeAvailable)
 }
 
 //
-// public native boolean hasPendingProtocolUpgrade();
+// private native boolean hasPendingProtocolUpgradeImpl();
 //
-CC7_JNI_METHOD(jboolean, hasPendingProtocolUpgrade)
+CC7_JNI_METHOD(jboolean, hasPendingProtocolUpgradeImpl)
 {
     auto session = CC7_THIS_OBJ();
     if (!session) {
@@ -876,9 +982,9 @@ CC7_JNI_METHOD(jobject, getPendingProtocolUpgradeVersion)
 }
 
 //
-// public native int startProtocolUpgrade();
+// private native int startProtocolUpgradeImpl();
 //
-CC7_JNI_METHOD(jint, startProtocolUpgrade)
+CC7_JNI_METHOD(jint, startProtocolUpgradeImpl)
 {
     auto session = CC7_THIS_OBJ();
     if (!session) {
@@ -889,9 +995,9 @@ CC7_JNI_METHOD(jint, startProtocolUpgrade)
 }
 
 //
-// public native int applyProtocolUpgradeData(ProtocolUpgradeData protocolUpgradeData);
+// private native int applyProtocolUpgradeDataImpl(ProtocolUpgradeData protocolUpgradeData);
 //
-CC7_JNI_METHOD_PARAMS(jint, applyProtocolUpgradeData, jobject md)
+CC7_JNI_METHOD_PARAMS(jint, applyProtocolUpgradeDataImpl, jobject md)
 {
     auto session = CC7_THIS_OBJ();
     if (!session) {
@@ -912,9 +1018,9 @@ CC7_JNI_METHOD_PARAMS(jint, applyProtocolUpgradeData, jobject md)
 }
 
 //
-// public native int finishProtocolUpgrade();
+// private native int finishProtocolUpgradeImpl();
 //
-CC7_JNI_METHOD(jint, finishProtocolUpgrade)
+CC7_JNI_METHOD(jint, finishProtocolUpgradeImpl)
 {
     auto session = CC7_THIS_OBJ();
     if (!session) {
@@ -121,7 +121,11 @@ namespace protocol
             result = result && (unlock.possessionUnlockKey != ZERO_IV);
         }
         if (factor & SF_Knowledge) {
-            result = result && (unlock.userPassword.size() >= MINIMAL_PASSWORD_LENGTH);
+            if (unlock.userPasswordIsDerivedKey) {
+                result = result && (unlock.userPassword.size() == SIGNATURE_KEY_SIZE);
+            } else {
+                result = result && (unlock.userPassword.size() >= MINIMAL_PASSWORD_LENGTH);
+            }
         }
         if (factor & SF_Biometry) {
             result = result && (unlock.biometryUnlockKey.size() == SIGNATURE_KEY_SIZE);
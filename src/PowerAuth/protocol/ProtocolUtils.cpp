@@ -215,6 +215,10 @@ namespace protocol
                 CC7_ASSERT(false, "salt is too small");
                 return false;
             }
+            if (keys.userPasswordIsDerivedKey) {
+                CC7_ASSERT(false, "Already derived password cannot be used to lock the knowledge key");
+                return false;
+            }
             cc7::ByteArray derived_password = DeriveSecretKeyFromPassword(keys.userPassword, *request.pbkdf2_salt, request.pbkdf2_iter);
             secret.knowledgeKey  = _EncryptSignatureKey(derived_password, request.ext_key, plain.knowledgeKey);
         }
@@ -297,7 +301,10 @@ namespace protocol
                 CC7_ASSERT(false, "salt is too small");
                 return false;
             }
-            cc7::ByteArray derived_password = DeriveSecretKeyFromPassword(keys.userPassword, *request.pbkdf2_salt, request.pbkdf2_iter);
+            // Use already derived key if provided, otherwise derive the key from the password.
+            cc7::ByteArray derived_password = keys.userPasswordIsDerivedKey
+                                                ? keys.userPassword
+                                                : DeriveSecretKeyFromPassword(keys.userPassword, *request.pbkdf2_salt, request.pbkdf2_iter);
             plain.knowledgeKey  = _DecryptSignatureKey(derived_password, request.ext_key, secret.knowledgeKey);
             if (plain.knowledgeKey.empty()) {
                 return false;